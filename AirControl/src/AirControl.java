@@ -23,8 +23,8 @@
 // during the discussion. I have violated neither the spirit nor
 // letter of this restriction.
 
-import java.io.File;
-import java.util.Scanner;
+import java.io.FileInputStream;
+import java.io.IOException;
 
 /**
  * The class containing the main method.
@@ -41,11 +41,12 @@ public class AirControl {
      *             [0] command file
      */
     public static void main(String[] args) {
-        // scanner object to parse the command file
-        Scanner sc;
+        // tokenizer to parse the command file
+        ByteTokenizer tokens;
 
         try {
-            sc = new Scanner(new File(args[0]));
+            tokens = new ByteTokenizer(
+                    new FileInputStream(args[0]).getChannel());
         }
         catch (Exception e) {
             System.out.println(e.getMessage());
@@ -56,152 +57,220 @@ public class AirControl {
         // initialize a world object
         World world = new World();
 
-        while (sc.hasNext()) {
-            String cmd = sc.next();
+        // buffer the output instead of flushing every line
+        OutputSink sink = new OutputSink();
+        try {
+            runCommands(world, tokens);
+            // done with the tokenizer object
+            tokens.close();
+        }
+        catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+        finally {
+            sink.close();
+        }
+    }
+
+    /**
+     * Execute all commands read by a tokenizer on a world.
+     * 
+     * @param  world       The world the commands act on.
+     * @param  tokens      Tokenizer over the commands.
+     * 
+     * @throws IOException If the commands can't be read.
+     */
+    private static void runCommands(World world, ByteTokenizer tokens)
+            throws IOException {
+        while (tokens.next()) {
             //
-            if (cmd.equals("print")) {
-                String target = sc.next();
-                if (target.equals("skiplist")) {
+            if (tokens.matches("print")) {
+                tokens.nextToken();
+                if (tokens.matches("skiplist")) {
                     world.printSkiplist();
                 }
-                else if (target.equals("bintree")) {
+                else if (tokens.matches("bintree")) {
                     world.printBintree();
                 }
                 else { // "object"
-                    String name = sc.next();
+                    String name = nextString(tokens);
                     world.printObject(name);
                 }
             }
-            else if (cmd.equals("rangeprint")) {
-                String start = sc.next();
-                String end = sc.next();
+            else if (tokens.matches("rangeprint")) {
+                String start = nextString(tokens);
+                String end = nextString(tokens);
                 world.printRange(start, end);
             }
-            else if (cmd.equals("collisions")) {
+            else if (tokens.matches("collisions")) {
                 world.printCollisions();
             }
-            else if (cmd.equals("delete")) {
-                String name = sc.next();
+            else if (tokens.matches("delete")) {
+                String name = nextString(tokens);
                 world.deleteObject(name);
             }
-            else if (cmd.equals("intersect")) {
-                Box box = scanBox(sc);
+            else if (tokens.matches("intersect")) {
+                Box box = scanBox(tokens);
                 world.printIntersection(box);
             }
             else { // "add"
-                String objectType = sc.next();
-                if (objectType.equals("balloon")) {
-                    world.addObject(scanBalloon(sc));
+                tokens.nextToken();
+                if (tokens.matches("balloon")) {
+                    world.addObject(scanBalloon(tokens));
                 }
-                else if (objectType.equals("airplane")) {
-                    world.addObject(scanAirplane(sc));
+                else if (tokens.matches("airplane")) {
+                    world.addObject(scanAirplane(tokens));
                 }
-                else if (objectType.equals("rocket")) {
-                    world.addObject(scanRocket(sc));
+                else if (tokens.matches("rocket")) {
+                    world.addObject(scanRocket(tokens));
                 }
-                else if (objectType.equals("drone")) {
-                    world.addObject(scanDrone(sc));
+                else if (tokens.matches("drone")) {
+                    world.addObject(scanDrone(tokens));
                 }
                 else { // "bird"
-                    world.addObject(scanBird(sc));
+                    world.addObject(scanBird(tokens));
                 }
             }
         }
-        // done with the scanner object
-        sc.close();
+    }
+
+    /**
+     * Scan the next token as a String.
+     * 
+     * @param  tokens      Tokenizer object.
+     * 
+     * @return             The token.
+     * 
+     * @throws IOException If the commands can't be read.
+     */
+    private static String nextString(ByteTokenizer tokens)
+            throws IOException {
+        tokens.nextToken();
+        return tokens.toString();
+    }
+
+    /**
+     * Scan the next token as an int.
+     * 
+     * @param  tokens      Tokenizer object.
+     * 
+     * @return             The value of the token.
+     * 
+     * @throws IOException If the commands can't be read.
+     */
+    private static int nextInt(ByteTokenizer tokens) throws IOException {
+        tokens.nextToken();
+        return tokens.toInt();
     }
 
     /**
      * Scan a box specs from a string. @see Box.java
      * 
-     * @param  sc Scanner object.
+     * @param  tokens      Tokenizer object.
+     * 
+     * @return             Box object.
      * 
-     * @return    Box object.
+     * @throws IOException If the commands can't be read.
      */
-    private static Box scanBox(Scanner sc) {
+    private static Box scanBox(ByteTokenizer tokens) throws IOException {
         int[] specs = new int[6];
-        specs[0] = sc.nextInt();
-        specs[1] = sc.nextInt();
-        specs[2] = sc.nextInt();
-        specs[3] = sc.nextInt();
-        specs[4] = sc.nextInt();
-        specs[5] = sc.nextInt();
+        specs[0] = nextInt(tokens);
+        specs[1] = nextInt(tokens);
+        specs[2] = nextInt(tokens);
+        specs[3] = nextInt(tokens);
+        specs[4] = nextInt(tokens);
+        specs[5] = nextInt(tokens);
         return new Box(specs);
     }
-
     /**
      * Scan Balloon specs from a string.
      * 
-     * @param  sc Scanner object.
+     * @param  tokens      Tokenizer object.
+     * 
+     * @return             Balloon object.
      * 
-     * @return    Balloon object.
+     * @throws IOException If the commands can't be read.
      */
-    private static Balloon scanBalloon(Scanner sc) {
-        String name = sc.next();
-        Box box = scanBox(sc);
-        String type = sc.next();
-        int ascentRate = sc.nextInt();
+    private static Balloon scanBalloon(ByteTokenizer tokens)
+            throws IOException {
+        String name = nextString(tokens);
+        Box box = scanBox(tokens);
+        String type = nextString(tokens);
+        int ascentRate = nextInt(tokens);
         return new Balloon(name, box, type, ascentRate);
     }
 
     /**
      * Scan Airplane specs from a string.
      * 
-     * @param  sc Scanner object.
+     * @param  tokens      Tokenizer object.
      * 
-     * @return    Airplane object.
+     * @return             Airplane object.
+     * 
+     * @throws IOException If the commands can't be read.
      */
-    private static Airplane scanAirplane(Scanner sc) {
-        String name = sc.next();
-        Box box = scanBox(sc);
-        String carrier = sc.next();
-        int numFlight = sc.nextInt();
-        int numEngines = sc.nextInt();
+    private static Airplane scanAirplane(ByteTokenizer tokens)
+            throws IOException {
+        String name = nextString(tokens);
+        Box box = scanBox(tokens);
+        String carrier = nextString(tokens);
+        int numFlight = nextInt(tokens);
+        int numEngines = nextInt(tokens);
         return new Airplane(name, box, carrier, numFlight, numEngines);
     }
 
     /**
      * Scan Rocket specs from a string.
      * 
-     * @param  sc Scanner object.
+     * @param  tokens      Tokenizer object.
+     * 
+     * @return             Rocket object.
      * 
-     * @return    Rocket object.
+     * @throws IOException If the commands can't be read.
      */
-    private static Rocket scanRocket(Scanner sc) {
-        String name = sc.next();
-        Box box = scanBox(sc);
-        int ascentRate = sc.nextInt();
-        double trajectory = sc.nextDouble();
+    private static Rocket scanRocket(ByteTokenizer tokens)
+            throws IOException {
+        String name = nextString(tokens);
+        Box box = scanBox(tokens);
+        int ascentRate = nextInt(tokens);
+        tokens.nextToken();
+        double trajectory = tokens.toDouble();
         return new Rocket(name, box, ascentRate, trajectory);
     }
 
     /**
      * Scan Drone specs from a string.
      * 
-     * @param  sc Scanner object.
+     * @param  tokens      Tokenizer object.
      * 
-     * @return    Drone object.
+     * @return             Drone object.
+     * 
+     * @throws IOException If the commands can't be read.
      */
-    private static Drone scanDrone(Scanner sc) {
-        String name = sc.next();
-        Box box = scanBox(sc);
-        String brand = sc.next();
-        int numEngines = sc.nextInt();
+    private static Drone scanDrone(ByteTokenizer tokens)
+            throws IOException {
+        String name = nextString(tokens);
+        Box box = scanBox(tokens);
+        String brand = nextString(tokens);
+        int numEngines = nextInt(tokens);
         return new Drone(name, box, brand, numEngines);
     }
 
     /**
      * Scan Bird specs from a string.
      * 
-     * @param  sc Scanner object.
+     * @param  tokens      Tokenizer object.
+     * 
+     * @return             Bird object.
      * 
-     * @return    Bird object.
+     * @throws IOException If the commands can't be read.
      */
-    private static Bird scanBird(Scanner sc) {
-        String name = sc.next();
-        Box box = scanBox(sc);
-        String type = sc.next();
-        int number = sc.nextInt();
+    private static Bird scanBird(ByteTokenizer tokens)
+            throws IOException {
+        String name = nextString(tokens);
+        Box box = scanBox(tokens);
+        String type = nextString(tokens);
+        int number = nextInt(tokens);
         return new Bird(name, box, type, number);
     }
 }
@@ -93,11 +93,9 @@ public class Box {
      */
     @Override
     public String toString() {
-        //@formatter:off
-        return String.format("%d %d %d %d %d %d",
-                getOrig()[DIM_X], getOrig()[DIM_Y], getOrig()[DIM_Z],
-                getWidths()[DIM_X], getWidths()[DIM_Y], getWidths()[DIM_Z]);
-        //@formatter:on
+        return getOrig()[DIM_X] + " " + getOrig()[DIM_Y] + " "
+                + getOrig()[DIM_Z] + " " + getWidths()[DIM_X] + " "
+                + getWidths()[DIM_Y] + " " + getWidths()[DIM_Z];
     }
 
 
@@ -1,3 +1,4 @@
+import java.io.IOException;
 import java.util.Random;
 
 /**
@@ -179,24 +180,43 @@ public class SkipList<K extends Comparable<K>> {
      */
     @Override
     public String toString() {
-        String result = "SkipList dump:\n";
+        StringBuilder result = new StringBuilder();
+        try {
+            appendTo(result);
+        }
+        catch (IOException e) {
+            // a StringBuilder is never closed
+        }
+        return result.toString();
+    }
+
+    /**
+     * Dump the skip list, as toString has it, without building the whole
+     * dump first.
+     * 
+     * @param  out         Where the dump is written, e.g. System.out.
+     * 
+     * @throws IOException If out can't be written.
+     */
+    public void appendTo(Appendable out) throws IOException {
+        out.append("SkipList dump:\n");
 
         int numNodesPrinted = -1; // dis-count head node printing
         SkipNode<K> currNode = head;
 
         while (currNode != null) {
-            result += "Node has depth " + (currNode.getForward().length - 1)
-                    + ", Value (";
-            result += (currNode.getValue() != null)
+            out.append("Node has depth ")
+                    .append(String.valueOf(currNode.getForward().length - 1))
+                    .append(", Value (");
+            out.append((currNode.getValue() != null)
                     ? currNode.getValue().toString()
-                    : "null";
-            result += ")\n";
+                    : "null");
+            out.append(")\n");
             ++numNodesPrinted;
             currNode = currNode.getForward()[0];
         }
-        result += numNodesPrinted + " skiplist nodes printed";
-
-        return result;
+        out.append(String.valueOf(numNodesPrinted))
+                .append(" skiplist nodes printed");
     }
 
     /**
@@ -0,0 +1,114 @@
+import student.TestCase;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test the WorkloadGenerator class.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class WorkloadGeneratorTest extends TestCase {
+    /** The command file written by the tests. */
+    private File file;
+
+    /** Sets up the tests that follow. */
+    public void setUp() {
+        file = new File(".workload.txt");
+    }
+
+    /** Removes the files written by a test. */
+    public void tearDown() {
+        file.delete();
+        new File(file.getPath() + ".crc32").delete();
+    }
+
+    /** Test that settings are checked. */
+    public void testParse() {
+        WorkloadGenerator generator = new WorkloadGenerator();
+        assertTrue(generator.parse("-clusters=4"));
+        assertTrue(generator.parse("-spread=10"));
+        assertTrue(generator.parse("-collisions=100"));
+        assertTrue(generator.parse("-maxsize=1024"));
+        assertFalse(generator.parse("-maxsize=1025"));
+        assertFalse(generator.parse("-clusters=-1"));
+        assertFalse(generator.parse("-skew=normal"));
+    }
+
+    /** Test that the boxes lie in the world, around their clusters. */
+    public void testWrite() throws Exception {
+        WorkloadGenerator generator = new WorkloadGenerator();
+        generator.parse("-ops=3000");
+        generator.parse("-keys=200");
+        generator.parse("-reads=40");
+        generator.parse("-clusters=1");
+        generator.parse("-spread=0");
+        generator.parse("-sizes=fixed");
+        generator.parse("-maxsize=16");
+        generator.parse("-collisions=1000");
+        generator.write(file);
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(lines.size(), 3000);
+        assertEquals(lines.get(999), "collisions");
+        int reads = 0;
+        String intersect = null;
+        for (String line : lines) {
+            String[] words = line.split(" ");
+            if (words[0].equals("add")) {
+                assertTrue(words[2].matches("obj\\d{3}"));
+                assertEquals(words.length, words[1].equals("airplane")
+                        ? 12 : 11);
+                for (int i = 3; i < 9; ++i) {
+                    int number = Integer.parseInt(words[i]);
+                    assertTrue(number >= 0 && number + 16 <= 1024);
+                }
+                // every box is the same, at the one cluster center
+                String box = String.join(" ",
+                        Arrays.copyOfRange(words, 3, 9));
+                assertTrue(box.endsWith(" 16 16 16"));
+                if (intersect == null) {
+                    intersect = "intersect " + box;
+                }
+                assertEquals("intersect " + box, intersect);
+            }
+            else if (!words[0].equals("delete")
+                    && !words[0].equals("collisions")) {
+                ++reads;
+                assertTrue(words[0].equals("print")
+                        || words[0].equals("rangeprint")
+                        || words[0].equals("intersect"));
+            }
+        }
+        assertEquals(reads, 1200, 100);
+        assertTrue(lines.contains(intersect));
+
+        generator.write(file);
+        assertEquals(Files.readAllLines(file.toPath()), lines);
+        generator.parse("-seed=2");
+        generator.write(file);
+        assertFalse(Files.readAllLines(file.toPath()).equals(lines));
+    }
+
+    /** Test that the expected output is checksummed and verified. */
+    public void testChecksum() throws Exception {
+        systemOut().clearHistory();
+        WorkloadGenerator.main(new String[] {file.getPath(), "-ops=300",
+            "-keys=20", "-clusters=2", "-checksum=on"});
+        assertTrue(systemOut().getHistory().contains("Wrote 300 commands"));
+        File crc = new File(file.getPath() + ".crc32");
+        String expected = Files.readAllLines(crc.toPath()).get(0);
+        assertEquals(WorkloadGenerator.runChecksum(file.getPath()),
+                expected);
+
+        systemOut().clearHistory();
+        WorkloadGenerator.main(new String[] {"-verify=" + file.getPath()});
+        assertTrue(systemOut().getHistory().contains("matches"));
+        Files.write(file.toPath(), "print object none\n".getBytes());
+        WorkloadGenerator.main(new String[] {"-verify=" + file.getPath()});
+        assertTrue(systemOut().getHistory().contains("differs"));
+    }
+}
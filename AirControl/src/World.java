@@ -1,3 +1,5 @@
+import java.io.IOException;
+
 /**
  * World object is the platform for AirControl project actions.
  * 
@@ -30,7 +32,13 @@ public class World {
 
     /** Print the skip list. */
     public void printSkiplist() {
-        System.out.println(skipList);
+        try {
+            skipList.appendTo(System.out);
+            System.out.println();
+        }
+        catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
     }
 
 
@@ -0,0 +1,96 @@
+import java.util.Random;
+
+/**
+ * Draws ranks from 0 to n - 1 with Zipfian skew: rank i is drawn with
+ * probability proportional to 1 / (i + 1)^theta, so a few low ranks are
+ * hot and the rest form a long tail. A theta of 0 draws every rank alike.
+ * The normalizing sum is computed once, in time linear in n, and each draw
+ * then takes constant time (Gray et al., "Quickly Generating Billion-Record
+ * Synthetic Databases", SIGMOD 1994).
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class ZipfGenerator {
+    /** Number of ranks. */
+    private long n;
+
+    /** The skew, from 0 to below 1. */
+    private double theta;
+
+    /** 1 / (1 - theta). */
+    private double alpha;
+
+    /** The sum of 1 / i^theta for i from 1 to n. */
+    private double zetan;
+
+    /** Constant of the inversion for ranks past the first two. */
+    private double eta;
+
+    /** The source of randomness. */
+    private Random random;
+
+    /**
+     * Construct a generator.
+     *
+     * @param n      Number of ranks, at least 1.
+     * @param theta  The skew, from 0 for uniform to below 1; 0.99 is the
+     *               usual choice for a skewed key distribution.
+     * @param random The source of randomness, e.g. seeded to reproduce a
+     *               sequence.
+     */
+    public ZipfGenerator(long n, double theta, Random random) {
+        this.n = n;
+        this.theta = theta;
+        this.random = random;
+        alpha = 1 / (1 - theta);
+        zetan = zeta(n, theta);
+        double zeta2 = zeta(Math.min(n, 2), theta);
+        eta = n < 2 ? 0
+                : (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta2 / zetan);
+    }
+
+    /**
+     * Draw a rank.
+     *
+     * @return A rank from 0 to n - 1, 0 the most likely.
+     */
+    public long next() {
+        double u = random.nextDouble();
+        double uz = u * zetan;
+        if (uz < 1) {
+            return 0;
+        }
+        if (uz < 1 + Math.pow(0.5, theta)) {
+            return 1;
+        }
+        long rank = (long) (n * Math.pow(eta * u - eta + 1, alpha));
+        return Math.min(rank, n - 1);
+    }
+
+    /**
+     * Get the number of ranks.
+     *
+     * @return n.
+     */
+    public long getRanks() {
+        return n;
+    }
+
+    /**
+     * Compute the sum of 1 / i^theta for i from 1 to count.
+     *
+     * @param  count Number of terms.
+     * @param  theta The exponent.
+     *
+     * @return       The sum.
+     */
+    private static double zeta(long count, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= count; ++i) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,222 @@
+/**
+ * Adaptive replacement cache of Megiddo and Modha. Residents are split into
+ * T1, blocks seen once recently, and T2, blocks seen at least twice. The ids
+ * of blocks evicted from them are remembered in the ghost lists B1 and B2. A
+ * request for a block remembered in B1 means T1 was too small and grows the
+ * target size p of T1; one remembered in B2 shrinks it. The policy thus tunes
+ * itself between recency and frequency and resists scans.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class ARCPolicy implements ReplacementPolicy {
+    /** Policy tag of a buffer in the free list. */
+    private static final int FREE = 0;
+
+    /** Policy tag of a buffer in T1. */
+    private static final int IN_T1 = 1;
+
+    /** Policy tag of a buffer in T2. */
+    private static final int IN_T2 = 2;
+
+    /** The number of buffers, c in the paper. */
+    private int capacity;
+
+    /** The adaptive target size of T1. */
+    private int target;
+
+    /** Buffers that never held a block. */
+    private BufferList free;
+
+    /** Residents seen once recently, the most recently used first. */
+    private BufferList t1;
+
+    /** Residents seen at least twice, the most recently used first. */
+    private BufferList t2;
+
+    /** Ids of blocks evicted from T1. */
+    private GhostList b1;
+
+    /** Ids of blocks evicted from T2. */
+    private GhostList b2;
+
+    /**
+     * Construct an ARCPolicy.
+     * 
+     * @param numBuffers The number of buffers that will be handed over.
+     */
+    ARCPolicy(int numBuffers) {
+        capacity = numBuffers;
+        target = 0;
+        free = new BufferList();
+        t1 = new BufferList();
+        t2 = new BufferList();
+        b1 = new GhostList(numBuffers);
+        b2 = new GhostList(numBuffers);
+    }
+
+    /**
+     * Hand a buffer that does not hold any block yet to the policy.
+     * 
+     * @param buffer A buffer with the block id -1.
+     */
+    @Override
+    public void addFree(Buffer buffer) {
+        buffer.setPolicyTag(FREE);
+        free.pushBack(buffer);
+    }
+
+    /**
+     * Record that a cached buffer was accessed. Any hit makes the block a
+     * frequently used one, so it moves to the front of T2.
+     * 
+     * @param buffer The buffer that was read or written.
+     */
+    @Override
+    public void recordHit(Buffer buffer) {
+        if (buffer.getPolicyTag() == IN_T1) {
+            t1.remove(buffer);
+            buffer.setPolicyTag(IN_T2);
+            t2.pushFront(buffer);
+        }
+        else {
+            t2.moveToFront(buffer);
+        }
+    }
+
+    /**
+     * Pick the buffer that will hold a block that is not cached, adapting the
+     * target size of T1 if the block is remembered in a ghost list.
+     * 
+     * @param  blockId The block id about to be loaded.
+     * 
+     * @return         The buffer to be overwritten, null if every buffer is
+     *                 pinned.
+     */
+    @Override
+    public Buffer admit(int blockId) {
+        Buffer victim;
+        if (b1.contains(blockId)) {
+            target = Math.min(capacity,
+                    target + Math.max(b2.getCount() / b1.getCount(), 1));
+            victim = replace(false);
+            if (victim == null) {
+                return null;
+            }
+            b1.remove(blockId);
+            victim.setPolicyTag(IN_T2);
+            t2.pushFront(victim);
+            return victim;
+        }
+        if (b2.contains(blockId)) {
+            target = Math.max(0,
+                    target - Math.max(b1.getCount() / b2.getCount(), 1));
+            victim = replace(true);
+            if (victim == null) {
+                return null;
+            }
+            b2.remove(blockId);
+            victim.setPolicyTag(IN_T2);
+            t2.pushFront(victim);
+            return victim;
+        }
+
+        // the block is not remembered at all
+        int sizeL1 = t1.getCount() + b1.getCount();
+        int sizeL2 = t2.getCount() + b2.getCount();
+        if (sizeL1 == capacity) {
+            if (t1.getCount() < capacity) {
+                victim = replace(false);
+                if (victim != null) {
+                    b1.removeBack();
+                }
+            }
+            else {
+                // B1 is empty, drop the LRU page of T1 without remembering it
+                victim = t1.peekBackUnpinned();
+                if (victim != null) {
+                    t1.remove(victim);
+                }
+            }
+        }
+        else {
+            victim = replace(false);
+            if (victim != null && sizeL1 + sizeL2 >= 2 * capacity) {
+                b2.removeBack();
+            }
+        }
+        if (victim == null) {
+            return null;
+        }
+        victim.setPolicyTag(IN_T1);
+        t1.pushFront(victim);
+        return victim;
+    }
+
+    /**
+     * Get the buffers in the order the policy keeps them: T2 from the most
+     * recently used, then T1 from the most recently used, then the free
+     * buffers.
+     * 
+     * @return Array of all buffers handed to the policy.
+     */
+    @Override
+    public Buffer[] getBuffers() {
+        Buffer[] result = new Buffer[t2.getCount() + t1.getCount()
+                + free.getCount()];
+        int i = 0;
+        BufferList[] lists = {t2, t1, free};
+        for (BufferList list : lists) {
+            for (Buffer buffer = list.peekFront(); buffer != null;
+                    buffer = list.following(buffer)) {
+                result[i++] = buffer;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the name of the policy.
+     * 
+     * @return The name used to pick the policy on the command line.
+     */
+    @Override
+    public String getName() {
+        return "arc";
+    }
+
+    /**
+     * Unlink a buffer to be reused, the REPLACE subroutine of the paper. A
+     * free buffer is used while there is one. Otherwise the LRU buffer of T1
+     * is evicted to B1 if T1 exceeds its target, else the LRU buffer of T2 is
+     * evicted to B2. Pinned buffers are passed over, and the other list is
+     * used if every buffer of the chosen one is pinned.
+     * 
+     * @param  inB2 True if the requested block is remembered in B2.
+     * 
+     * @return      The unlinked buffer, null if every buffer is pinned.
+     */
+    private Buffer replace(boolean inB2) {
+        Buffer victim = free.peekBack();
+        if (victim != null) {
+            free.remove(victim);
+            return victim;
+        }
+        Buffer fromT1 = t1.peekBackUnpinned();
+        Buffer fromT2 = t2.peekBackUnpinned();
+        int sizeT1 = t1.getCount();
+        boolean preferT1 = sizeT1 > 0 && (sizeT1 > target
+                || (inB2 && sizeT1 == target) || t2.isEmpty());
+        if (fromT1 != null && (preferT1 || fromT2 == null)) {
+            t1.remove(fromT1);
+            b1.pushFront(fromT1.getBlockId());
+            return fromT1;
+        }
+        if (fromT2 != null) {
+            t2.remove(fromT2);
+            b2.pushFront(fromT2.getBlockId());
+        }
+        return fromT2;
+    }
+}
@@ -0,0 +1,93 @@
+import student.TestCase;
+
+/**
+ * Test the ARCPolicy class.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class ARCPolicyTest extends TestCase {
+    /** Test that a scan does not flush blocks seen twice. */
+    public void testScanResistance() {
+        PolicyTestHelper helper = new PolicyTestHelper(new ARCPolicy(4), 4);
+        helper.access(1);
+        helper.access(2);
+        helper.access(1);
+        helper.access(2);
+        assertEquals(helper.listing(), "2 1 -1 -1");
+
+        for (int i = 100; i < 120; ++i) {
+            helper.access(i);
+        }
+        assertTrue(helper.isCached(1));
+        assertTrue(helper.isCached(2));
+        assertEquals(new ARCPolicy(1).getName(), "arc");
+    }
+
+    /** Test that ghost hits bring blocks back as frequent ones. */
+    public void testGhostHits() {
+        PolicyTestHelper helper = new PolicyTestHelper(new ARCPolicy(2), 2);
+        helper.access(1);
+        helper.access(2);
+        // 1 goes to B1
+        assertEquals(helper.access(3), 1);
+        // hit in B1 grows T1's target and loads 1 into T2
+        helper.access(1);
+        assertEquals(helper.listing(), "1 3");
+        helper.access(3);
+        // 2 in B1 again
+        helper.access(2);
+        assertTrue(helper.isCached(2));
+        helper.access(1);
+        assertTrue(helper.isCached(1));
+    }
+
+    /**
+     * Test that pinned buffers are never evicted, whether T1 or T2 is the
+     * list replacing would take from, and that the other list is used when
+     * the chosen one is pinned.
+     */
+    public void testPinned() {
+        PolicyTestHelper helper = new PolicyTestHelper(new ARCPolicy(2), 2);
+        helper.access(1);
+        helper.access(2);
+        helper.setPinned(1, true);
+        helper.setPinned(2, true);
+        assertEquals(helper.access(3), -2);
+        assertFalse(helper.isCached(3));
+        helper.setPinned(2, false);
+        assertEquals(helper.access(3), 2);
+
+        // T1 holds 2 and T2 holds 1; T1 is over its target of 0
+        helper = new PolicyTestHelper(new ARCPolicy(2), 2);
+        helper.access(1);
+        helper.access(1);
+        helper.access(2);
+        helper.setPinned(1, true);
+        helper.setPinned(2, true);
+        assertEquals(helper.access(3), -2);
+        assertFalse(helper.isCached(3));
+        assertTrue(helper.isCached(2));
+        helper.setPinned(1, false);
+        assertEquals(helper.access(3), 1);
+        assertTrue(helper.isCached(2));
+
+        // 2 goes to B1, and its hit there raises the target of T1 to 1 and
+        // evicts 1 from T2; T1 holds 3 at its target and T2 holds 2
+        helper = new PolicyTestHelper(new ARCPolicy(2), 2);
+        helper.access(1);
+        helper.access(1);
+        helper.access(2);
+        assertEquals(helper.access(3), 2);
+        assertEquals(helper.access(2), 1);
+        helper.setPinned(2, true);
+        helper.setPinned(3, true);
+        assertEquals(helper.access(4), -2);
+        assertFalse(helper.isCached(4));
+        assertTrue(helper.isCached(2));
+        helper.setPinned(3, false);
+        assertEquals(helper.access(4), 3);
+        assertTrue(helper.isCached(2));
+    }
+}
@@ -0,0 +1,115 @@
+import java.io.IOException;
+
+/**
+ * A policy deciding where a MemoryManager places records in its memory pool.
+ * The allocator keeps the free space of the pool and grows the pool when a
+ * record doesn't fit; the MemoryManager does the disk I/O through its
+ * BufferPool. Allocators differ in how much space they waste rounding up the
+ * size of a record and in how records are laid out over the blocks of the
+ * disk file.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public interface Allocator {
+
+    /**
+     * Reserve a block for data, growing the pool if nothing free fits.
+     *
+     * @param  dataSize Number of bytes to be stored.
+     *
+     * @return          A MemoryHandle of the block.
+     */
+    public MemoryHandle allocate(int dataSize);
+
+
+    /**
+     * Give a block back to the free space of the pool.
+     *
+     * @param handle A MemoryHandle returned by allocate.
+     */
+    public void free(MemoryHandle handle);
+
+
+    /**
+     * Count a block that is in use but was not allocated by this allocator,
+     * e.g. one of a store reopened from a checkpoint, in the statistics.
+     *
+     * @param handle The MemoryHandle of the block.
+     */
+    public void markUsed(MemoryHandle handle);
+
+
+    /**
+     * Get the size of the pool.
+     *
+     * @return Total number of bytes managed.
+     */
+    public int getPoolSize();
+
+
+    /**
+     * Take a snapshot of the statistics of the allocator.
+     *
+     * @return The statistics so far, not changed by later use.
+     */
+    public AllocatorStats getStats();
+
+
+    /**
+     * Write the free space of the pool, one line per size.
+     *
+     * @param  out         Where the free space is written.
+     *
+     * @throws IOException If out can't be written.
+     */
+    public void appendTo(Appendable out) throws IOException;
+
+
+    /**
+     * Get the name of the allocator.
+     *
+     * @return The name used to pick the allocator on the command line.
+     */
+    public String getName();
+
+
+    /**
+     * Set whether growing the pool goes unreported, e.g. while a log is
+     * replayed.
+     *
+     * @param quiet True to leave the messages out.
+     */
+    public void setQuiet(boolean quiet);
+
+
+    /**
+     * Create an allocator by its name. In aligned mode records no longer
+     * than a block of the disk file are never placed across a block
+     * boundary, so that each is read or written with one block access. The
+     * buddy system needs no such mode: its blocks are aligned to their own
+     * size, so a block no longer than a disk block never crosses one.
+     *
+     * @param  name      One of buddy, slab or extent.
+     * @param  poolSize  Initial size of the pool, a multiple of blockSize.
+     * @param  blockSize Size of the blocks of the disk file, a power of two.
+     * @param  aligned   True to keep records within the blocks of the disk
+     *                   file where possible.
+     *
+     * @return           A new allocator, null if the name is not recognized.
+     */
+    public static Allocator forName(String name, int poolSize, int blockSize,
+            boolean aligned) {
+        if (name.equals("buddy")) {
+            return new BuddyAllocator(poolSize);
+        }
+        if (name.equals("slab")) {
+            return new SlabAllocator(poolSize, blockSize, aligned);
+        }
+        if (name.equals("extent")) {
+            return new ExtentAllocator(poolSize, aligned ? blockSize : 0);
+        }
+        return null;
+    }
+}
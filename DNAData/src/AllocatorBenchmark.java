@@ -0,0 +1,103 @@
+import java.io.File;
+
+/**
+ * Replays DNAData command files with each allocator and reports the space
+ * the records left at the end take and the disk traffic of the replay: the
+ * bytes of data, of the blocks holding them, of the memory pool and of the
+ * data file, the space amplification (bytes of the data file per byte of
+ * data, since the pool is a power of two with every allocator), the
+ * internal and external fragmentation, the records left spanning two or
+ * more blocks of the disk file, the accesses of the replay that spanned
+ * blocks, the disk reads and writes and the time. Giving -align=on
+ * compares the allocators with records kept within blocks. The regular
+ * output of the commands is discarded while replaying.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class AllocatorBenchmark {
+    /** The allocators compared by the benchmark. */
+    private static final String[] ALLOCATORS = {"buddy", "slab", "extent"};
+
+    /**
+     * @param args [0] Number of buffers.
+     *             [1] Buffer size.
+     *             [2] Initial hash size.
+     *             [3...] The command files to be replayed, mixed with
+     *             optional settings (see DNADataOptions) that apply to
+     *             every run. The allocator setting is overridden, and the
+     *             store setting is ignored since a persistent store always
+     *             uses the buddy allocator.
+     */
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.out.println("Usage: AllocatorBenchmark <number-of-buffers> "
+                    + "<buffer-size> <initial-hash-size> [-option=value]... "
+                    + "<command-file>...");
+            return;
+        }
+        int numBuffs = Integer.parseInt(args[0]);
+        int buffSize = Integer.parseInt(args[1]);
+        int numHashSlots = Integer.parseInt(args[2]);
+
+        System.out.println(String.format("%-20s %-6s %10s %10s %10s %10s %6s"
+                + " %7s %7s %8s %10s %10s %10s %9s", "file", "alloc", "data",
+                "blocks", "pool", "file", "amp", "int%", "ext%", "spans",
+                "span-io", "reads", "writes", "millis"));
+        for (int i = 3; i < args.length; ++i) {
+            if (args[i].startsWith("-")) {
+                continue;
+            }
+            for (String allocator : ALLOCATORS) {
+                DNADataOptions options = new DNADataOptions();
+                for (int j = 3; j < args.length; ++j) {
+                    if (args[j].startsWith("-") && !options.parse(args[j])) {
+                        System.out.println("Unrecognized option |" + args[j]
+                                + "|");
+                        return;
+                    }
+                }
+                options.setAllocator(allocator);
+                options.setStore(null);
+                replay(args[i], numBuffs, buffSize, numHashSlots, options);
+            }
+        }
+    }
+
+    /**
+     * Replay one command file and print one line of results.
+     *
+     * @param fileName     The command file.
+     * @param numBuffs     Number of buffers.
+     * @param buffSize     Buffer size.
+     * @param numHashSlots Initial hash size.
+     * @param options      Optional settings of the session.
+     */
+    static void replay(String fileName, int numBuffs, int buffSize,
+            int numHashSlots, DNADataOptions options) {
+        ByteTokenizer tokens = DNADataBenchmark.openCommands(fileName);
+        if (tokens == null) {
+            return;
+        }
+
+        World world = new World(numBuffs, buffSize, numHashSlots, options);
+        long elapsed = DNADataBenchmark.runSilently(world, tokens);
+        AllocatorStats stats = world.getAllocatorStats();
+        long fileLength = world.getDataFileLength();
+        world.deleteIOfileFromDisk();
+
+        BufferPool pool = world.getBufferPool();
+        double amplification = stats.getDataBytes() == 0 ? 0
+                : (double) fileLength / stats.getDataBytes();
+        System.out.println(String.format("%-20s %-6s %10d %10d %10d %10d"
+                + " %6.2f %7.2f %7.2f %8d %10d %10d %10d %9.1f",
+                new File(fileName).getName(), options.getAllocator(),
+                stats.getDataBytes(), stats.getUsedBytes(),
+                stats.getPoolSize(), fileLength, amplification,
+                100 * stats.getInternalFragmentation(),
+                100 * stats.getExternalFragmentation(),
+                stats.getSpanningBlocks(), stats.getSpanningAccesses(),
+                pool.getDiskReads(), pool.getDiskWrites(), elapsed / 1e6));
+    }
+}
@@ -0,0 +1,371 @@
+/**
+ * Statistics of the Allocator of a memory manager, to size its pool. The
+ * allocator records its allocations, frees, splits, merges and pool
+ * doublings as they happen; a snapshot of them, taken by getStats together
+ * with the state of the free blocks at that time, is not changed by later
+ * use of the allocator.
+ *
+ * <p>Internal fragmentation is the share of the bytes of the used blocks
+ * that holds no data, since an allocator rounds the size of a block up
+ * from its data, e.g. to the next power of two. External fragmentation is
+ * the share of the free bytes outside the largest free block, i.e. how far
+ * free space is from being usable by one large allocation.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class AllocatorStats {
+    /** Number of blocks allocated. */
+    private long allocations;
+
+    /** Number of blocks freed. */
+    private long frees;
+
+    /** Number of times a free block was split. */
+    private long splits;
+
+    /** Number of times two free blocks were merged. */
+    private long merges;
+
+    /** Number of times the pool was doubled. */
+    private long doublings;
+
+    /** Number of blocks in use. */
+    private long usedBlocks;
+
+    /** Total size of the blocks in use. */
+    private long usedBytes;
+
+    /** Total size of the data in the blocks in use. */
+    private long dataBytes;
+
+    /** Size of the pool, when the snapshot was taken. */
+    private long poolSize;
+
+    /** Number of free blocks, when the snapshot was taken. */
+    private long freeBlocks;
+
+    /** Total size of the free blocks, when the snapshot was taken. */
+    private long freeBytes;
+
+    /** Size of the largest free block, when the snapshot was taken. */
+    private long largestFree;
+
+    /** Number of used blocks whose data spans blocks of the disk file. */
+    private long spanningBlocks;
+
+    /** Number of those whose data is no longer than a disk block. */
+    private long avoidableSpans;
+
+    /** Number of record reads and writes that spanned disk blocks. */
+    private long spanningAccesses;
+
+    /** Latencies of the allocations. */
+    private LatencyHistogram latency;
+
+    /** Construct statistics with nothing recorded. */
+    AllocatorStats() {
+        latency = new LatencyHistogram();
+    }
+
+    /**
+     * Record an allocation.
+     *
+     * @param blockSize Size of the block.
+     * @param dataSize  Number of bytes of data the block was allocated for.
+     * @param nanos     Time the allocation took.
+     */
+    void recordAllocation(int blockSize, int dataSize, long nanos) {
+        ++allocations;
+        latency.record(nanos);
+        recordUsed(blockSize, dataSize);
+    }
+
+    /**
+     * Record a block that is in use but was not allocated through the
+     * manager recording it, e.g. one reopened from a checkpoint.
+     *
+     * @param blockSize Size of the block.
+     * @param dataSize  Number of bytes of data in the block.
+     */
+    void recordUsed(int blockSize, int dataSize) {
+        ++usedBlocks;
+        usedBytes += blockSize;
+        dataBytes += dataSize;
+    }
+
+    /**
+     * Record that a block was freed.
+     *
+     * @param blockSize Size of the block.
+     * @param dataSize  Number of bytes of data the block held.
+     */
+    void recordFree(int blockSize, int dataSize) {
+        ++frees;
+        --usedBlocks;
+        usedBytes -= blockSize;
+        dataBytes -= dataSize;
+    }
+
+    /** Record that a free block was split. */
+    void recordSplit() {
+        ++splits;
+    }
+
+    /** Record that two free blocks were merged. */
+    void recordMerge() {
+        ++merges;
+    }
+
+    /** Record that the pool was doubled. */
+    void recordDoubling() {
+        ++doublings;
+    }
+
+    /**
+     * Take a snapshot of the statistics.
+     *
+     * @param  pool     Size of the pool.
+     * @param  blocks   Number of free blocks.
+     * @param  bytes    Total size of the free blocks.
+     * @param  largest  Size of the largest free block.
+     *
+     * @return          A copy of the statistics recorded so far with the
+     *                  state of the free blocks.
+     */
+    AllocatorStats snapshot(long pool, long blocks, long bytes,
+            long largest) {
+        AllocatorStats result = new AllocatorStats();
+        result.allocations = allocations;
+        result.frees = frees;
+        result.splits = splits;
+        result.merges = merges;
+        result.doublings = doublings;
+        result.usedBlocks = usedBlocks;
+        result.usedBytes = usedBytes;
+        result.dataBytes = dataBytes;
+        result.poolSize = pool;
+        result.freeBlocks = blocks;
+        result.freeBytes = bytes;
+        result.largestFree = largest;
+        result.latency = latency.copy();
+        return result;
+    }
+
+    /**
+     * Set the counts of records spanning blocks of the disk file, which
+     * the memory manager keeps, on a snapshot.
+     *
+     * @param blocks   Number of used blocks whose data spans disk blocks.
+     * @param avoid    Number of those whose data would fit in one.
+     * @param accesses Number of record reads and writes that spanned disk
+     *                 blocks.
+     */
+    void setSpanning(long blocks, long avoid, long accesses) {
+        spanningBlocks = blocks;
+        avoidableSpans = avoid;
+        spanningAccesses = accesses;
+    }
+
+    /**
+     * Get the number of blocks allocated.
+     *
+     * @return Number of allocations.
+     */
+    public long getAllocations() {
+        return allocations;
+    }
+
+    /**
+     * Get the number of blocks freed.
+     *
+     * @return Number of frees.
+     */
+    public long getFrees() {
+        return frees;
+    }
+
+    /**
+     * Get the number of times a free block was split.
+     *
+     * @return Number of splits.
+     */
+    public long getSplits() {
+        return splits;
+    }
+
+    /**
+     * Get the number of times two free blocks were merged.
+     *
+     * @return Number of merges.
+     */
+    public long getMerges() {
+        return merges;
+    }
+
+    /**
+     * Get the number of times the pool was doubled.
+     *
+     * @return Number of pool doublings.
+     */
+    public long getDoublings() {
+        return doublings;
+    }
+
+    /**
+     * Get the number of blocks in use.
+     *
+     * @return Number of used blocks.
+     */
+    public long getUsedBlocks() {
+        return usedBlocks;
+    }
+
+    /**
+     * Get the total size of the blocks in use.
+     *
+     * @return Number of bytes.
+     */
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Get the total size of the data in the blocks in use.
+     *
+     * @return Number of bytes.
+     */
+    public long getDataBytes() {
+        return dataBytes;
+    }
+
+    /**
+     * Get the size of the pool.
+     *
+     * @return Number of bytes.
+     */
+    public long getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Get the number of free blocks.
+     *
+     * @return Number of blocks.
+     */
+    public long getFreeBlocks() {
+        return freeBlocks;
+    }
+
+    /**
+     * Get the total size of the free blocks.
+     *
+     * @return Number of bytes.
+     */
+    public long getFreeBytes() {
+        return freeBytes;
+    }
+
+    /**
+     * Get the size of the largest free block.
+     *
+     * @return Number of bytes, 0 if no block is free.
+     */
+    public long getLargestFree() {
+        return largestFree;
+    }
+
+    /**
+     * Get the number of used blocks whose data spans blocks of the disk
+     * file, so that reading it takes more than one buffer.
+     *
+     * @return Number of blocks.
+     */
+    public long getSpanningBlocks() {
+        return spanningBlocks;
+    }
+
+    /**
+     * Get the number of used blocks whose data spans disk blocks although
+     * it is no longer than one, which aligned placement avoids.
+     *
+     * @return Number of blocks.
+     */
+    public long getAvoidableSpans() {
+        return avoidableSpans;
+    }
+
+    /**
+     * Get the number of record reads and writes that spanned disk blocks.
+     *
+     * @return Number of accesses.
+     */
+    public long getSpanningAccesses() {
+        return spanningAccesses;
+    }
+
+    /**
+     * Get the internal fragmentation.
+     *
+     * @return Share of the bytes of the used blocks that holds no data, 0
+     *         if no block is used.
+     */
+    public double getInternalFragmentation() {
+        return usedBytes == 0 ? 0 : 1 - (double) dataBytes / usedBytes;
+    }
+
+    /**
+     * Get the external fragmentation.
+     *
+     * @return Share of the free bytes outside the largest free block, 0 if
+     *         no block is free.
+     */
+    public double getExternalFragmentation() {
+        return freeBytes == 0 ? 0 : 1 - (double) largestFree / freeBytes;
+    }
+
+    /**
+     * Get the latencies of the allocations.
+     *
+     * @return The histogram, in nanoseconds.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Get a string representation of the statistics, one line per group.
+     *
+     * @return The statistics.
+     */
+    @Override
+    public String toString() {
+        return "Pool: " + poolSize + " bytes, " + freeBytes + " free in "
+                + freeBlocks + " blocks, largest " + largestFree
+                + "\nUsed: " + usedBlocks + " blocks, " + usedBytes
+                + " bytes holding " + dataBytes + " bytes of data"
+                + "\nInternal fragmentation: "
+                + percent(getInternalFragmentation())
+                + "\nExternal fragmentation: "
+                + percent(getExternalFragmentation())
+                + "\nAllocations: " + allocations + ", frees: " + frees
+                + "\nSplits: " + splits + ", merges: " + merges
+                + ", pool doublings: " + doublings
+                + "\nSpanning disk blocks: " + spanningBlocks + " blocks, "
+                + avoidableSpans + " of them avoidable, " + spanningAccesses
+                + " accesses"
+                + "\nAllocation latency: " + latency;
+    }
+
+    /**
+     * Format a share as a percentage with two decimals.
+     *
+     * @param  share The share, from 0 to 1.
+     *
+     * @return       The percentage, e.g. 12.50%.
+     */
+    private static String percent(double share) {
+        return String.format("%.2f%%", 100 * share);
+    }
+}
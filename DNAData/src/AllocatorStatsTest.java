@@ -0,0 +1,66 @@
+import student.TestCase;
+
+/**
+ * Test the AllocatorStats class.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class AllocatorStatsTest extends TestCase {
+    /** Test recording events and taking snapshots. */
+    public void testSnapshot() {
+        AllocatorStats stats = new AllocatorStats();
+        stats.recordAllocation(16, 10, 100);
+        stats.recordAllocation(8, 8, 300);
+        stats.recordUsed(4, 1);
+        stats.recordSplit();
+        stats.recordSplit();
+        stats.recordMerge();
+        stats.recordDoubling();
+
+        AllocatorStats snapshot = stats.snapshot(64, 3, 36, 32);
+        stats.recordFree(16, 10);
+        assertEquals(snapshot.getAllocations(), 2);
+        assertEquals(snapshot.getFrees(), 0);
+        assertEquals(snapshot.getSplits(), 2);
+        assertEquals(snapshot.getMerges(), 1);
+        assertEquals(snapshot.getDoublings(), 1);
+        assertEquals(snapshot.getUsedBlocks(), 3);
+        assertEquals(snapshot.getUsedBytes(), 28);
+        assertEquals(snapshot.getDataBytes(), 19);
+        assertEquals(snapshot.getPoolSize(), 64);
+        assertEquals(snapshot.getFreeBlocks(), 3);
+        assertEquals(snapshot.getFreeBytes(), 36);
+        assertEquals(snapshot.getLargestFree(), 32);
+        assertEquals(snapshot.getInternalFragmentation(), 9 / 28.0, 1e-9);
+        assertEquals(snapshot.getExternalFragmentation(), 4 / 36.0, 1e-9);
+        assertEquals(snapshot.getLatency().getCount(), 2);
+        assertEquals(snapshot.getLatency().getMax(), 300);
+
+        snapshot = stats.snapshot(64, 4, 52, 32);
+        assertEquals(snapshot.getFrees(), 1);
+        assertEquals(snapshot.getUsedBlocks(), 2);
+        assertEquals(snapshot.getUsedBytes(), 12);
+    }
+
+    /** Test the fragmentation of an empty pool and the string form. */
+    public void testToString() {
+        AllocatorStats snapshot = new AllocatorStats().snapshot(32, 1, 32,
+                32);
+        assertEquals(snapshot.getInternalFragmentation(), 0.0, 1e-9);
+        assertEquals(snapshot.getExternalFragmentation(), 0.0, 1e-9);
+        assertEquals(new AllocatorStats().snapshot(32, 0, 0, 0)
+                .getExternalFragmentation(), 0.0, 1e-9);
+        String text = snapshot.toString();
+        assertTrue(text.startsWith("Pool: 32 bytes, 32 free in 1 blocks"));
+        assertTrue(text.contains("\nInternal fragmentation: 0.00%"));
+        assertTrue(text.contains("\nAllocation latency: count 0"));
+        snapshot.setSpanning(3, 2, 7);
+        assertEquals(snapshot.getSpanningBlocks(), 3);
+        assertEquals(snapshot.getAvoidableSpans(), 2);
+        assertEquals(snapshot.getSpanningAccesses(), 7);
+        assertTrue(snapshot.toString().contains("\nSpanning disk blocks: 3 "
+                + "blocks, 2 of them avoidable, 7 accesses\nAllocation"));
+    }
+}
@@ -0,0 +1,80 @@
+import java.io.IOException;
+
+/**
+ * The disk file behind a BufferPool, addressed in blocks of the buffer size.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public interface BlockFile {
+
+    /**
+     * Read a block into a byte array. Bytes of the block that were never
+     * written may be left untouched.
+     * 
+     * @param  blockId     The id of the block to be read.
+     * @param  dest        Array of at least one block size to read into.
+     * 
+     * @throws IOException If the file can't be read.
+     */
+    public void readBlock(int blockId, byte[] dest) throws IOException;
+
+
+    /**
+     * Read a run of adjacent blocks with one positional read. Bytes past the
+     * end of the file read as zeros.
+     * 
+     * @param  firstBlockId The id of the first block of the run.
+     * @param  dest         Array to read into, count blocks long.
+     * @param  count        Number of blocks in the run.
+     * 
+     * @throws IOException  If the file can't be read.
+     */
+    public void readBlocks(int firstBlockId, byte[] dest, int count)
+            throws IOException;
+
+
+    /**
+     * Write a block from a byte array.
+     * 
+     * @param  blockId     The id of the block to be written.
+     * @param  src         Array of one block size holding the data.
+     * 
+     * @throws IOException If the file can't be written.
+     */
+    public void writeBlock(int blockId, byte[] src) throws IOException;
+
+
+    /**
+     * Write a run of adjacent blocks with one vectored write.
+     * 
+     * @param  firstBlockId The id of the first block of the run.
+     * @param  blocks       Arrays of one block size each, holding the data
+     *                      of blocks firstBlockId, firstBlockId + 1, ...
+     * @param  count        Number of blocks in the run.
+     * 
+     * @throws IOException  If the file can't be written.
+     */
+    public void writeBlocks(int firstBlockId, byte[][] blocks, int count)
+            throws IOException;
+
+
+    /**
+     * Shorten the file to a number of blocks, e.g. after the memory pool
+     * shrank. A file that is not longer is left as is.
+     * 
+     * @param  numBlocks   Number of blocks to keep.
+     * 
+     * @throws IOException If the file can't be shortened.
+     */
+    public void truncate(int numBlocks) throws IOException;
+
+
+    /**
+     * Close the file, making everything written so far durable.
+     * 
+     * @throws IOException If the file can't be closed.
+     */
+    public void close() throws IOException;
+}
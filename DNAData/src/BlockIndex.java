@@ -0,0 +1,167 @@
+/**
+ * A hash index from block ids to the buffers caching them. It uses open
+ * addressing with linear probing and backward-shift deletion, so lookups,
+ * insertions and removals run in constant expected time and no tombstones
+ * are ever left behind. The number of slots is a power of two that is at
+ * least twice the number of entries the index was sized for.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class BlockIndex {
+    /** Block id marking a free slot. Valid block ids are never negative. */
+    private static final int FREE = -1;
+
+    /** The block ids stored in the slots. */
+    private int[] keys;
+
+    /** The buffers stored in the slots. */
+    private Buffer[] values;
+
+    /** Number of entries stored. */
+    private int count;
+
+    /** Shift that keeps the top log2(slots) bits of a scrambled block id. */
+    private int shift;
+
+    /**
+     * Construct a BlockIndex.
+     *
+     * @param capacity The number of entries the index is expected to hold.
+     */
+    BlockIndex(int capacity) {
+        int numSlots = 2;
+        while (numSlots < 2 * capacity) {
+            numSlots *= 2;
+        }
+        allocate(numSlots);
+    }
+
+    /**
+     * Get the number of entries stored.
+     *
+     * @return Number of block ids present in the index.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Look up the buffer for a block id.
+     *
+     * @param  blockId The block id being looked for.
+     *
+     * @return         The buffer mapped to blockId, null if none.
+     */
+    public Buffer get(int blockId) {
+        int mask = keys.length - 1;
+        for (int slot = getHomeSlot(blockId);; slot = (slot + 1) & mask) {
+            if (keys[slot] == FREE) {
+                return null;
+            }
+            if (keys[slot] == blockId) {
+                return values[slot];
+            }
+        }
+    }
+
+    /**
+     * Map a block id to a buffer, replacing any previous mapping.
+     *
+     * @param blockId A non-negative block id.
+     * @param buffer  The buffer caching the block.
+     */
+    public void put(int blockId, Buffer buffer) {
+        if (2 * (count + 1) > keys.length) {
+            grow();
+        }
+        int mask = keys.length - 1;
+        int slot = getHomeSlot(blockId);
+        while (keys[slot] != FREE && keys[slot] != blockId) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == FREE) {
+            keys[slot] = blockId;
+            ++count;
+        }
+        values[slot] = buffer;
+    }
+
+    /**
+     * Remove the mapping of a block id.
+     *
+     * @param  blockId The block id to be removed.
+     *
+     * @return         The buffer that was mapped to blockId, null if none.
+     */
+    public Buffer remove(int blockId) {
+        int mask = keys.length - 1;
+        int slot = getHomeSlot(blockId);
+        while (keys[slot] != blockId) {
+            if (keys[slot] == FREE) {
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+        Buffer removed = values[slot];
+
+        // shift back the following entries of the cluster so that probing
+        // never needs tombstones to get past the freed slot
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != FREE;
+                next = (next + 1) & mask) {
+            int home = getHomeSlot(keys[next]);
+            // the entry may fill the hole only if its home slot is not
+            // cyclically within (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = FREE;
+        values[hole] = null;
+        --count;
+        return removed;
+    }
+
+    /**
+     * Compute the home slot of a block id. Block ids are mostly sequential so
+     * they are scrambled with a multiplicative hash and the top bits are kept.
+     *
+     * @param  blockId The block id to be hashed.
+     *
+     * @return         The home slot for blockId.
+     */
+    private int getHomeSlot(int blockId) {
+        return (blockId * 0x9E3779B9) >>> shift;
+    }
+
+    /** Double the number of slots and reinsert the present entries. */
+    private void grow() {
+        int[] oldKeys = keys;
+        Buffer[] oldValues = values;
+        allocate(2 * oldKeys.length);
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldKeys[i] != FREE) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Allocate empty slot arrays.
+     *
+     * @param numSlots Number of slots, a power of two.
+     */
+    private void allocate(int numSlots) {
+        keys = new int[numSlots];
+        values = new Buffer[numSlots];
+        count = 0;
+        shift = 32 - HelperFunctions.getLog2(numSlots);
+        for (int i = 0; i < numSlots; ++i) {
+            keys[i] = FREE;
+        }
+    }
+} // class BlockIndex
@@ -0,0 +1,60 @@
+import student.TestCase;
+
+/**
+ * Test the BlockIndex class.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class BlockIndexTest extends TestCase {
+    /** A BlockIndex object used for testing. */
+    private BlockIndex index;
+
+    /** Sets up the tests that follow. */
+    public void setUp() {
+        index = new BlockIndex(4);
+    }
+
+    /** Test the put and get methods. */
+    public void testPutGet() {
+        Buffer buf1 = new Buffer(1, 16);
+        Buffer buf2 = new Buffer(2, 16);
+        index.put(1, buf1);
+        index.put(2, buf2);
+        assertEquals(index.getCount(), 2);
+        assertSame(index.get(1), buf1);
+        assertSame(index.get(2), buf2);
+        assertNull(index.get(3));
+
+        // replacing keeps the count
+        index.put(1, buf2);
+        assertSame(index.get(1), buf2);
+        assertEquals(index.getCount(), 2);
+    }
+
+    /** Test the remove method, including shifting back of clusters. */
+    public void testRemove() {
+        Buffer[] buffers = new Buffer[100];
+        for (int i = 0; i < buffers.length; ++i) {
+            buffers[i] = new Buffer(i, 16);
+            index.put(i, buffers[i]);
+        }
+        assertEquals(index.getCount(), 100);
+
+        for (int i = 0; i < buffers.length; i += 3) {
+            assertSame(index.remove(i), buffers[i]);
+        }
+        assertNull(index.remove(0));
+
+        for (int i = 0; i < buffers.length; ++i) {
+            if (i % 3 == 0) {
+                assertNull(index.get(i));
+            }
+            else {
+                assertSame(index.get(i), buffers[i]);
+            }
+        }
+        assertEquals(index.getCount(), 66);
+    }
+}
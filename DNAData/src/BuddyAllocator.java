@@ -0,0 +1,555 @@
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The buddy system, the allocator a MemoryManager uses by default. Every
+ * block is a power of two that starts at a multiple of its size; a block is
+ * split in halves to fit a record and merged with its buddy, the other half,
+ * when both are free. Placement and freeing take O(log poolSize) steps, but
+ * a record may waste up to half of its block.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class BuddyAllocator implements Allocator {
+    /**
+     * The total number of bytes intially available to the MemoryManager object.
+     */
+    private int poolSize;
+
+    /**
+     * The free blocks of each power of two size up to poolSize, indexed by
+     * the log2 of their size. A free block's buddy is looked up in the list
+     * of its size, so splitting and merging take O(log poolSize) steps.
+     */
+    private BuddyFreeList[] blocks;
+
+    /** Statistics of the allocations, splits, merges and doublings. */
+    private AllocatorStats stats;
+
+    /** Whether growing the pool goes unreported. */
+    private boolean quiet;
+
+    /** Size the pool never shrinks below, its initial size. */
+    private int minPoolSize;
+
+    /**
+     * Construct an allocator with the whole pool free.
+     *
+     * @param poolSize Total number of bytes to start managing, a power of
+     *                 two.
+     */
+    BuddyAllocator(int poolSize) {
+        this.poolSize = poolSize;
+        stats = new AllocatorStats();
+        quiet = false;
+        minPoolSize = poolSize;
+
+        blocks = new BuddyFreeList[HelperFunctions.getLog2(this.poolSize)
+                + 1];
+
+        for (int i = 0; i < blocks.length; ++i) {
+            blocks[i] = new BuddyFreeList();
+        }
+
+        // initialize the whole block at the position 0
+        addPos(this.poolSize, 0);
+    }
+
+    /**
+     * Construct an allocator over a pool that is already in use, e.g.
+     * reopened from a checkpoint.
+     *
+     * @param poolSize      Total number of bytes managed.
+     * @param freePositions For each power of two up to poolSize, the
+     *                      positions of the free blocks of that size in
+     *                      increasing order, as given by getFreePositions.
+     * @param minPoolSize   Size the pool never shrinks below.
+     */
+    BuddyAllocator(int poolSize, int[][] freePositions, int minPoolSize) {
+        this.poolSize = poolSize;
+        stats = new AllocatorStats();
+        quiet = false;
+        this.minPoolSize = minPoolSize;
+
+        blocks = new BuddyFreeList[freePositions.length];
+        for (int i = 0; i < blocks.length; ++i) {
+            blocks[i] = new BuddyFreeList();
+            for (int pos : freePositions[i]) {
+                blocks[i].add(pos);
+            }
+        }
+    }
+
+    /**
+     * Take the smallest power of two block that holds the data off the free
+     * blocks, splitting a larger block or doubling the pool if needed.
+     *
+     * @param  dataSize Number of bytes to be stored.
+     *
+     * @return          A MemoryHandle object.
+     */
+    @Override
+    public MemoryHandle allocate(int dataSize) {
+        long start = System.nanoTime();
+        MemoryHandle handle = findBlock(dataSize);
+        stats.recordAllocation(handle.getBlockSize(), dataSize,
+                System.nanoTime() - start);
+        return handle;
+    }
+
+    /**
+     * Free a block, merging it with its buddy as long as that is free too.
+     *
+     * @param handle A MemoryHandle object.
+     */
+    @Override
+    public void free(MemoryHandle handle) {
+        // simply mark the block as free by storing
+        // the position value of the handle in
+        // the block size's position database
+        int blockInfoPos = HelperFunctions.getLog2(handle.getBlockSize());
+        stats.recordFree(handle.getBlockSize(), handle.getDataSize());
+
+        // first attempt merging buddies
+        // if it succeeds, then nothing needs to be done
+        boolean merged = mergeBuddy(handle.getBlockSize(), handle.getPos());
+
+        if (!merged) {
+            blocks[blockInfoPos].add(handle.getPos());
+        }
+    }
+
+    /**
+     * Count a block that is in use but was not allocated here.
+     *
+     * @param handle The MemoryHandle of the block.
+     */
+    @Override
+    public void markUsed(MemoryHandle handle) {
+        stats.recordUsed(handle.getBlockSize(), handle.getDataSize());
+    }
+
+    /**
+     * Getter method for the field poolSize.
+     *
+     * @return Total number of bytes being handled.
+     */
+    @Override
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Take a snapshot of the statistics: fragmentation, the largest free
+     * block, the number of splits, merges and pool doublings and the
+     * latencies of the allocations.
+     *
+     * @return The statistics so far, not changed by later use.
+     */
+    @Override
+    public AllocatorStats getStats() {
+        long freeBlocks = 0;
+        long freeBytes = 0;
+        long largest = 0;
+        for (int i = 0; i < blocks.length; ++i) {
+            if (!blocks[i].isEmpty()) {
+                long blockSize = HelperFunctions.getPower2(i);
+                freeBlocks += blocks[i].size();
+                freeBytes += blockSize * blocks[i].size();
+                largest = blockSize;
+            }
+        }
+        return stats.snapshot(poolSize, freeBlocks, freeBytes, largest);
+    }
+
+    /**
+     * Write the free blocks, one line per size with their positions.
+     *
+     * @param  out         Where the free blocks are written, e.g. System.out.
+     *
+     * @throws IOException If out can't be written.
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        boolean empty = true;
+        for (int i = 0; i < blocks.length; ++i) {
+            if (blocks[i].isEmpty()) {
+                continue;
+            }
+            if (!empty) {
+                out.append('\n');
+            }
+            out.append(String.valueOf(HelperFunctions.getPower2(i)))
+                    .append(": ");
+            blocks[i].appendTo(out);
+            empty = false;
+        }
+        if (empty) {
+            out.append("No free blocks are available.");
+        }
+    }
+
+    /**
+     * Get the name of the allocator.
+     *
+     * @return "buddy".
+     */
+    @Override
+    public String getName() {
+        return "buddy";
+    }
+
+    /**
+     * Set whether growing the pool goes unreported.
+     *
+     * @param quiet True to leave the messages out.
+     */
+    @Override
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    /**
+     * Get the positions of the free blocks.
+     *
+     * @return For each power of two up to the pool size, the positions of
+     *         the free blocks of that size in increasing order.
+     */
+    int[][] getFreePositions() {
+        int[][] freePositions = new int[blocks.length][];
+        for (int i = 0; i < blocks.length; ++i) {
+            freePositions[i] = blocks[i].toArray();
+        }
+        return freePositions;
+    }
+
+    /**
+     * Check if compacting the pool would pay off: free space is at least as
+     * fragmented as a threshold, and compaction would either let the pool
+     * shrink to a quarter or less, which leaves room to grow before it
+     * doubles again, or make room for a block that would otherwise double
+     * it.
+     *
+     * @param  dataSize  Number of bytes about to be stored, -1 if none.
+     * @param  threshold Percentage of the free bytes outside the largest
+     *                   free block at which compaction is considered.
+     *
+     * @return           True if the pool should be compacted.
+     */
+    boolean needsCompaction(int dataSize, int threshold) {
+        long freeBytes = 0;
+        int largest = 0;
+        for (int i = 0; i < blocks.length; ++i) {
+            if (!blocks[i].isEmpty()) {
+                largest = HelperFunctions.getPower2(i);
+                freeBytes += (long) largest * blocks[i].size();
+            }
+        }
+        if (100 * (freeBytes - largest) < threshold * freeBytes) {
+            return false;
+        }
+        int usedBytes = (int) (poolSize - freeBytes);
+        if (4L * getCompactedSize(usedBytes) <= poolSize) {
+            return true;
+        }
+        if (dataSize < 0) {
+            return false;
+        }
+        int blockSize = Integer.highestOneBit(Math.max(dataSize, 1));
+        blockSize = blockSize < dataSize ? 2 * blockSize : blockSize;
+        return blockSize > largest
+                && blockSize <= getLargestFree(usedBytes, poolSize);
+    }
+
+    /**
+     * Lay used blocks out end to end from position 0, largest first and in
+     * the order of their positions among blocks of a size. Each block then
+     * starts at a multiple of its size, as a buddy block must, and there is
+     * no free space between them.
+     *
+     * @param  handles The handles of the used blocks.
+     *
+     * @return         Their handles in the dense layout, in the same order.
+     */
+    static MemoryHandle[] getDenseLayout(MemoryHandle[] handles) {
+        Integer[] order = new Integer[handles.length];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int bySize = Integer.compare(handles[b].getBlockSize(),
+                    handles[a].getBlockSize());
+            return bySize != 0 ? bySize
+                    : Integer.compare(handles[a].getPos(),
+                            handles[b].getPos());
+        });
+        MemoryHandle[] dense = new MemoryHandle[handles.length];
+        int pos = 0;
+        for (int i : order) {
+            dense[i] = new MemoryHandle(pos, handles[i].getBlockSize(),
+                    handles[i].getDataSize());
+            pos += handles[i].getBlockSize();
+        }
+        return dense;
+    }
+
+    /**
+     * Get the size of the pool once compacted.
+     *
+     * @param  usedBytes Total size of the used blocks.
+     *
+     * @return           The smallest power of two that is at least
+     *                   usedBytes and minPoolSize, or poolSize if smaller.
+     */
+    int getCompactedSize(int usedBytes) {
+        int size = Math.max(usedBytes, minPoolSize);
+        int compacted = Integer.highestOneBit(Math.max(size, 1));
+        compacted = compacted < size ? 2 * compacted : compacted;
+        return Math.min(compacted, poolSize);
+    }
+
+    /**
+     * Change the size of the pool and make the free lists hold the free
+     * space around a set of used blocks, split into the largest blocks that
+     * start at multiples of their sizes, so that no two free buddies are
+     * left unmerged.
+     *
+     * @param size The new size of the pool, a power of two.
+     * @param used The handles of all of the used blocks.
+     */
+    void rebuild(int size, MemoryHandle[] used) {
+        poolSize = size;
+        blocks = Arrays.copyOf(blocks, HelperFunctions.getLog2(size) + 1);
+        for (int i = 0; i < blocks.length; ++i) {
+            blocks[i] = new BuddyFreeList();
+        }
+        MemoryHandle[] sorted = used.clone();
+        Arrays.sort(sorted);
+        int from = 0;
+        for (int i = 0; i <= sorted.length; ++i) {
+            int to = i < sorted.length ? sorted[i].getPos() : poolSize;
+            while (from < to) {
+                int blockSize = getFreeBlockSize(from, to);
+                addPos(blockSize, from);
+                from += blockSize;
+            }
+            if (i < sorted.length) {
+                from = to + sorted[i].getBlockSize();
+            }
+        }
+    }
+
+    /**
+     * Take a free block for data off the free blocks database, splitting a
+     * larger block or doubling the pool if needed.
+     *
+     * @param  dataSize Number of bytes to be stored.
+     *
+     * @return          A MemoryHandle object.
+     */
+    private MemoryHandle findBlock(int dataSize) {
+        // find an entry in the blocks array
+        // that corresponds to the memory block of size
+        // that is required to store the received bytes
+        int minBlockPos = HelperFunctions.getLog2(dataSize);
+
+        // get rid of under estimation
+        int usedBlockSize = HelperFunctions.getPower2(minBlockPos);
+        minBlockPos = dataSize > usedBlockSize ? minBlockPos + 1 : minBlockPos;
+        usedBlockSize = HelperFunctions.getPower2(minBlockPos);
+
+        // usedBlockPos is the position in the blocks array, the block
+        // corresponding to which is used to either store the data in case it is
+        // at least one free entry, or split until we get a free block of
+        // minimum size in the database
+        int usedBlockPos = minBlockPos;
+        //
+        // we want to store bytes in the computed minBlockPos
+        // however we may not have a free chunk of memory
+        // of that particular size
+        while (usedBlockPos < blocks.length) {
+            if (!blocks[usedBlockPos].isEmpty()) {
+                break;
+            }
+            ++usedBlockPos;
+        }
+
+        if (usedBlockPos >= blocks.length) {
+            // even the largest memory block is too small for our data
+            // double the pool size and call storeBytes recursively
+            doublePoolSize();
+            return findBlock(dataSize);
+        }
+
+        // gets the lowest free position to be used
+        int insertionPos = blocks[usedBlockPos].poll();
+
+        // splitting is required if the block was different from first
+        // calculated
+        if (usedBlockPos > minBlockPos) {
+            splitBlock(insertionPos, HelperFunctions.getPower2(usedBlockPos),
+                    usedBlockSize);
+        }
+
+        // creating the memory handle to return
+        return new MemoryHandle(insertionPos, usedBlockSize, dataSize);
+    }
+
+    /**
+     * Get the size of the largest block a free range splits into, the range
+     * being split into the largest blocks that start at multiples of their
+     * sizes.
+     *
+     * @param  from Start of the range.
+     * @param  to   End of the range, exclusive.
+     *
+     * @return      Size of the largest block, 0 if the range is empty.
+     */
+    private static int getLargestFree(int from, int to) {
+        int largest = 0;
+        while (from < to) {
+            int size = getFreeBlockSize(from, to);
+            largest = Math.max(largest, size);
+            from += size;
+        }
+        return largest;
+    }
+
+    /**
+     * Get the size of the largest block that starts at a position of a free
+     * range, at a multiple of its size, and ends within the range.
+     *
+     * @param  from Start of the range.
+     * @param  to   End of the range, exclusive.
+     *
+     * @return      Size of the block, a power of two.
+     */
+    private static int getFreeBlockSize(int from, int to) {
+        int size = from == 0 ? Integer.highestOneBit(to)
+                : Integer.lowestOneBit(from);
+        while (from + size > to) {
+            size /= 2;
+        }
+        return size;
+    }
+
+    /**
+     * Add a position of a memory block.
+     *
+     * @param blockSize Size of the memory block, which is always a power of
+     *                  two.
+     * @param pos       Position in the bytes array where the block starts.
+     */
+    private void addPos(int blockSize, int pos) {
+        int blockInfoPos = HelperFunctions.getLog2(blockSize);
+        this.blocks[blockInfoPos].add(pos);
+    }
+
+    /**
+     * Remove a position of a memory block.
+     *
+     * @param  blockSize Size of the memory block, which is always a power of
+     *                   two.
+     * @param  pos       Position in the bytes array where the block starts.
+     *
+     * @return           True if position removed, false otherwise.
+     */
+    private boolean removePos(int blockSize, int pos) {
+        int blockInfoPos = HelperFunctions.getLog2(blockSize);
+        return blocks[blockInfoPos].remove(pos);
+    }
+
+    /**
+     * Split a memory block, already taken off the free blocks database, into
+     * halves until desired size is achieved. The upper halves are recorded
+     * as free and the lower one of targetSize is left to the caller.
+     *
+     * @param blockPos   Position of the memory block to be split up.
+     *
+     * @param blockSize  Size of the memory block that is being split up.
+     *
+     * @param targetSize Memory block size desired to be obtained by splitting
+     *                   up.
+     */
+    private void splitBlock(int blockPos, int blockSize, int targetSize) {
+        while (blockSize != targetSize) {
+            blockSize /= 2;
+            addPos(blockSize, blockPos + blockSize);
+            stats.recordSplit();
+        }
+    }
+
+    /**
+     * Get the buddy's position.
+     *
+     * @param  thisBuddyPos Position of the memory block for whom we are looking
+     *                      the buddy
+     * @param  size         The size of the memory block (both buddies have the
+     *                      same block sizes). Size is always a power of two.
+     *
+     * @return              Calculated int position of the buddy.
+     */
+    private int getBuddyPos(int thisBuddyPos, int size) {
+        return thisBuddyPos ^ size;
+    }
+
+    /**
+     * Merge buddy memory blocks if both are free.
+     *
+     * @param  blockSize The size of the memory block which started the merger.
+     *
+     * @param  pos       The position of the memory block in the bytes array.
+     *
+     * @return           True if any merger occurred, false otherwise.
+     */
+    private boolean mergeBuddy(int blockSize, int pos) {
+        int initBlockSize = blockSize;
+        while (blockSize < poolSize) {
+            int buddyPos = getBuddyPos(pos, blockSize);
+            boolean removed = removePos(blockSize, buddyPos);
+            if (!removed) {
+                break;
+            }
+            removePos(blockSize, pos);
+            pos = pos < buddyPos ? pos : buddyPos;
+            blockSize *= 2;
+            stats.recordMerge();
+        }
+        if (initBlockSize != blockSize) {
+            addPos(blockSize, pos);
+            return true;
+        }
+        return false;
+    }
+
+    /** Double the capacity of the memory poolsize. */
+    private void doublePoolSize() {
+        try {
+            // turns out setLength is not needed as we can write beyond the file
+            // size limit
+            // bufferPool.getDiskIOFile().setLength(2 * poolSize);
+            poolSize *= 2;
+            stats.recordDoubling();
+            BuddyFreeList[] temp = this.blocks;
+
+            this.blocks = new BuddyFreeList[temp.length + 1];
+            for (int i = 0; i < temp.length; ++i) {
+                blocks[i] = temp[i];
+            }
+            // finally mark the extra space as free
+            this.blocks[temp.length] = new BuddyFreeList();
+            addPos(poolSize / 2, poolSize / 2);
+            mergeBuddy(poolSize / 2, poolSize / 2);
+
+            if (!quiet) {
+                System.out.println(
+                        "Memory pool expanded to be " + poolSize + " bytes.");
+            }
+        }
+        catch (Exception e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+import student.TestCase;
+
+import java.io.IOException;
+
+/**
+ * Test the BuddyAllocator class.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class BuddyAllocatorTest extends TestCase {
+    /**
+     * Test splitting blocks, merging buddies and doubling the pool.
+     *
+     * @throws IOException Never, the listing is written to a builder.
+     */
+    public void testAllocateAndFree() throws IOException {
+        BuddyAllocator allocator = new BuddyAllocator(32);
+        assertEquals(allocator.getName(), "buddy");
+        MemoryHandle first = allocator.allocate(5);
+        assertEquals(first, new MemoryHandle(0, 8, 5));
+        assertEquals(allocator.allocate(3), new MemoryHandle(8, 4, 3));
+        assertEquals(listing(allocator), "4:  12\n16:  16");
+        assertEquals(allocator.allocate(40), new MemoryHandle(64, 64, 40));
+        assertEquals(allocator.getPoolSize(), 128);
+
+        allocator.free(first);
+        assertEquals(listing(allocator), "4:  12\n8:  0\n16:  16\n32:  32");
+        AllocatorStats stats = allocator.getStats();
+        assertEquals(stats.getSplits(), 3);
+        assertEquals(stats.getDoublings(), 2);
+        assertEquals(stats.getUsedBytes(), 68);
+    }
+
+    /**
+     * Test laying out used blocks densely and rebuilding the free lists
+     * around them.
+     *
+     * @throws IOException Never, the listing is written to a builder.
+     */
+    public void testRebuild() throws IOException {
+        MemoryHandle[] used = {new MemoryHandle(48, 8, 8),
+            new MemoryHandle(0, 4, 3), new MemoryHandle(16, 16, 9)};
+        MemoryHandle[] dense = BuddyAllocator.getDenseLayout(used);
+        assertEquals(dense[0], new MemoryHandle(16, 8, 8));
+        assertEquals(dense[1], new MemoryHandle(24, 4, 3));
+        assertEquals(dense[2], new MemoryHandle(0, 16, 9));
+
+        BuddyAllocator allocator = new BuddyAllocator(64);
+        assertEquals(allocator.getCompactedSize(28), 64);
+        allocator.rebuild(32, dense);
+        assertEquals(allocator.getPoolSize(), 32);
+        assertEquals(listing(allocator), "4:  28");
+        assertEquals(allocator.getFreePositions().length, 6);
+    }
+
+    /**
+     * List the free blocks of an allocator.
+     *
+     * @param  allocator   The allocator.
+     *
+     * @return             The listing written by appendTo.
+     *
+     * @throws IOException Never, the listing is written to a builder.
+     */
+    private static String listing(Allocator allocator) throws IOException {
+        StringBuilder result = new StringBuilder();
+        allocator.appendTo(result);
+        return result.toString();
+    }
+}
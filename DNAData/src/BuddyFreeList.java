@@ -0,0 +1,295 @@
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The free blocks of one size of a buddy memory manager, by position. The
+ * manager allocates the free block with the lowest position and, when a
+ * block is freed, looks up whether its buddy is free to merge them, so the
+ * positions are kept twice, both in primitive arrays: in a binary min-heap
+ * for the lowest position and in an open addressing hash set for lookups.
+ * Positions removed from the set are left in the heap and skipped when they
+ * reach its top; the heap is rebuilt from the set when such stale entries
+ * outnumber the live ones. Adding and taking the lowest position are
+ * O(log n), removing a given position is O(1), and none of them box.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class BuddyFreeList {
+    /** Marks an unused slot of the hash set. Positions are never negative. */
+    private static final int EMPTY = -1;
+
+    /** Minimum number of slots of the hash set. */
+    private static final int MIN_SLOTS = 8;
+
+    /** Positions of the free blocks and stale positions, as a min-heap. */
+    private int[] heap;
+
+    /** Number of entries of heap in use. */
+    private int heapSize;
+
+    /** Positions of the free blocks, as a hash set with linear probing. */
+    private int[] slots;
+
+    /** Shift of the hash of a position down to an index into slots. */
+    private int shift;
+
+    /** Number of free blocks. */
+    private int count;
+
+    /** Construct an empty list. */
+    BuddyFreeList() {
+        heap = new int[MIN_SLOTS];
+        heapSize = 0;
+        slots = new int[MIN_SLOTS];
+        Arrays.fill(slots, EMPTY);
+        shift = Integer.numberOfLeadingZeros(MIN_SLOTS) + 1;
+        count = 0;
+    }
+
+    /**
+     * Get the number of free blocks.
+     *
+     * @return Number of positions in the list.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Check if there are no free blocks.
+     *
+     * @return True if the list is empty.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Check if a block is free.
+     *
+     * @param  pos Position of the block.
+     *
+     * @return     True if pos is in the list.
+     */
+    public boolean contains(int pos) {
+        return slots[find(pos)] == pos;
+    }
+
+    /**
+     * Add the position of a free block.
+     *
+     * @param pos Position of the block, not already in the list.
+     */
+    public void add(int pos) {
+        if (2 * (count + 1) > slots.length) {
+            rehash(2 * slots.length);
+        }
+        slots[find(pos)] = pos;
+        ++count;
+        push(pos);
+    }
+
+    /**
+     * Remove the position of a block, e.g. of a buddy being merged.
+     *
+     * @param  pos Position of the block.
+     *
+     * @return     True if pos was in the list.
+     */
+    public boolean remove(int pos) {
+        int i = find(pos);
+        if (slots[i] != pos) {
+            return false;
+        }
+        // shift back the entries that probed past slot i
+        int mask = slots.length - 1;
+        for (int j = (i + 1) & mask; slots[j] != EMPTY; j = (j + 1) & mask) {
+            int home = home(slots[j]);
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                slots[i] = slots[j];
+                i = j;
+            }
+        }
+        slots[i] = EMPTY;
+        --count;
+        if (heapSize > 2 * count + MIN_SLOTS) {
+            rebuildHeap();
+        }
+        return true;
+    }
+
+    /**
+     * Remove and return the lowest position.
+     *
+     * @return The lowest position in the list, -1 if it is empty.
+     */
+    public int poll() {
+        while (heapSize > 0) {
+            int pos = pop();
+            if (remove(pos)) {
+                return pos;
+            }
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Get the positions in increasing order.
+     *
+     * @return A new array of the positions.
+     */
+    public int[] toArray() {
+        int[] result = new int[count];
+        int k = 0;
+        for (int pos : slots) {
+            if (pos != EMPTY) {
+                result[k++] = pos;
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Write the positions in increasing order, each preceded by a space.
+     *
+     * @param  out         Where the positions are written.
+     *
+     * @throws IOException If out can't be written.
+     */
+    public void appendTo(Appendable out) throws IOException {
+        for (int pos : toArray()) {
+            out.append(' ').append(String.valueOf(pos));
+        }
+    }
+
+    /**
+     * Get the positions in increasing order, each preceded by a space.
+     *
+     * @return String of the positions, empty if there are none.
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        try {
+            appendTo(result);
+        }
+        catch (IOException e) {
+            // a StringBuilder is never closed
+        }
+        return result.toString();
+    }
+
+    /**
+     * Find the slot of a position, or the empty slot where it would go.
+     *
+     * @param  pos The position.
+     *
+     * @return     Index into slots.
+     */
+    private int find(int pos) {
+        int mask = slots.length - 1;
+        int i = home(pos);
+        while (slots[i] != EMPTY && slots[i] != pos) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Compute the home slot of a position. Block positions are multiples of
+     * the block size, so the slot is taken from the high bits of a product
+     * that mixes all of the bits.
+     *
+     * @param  pos The position.
+     *
+     * @return     Index into slots.
+     */
+    private int home(int pos) {
+        return pos * 0x9E3779B9 >>> shift;
+    }
+
+    /**
+     * Move the positions to a hash set of another size.
+     *
+     * @param size Number of slots, a power of two.
+     */
+    private void rehash(int size) {
+        int[] old = slots;
+        slots = new int[size];
+        Arrays.fill(slots, EMPTY);
+        shift = Integer.numberOfLeadingZeros(size) + 1;
+        for (int pos : old) {
+            if (pos != EMPTY) {
+                slots[find(pos)] = pos;
+            }
+        }
+    }
+
+    /** Make the heap hold the positions of the set and nothing else. */
+    private void rebuildHeap() {
+        heapSize = 0;
+        for (int pos : slots) {
+            if (pos != EMPTY) {
+                heap[heapSize++] = pos;
+            }
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; --i) {
+            siftDown(i);
+        }
+        if (slots.length > MIN_SLOTS && 8 * count < slots.length) {
+            rehash(slots.length / 2);
+        }
+    }
+
+    /**
+     * Add a position to the heap.
+     *
+     * @param pos The position.
+     */
+    private void push(int pos) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, 2 * heap.length);
+        }
+        int i = heapSize++;
+        while (i > 0 && heap[(i - 1) / 2] > pos) {
+            heap[i] = heap[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        heap[i] = pos;
+    }
+
+    /**
+     * Remove the lowest position from the heap, which must not be empty.
+     *
+     * @return The position.
+     */
+    private int pop() {
+        int top = heap[0];
+        heap[0] = heap[--heapSize];
+        siftDown(0);
+        return top;
+    }
+
+    /**
+     * Move the entry at an index of the heap down to its place.
+     *
+     * @param i Index into heap.
+     */
+    private void siftDown(int i) {
+        int pos = heap[i];
+        for (int child = 2 * i + 1; child < heapSize; child = 2 * i + 1) {
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                ++child;
+            }
+            if (heap[child] >= pos) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = pos;
+    }
+}
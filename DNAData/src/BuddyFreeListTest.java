@@ -0,0 +1,62 @@
+import student.TestCase;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Test the BuddyFreeList class.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class BuddyFreeListTest extends TestCase {
+    /** Test adding, removing and polling positions. */
+    public void testOperations() {
+        BuddyFreeList list = new BuddyFreeList();
+        assertTrue(list.isEmpty());
+        assertEquals(list.poll(), -1);
+        list.add(64);
+        list.add(16);
+        list.add(48);
+        assertEquals(list.toString(), " 16 48 64");
+        assertTrue(list.contains(48));
+        assertTrue(list.remove(16));
+        assertFalse(list.remove(16));
+        assertFalse(list.contains(16));
+        assertEquals(list.poll(), 48);
+        list.add(16);
+        assertEquals(list.poll(), 16);
+        assertEquals(list.poll(), 64);
+        assertEquals(list.size(), 0);
+        assertEquals(list.toString(), "");
+    }
+
+    /** Test random operations against a sorted set. */
+    public void testAgainstTreeSet() {
+        BuddyFreeList list = new BuddyFreeList();
+        TreeSet<Integer> expected = new TreeSet<Integer>();
+        Random random = new Random(18);
+        for (int i = 0; i < 20000; ++i) {
+            int pos = 32 * random.nextInt(2000);
+            int op = random.nextInt(3);
+            if (op == 0 && !expected.contains(pos)) {
+                list.add(pos);
+                expected.add(pos);
+            }
+            else if (op == 1) {
+                assertEquals(list.remove(pos), expected.remove(pos));
+            }
+            else if (!expected.isEmpty()) {
+                assertEquals(list.poll(), (int) expected.pollFirst());
+            }
+            assertEquals(list.size(), expected.size());
+        }
+        int[] positions = list.toArray();
+        assertEquals(positions.length, expected.size());
+        int k = 0;
+        for (int pos : expected) {
+            assertEquals(positions[k++], pos);
+        }
+    }
+}
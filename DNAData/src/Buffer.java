@@ -1,3 +1,6 @@
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
 /**
  * A Buffer object is an element of the collection of the buffers managed by
  * the BufferPool. Note that Buffer implements Comparable<Buffer> so that it
@@ -17,6 +20,27 @@ public class Buffer implements Comparable<Buffer> {
     /** The dirty bit of the buffer. */
     private boolean dirty;
 
+    /** The buffer before this one in the list it is linked into. */
+    private Buffer prev;
+
+    /** The buffer after this one in the list it is linked into. */
+    private Buffer next;
+
+    /**
+     * Bookkeeping of the replacement policy managing this buffer. Its meaning
+     * is up to the policy, e.g. a reference bit or the queue it belongs to.
+     */
+    private int policyTag;
+
+    /**
+     * Number of threads using the buffer. A pinned buffer is never evicted.
+     * Only changed under the lock of the owning pool.
+     */
+    private int pinCount;
+
+    /** Latch guarding the data bytes while they are copied in or out. */
+    private ReentrantReadWriteLock latch;
+
     /**
      * Construct a buffer.
      * 
@@ -27,6 +51,8 @@ public class Buffer implements Comparable<Buffer> {
         this.blockId = blockId;
         dataBytes = new byte[blockSize];
         dirty = false;
+        pinCount = 0;
+        latch = new ReentrantReadWriteLock();
     }
 
     /**
@@ -75,6 +101,89 @@ public class Buffer implements Comparable<Buffer> {
         return dataBytes;
     }
 
+    /**
+     * Getter for the previous buffer in the list this buffer is linked into.
+     * 
+     * @return The previous buffer, null if not linked.
+     */
+    Buffer getPrev() {
+        return prev;
+    }
+
+    /**
+     * Setter for the previous buffer link.
+     * 
+     * @param prev The buffer to be linked before this one.
+     */
+    void setPrev(Buffer prev) {
+        this.prev = prev;
+    }
+
+    /**
+     * Getter for the next buffer in the list this buffer is linked into.
+     * 
+     * @return The next buffer, null if not linked.
+     */
+    Buffer getNext() {
+        return next;
+    }
+
+    /**
+     * Setter for the next buffer link.
+     * 
+     * @param next The buffer to be linked after this one.
+     */
+    void setNext(Buffer next) {
+        this.next = next;
+    }
+
+    /**
+     * Getter for the replacement policy tag.
+     * 
+     * @return The tag last set by the replacement policy.
+     */
+    int getPolicyTag() {
+        return policyTag;
+    }
+
+    /**
+     * Setter for the replacement policy tag.
+     * 
+     * @param tag The tag value to be set.
+     */
+    void setPolicyTag(int tag) {
+        policyTag = tag;
+    }
+
+    /** Pin the buffer so that it won't be evicted. */
+    void pin() {
+        ++pinCount;
+    }
+
+    /** Release one pin on the buffer. */
+    void unpin() {
+        --pinCount;
+    }
+
+    /**
+     * Check if any thread has the buffer pinned.
+     * 
+     * @return True if the buffer must not be evicted.
+     */
+    public boolean isPinned() {
+        return pinCount > 0;
+    }
+
+    /**
+     * Get the latch guarding the data bytes. Readers of the data take the
+     * read lock, writers and loaders from the disk take the write lock.
+     * 
+     * @return The read/write latch of this buffer.
+     */
+    ReentrantReadWriteLock getLatch() {
+        return latch;
+    }
+
     /**
      * Copy bytes to the buffered storage.
      * 
@@ -87,15 +196,13 @@ public class Buffer implements Comparable<Buffer> {
      * @return              The number of bytes inserted.
      */
     public int insert(byte[] data, int size, int dataOffset, int bufferOffset) {
-        int i = 0;
-        for (; (i < size) && (i + bufferOffset < dataBytes.length); ++i) {
-            dataBytes[bufferOffset + i] = data[dataOffset + i];
-        }
+        int count = Math.min(size, dataBytes.length - bufferOffset);
+        System.arraycopy(data, dataOffset, dataBytes, bufferOffset, count);
         // after writing bytes, always mark this buffer to be dirty
         markDirty();
 
         // total number of bytes inserted
-        return i;
+        return count;
     }
 
     /**
@@ -111,13 +218,26 @@ public class Buffer implements Comparable<Buffer> {
      */
     public int getBytes(byte[] data, int size, int dataOffset,
             int bufferOffset) {
-        int i = 0;
-        for (; (i < size) && (i + bufferOffset < dataBytes.length); ++i) {
-            data[dataOffset + i] = dataBytes[bufferOffset + i];
-        }
+        int count = Math.min(size, dataBytes.length - bufferOffset);
+        System.arraycopy(dataBytes, bufferOffset, data, dataOffset, count);
 
         // total number of bytes copied
-        return i;
+        return count;
+    }
+
+    /**
+     * Get a view of part of the buffered storage, without copying it. The
+     * view's position is 0 and its limit is size. It shares the buffer's
+     * bytes, so it must not be written through and it is only valid until
+     * the buffer is reused for another block.
+     * 
+     * @param  bufferOffset Position in the buffer of the first byte.
+     * @param  size         Number of bytes in the view.
+     * 
+     * @return              A ByteBuffer backed by the buffer's bytes.
+     */
+    public ByteBuffer slice(int bufferOffset, int size) {
+        return ByteBuffer.wrap(dataBytes, bufferOffset, size).slice();
     }
 
     /**
@@ -147,7 +267,6 @@ public class Buffer implements Comparable<Buffer> {
      */
     @Override
     public String toString() {
-        return String.format("%d %s", getBlockId(),
-                isDirty() ? "dirty" : "clean");
+        return getBlockId() + (isDirty() ? " dirty" : " clean");
     }
 } // class Buffer
@@ -0,0 +1,156 @@
+/**
+ * An intrusive doubly linked list of Buffer objects. The links are stored in
+ * the buffers themselves, so moving a buffer within the list or unlinking it
+ * never walks the list. A buffer can be linked into at most one BufferList at
+ * a time.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class BufferList {
+    /** Sentinel buffer sitting before the head and after the tail. */
+    private Buffer sentinel;
+
+    /** The number of buffers linked into the list. */
+    private int count;
+
+    /** Construct an empty list. */
+    BufferList() {
+        sentinel = new Buffer(-1, 0);
+        sentinel.setNext(sentinel);
+        sentinel.setPrev(sentinel);
+        count = 0;
+    }
+
+    /**
+     * Check if the list is empty.
+     *
+     * @return True if no buffers are linked into the list.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Get the number of buffers in the list.
+     *
+     * @return Number of buffers linked into the list.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Link a buffer at the front of the list.
+     *
+     * @param buffer A buffer that is not linked into any list.
+     */
+    public void pushFront(Buffer buffer) {
+        linkAfter(sentinel, buffer);
+    }
+
+    /**
+     * Link a buffer at the back of the list.
+     *
+     * @param buffer A buffer that is not linked into any list.
+     */
+    public void pushBack(Buffer buffer) {
+        linkAfter(sentinel.getPrev(), buffer);
+    }
+
+    /**
+     * Unlink a buffer from the list.
+     *
+     * @param buffer A buffer linked into this list.
+     */
+    public void remove(Buffer buffer) {
+        buffer.getPrev().setNext(buffer.getNext());
+        buffer.getNext().setPrev(buffer.getPrev());
+        buffer.setPrev(null);
+        buffer.setNext(null);
+        --count;
+    }
+
+    /**
+     * Move a buffer already linked into this list to the front.
+     *
+     * @param buffer A buffer linked into this list.
+     */
+    public void moveToFront(Buffer buffer) {
+        if (sentinel.getNext() == buffer) {
+            return;
+        }
+        remove(buffer);
+        pushFront(buffer);
+    }
+
+    /**
+     * Get the buffer at the front of the list.
+     *
+     * @return The head buffer, null if the list is empty.
+     */
+    public Buffer peekFront() {
+        return isEmpty() ? null : sentinel.getNext();
+    }
+
+    /**
+     * Get the buffer at the back of the list.
+     *
+     * @return The tail buffer, null if the list is empty.
+     */
+    public Buffer peekBack() {
+        return isEmpty() ? null : sentinel.getPrev();
+    }
+
+    /**
+     * Get the buffer closest to the back of the list that is not pinned.
+     *
+     * @return The last unpinned buffer, null if there is none.
+     */
+    public Buffer peekBackUnpinned() {
+        Buffer buffer = peekBack();
+        while (buffer != null && buffer.isPinned()) {
+            buffer = preceding(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Get the buffer following another in the list.
+     *
+     * @param  buffer A buffer linked into this list.
+     *
+     * @return        The buffer after it, null if buffer is the tail.
+     */
+    public Buffer following(Buffer buffer) {
+        Buffer next = buffer.getNext();
+        return next == sentinel ? null : next;
+    }
+
+    /**
+     * Get the buffer preceding another in the list.
+     *
+     * @param  buffer A buffer linked into this list.
+     *
+     * @return        The buffer before it, null if buffer is the head.
+     */
+    public Buffer preceding(Buffer buffer) {
+        Buffer prev = buffer.getPrev();
+        return prev == sentinel ? null : prev;
+    }
+
+    /**
+     * Link a buffer right after another one.
+     *
+     * @param anchor The buffer after which to link.
+     * @param buffer The buffer to be linked.
+     */
+    private void linkAfter(Buffer anchor, Buffer buffer) {
+        buffer.setPrev(anchor);
+        buffer.setNext(anchor.getNext());
+        anchor.getNext().setPrev(buffer);
+        anchor.setNext(buffer);
+        ++count;
+    }
+} // class BufferList
@@ -0,0 +1,66 @@
+import student.TestCase;
+
+/**
+ * Test the BufferList class.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class BufferListTest extends TestCase {
+    /** A BufferList object used for testing. */
+    private BufferList list;
+
+    /** Buffers linked into the list. */
+    private Buffer buf0;
+
+    /** Buffers linked into the list. */
+    private Buffer buf1;
+
+    /** Buffers linked into the list. */
+    private Buffer buf2;
+
+    /** Sets up the tests that follow. */
+    public void setUp() {
+        list = new BufferList();
+        buf0 = new Buffer(0, 16);
+        buf1 = new Buffer(1, 16);
+        buf2 = new Buffer(2, 16);
+    }
+
+    /** Test pushing and peeking. */
+    public void testPush() {
+        assertTrue(list.isEmpty());
+        assertNull(list.peekFront());
+        assertNull(list.peekBack());
+
+        list.pushBack(buf1);
+        list.pushFront(buf0);
+        list.pushBack(buf2);
+        assertEquals(list.getCount(), 3);
+        assertSame(list.peekFront(), buf0);
+        assertSame(list.peekBack(), buf2);
+        assertSame(list.following(buf0), buf1);
+        assertSame(list.preceding(buf1), buf0);
+        assertNull(list.following(buf2));
+        assertNull(list.preceding(buf0));
+    }
+
+    /** Test moving to front and removing. */
+    public void testMoveAndRemove() {
+        list.pushBack(buf0);
+        list.pushBack(buf1);
+        list.pushBack(buf2);
+
+        list.moveToFront(buf2);
+        assertSame(list.peekFront(), buf2);
+        assertSame(list.peekBack(), buf1);
+        list.moveToFront(buf2);
+        assertSame(list.peekFront(), buf2);
+
+        list.remove(buf0);
+        assertEquals(list.getCount(), 2);
+        assertSame(list.following(buf2), buf1);
+        assertNull(buf0.getNext());
+    }
+}
@@ -1,7 +1,13 @@
+import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
- * A class to handle a collection of file I/O buffers.
+ * A class to handle a collection of file I/O buffers. The public methods are
+ * synchronized so that an optional WriteBehindFlusher can clean buffers from
+ * its own thread.
  * 
  * @author  Bimal Gaudel
  * 
@@ -11,43 +17,123 @@ public class BufferPool {
     /** The number of bytes present in each of the buffers in the pool. */
     private int sizeBuffer;
 
-    /** The collection of buffers. */
-    private LinkedList<Buffer> pool;
+    /** The policy that holds the buffers and picks victims among them. */
+    private ReplacementPolicy policy;
+
+    /** Index from block ids to the buffers caching them. */
+    private BlockIndex blockIndex;
 
     /** The file for disk I/O. */
-    private RandomAccessFile diskIOFile;
+    private BlockFile diskIOFile;
 
     /** Number of times buffers were accessed for read/write. */
     private int cacheHits;
 
+    /** Number of times a block was not found in the buffers. */
+    private int cacheMisses;
+
     /** Number of times disk reads performed. */
     private int diskReads;
 
     /** Number of times disk writes performed. */
     private int diskWrites;
 
+    /** Number of reads and writes of records that spanned blocks. */
+    private int spanningAccesses;
+
     /** The largest block id that have been written to disk. */
     private int largestBlockIdWritten;
 
+    /** Number of buffers whose data is not on the disk yet. */
+    private int numDirty;
+
+    /** The background flusher, null unless write-behind is enabled. */
+    private WriteBehindFlusher flusher;
+
+    /** Log synced before any block is written, null if there is none. */
+    private WriteAheadLog log;
+
     /**
-     * Construct a BufferPool object.
+     * Held through a whole flush, so that a flush only returns once the
+     * blocks another flush had taken are written too.
+     */
+    private Object flushLock;
+
+    /**
+     * Number of blocks past a record read ahead once access is sequential,
+     * -1 if read-ahead is disabled.
+     */
+    private int readAhead;
+
+    /** Most blocks fetched by one read-ahead, at most half of the buffers. */
+    private int readAheadWindow;
+
+    /** Staging area for read-ahead, readAheadWindow blocks long. */
+    private byte[] readAheadBytes;
+
+    /** The block following the last one of the previous record read. */
+    private int nextSequentialBlockId;
+
+    /** Number of records read in a row that started where the last ended. */
+    private int sequentialRun;
+
+    /**
+     * Construct a BufferPool object that replaces the least recently used
+     * buffer.
      * 
      * @param numBuffers Number of buffers in the pool.
      * @param sizeBuffer Number of bytes per buffer.
      * @param diskIOFile File for disk I/O.
      */
     BufferPool(int numBuffers, int sizeBuffer, RandomAccessFile diskIOFile) {
+        this(numBuffers, sizeBuffer, diskIOFile, new LRUPolicy());
+    }
+
+    /**
+     * Construct a BufferPool object.
+     * 
+     * @param numBuffers Number of buffers in the pool.
+     * @param sizeBuffer Number of bytes per buffer.
+     * @param diskIOFile File for disk I/O.
+     * @param policy     The replacement policy, not shared with other pools.
+     */
+    BufferPool(int numBuffers, int sizeBuffer, RandomAccessFile diskIOFile,
+            ReplacementPolicy policy) {
+        this(numBuffers, sizeBuffer,
+                new RandomAccessBlockFile(diskIOFile, sizeBuffer), policy);
+    }
+
+    /**
+     * Construct a BufferPool object over any kind of block file.
+     * 
+     * @param numBuffers Number of buffers in the pool.
+     * @param sizeBuffer Number of bytes per buffer.
+     * @param diskIOFile Block file for disk I/O, using sizeBuffer blocks.
+     * @param policy     The replacement policy, not shared with other pools.
+     */
+    BufferPool(int numBuffers, int sizeBuffer, BlockFile diskIOFile,
+            ReplacementPolicy policy) {
         this.sizeBuffer = sizeBuffer;
         this.diskIOFile = diskIOFile;
+        this.policy = policy;
         cacheHits = 0;
+        cacheMisses = 0;
         diskReads = 0;
         diskWrites = 0;
+        spanningAccesses = 0;
         largestBlockIdWritten = -1;
+        numDirty = 0;
+        flusher = null;
+        log = null;
+        flushLock = new Object();
+        readAhead = -1;
+        nextSequentialBlockId = -1;
+        sequentialRun = 0;
         // initialize the buffers
-        pool = new LinkedList<Buffer>();
+        blockIndex = new BlockIndex(numBuffers);
         for (int i = 0; i < numBuffers; ++i) {
             // initially Buffer is initialized with the block id -1
-            pool.append(new Buffer(-1, sizeBuffer));
+            policy.addFree(new Buffer(-1, sizeBuffer));
         }
     }
 
@@ -57,54 +143,41 @@ public class BufferPool {
      * @param space  Byte array to be stored.
      * @param handle MemoryHandle object to guide store data.
      */
-    public void insertBytes(byte[] space, MemoryHandle handle) {
+    public synchronized void insertBytes(byte[] space, MemoryHandle handle) {
         int blockId = findBlockId(handle);
         int bufferOffset = handle.getPos() % sizeBuffer;
         int remainingBytes = handle.getDataSize();
 
         do {
             // finding the buffer to insert data
-            Buffer currBuffer = null;
+            Buffer currBuffer = blockIndex.get(blockId);
 
-            if (blockId > largestBlockIdWritten) {
-                // if the target block id is never written before
+            if (currBuffer != null) {
+                // buffer with the target block id found in the pool
+                ++cacheHits;
+                policy.recordHit(currBuffer);
+            }
+            else if (blockId > largestBlockIdWritten) {
+                // if the target block id is never written before there is
+                // nothing to read from the disk
                 largestBlockIdWritten = blockId;
-                // set the end buffer as the found buffer
-                pool.moveToTail();
-                currBuffer = pool.yieldCurrNode();
-                //
-                if (currBuffer.isDirty()) {
-                    writeBufferToDisk(currBuffer);
-                }
-                currBuffer.setBlockId(blockId);
+                ++cacheMisses;
+                currBuffer = evict(blockId);
+                assignBlock(currBuffer, blockId);
             }
             else {
-                // block id has been written before
-                // see if a buffer has the data
-                // else overwrite the end buffer from the disk
-                // works even if the end buffer is empty
-                for (pool.moveToHead(); !pool.atEnd(); pool.curseToNext()) {
-
-                    currBuffer = pool.yieldCurrNode();
-                    if (currBuffer.getBlockId() == blockId) {
-                        // buffer with the target block id found in the buffer
-                        ++cacheHits;
-                        break;
-                    }
-                }
-
-                if (pool.atEnd()) {
-                    // block is in the disk
-                    pool.moveToTail();
-                    currBuffer = pool.yieldCurrNode();
-                    if (currBuffer.isDirty()) {
-                        writeBufferToDisk(currBuffer);
-                    }
-                    writeBufferFromDisk(blockId, currBuffer);
-                }
+                // block is in the disk
+                // works even if the victim buffer is empty
+                ++cacheMisses;
+                currBuffer = evict(blockId);
+                writeBufferFromDisk(blockId, currBuffer);
+                assignBlock(currBuffer, blockId);
             }
 
             // at this point currBuffer is the buffer with proper block id
+            if (!currBuffer.isDirty()) {
+                ++numDirty;
+            }
             int spaceOffset = handle.getDataSize() - remainingBytes;
             int bytesInserted = currBuffer.insert(space, remainingBytes,
                     spaceOffset, bufferOffset);
@@ -115,9 +188,14 @@ public class BufferPool {
             // we must be looking from the beginning of that buffer
             // so bufferOffset is set to zero
             bufferOffset = 0;
-            // move the recently written buffer to the front
-            pool.moveCurrNodeToFront();
         } while (remainingBytes > 0);
+        if (blockId > findBlockId(handle) + 1) {
+            ++spanningAccesses;
+        }
+
+        if (flusher != null && numDirty >= flusher.getHighWater()) {
+            flusher.dirtyCountChanged(numDirty);
+        }
     }
 
     /**
@@ -126,35 +204,15 @@ public class BufferPool {
      * @param space  Byte array that will be overwritten by retrieved data.
      * @param handle MemoryHandle object to guide retrieve data.
      */
-    public void getBytes(byte[] space, MemoryHandle handle) {
+    public synchronized void getBytes(byte[] space, MemoryHandle handle) {
         int blockId = findBlockId(handle);
         int bufferOffset = handle.getPos() % sizeBuffer;
         int remainingBytes = handle.getDataSize();
+        int readAheadTo = noteRead(handle);
 
         do {
             // finding the buffer to read data from
-            Buffer currBuffer = null;
-            for (pool.moveToHead(); !pool.atEnd(); pool.curseToNext()) {
-                currBuffer = pool.yieldCurrNode();
-                if (currBuffer.getBlockId() == blockId) {
-                    // block with proper id was found
-                    ++cacheHits;
-                    break;
-                }
-            }
-
-            if (pool.atEnd()) {
-                // no suitable buffer found
-                // need to overwrite least recently used buffer
-                // works even if the end buffer is empty
-                pool.moveToTail();
-                currBuffer = pool.yieldCurrNode();
-
-                if (currBuffer.isDirty()) {
-                    writeBufferToDisk(currBuffer);
-                }
-                writeBufferFromDisk(blockId, currBuffer);
-            }
+            Buffer currBuffer = fetchBlock(blockId, readAheadTo);
 
             // at this point currBuffer is the buffer with proper block id
             int spaceOffset = handle.getDataSize() - remainingBytes;
@@ -167,9 +225,33 @@ public class BufferPool {
             // we must be looking from the beginning of that buffer
             // so bufferOffset is set to zero
             bufferOffset = 0;
-            // move the recently read buffer to the front
-            pool.moveCurrNodeToFront();
         } while (remainingBytes > 0);
+        if (blockId > findBlockId(handle) + 1) {
+            ++spanningAccesses;
+        }
+    }
+
+    /**
+     * Retrieve the bytes of a record as a ByteBuffer. A record lying within
+     * one block is returned as a view over the buffer caching the block,
+     * without copying; a record spanning blocks is copied into a new array.
+     * Either way the result must not be written through, and it is only
+     * valid until the next call to the pool.
+     * 
+     * @param  handle MemoryHandle object to guide retrieve data.
+     * 
+     * @return        ByteBuffer with position 0 and limit the data size.
+     */
+    public synchronized ByteBuffer getSlice(MemoryHandle handle) {
+        int bufferOffset = handle.getPos() % sizeBuffer;
+        if (bufferOffset + handle.getDataSize() > sizeBuffer) {
+            byte[] space = new byte[handle.getDataSize()];
+            getBytes(space, handle);
+            return ByteBuffer.wrap(space);
+        }
+        int readAheadTo = noteRead(handle);
+        return fetchBlock(findBlockId(handle), readAheadTo)
+                .slice(bufferOffset, handle.getDataSize());
     }
 
     /**
@@ -178,16 +260,551 @@ public class BufferPool {
      * @return String representation of the buffer pool.
      */
     @Override
-    public String toString() {
-        String result = "";
-        for (pool.moveToHead(); !pool.atEnd(); pool.curseToNext()) {
-            result += pool.yieldCurrNode().toString() + "\n";
+    public synchronized String toString() {
+        StringBuilder result = new StringBuilder();
+        try {
+            appendTo(result);
+        }
+        catch (IOException e) {
+            // a StringBuilder is never closed
+        }
+        return result.toString();
+    }
+
+    /**
+     * Write the info on buffers, as toString has it, without building the
+     * whole listing first.
+     * 
+     * @param  out         Where the info is written, e.g. System.out.
+     * 
+     * @throws IOException If out can't be written.
+     */
+    public synchronized void appendTo(Appendable out) throws IOException {
+        for (Buffer buffer : policy.getBuffers()) {
+            out.append(buffer.toString()).append('\n');
+        }
+        out.append("Cache hits: ").append(String.valueOf(cacheHits))
+                .append("\nDisk reads: ").append(String.valueOf(diskReads))
+                .append("\nDisk writes: ").append(String.valueOf(diskWrites));
+    }
+
+    /**
+     * Start a background thread that writes dirty buffers ahead of eviction.
+     * 
+     * @param highWaterPercent Percentage of dirty buffers at which the
+     *                         flusher is woken up.
+     */
+    public synchronized void enableWriteBehind(int highWaterPercent) {
+        if (flusher != null) {
+            return;
+        }
+        int numBuffers = policy.getBuffers().length;
+        flusher = new WriteBehindFlusher(this,
+                numBuffers * highWaterPercent / 100,
+                WriteBehindFlusher.DEFAULT_PERIOD);
+        flusher.start();
+    }
+
+    /**
+     * Fetch every missing block of a record with one read, instead of one
+     * read per block. Once records are read sequentially, the blocks that
+     * follow the record are fetched too.
+     * 
+     * @param blocksPastRecord Number of blocks past a record to be fetched
+     *                         when access is sequential, 0 to fetch only the
+     *                         blocks of the record.
+     */
+    public synchronized void enableReadAhead(int blocksPastRecord) {
+        int numBuffers = policy.getBuffers().length;
+        readAhead = blocksPastRecord;
+        readAheadWindow = Math.max(1, numBuffers / 2);
+        readAheadBytes = new byte[readAheadWindow * sizeBuffer];
+    }
+
+    /**
+     * Tell the pool that the disk file already holds blocks, e.g. when it
+     * is reopened, so that they are read before being partly overwritten.
+     * 
+     * @param numBlocks Number of blocks in the disk file.
+     */
+    synchronized void setBlocksOnDisk(int numBlocks) {
+        largestBlockIdWritten = numBlocks - 1;
+    }
+
+    /**
+     * Sync a write-ahead log before writing any dirty block, so that the
+     * disk never holds data that the log can't redo.
+     * 
+     * @param log The log of the operations that dirty the buffers.
+     */
+    synchronized void setLog(WriteAheadLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Drop the blocks past a length, e.g. after the memory pool shrank:
+     * their dirty buffers are not written and the disk file is shortened.
+     * The buffers keep their blocks, which read as whatever they hold if
+     * the pool grows back.
+     * 
+     * @param  length               Number of bytes to keep, rounded up to
+     *                              whole blocks.
+     * 
+     * @throws UncheckedIOException If the disk file can't be shortened.
+     */
+    void truncate(int length) {
+        int numBlocks = (length + sizeBuffer - 1) / sizeBuffer;
+        // a flush in progress would write dropped blocks back
+        synchronized (flushLock) {
+            synchronized (this) {
+                for (Buffer buffer : policy.getBuffers()) {
+                    if (buffer.getBlockId() >= numBlocks && buffer.isDirty()
+                            && !buffer.isPinned()) {
+                        buffer.markClean();
+                        --numDirty;
+                    }
+                }
+                largestBlockIdWritten = Math.min(largestBlockIdWritten,
+                        numBlocks - 1);
+                try {
+                    diskIOFile.truncate(numBlocks);
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write every dirty buffer to the disk. Returns once they are clean.
+     * 
+     * @throws UncheckedIOException If a block can't be written; the blocks
+     *                              not written stay dirty.
+     */
+    public void flush() {
+        flushDirtyBuffers();
+    }
+
+    /**
+     * Stop the background flusher if any, write every dirty buffer to the
+     * disk and close the disk file. The pool must not be used afterwards.
+     * 
+     * @throws UncheckedIOException If a block can't be written, in which
+     *                              case the disk file is left open, or if
+     *                              the disk file can't be closed.
+     */
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        synchronized (this) {
+            flusher = null;
+        }
+        flushDirtyBuffers();
+        try {
+            diskIOFile.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write every dirty buffer to the disk. The buffers are sorted by block
+     * id and runs of adjacent blocks go out in a single vectored write. The
+     * pool's lock is held only to copy the dirty blocks, whose buffers are
+     * marked clean and stay pinned until written; the log sync and the
+     * writes happen without it. A buffer dirtied again meanwhile is written
+     * by the next flush.
+     * 
+     * @return                      Number of buffers cleaned.
+     * 
+     * @throws UncheckedIOException If a block can't be written; the blocks
+     *                              not written stay dirty.
+     */
+    int flushDirtyBuffers() {
+        synchronized (flushLock) {
+            Buffer[] dirty;
+            byte[][] blocks;
+            WriteAheadLog syncFirst;
+            int count = 0;
+            synchronized (this) {
+                if (numDirty == 0) {
+                    return 0;
+                }
+                dirty = new Buffer[numDirty];
+                for (Buffer buffer : policy.getBuffers()) {
+                    // pinned buffers may be in the middle of a copy
+                    if (buffer.isDirty() && !buffer.isPinned()) {
+                        dirty[count++] = buffer;
+                    }
+                }
+                Arrays.sort(dirty, 0, count);
+                blocks = new byte[count][];
+                for (int i = 0; i < count; ++i) {
+                    blocks[i] = dirty[i].getDataBytes().clone();
+                    dirty[i].markClean();
+                    dirty[i].pin();
+                }
+                numDirty -= count;
+                syncFirst = log;
+            }
+
+            int written = 0;
+            try {
+                if (syncFirst != null) {
+                    syncFirst.sync();
+                }
+                byte[][] run = new byte[count][];
+                for (int i = 1; i <= count; ++i) {
+                    if (i < count && dirty[i].getBlockId() == dirty[i - 1]
+                            .getBlockId() + 1) {
+                        continue;
+                    }
+                    // blocks[written..i-1] are adjacent
+                    System.arraycopy(blocks, written, run, 0, i - written);
+                    diskIOFile.writeBlocks(dirty[written].getBlockId(), run,
+                            i - written);
+                    written = i;
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            finally {
+                synchronized (this) {
+                    for (int i = 0; i < count; ++i) {
+                        if (i >= written && !dirty[i].isDirty()) {
+                            // not on the disk, so dirty again
+                            dirty[i].markDirty();
+                            ++numDirty;
+                        }
+                        dirty[i].unpin();
+                    }
+                    diskWrites += written;
+                    notifyAll();
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Pin the buffer holding a block, loading the block first if needed, and
+     * take the buffer's latch. The pool's lock is held only for the lookup
+     * and the choice of a victim; the read from the disk and the caller's
+     * copy happen under the buffer's latch alone, so other threads can use
+     * the pool meanwhile. Every pin must be released with unpin.
+     * 
+     * @param  blockId  The block id.
+     * @param  forWrite True to take the write latch, false for the read
+     *                  latch.
+     * 
+     * @return          The pinned and latched buffer holding blockId.
+     * 
+     * @throws UncheckedIOException If the block can't be read; the buffer is
+     *                              then neither pinned nor latched.
+     */
+    Buffer pin(int blockId, boolean forWrite) {
+        Buffer buffer;
+        boolean load = false;
+        synchronized (this) {
+            buffer = blockIndex.get(blockId);
+            if (buffer != null) {
+                ++cacheHits;
+                policy.recordHit(buffer);
+            }
+            else {
+                ++cacheMisses;
+                buffer = evict(blockId);
+                if (forWrite && blockId > largestBlockIdWritten) {
+                    // never written before, nothing to read
+                    largestBlockIdWritten = blockId;
+                }
+                else {
+                    load = true;
+                    ++diskReads;
+                }
+                assignBlock(buffer, blockId);
+                if (load) {
+                    // nobody else holds the latch of an unpinned buffer, so
+                    // this doesn't block; others wait on it until loaded
+                    buffer.getLatch().writeLock().lock();
+                }
+            }
+            buffer.pin();
+        }
+
+        if (load) {
+            try {
+                diskIOFile.readBlock(blockId, buffer.getDataBytes());
+            }
+            catch (IOException e) {
+                // the buffer doesn't hold the block after all
+                buffer.getLatch().writeLock().unlock();
+                synchronized (this) {
+                    blockIndex.remove(blockId);
+                    buffer.setBlockId(-1);
+                    buffer.unpin();
+                    notifyAll();
+                }
+                throw new UncheckedIOException(e);
+            }
+            if (!forWrite) {
+                // downgrade to the read latch
+                buffer.getLatch().readLock().lock();
+                buffer.getLatch().writeLock().unlock();
+            }
+        }
+        else if (forWrite) {
+            buffer.getLatch().writeLock().lock();
+        }
+        else {
+            buffer.getLatch().readLock().lock();
+        }
+        return buffer;
+    }
+
+    /**
+     * Release the latch and the pin taken by pin.
+     * 
+     * @param buffer   The buffer returned by pin.
+     * @param forWrite The value passed to pin.
+     * @param dirtied  True if the caller made a clean buffer dirty.
+     */
+    void unpin(Buffer buffer, boolean forWrite, boolean dirtied) {
+        if (forWrite) {
+            buffer.getLatch().writeLock().unlock();
         }
+        else {
+            buffer.getLatch().readLock().unlock();
+        }
+        synchronized (this) {
+            buffer.unpin();
+            if (dirtied) {
+                ++numDirty;
+            }
+            if (!buffer.isPinned()) {
+                notifyAll();
+            }
+        }
+        if (dirtied && flusher != null && numDirty >= flusher.getHighWater()) {
+            flusher.dirtyCountChanged(numDirty);
+        }
+    }
 
-        result += String.format(
-                "Cache hits: %d\n" + "Disk reads: %d\n" + "Disk writes: %d",
-                cacheHits, diskReads, diskWrites);
-        return result;
+    /**
+     * Get the buffers in the order the replacement policy keeps them.
+     * 
+     * @return Array of all buffers of the pool.
+     */
+    synchronized Buffer[] getBuffers() {
+        return policy.getBuffers();
+    }
+
+    /**
+     * Get the number of times a requested block was found in the buffers.
+     * 
+     * @return Number of cache hits.
+     */
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * Get the number of times a requested block was not found in the buffers.
+     * 
+     * @return Number of cache misses.
+     */
+    public int getCacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * Get the number of blocks read from the disk.
+     * 
+     * @return Number of disk reads.
+     */
+    public int getDiskReads() {
+        return diskReads;
+    }
+
+    /**
+     * Get the number of blocks written to the disk.
+     * 
+     * @return Number of disk writes.
+     */
+    public int getDiskWrites() {
+        return diskWrites;
+    }
+
+    /**
+     * Get the number of reads and writes of records that spanned more than
+     * one block, each of which took more than one buffer access. A run of
+     * adjacent records written together counts as one write.
+     * 
+     * @return Number of spanning accesses.
+     */
+    public int getSpanningAccesses() {
+        return spanningAccesses;
+    }
+
+    /**
+     * Get the size of the buffers, which is the block size of the disk file.
+     * 
+     * @return Number of bytes per buffer.
+     */
+    public int getBufferSize() {
+        return sizeBuffer;
+    }
+
+    /**
+     * Get the name of the replacement policy in use.
+     * 
+     * @return Name of the policy.
+     */
+    public String getPolicyName() {
+        return policy.getName();
+    }
+
+    /**
+     * Take the buffer picked by the replacement policy out of the index so
+     * that it can be reused for another block. A dirty buffer is written to
+     * the disk first. While every buffer is pinned, e.g. by other threads
+     * or by a flush writing them, this waits for an unpin.
+     * 
+     * @param  blockId The block id about to be loaded.
+     * 
+     * @return         The victim buffer, ready to be overwritten.
+     */
+    private Buffer evict(int blockId) {
+        Buffer victim = policy.admit(blockId);
+        while (victim == null) {
+            try {
+                wait();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            victim = policy.admit(blockId);
+        }
+        if (victim.isDirty()) {
+            // on failure the dirty block stays in the index
+            writeBufferToDisk(victim);
+        }
+        if (victim.getBlockId() != -1) {
+            blockIndex.remove(victim.getBlockId());
+        }
+        return victim;
+    }
+
+    /**
+     * Account for a record read in the sequential access detection.
+     * 
+     * @param  handle The handle of the record about to be read.
+     * 
+     * @return        The last block id worth fetching on a miss.
+     */
+    private int noteRead(MemoryHandle handle) {
+        int blockId = findBlockId(handle);
+        int lastBlockId = (handle.getPos()
+                + Math.max(handle.getDataSize(), 1) - 1) / sizeBuffer;
+        int readAheadTo = lastBlockId;
+        if (readAhead > 0) {
+            // records starting where the previous one ended are sequential
+            sequentialRun = (blockId == nextSequentialBlockId
+                    || blockId == nextSequentialBlockId - 1)
+                            ? sequentialRun + 1
+                            : 0;
+            nextSequentialBlockId = lastBlockId + 1;
+            if (sequentialRun >= 2) {
+                readAheadTo += readAhead;
+            }
+        }
+        return readAheadTo;
+    }
+
+    /**
+     * Find the buffer holding a block to be read, loading it if missing.
+     * 
+     * @param  blockId     The block id.
+     * @param  readAheadTo The last block id worth fetching on a miss.
+     * 
+     * @return             The buffer holding blockId.
+     */
+    private Buffer fetchBlock(int blockId, int readAheadTo) {
+        Buffer buffer = blockIndex.get(blockId);
+
+        if (buffer != null) {
+            // block with proper id was found
+            ++cacheHits;
+            policy.recordHit(buffer);
+        }
+        else {
+            // no suitable buffer found
+            // need to overwrite the buffer picked by the policy
+            // works even if the victim buffer is empty
+            ++cacheMisses;
+            if (readAhead >= 0) {
+                buffer = readAheadFrom(blockId, readAheadTo);
+            }
+            else {
+                buffer = evict(blockId);
+                writeBufferFromDisk(blockId, buffer);
+                assignBlock(buffer, blockId);
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Load a missing block together with the missing blocks right after it,
+     * up to a given block, using a single read into the staging area. The
+     * blocks are installed from the last to the first so that the requested
+     * block is the most recently admitted one.
+     * 
+     * @param  blockId     The missing block id.
+     * @param  lastBlockId The last block id worth fetching.
+     * 
+     * @return             The buffer holding blockId.
+     */
+    private Buffer readAheadFrom(int blockId, int lastBlockId) {
+        lastBlockId = Math.min(lastBlockId, largestBlockIdWritten);
+        lastBlockId = Math.min(lastBlockId, blockId + readAheadWindow - 1);
+        int count = 1;
+        while (blockId + count <= lastBlockId
+                && blockIndex.get(blockId + count) == null) {
+            ++count;
+        }
+
+        try {
+            diskIOFile.readBlocks(blockId, readAheadBytes, count);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        diskReads += count;
+
+        Buffer buffer = null;
+        for (int i = count - 1; i >= 0; --i) {
+            buffer = evict(blockId + i);
+            System.arraycopy(readAheadBytes, i * sizeBuffer,
+                    buffer.getDataBytes(), 0, sizeBuffer);
+            assignBlock(buffer, blockId + i);
+        }
+        return buffer;
+    }
+
+    /**
+     * Make a buffer hold a block and record it in the index.
+     * 
+     * @param buffer  The buffer taken for the block.
+     * @param blockId The block id that the buffer now holds.
+     */
+    private void assignBlock(Buffer buffer, int blockId) {
+        buffer.setBlockId(blockId);
+        blockIndex.put(blockId, buffer);
     }
 
     /**
@@ -198,14 +815,14 @@ public class BufferPool {
      */
     private void writeBufferFromDisk(int blockId, Buffer bufferInPool) {
         try {
-            // move to the beginning of the block
-            diskIOFile.seek(blockId * sizeBuffer);
-            diskIOFile.read(bufferInPool.getDataBytes(), 0, sizeBuffer);
+            diskIOFile.readBlock(blockId, bufferInPool.getDataBytes());
             bufferInPool.setBlockId(blockId);
             ++diskReads;
         }
-        catch (Exception e) {
-            System.out.println(e.getMessage());
+        catch (IOException e) {
+            // the victim has left the index and no longer holds its block
+            bufferInPool.setBlockId(-1);
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -215,15 +832,18 @@ public class BufferPool {
      * @param bufferInPool The buffer to be written to the file.
      */
     private void writeBufferToDisk(Buffer bufferInPool) {
+        if (log != null) {
+            log.sync();
+        }
         try {
-            // move to the beginning of the block
-            diskIOFile.seek(bufferInPool.getBlockId() * sizeBuffer);
-            diskIOFile.write(bufferInPool.getDataBytes());
+            diskIOFile.writeBlock(bufferInPool.getBlockId(),
+                    bufferInPool.getDataBytes());
             bufferInPool.markClean();
+            --numDirty;
             ++diskWrites;
         }
-        catch (Exception e) {
-            System.out.println(e.getMessage());
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -1,7 +1,12 @@
 import student.TestCase;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Test the class BufferPool.
@@ -105,6 +110,21 @@ public class BufferPoolTest extends TestCase {
         assertEquals(new String(retrievedData), "abracadabra");
     }
 
+    /** Test counting the accesses that span more than one block. */
+    public void testSpanningAccesses() {
+        doubleRAfileSize();
+        doubleRAfileSize();
+        byte[] data = "abracadabra".getBytes();
+        pool.insertBytes(data, new MemoryHandle(0, 16, data.length));
+        assertEquals(pool.getSpanningAccesses(), 0);
+        MemoryHandle handle = new MemoryHandle(8, 16, data.length);
+        pool.insertBytes(data, handle);
+        assertEquals(pool.getSpanningAccesses(), 1);
+        pool.getBytes(new byte[data.length], handle);
+        assertEquals(pool.getSpanningAccesses(), 2);
+        assertEquals(pool.getBufferSize(), 16);
+    }
+
     /** Get code coverage. */
     public void testGetCoverage() {
         String expectedOutput = "\nGetting code coverage\n-------------\n";
@@ -122,6 +142,179 @@ public class BufferPoolTest extends TestCase {
         deleteIOfile();
     }
 
+    /** Test that flush writes every dirty buffer and leaves them clean. */
+    public void testFlush() {
+        doubleRAfileSize();
+        doubleRAfileSize();
+        // blocks 0 to 2 are adjacent and go out together with block 3
+        pool.insertBytes("abracadabra-abracadabra-abracadabra".getBytes(),
+                new MemoryHandle(0, 64, 35));
+        pool.insertBytes("xy".getBytes(), new MemoryHandle(48, 2, 2));
+        pool.flush();
+        assertEquals(pool.getDiskWrites(), 4);
+        assertFalse(pool.toString().contains("dirty"));
+
+        // nothing is left to write
+        pool.flush();
+        assertEquals(pool.getDiskWrites(), 4);
+
+        try {
+            byte[] onDisk = new byte[2];
+            raFile.seek(48);
+            raFile.read(onDisk);
+            assertEquals(new String(onDisk), "xy");
+        }
+        catch (Exception e) {
+            System.out.println(e.getMessage());
+        }
+        pool.close();
+        deleteIOfile();
+    }
+
+    /** Test that the missing blocks of a record are fetched at once. */
+    public void testReadAhead() {
+        pool.enableReadAhead(0);
+        byte[] data = "0123456789abcdef0123456789ABCDEF0123456789abcdef-end"
+                .getBytes();
+        MemoryHandle handle = new MemoryHandle(0, 64, data.length);
+        pool.insertBytes(data, handle);
+        // push the record's blocks out of the five buffers
+        pool.insertBytes(new byte[64], new MemoryHandle(64, 64, 64));
+        int missesBefore = pool.getCacheMisses();
+
+        byte[] retrieved = new byte[data.length];
+        pool.getBytes(retrieved, handle);
+        assertEquals(new String(retrieved), new String(data));
+        // read-ahead fetches up to half of the five buffers at once, so two
+        // misses fetched all four blocks
+        assertEquals(pool.getCacheMisses() - missesBefore, 2);
+        assertEquals(pool.getDiskReads(), 4);
+        pool.close();
+        deleteIOfile();
+    }
+
+    /** Test the method getSlice. */
+    public void testGetSlice() {
+        byte[] data = "0123456789abcdefXYZ".getBytes();
+        pool.insertBytes(data, new MemoryHandle(0, 32, data.length));
+
+        // within block 0, a view over the cached bytes
+        ByteBuffer slice = pool.getSlice(new MemoryHandle(4, 8, 8));
+        assertEquals(slice.limit(), 8);
+        assertTrue(slice.array() == pool.getBuffers()[0].getDataBytes()
+                || slice.array() == pool.getBuffers()[1].getDataBytes());
+        assertEquals(new String(slice.array(), slice.arrayOffset(), 8),
+                "456789ab");
+
+        // spanning blocks 0 and 1, a copy
+        slice = pool.getSlice(new MemoryHandle(12, 8, 7));
+        assertEquals(new String(slice.array()), "cdefXYZ");
+        assertEquals(pool.getCacheHits(), 3);
+        pool.close();
+        deleteIOfile();
+    }
+
+    /**
+     * Test that the pool can be used while a flush is writing, and that a
+     * block changed meanwhile is left dirty for the next flush.
+     */
+    public void testUseDuringFlush() throws Exception {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        BlockFile slowFile = new RandomAccessBlockFile(raFile, 16) {
+            @Override
+            public void writeBlocks(int firstBlockId, byte[][] blocks,
+                    int count) throws IOException {
+                writing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.writeBlocks(firstBlockId, blocks, count);
+            }
+        };
+        final BufferPool slowPool = new BufferPool(5, 16, slowFile,
+                new LRUPolicy());
+        slowPool.insertBytes("xy".getBytes(), new MemoryHandle(0, 2, 2));
+        final boolean[] flushed = new boolean[1];
+        Thread flush = new Thread(new Runnable() {
+            public void run() {
+                slowPool.flush();
+                flushed[0] = true;
+            }
+        });
+        flush.start();
+        writing.await();
+
+        byte[] read = new byte[2];
+        slowPool.getBytes(read, new MemoryHandle(0, 2, 2));
+        slowPool.insertBytes("zw".getBytes(), new MemoryHandle(0, 2, 2));
+        assertFalse(flushed[0]);
+        release.countDown();
+        flush.join();
+        assertEquals(new String(read), "xy");
+        assertTrue(slowPool.toString().startsWith("0 dirty"));
+
+        byte[] onDisk = new byte[2];
+        raFile.seek(0);
+        raFile.read(onDisk);
+        assertEquals(new String(onDisk), "xy");
+        slowPool.close();
+        raFile = new RandomAccessFile(ioFile, "r");
+        raFile.read(onDisk);
+        assertEquals(new String(onDisk), "zw");
+        closeRAfile();
+        deleteIOfile();
+    }
+
+    /** Test that a failed flush throws and leaves the blocks dirty. */
+    public void testFlushFailure() {
+        pool.insertBytes("xy".getBytes(), new MemoryHandle(0, 2, 2));
+        closeRAfile();
+        for (int attempt = 0; attempt < 2; ++attempt) {
+            // a retry fails too, instead of finding nothing to write
+            try {
+                pool.flush();
+                fail();
+            }
+            catch (UncheckedIOException e) {
+                assertTrue(pool.toString().startsWith("0 dirty"));
+                assertEquals(pool.getDiskWrites(), 0);
+            }
+        }
+        for (Buffer buffer : pool.getBuffers()) {
+            assertFalse(buffer.isPinned());
+        }
+        deleteIOfile();
+    }
+
+    /** Test that a failed disk read or truncation reaches the caller. */
+    public void testDiskFailure() {
+        closeRAfile();
+        systemOut().clearHistory();
+        try {
+            pool.getBytes(new byte[4], new MemoryHandle(0, 4, 4));
+            fail();
+        }
+        catch (UncheckedIOException e) {
+            assertEquals(systemOut().getHistory(), "");
+        }
+        // the buffer taken for the block doesn't claim to hold it
+        for (Buffer buffer : pool.getBuffers()) {
+            assertEquals(buffer.getBlockId(), -1);
+        }
+        try {
+            pool.truncate(0);
+            fail();
+        }
+        catch (UncheckedIOException e) {
+            assertEquals(systemOut().getHistory(), "");
+        }
+        deleteIOfile();
+    }
+
     /** Double the size of the disk file used for I/O. */
     private void doubleRAfileSize() {
         try {
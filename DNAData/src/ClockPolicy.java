@@ -0,0 +1,111 @@
+/**
+ * CLOCK replacement, the usual approximation of LRU. Buffers sit on a ring
+ * and each has a reference bit that is set on every access. The clock hand
+ * sweeps the ring, clearing set bits, and stops at the first buffer whose bit
+ * is clear. A hit costs a single store instead of a list update.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class ClockPolicy implements ReplacementPolicy {
+    /** Policy tag of a buffer whose reference bit is clear. */
+    private static final int UNREFERENCED = 0;
+
+    /** Policy tag of a buffer whose reference bit is set. */
+    private static final int REFERENCED = 1;
+
+    /** The buffers on the ring. */
+    private Buffer[] ring;
+
+    /** Number of buffers placed on the ring. */
+    private int count;
+
+    /** Position of the clock hand on the ring. */
+    private int hand;
+
+    /**
+     * Construct a ClockPolicy.
+     * 
+     * @param numBuffers The number of buffers that will be handed over.
+     */
+    ClockPolicy(int numBuffers) {
+        ring = new Buffer[numBuffers];
+        count = 0;
+        hand = 0;
+    }
+
+    /**
+     * Hand a buffer that does not hold any block yet to the policy.
+     * 
+     * @param buffer A buffer with the block id -1.
+     */
+    @Override
+    public void addFree(Buffer buffer) {
+        buffer.setPolicyTag(UNREFERENCED);
+        ring[count++] = buffer;
+    }
+
+    /**
+     * Record that a cached buffer was accessed.
+     * 
+     * @param buffer The buffer that was read or written.
+     */
+    @Override
+    public void recordHit(Buffer buffer) {
+        buffer.setPolicyTag(REFERENCED);
+    }
+
+    /**
+     * Pick the buffer that will hold a block that is not cached.
+     * 
+     * @param  blockId The block id about to be loaded.
+     * 
+     * @return         The buffer to be overwritten, null if every buffer is
+     *                 pinned.
+     */
+    @Override
+    public Buffer admit(int blockId) {
+        // one sweep clears every bit, so the second one finds an unpinned
+        // buffer if there is any
+        for (int step = 0; step < 2 * count; ++step) {
+            Buffer buffer = ring[hand];
+            hand = (hand + 1) % count;
+            if (buffer.isPinned()) {
+                continue;
+            }
+            if (buffer.getPolicyTag() == REFERENCED) {
+                buffer.setPolicyTag(UNREFERENCED);
+                continue;
+            }
+            buffer.setPolicyTag(REFERENCED);
+            return buffer;
+        }
+        return null;
+    }
+
+    /**
+     * Get the buffers in the order the policy keeps them.
+     * 
+     * @return Array of all buffers handed to the policy.
+     */
+    @Override
+    public Buffer[] getBuffers() {
+        // the buffer right behind the hand is the last one the hand reaches
+        Buffer[] result = new Buffer[count];
+        for (int i = 0; i < count; ++i) {
+            result[i] = ring[(hand + count - 1 - i) % count];
+        }
+        return result;
+    }
+
+    /**
+     * Get the name of the policy.
+     * 
+     * @return The name used to pick the policy on the command line.
+     */
+    @Override
+    public String getName() {
+        return "clock";
+    }
+}
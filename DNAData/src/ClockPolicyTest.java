@@ -0,0 +1,40 @@
+import student.TestCase;
+
+/**
+ * Test the ClockPolicy class.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class ClockPolicyTest extends TestCase {
+    /** Test that referenced buffers get a second chance. */
+    public void testSecondChance() {
+        PolicyTestHelper helper =
+                new PolicyTestHelper(new ClockPolicy(3), 3);
+        helper.access(1);
+        helper.access(2);
+        helper.access(3);
+        // every bit is set, one sweep clears them and the hand comes back
+        assertEquals(helper.access(4), 1);
+        // 2 and 3 are clear now, 2 is referenced again
+        helper.access(2);
+        assertEquals(helper.access(5), 3);
+        assertTrue(helper.isCached(2));
+        assertEquals(helper.listing(), "5 2 4");
+        assertEquals(new ClockPolicy(1).getName(), "clock");
+    }
+
+    /** Test that pinned buffers are never evicted. */
+    public void testPinned() {
+        PolicyTestHelper helper = new PolicyTestHelper(new ClockPolicy(2), 2);
+        helper.access(1);
+        helper.access(2);
+        helper.setPinned(1, true);
+        assertEquals(helper.access(3), 2);
+        helper.setPinned(3, true);
+        assertEquals(helper.access(4), -2);
+        helper.setPinned(3, false);
+        assertEquals(helper.access(4), 3);
+    }
+}
@@ -0,0 +1,238 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A buffer pool that can be used by several threads at once. The buffers are
+ * split among partitions, each a BufferPool with its own lock, index and
+ * replacement policy, and block b belongs to partition b % partitions. A
+ * thread holds a partition's lock only to look a block up or to pick a
+ * victim; the copy in or out of a buffer happens under the buffer's latch,
+ * with the buffer pinned so that it can't be evicted meanwhile.
+ *
+ * A record spanning several blocks is copied one block at a time, so a
+ * reader racing a writer of the same record may see some blocks before and
+ * some after the write. Callers needing whole-record atomicity must order
+ * such accesses themselves.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class ConcurrentBufferPool {
+    /** The number of bytes present in each of the buffers in the pool. */
+    private int sizeBuffer;
+
+    /** The partitions, each guarding its share of the buffers. */
+    private BufferPool[] partitions;
+
+    /** The file shared by the partitions. */
+    private BlockFile diskIOFile;
+
+    /**
+     * Construct a ConcurrentBufferPool object.
+     *
+     * @param numBuffers    Number of buffers in the pool.
+     * @param sizeBuffer    Number of bytes per buffer.
+     * @param diskIOFile    Block file for disk I/O, using sizeBuffer blocks.
+     * @param policyName    Name of the replacement policy of each partition.
+     * @param numPartitions Number of partitions, at most numBuffers.
+     */
+    ConcurrentBufferPool(int numBuffers, int sizeBuffer, BlockFile diskIOFile,
+            String policyName, int numPartitions) {
+        this.sizeBuffer = sizeBuffer;
+        this.diskIOFile = diskIOFile;
+        numPartitions = Math.max(1, Math.min(numPartitions, numBuffers));
+        partitions = new BufferPool[numPartitions];
+        for (int i = 0; i < numPartitions; ++i) {
+            // spread the remainder over the first partitions
+            int share = numBuffers / numPartitions
+                    + (i < numBuffers % numPartitions ? 1 : 0);
+            partitions[i] = new BufferPool(share, sizeBuffer, diskIOFile,
+                    ReplacementPolicy.forName(policyName, share));
+        }
+    }
+
+    /**
+     * Store bytes from space to appropriate buffer(s). Use handle for guidance.
+     *
+     * @param space  Byte array to be stored.
+     * @param handle MemoryHandle object to guide store data.
+     */
+    public void insertBytes(byte[] space, MemoryHandle handle) {
+        int blockId = handle.getPos() / sizeBuffer;
+        int bufferOffset = handle.getPos() % sizeBuffer;
+        int remainingBytes = handle.getDataSize();
+
+        do {
+            BufferPool partition = getPartition(blockId);
+            Buffer buffer = partition.pin(blockId, true);
+            boolean dirtied = !buffer.isDirty();
+            int spaceOffset = handle.getDataSize() - remainingBytes;
+            remainingBytes -= buffer.insert(space, remainingBytes,
+                    spaceOffset, bufferOffset);
+            partition.unpin(buffer, true, dirtied);
+
+            ++blockId;
+            bufferOffset = 0;
+        } while (remainingBytes > 0);
+    }
+
+    /**
+     * Retrieve bytes from the buffer(s) or from the disk file as appropriate.
+     *
+     * @param space  Byte array that will be overwritten by retrieved data.
+     * @param handle MemoryHandle object to guide retrieve data.
+     */
+    public void getBytes(byte[] space, MemoryHandle handle) {
+        int blockId = handle.getPos() / sizeBuffer;
+        int bufferOffset = handle.getPos() % sizeBuffer;
+        int remainingBytes = handle.getDataSize();
+
+        do {
+            BufferPool partition = getPartition(blockId);
+            Buffer buffer = partition.pin(blockId, false);
+            int spaceOffset = handle.getDataSize() - remainingBytes;
+            remainingBytes -= buffer.getBytes(space, remainingBytes,
+                    spaceOffset, bufferOffset);
+            partition.unpin(buffer, false, false);
+
+            ++blockId;
+            bufferOffset = 0;
+        } while (remainingBytes > 0);
+    }
+
+    /**
+     * Get a string with info on buffers, partition by partition, followed by
+     * the counters summed over the partitions.
+     *
+     * @return String representation of the buffer pool.
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        try {
+            appendTo(result);
+        }
+        catch (IOException e) {
+            // a StringBuilder is never closed
+        }
+        return result.toString();
+    }
+
+    /**
+     * Write the info on buffers, as toString has it, without building the
+     * whole listing first.
+     *
+     * @param  out         Where the info is written, e.g. System.out.
+     *
+     * @throws IOException If out can't be written.
+     */
+    public void appendTo(Appendable out) throws IOException {
+        for (BufferPool partition : partitions) {
+            for (Buffer buffer : partition.getBuffers()) {
+                out.append(buffer.toString()).append('\n');
+            }
+        }
+        out.append("Cache hits: ").append(String.valueOf(getCacheHits()))
+                .append("\nDisk reads: ")
+                .append(String.valueOf(getDiskReads()))
+                .append("\nDisk writes: ")
+                .append(String.valueOf(getDiskWrites()));
+    }
+
+    /** Write every dirty buffer to the disk. */
+    public void flush() {
+        for (BufferPool partition : partitions) {
+            partition.flushDirtyBuffers();
+        }
+    }
+
+    /**
+     * Write every dirty buffer to the disk and close the disk file. The pool
+     * must not be used afterwards.
+     *
+     * @throws UncheckedIOException If a block can't be written or the disk
+     *                              file can't be closed.
+     */
+    public void close() {
+        flush();
+        try {
+            diskIOFile.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Get the number of partitions.
+     *
+     * @return Number of independently locked partitions.
+     */
+    public int getNumPartitions() {
+        return partitions.length;
+    }
+
+    /**
+     * Get the number of times a requested block was found in the buffers.
+     *
+     * @return Number of cache hits over all partitions.
+     */
+    public int getCacheHits() {
+        int sum = 0;
+        for (BufferPool partition : partitions) {
+            sum += partition.getCacheHits();
+        }
+        return sum;
+    }
+
+    /**
+     * Get the number of times a requested block was not found in the buffers.
+     *
+     * @return Number of cache misses over all partitions.
+     */
+    public int getCacheMisses() {
+        int sum = 0;
+        for (BufferPool partition : partitions) {
+            sum += partition.getCacheMisses();
+        }
+        return sum;
+    }
+
+    /**
+     * Get the number of blocks read from the disk.
+     *
+     * @return Number of disk reads over all partitions.
+     */
+    public int getDiskReads() {
+        int sum = 0;
+        for (BufferPool partition : partitions) {
+            sum += partition.getDiskReads();
+        }
+        return sum;
+    }
+
+    /**
+     * Get the number of blocks written to the disk.
+     *
+     * @return Number of disk writes over all partitions.
+     */
+    public int getDiskWrites() {
+        int sum = 0;
+        for (BufferPool partition : partitions) {
+            sum += partition.getDiskWrites();
+        }
+        return sum;
+    }
+
+    /**
+     * Find the partition owning a block.
+     *
+     * @param  blockId The block id.
+     *
+     * @return         The partition caching blockId.
+     */
+    private BufferPool getPartition(int blockId) {
+        return partitions[blockId % partitions.length];
+    }
+} // class ConcurrentBufferPool
@@ -0,0 +1,150 @@
+import student.TestCase;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+/**
+ * Test the ConcurrentBufferPool class.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class ConcurrentBufferPoolTest extends TestCase {
+    /** Number of threads hammering the pool. */
+    private static final int THREADS = 4;
+
+    /** Number of records each thread owns. */
+    private static final int RECORDS = 50;
+
+    /** Length of a record, spanning two or three blocks. */
+    private static final int LENGTH = 20;
+
+    /** File used for I/O. */
+    private File ioFile;
+
+    /** The pool being tested. */
+    private ConcurrentBufferPool pool;
+
+    /** Sets up the tests that follow. */
+    public void setUp() {
+        try {
+            ioFile = new File(".concurrentTest.raw");
+            ioFile.delete();
+            // few buffers so that threads keep evicting each other's blocks
+            pool = new ConcurrentBufferPool(6, 16,
+                    new RandomAccessBlockFile(
+                            new RandomAccessFile(ioFile, "rw"), 16),
+                    "lru", 3);
+        }
+        catch (Exception e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /** Cleans up after each test. */
+    public void tearDown() {
+        ioFile.delete();
+    }
+
+    /** Test single threaded use and the string representation. */
+    public void testInsertGet() throws Exception {
+        byte[] data = "ABCDEFGHIJKLMNOPQRST".getBytes();
+        MemoryHandle handle = new MemoryHandle(10, 20, 20);
+        pool.insertBytes(data, handle);
+        byte[] read = new byte[20];
+        pool.getBytes(read, handle);
+        assertEquals(new String(read), "ABCDEFGHIJKLMNOPQRST");
+        assertEquals(pool.getNumPartitions(), 3);
+        assertEquals(pool.getCacheHits(), 2);
+        assertEquals(pool.getCacheMisses(), 2);
+        assertEquals(pool.toString(), "0 dirty\n-1 clean\n1 dirty\n"
+                + "-1 clean\n-1 clean\n-1 clean\n"
+                + "Cache hits: 2\nDisk reads: 0\nDisk writes: 0");
+        StringBuilder dump = new StringBuilder();
+        pool.appendTo(dump);
+        assertEquals(dump.toString(), pool.toString());
+        pool.close();
+        assertEquals(pool.getDiskWrites(), 2);
+        assertEquals(ioFile.length(), 32);
+    }
+
+    /**
+     * Test that threads writing and reading their own records at the same
+     * time never see each other's bytes.
+     */
+    public void testThreads() throws Exception {
+        final boolean[] failed = new boolean[1];
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; ++t) {
+            final int owner = t;
+            threads[t] = new Thread(new Runnable() {
+                public void run() {
+                    for (int round = 0; round < 3; ++round) {
+                        for (int r = 0; r < RECORDS; ++r) {
+                            pool.insertBytes(record(owner, r, round),
+                                    handle(owner, r));
+                        }
+                        for (int r = 0; r < RECORDS; ++r) {
+                            byte[] read = new byte[LENGTH];
+                            pool.getBytes(read, handle(owner, r));
+                            if (!Arrays.equals(read,
+                                    record(owner, r, round))) {
+                                failed[0] = true;
+                            }
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(failed[0]);
+
+        // everything must be on the disk once the pool is closed
+        pool.close();
+        RandomAccessFile file = new RandomAccessFile(ioFile, "r");
+        byte[] read = new byte[LENGTH];
+        for (int t = 0; t < THREADS; ++t) {
+            for (int r = 0; r < RECORDS; ++r) {
+                file.seek(handle(t, r).getPos());
+                file.readFully(read);
+                assertTrue(Arrays.equals(read, record(t, r, 2)));
+            }
+        }
+        file.close();
+    }
+
+    /**
+     * Build the content of a record.
+     *
+     * @param  owner The thread owning the record.
+     * @param  r     The record number.
+     * @param  round The round of writes.
+     *
+     * @return       LENGTH bytes unique to the record and round.
+     */
+    private static byte[] record(int owner, int r, int round) {
+        byte[] data = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; ++i) {
+            data[i] = (byte) (owner * 61 + r * 7 + round * 3 + i);
+        }
+        return data;
+    }
+
+    /**
+     * Get the handle of a record. Records of all threads are interleaved.
+     *
+     * @param  owner The thread owning the record.
+     * @param  r     The record number.
+     *
+     * @return       The handle of the record.
+     */
+    private static MemoryHandle handle(int owner, int r) {
+        return new MemoryHandle((r * THREADS + owner) * LENGTH, LENGTH,
+                LENGTH);
+    }
+}
@@ -0,0 +1,124 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Packs DNA code sequences with two bits per base. A, C, G and T are packed
+ * four to a byte, first base in the high bits. Any other symbol, which must
+ * fit in one byte, is stored as an escape, its position and its byte, and
+ * takes the slot of an A in the packed bases. The packed form is:
+ *
+ * <pre>
+ * int  number of bases
+ * int  number of escapes
+ * escapes, each an int position and a byte symbol
+ * packed bases, (number of bases + 3) / 4 bytes
+ * </pre>
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class DNACodec {
+    /** The bases in the order of their two-bit codes. */
+    private static final String BASES = "ACGT";
+
+    /** Number of bytes taken by one escape. */
+    private static final int ESCAPE_BYTES = Integer.BYTES + 1;
+
+    /** No instances, the codec only has static methods. */
+    private DNACodec() {
+    }
+
+    /**
+     * Compute the number of bytes a sequence takes once packed.
+     *
+     * @param  dnaCode The DNA code sequence.
+     *
+     * @return         Number of bytes written by pack.
+     */
+    public static int getPackedSize(String dnaCode) {
+        int numEscapes = 0;
+        for (int i = 0; i < dnaCode.length(); ++i) {
+            if (getCode(dnaCode.charAt(i)) < 0) {
+                ++numEscapes;
+            }
+        }
+        return 2 * Integer.BYTES + numEscapes * ESCAPE_BYTES
+                + (dnaCode.length() + 3) / 4;
+    }
+
+    /**
+     * Pack a sequence at the position of a byte buffer, advancing it.
+     *
+     * @param dnaCode The DNA code sequence.
+     * @param buffer  Buffer with at least getPackedSize(dnaCode) bytes
+     *                remaining.
+     */
+    public static void pack(String dnaCode, ByteBuffer buffer) {
+        int length = dnaCode.length();
+        buffer.putInt(length);
+        // the number of escapes is filled in once they are written
+        int countAt = buffer.position();
+        buffer.putInt(0);
+        int numEscapes = 0;
+        for (int i = 0; i < length; ++i) {
+            char symbol = dnaCode.charAt(i);
+            if (getCode(symbol) < 0) {
+                buffer.putInt(i);
+                buffer.put((byte) symbol);
+                ++numEscapes;
+            }
+        }
+        buffer.putInt(countAt, numEscapes);
+
+        int packed = 0;
+        for (int i = 0; i < length; ++i) {
+            packed = (packed << 2) | Math.max(getCode(dnaCode.charAt(i)), 0);
+            if (i % 4 == 3) {
+                buffer.put((byte) packed);
+                packed = 0;
+            }
+        }
+        if (length % 4 != 0) {
+            // left align the bases of the last partial byte
+            buffer.put((byte) (packed << (2 * (4 - length % 4))));
+        }
+    }
+
+    /**
+     * Unpack a sequence in place, without copying the packed bytes.
+     *
+     * @param  buffer The buffer holding the packed sequence.
+     * @param  offset Position in buffer where the packed sequence starts.
+     *
+     * @return        The DNA code sequence.
+     */
+    public static String unpack(ByteBuffer buffer, int offset) {
+        int length = buffer.getInt(offset);
+        int numEscapes = buffer.getInt(offset + Integer.BYTES);
+        int escapesAt = offset + 2 * Integer.BYTES;
+        int basesAt = escapesAt + numEscapes * ESCAPE_BYTES;
+
+        char[] dnaCode = new char[length];
+        for (int i = 0; i < length; ++i) {
+            int packed = buffer.get(basesAt + i / 4);
+            dnaCode[i] = BASES.charAt((packed >> (6 - 2 * (i % 4))) & 3);
+        }
+        for (int e = 0; e < numEscapes; ++e) {
+            int at = escapesAt + e * ESCAPE_BYTES;
+            dnaCode[buffer.getInt(at)] =
+                    (char) (buffer.get(at + Integer.BYTES) & 0xFF);
+        }
+        return new String(dnaCode);
+    }
+
+    /**
+     * Get the two-bit code of a base.
+     *
+     * @param  symbol A symbol of a DNA code sequence.
+     *
+     * @return        The code from 0 to 3, -1 if symbol must be escaped.
+     */
+    private static int getCode(char symbol) {
+        return BASES.indexOf(symbol);
+    }
+}
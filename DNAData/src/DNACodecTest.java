@@ -0,0 +1,58 @@
+import student.TestCase;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Test the DNACodec class.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class DNACodecTest extends TestCase {
+    /** Test sizes and round trips of plain sequences. */
+    public void testRoundTrip() {
+        String[] codes = {"", "A", "ACG", "ACGT", "TTTTGGGGCCCCAAAAT",
+            "GATTACAGATTACAGATTACA"};
+        for (String code : codes) {
+            assertEquals(DNACodec.getPackedSize(code),
+                    8 + (code.length() + 3) / 4);
+            assertEquals(unpacked(code), code);
+        }
+    }
+
+    /** Test that symbols other than A, C, G and T are escaped. */
+    public void testEscapes() {
+        String code = "NACGTRYacgtN";
+        // eight escapes of five bytes each, lower case included
+        assertEquals(DNACodec.getPackedSize(code), 8 + 40 + 3);
+        assertEquals(unpacked(code), code);
+    }
+
+    /** Test unpacking at an offset, as records are stored. */
+    public void testOffset() {
+        String code = "CAGTN";
+        ByteBuffer buffer = ByteBuffer.allocate(12
+                + DNACodec.getPackedSize(code));
+        buffer.putLong(7);
+        buffer.putInt(3);
+        DNACodec.pack(code, buffer);
+        assertFalse(buffer.hasRemaining());
+        assertEquals(DNACodec.unpack(buffer, 12), code);
+    }
+
+    /**
+     * Pack and unpack a sequence.
+     * 
+     * @param  code The DNA code sequence.
+     * 
+     * @return      The sequence after a round trip.
+     */
+    private static String unpacked(String code) {
+        ByteBuffer buffer = ByteBuffer.allocate(
+                DNACodec.getPackedSize(code));
+        DNACodec.pack(code, buffer);
+        assertEquals(buffer.position(), buffer.capacity());
+        return DNACodec.unpack(buffer, 0);
+    }
+}
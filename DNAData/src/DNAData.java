@@ -22,8 +22,8 @@
 // during the discussion. I have violated neither the spirit nor
 // letter of this restriction.
 
-import java.io.File;
-import java.util.Scanner;
+import java.io.FileInputStream;
+import java.io.IOException;
 
 /**
  * The class with main function for the DNAData project.
@@ -38,17 +38,18 @@ public class DNAData {
      *             [1] Buffer size.
      *             [2] Initial hash size.
      *             [3] The file with commands to be executed.
+     *             [4...] Optional settings, see DNADataOptions.
      * 
      */
     public static void main(String[] args) {
-        if (args.length != 4) {
+        if (args.length < 4) {
             System.out.println("Bad argument count! Usage: \n"
                     + "DNAData <number-of-buffers> <buffer-size> "
                     + "<initial-hash-size> <command-file>");
             return;
         }
 
-        // now we have exactly four arguments passed
+        // now we have at least four arguments passed
         // @note its assumed that they will result
         // into successful parser
         //
@@ -63,14 +64,23 @@ public class DNAData {
             return;
         }
 
+        DNADataOptions options = new DNADataOptions();
+        for (int i = 4; i < args.length; ++i) {
+            if (!options.parse(args[i])) {
+                System.out.println("Unrecognized option |" + args[i] + "|");
+                return;
+            }
+        }
+
         // now the arguments are in order lets check if the commands file is in
         // order too
         //
-        // scanner object to parse the command file
-        Scanner sc;
+        // tokenizer to parse the command file
+        ByteTokenizer tokens;
 
         try {
-            sc = new Scanner(new File(args[3]));
+            tokens = new ByteTokenizer(
+                    new FileInputStream(args[3]).getChannel());
         }
         catch (Exception e) {
             System.out.println(e.getMessage());
@@ -79,44 +89,102 @@ public class DNAData {
 
         // Now we are ready to execute the commands from the command file
 
-        // The world object for this session is now initialized.
-        World world = new World(numBuffs, buffSize, numHashSlots);
+        // buffer the output of the session instead of flushing every line
+        OutputSink sink = new OutputSink();
+        try {
+            // The world object for this session is now initialized.
+            World world = new World(numBuffs, buffSize, numHashSlots,
+                    options);
 
-        while (sc.hasNext()) {
-            String cmd = sc.next();
+            runCommands(world, tokens);
+            // delete the disk file used for I/O, or checkpoint a persistent
+            // store
+            world.close();
+        }
+        finally {
+            sink.close();
+        }
+    }
 
-            if (cmd.equals("add")) {
-                world.addRecord(sc.nextLine());
-            }
-            else if (cmd.equals("delete")) {
-                world.deleteRecord(sc.nextLine());
-            }
-            else if (cmd.equals("print")) {
-                String printTarget = sc.next();
-                if (printTarget.equals("hashtable")) {
-                    world.printHashtable();
+    /**
+     * Execute all commands read by a tokenizer on a world, closing the
+     * tokenizer at the end. Commands are matched and their arguments parsed
+     * in the tokenizer's buffer, so only the printed messages allocate.
+     * 
+     * @param world  The world the commands act on.
+     * @param tokens Tokenizer over the commands.
+     */
+    static void runCommands(World world, ByteTokenizer tokens) {
+        try {
+            while (tokens.next()) {
+                if (tokens.matches("add")) {
+                    world.addRecord(tokens);
+                    tokens.skipLine();
+                }
+                else if (tokens.matches("load")) {
+                    world.bulkLoad(tokens.restOfLine());
                 }
-                else if (printTarget.equals("blocks")) {
-                    world.printBlocks();
+                else if (tokens.matches("delete")) {
+                    tokens.nextInLine();
+                    world.deleteRecord(tokens.toLong());
+                    tokens.skipLine();
                 }
-                else if (printTarget.equals("buffers")) {
-                    world.printBuffers();
+                else if (tokens.matches("print")) {
+                    runPrint(world, tokens);
                 }
-                else if (printTarget.equals("record")) {
-                    world.printRecord(sc.nextLine());
+                else if (tokens.matches("defrag")) {
+                    world.defrag();
+                    tokens.skipLine();
                 }
                 else {
-                    System.out.println("Invalid target |" + printTarget
-                            + "| for printing!");
+                    System.out.println("Unrecognized input: |" + tokens
+                            + "|");
                 }
             }
-            else {
-                System.out.println("Unrecognized input: |" + cmd + "|");
-            }
+            tokens.close();
+        }
+        catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Execute a print command whose target is the next token.
+     * 
+     * @param  world       The world the command acts on.
+     * @param  tokens      Tokenizer positioned after the word print.
+     * 
+     * @throws IOException If the commands can't be read.
+     */
+    private static void runPrint(World world, ByteTokenizer tokens)
+            throws IOException {
+        tokens.nextToken();
+        if (tokens.matches("hashtable")) {
+            world.printHashtable();
+        }
+        else if (tokens.matches("blocks")) {
+            world.printBlocks();
+        }
+        else if (tokens.matches("buffers")) {
+            world.printBuffers();
+        }
+        else if (tokens.matches("record")) {
+            tokens.nextInLine();
+            world.printRecord(tokens.toLong());
+            tokens.skipLine();
+        }
+        else if (tokens.matches("probes")) {
+            world.printProbes();
+        }
+        else if (tokens.matches("stats")) {
+            world.printStats();
+        }
+        else if (tokens.matches("metrics")) {
+            world.printMetrics();
+        }
+        else {
+            System.out.println("Invalid target |" + tokens
+                    + "| for printing!");
         }
-        // done with the scanner object
-        sc.close();
-        // delete the disk file used for I/O.
-        world.deleteIOfileFromDisk();
     }
 }
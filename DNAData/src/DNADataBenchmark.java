@@ -0,0 +1,196 @@
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Replays DNAData command files with each buffer replacement policy and
+ * each encoding of the DNA code, and reports the bytes stored, the cache hit
+ * ratio, the disk traffic and the throughput. The regular output of the
+ * commands is discarded while replaying.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class DNADataBenchmark {
+    /** The policies compared by the benchmark. */
+    private static final String[] POLICIES = {"lru", "clock", "2q", "arc"};
+
+    /** The encodings compared by the benchmark. */
+    private static final String[] ENCODINGS = {"ascii", "2bit"};
+
+    /**
+     * @param args [0] Number of buffers.
+     *             [1] Buffer size.
+     *             [2] Initial hash size.
+     *             [3...] The command files to be replayed, mixed with
+     *             optional settings (see DNADataOptions) that apply to
+     *             every run. The policy setting is overridden, and so is
+     *             the encoding unless it is given.
+     */
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.out.println("Usage: DNADataBenchmark <number-of-buffers> "
+                    + "<buffer-size> <initial-hash-size> [-option=value]... "
+                    + "<command-file>...");
+            return;
+        }
+        int numBuffs = Integer.parseInt(args[0]);
+        int buffSize = Integer.parseInt(args[1]);
+        int numHashSlots = Integer.parseInt(args[2]);
+
+        String[] encodings = ENCODINGS;
+        for (int j = 3; j < args.length; ++j) {
+            if (args[j].startsWith("-encoding=")) {
+                encodings = new String[] {args[j].substring(10)};
+            }
+        }
+
+        System.out.println(String.format("%-20s %-6s %-5s %10s %10s %10s %7s"
+                + " %10s %10s %9s %11s", "file", "policy", "enc", "bytes",
+                "hits", "misses", "ratio", "reads", "writes", "millis",
+                "cmds/sec"));
+        for (int i = 3; i < args.length; ++i) {
+            if (args[i].startsWith("-")) {
+                continue;
+            }
+            for (String encoding : encodings) {
+                for (String policy : POLICIES) {
+                    DNADataOptions options = new DNADataOptions();
+                    for (int j = 3; j < args.length; ++j) {
+                        if (args[j].startsWith("-")
+                                && !options.parse(args[j])) {
+                            System.out.println("Unrecognized option |"
+                                    + args[j] + "|");
+                            return;
+                        }
+                    }
+                    options.setPolicy(policy);
+                    options.parse("-encoding=" + encoding);
+                    replay(args[i], numBuffs, buffSize, numHashSlots,
+                            options);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replay one command file and print one line of results.
+     * 
+     * @param fileName     The command file.
+     * @param numBuffs     Number of buffers.
+     * @param buffSize     Buffer size.
+     * @param numHashSlots Initial hash size.
+     * @param options      Optional settings of the session.
+     */
+    static void replay(String fileName, int numBuffs, int buffSize,
+            int numHashSlots, DNADataOptions options) {
+        int numCommands = countCommands(fileName);
+        ByteTokenizer tokens = openCommands(fileName);
+        if (tokens == null) {
+            return;
+        }
+
+        World world = new World(numBuffs, buffSize, numHashSlots, options);
+        long elapsed = runSilently(world, tokens);
+        world.deleteIOfileFromDisk();
+
+        BufferPool pool = world.getBufferPool();
+        int accesses = pool.getCacheHits() + pool.getCacheMisses();
+        double ratio = accesses == 0 ? 0 : (double) pool.getCacheHits()
+                / accesses;
+        double millis = elapsed / 1e6;
+        System.out.println(String.format("%-20s %-6s %-5s %10d %10d %10d %7.4f"
+                + " %10d %10d %9.1f %11.0f", new File(fileName).getName(),
+                pool.getPolicyName(), options.isPacked() ? "2bit" : "ascii",
+                world.getBytesStored(), pool.getCacheHits(),
+                pool.getCacheMisses(), ratio, pool.getDiskReads(),
+                pool.getDiskWrites(), millis,
+                numCommands / Math.max(millis, 1e-3) * 1000));
+    }
+
+    /**
+     * Open a command file for replaying.
+     * 
+     * @param  fileName The command file.
+     * 
+     * @return          A tokenizer over the file, null if it can't be read.
+     */
+    static ByteTokenizer openCommands(String fileName) {
+        try {
+            return new ByteTokenizer(
+                    new FileInputStream(fileName).getChannel());
+        }
+        catch (Exception e) {
+            System.out.println(e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Run commands on a world with their regular output discarded.
+     * 
+     * @param  world  The world.
+     * @param  tokens The commands.
+     * 
+     * @return        Time the commands took in nanoseconds.
+     */
+    static long runSilently(World world, ByteTokenizer tokens) {
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(new NullOutputStream()));
+        long start = System.nanoTime();
+        try {
+            DNAData.runCommands(world, tokens);
+        }
+        finally {
+            System.setOut(stdout);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Count the non-blank lines of a command file.
+     * 
+     * @param  fileName The command file.
+     * 
+     * @return          Number of commands in the file, 0 if it can't be read.
+     */
+    private static int countCommands(String fileName) {
+        int count = 0;
+        try {
+            FileInputStream in = new FileInputStream(fileName);
+            count = (int) ByteTokenizer.countLines(in);
+            in.close();
+        }
+        catch (Exception e) {
+            System.out.println(e.getMessage());
+        }
+        return count;
+    }
+
+    /** An output stream that discards everything written to it. */
+    static class NullOutputStream extends OutputStream {
+        /**
+         * Discard a byte.
+         * 
+         * @param b The byte to be discarded.
+         */
+        @Override
+        public void write(int b) {
+            // discarded
+        }
+
+        /**
+         * Discard bytes.
+         * 
+         * @param b   The bytes.
+         * @param off Start offset.
+         * @param len Number of bytes.
+         */
+        @Override
+        public void write(byte[] b, int off, int len) {
+            // discarded
+        }
+    }
+}
@@ -0,0 +1,508 @@
+/**
+ * Optional settings of a DNAData session. They are given on the command line
+ * after the four required arguments, each in the form -name=value, and all
+ * default to the behavior of the original project.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class DNADataOptions {
+    /** Name of the buffer replacement policy. */
+    private String policy;
+
+    /** Whether the disk file is memory mapped instead of seeked. */
+    private boolean memoryMapped;
+
+    /**
+     * Percentage of dirty buffers at which the write-behind flusher starts
+     * cleaning, 0 if there is no flusher.
+     */
+    private int writeBehind;
+
+    /**
+     * Number of blocks past a record to read ahead when access is sequential,
+     * -1 if read-ahead is disabled.
+     */
+    private int readAhead;
+
+    /** Whether DNA code sequences are stored with two bits per base. */
+    private boolean packed;
+
+    /** Name of the kind of hash table holding the record keys. */
+    private String table;
+
+    /** Name of the allocator placing records in the memory pool. */
+    private String allocator;
+
+    /** Whether records are kept within the blocks of the disk file. */
+    private boolean aligned;
+
+    /** Whether the HashTable is resized a few entries at a time. */
+    private boolean incrementalResize;
+
+    /** Whether the hash table is compacted once tombstones pile up. */
+    private boolean compaction;
+
+    /**
+     * Percentage of external fragmentation at which the memory pool is
+     * compacted, -1 if it is only compacted by the defrag command.
+     */
+    private int defragThreshold;
+
+    /**
+     * Name of the persistent store, null if the data file is deleted at
+     * exit.
+     */
+    private String store;
+
+    /**
+     * Number of operations per sync of the write-ahead log of the store, 0
+     * if operations are not logged.
+     */
+    private int logBatch;
+
+    /**
+     * File the latencies of the record operations are written to at exit,
+     * null if they are not written.
+     */
+    private String metricsFile;
+
+    /** Construct the default options. */
+    DNADataOptions() {
+        readAhead = -1;
+        policy = "lru";
+        memoryMapped = false;
+        writeBehind = 0;
+        packed = false;
+        table = "object";
+        allocator = "buddy";
+        aligned = false;
+        incrementalResize = false;
+        compaction = false;
+        defragThreshold = -1;
+        store = null;
+        logBatch = 0;
+        metricsFile = null;
+    }
+
+    /**
+     * Apply one command line option.
+     * 
+     * @param  option An option like -policy=arc.
+     * 
+     * @return        True if the option was recognized and applied.
+     */
+    public boolean parse(String option) {
+        int split = option.indexOf('=');
+        if (!option.startsWith("-") || split < 0) {
+            return false;
+        }
+        String name = option.substring(1, split);
+        String value = option.substring(split + 1);
+
+        if (name.equals("policy")) {
+            if (ReplacementPolicy.forName(value, 1) == null) {
+                return false;
+            }
+            setPolicy(value);
+            return true;
+        }
+        if (name.equals("io")) {
+            if (!value.equals("raf") && !value.equals("mmap")) {
+                return false;
+            }
+            setMemoryMapped(value.equals("mmap"));
+            return true;
+        }
+        if (name.equals("writebehind")) {
+            int percent = parsePercent(value);
+            if (percent < 0) {
+                return false;
+            }
+            setWriteBehind(percent);
+            return true;
+        }
+        if (name.equals("readahead")) {
+            try {
+                int blocks = Integer.parseInt(value);
+                if (blocks < 0) {
+                    return false;
+                }
+                setReadAhead(blocks);
+                return true;
+            }
+            catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        if (name.equals("encoding")) {
+            if (!value.equals("ascii") && !value.equals("2bit")) {
+                return false;
+            }
+            setPacked(value.equals("2bit"));
+            return true;
+        }
+        if (name.equals("table")) {
+            if (RecordIndex.forName(value, 1, false) == null) {
+                return false;
+            }
+            setTable(value);
+            return true;
+        }
+        if (name.equals("allocator")) {
+            if (Allocator.forName(value, 1, 1, false) == null) {
+                return false;
+            }
+            setAllocator(value);
+            return true;
+        }
+        if (name.equals("align")) {
+            if (!value.equals("on") && !value.equals("off")) {
+                return false;
+            }
+            setAligned(value.equals("on"));
+            return true;
+        }
+        if (name.equals("resize")) {
+            if (!value.equals("full") && !value.equals("incremental")) {
+                return false;
+            }
+            setIncrementalResize(value.equals("incremental"));
+            return true;
+        }
+        if (name.equals("compact")) {
+            if (!value.equals("on") && !value.equals("off")) {
+                return false;
+            }
+            setCompaction(value.equals("on"));
+            return true;
+        }
+        if (name.equals("defrag")) {
+            int percent = parsePercent(value);
+            if (percent < 0) {
+                return false;
+            }
+            setDefragThreshold(percent);
+            return true;
+        }
+        if (name.equals("store")) {
+            if (value.isEmpty()) {
+                return false;
+            }
+            setStore(value);
+            return true;
+        }
+        if (name.equals("metrics")) {
+            if (value.isEmpty()) {
+                return false;
+            }
+            setMetricsFile(value);
+            return true;
+        }
+        if (name.equals("wal")) {
+            try {
+                int batch = Integer.parseInt(value);
+                if (batch < 0) {
+                    return false;
+                }
+                setLogBatch(batch);
+                return true;
+            }
+            catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Getter for the buffer replacement policy name.
+     * 
+     * @return One of lru, clock, 2q or arc.
+     */
+    public String getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Setter for the buffer replacement policy name.
+     * 
+     * @param policy One of lru, clock, 2q or arc.
+     */
+    public void setPolicy(String policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Check if the disk file is memory mapped, set by -io=mmap.
+     * 
+     * @return True for memory mapped I/O, false for seek and read/write.
+     */
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
+    /**
+     * Setter for memory mapped I/O.
+     * 
+     * @param memoryMapped True to map the disk file into memory.
+     */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+    /**
+     * Get the dirty buffer percentage that starts the write-behind flusher,
+     * set by -writebehind=percent.
+     * 
+     * @return Percentage from 1 to 100, 0 if write-behind is disabled.
+     */
+    public int getWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Setter for the write-behind high-water mark.
+     * 
+     * @param percent Percentage from 1 to 100, 0 to disable write-behind.
+     */
+    public void setWriteBehind(int percent) {
+        writeBehind = percent;
+    }
+
+    /**
+     * Get the number of blocks past a record to read ahead, set by
+     * -readahead=blocks.
+     * 
+     * @return Number of blocks, -1 if read-ahead is disabled.
+     */
+    public int getReadAhead() {
+        return readAhead;
+    }
+
+    /**
+     * Setter for read-ahead.
+     * 
+     * @param blocks Number of blocks past a record to read ahead when access
+     *               is sequential, 0 to read only the blocks of a record at
+     *               once, -1 to disable read-ahead.
+     */
+    public void setReadAhead(int blocks) {
+        readAhead = blocks;
+    }
+
+    /**
+     * Check if DNA code sequences are packed, set by -encoding=2bit.
+     * 
+     * @return True for two bits per base, false for one byte per symbol.
+     */
+    public boolean isPacked() {
+        return packed;
+    }
+
+    /**
+     * Setter for the packed encoding of DNA code sequences.
+     * 
+     * @param packed True to store two bits per base.
+     */
+    public void setPacked(boolean packed) {
+        this.packed = packed;
+    }
+
+    /**
+     * Getter for the kind of hash table holding the record keys.
+     * 
+     * @return One of object, primitive or robinhood.
+     */
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * Setter for the kind of hash table holding the record keys.
+     * 
+     * @param table One of object, primitive or robinhood.
+     */
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    /**
+     * Getter for the name of the allocator, set by -allocator.
+     * 
+     * @return One of buddy, slab or extent.
+     */
+    public String getAllocator() {
+        return allocator;
+    }
+
+    /**
+     * Setter for the name of the allocator. Persistent stores always use
+     * buddy.
+     * 
+     * @param allocator One of buddy, slab or extent.
+     */
+    public void setAllocator(String allocator) {
+        this.allocator = allocator;
+    }
+
+    /**
+     * Check if the allocator keeps records no longer than a buffer within
+     * one block of the disk file, set by -align=on.
+     * 
+     * @return True to avoid records spanning two blocks, false to place
+     *         them wherever they waste the least space.
+     */
+    public boolean isAligned() {
+        return aligned;
+    }
+
+    /**
+     * Setter for block-aligned placement of records.
+     * 
+     * @param aligned True to keep records within the blocks.
+     */
+    public void setAligned(boolean aligned) {
+        this.aligned = aligned;
+    }
+
+    /**
+     * Check if the HashTable is resized incrementally, set by
+     * -resize=incremental. It only applies to the object table.
+     * 
+     * @return True to migrate entries a few at a time, false to rehash them
+     *         all at once.
+     */
+    public boolean isIncrementalResize() {
+        return incrementalResize;
+    }
+
+    /**
+     * Setter for incremental resizing.
+     * 
+     * @param incrementalResize True to resize the HashTable incrementally.
+     */
+    public void setIncrementalResize(boolean incrementalResize) {
+        this.incrementalResize = incrementalResize;
+    }
+
+    /**
+     * Check if the hash table is compacted once active and deleted entries
+     * fill three quarters of it, set by -compact=on.
+     * 
+     * @return True to compact, false to keep tombstones until the table is
+     *         doubled.
+     */
+    public boolean isCompaction() {
+        return compaction;
+    }
+
+    /**
+     * Setter for hash table compaction.
+     * 
+     * @param compaction True to compact the hash table.
+     */
+    public void setCompaction(boolean compaction) {
+        this.compaction = compaction;
+    }
+
+    /**
+     * Get the fragmentation threshold of the memory pool, set by
+     * -defrag=percent. Once that percentage of the free bytes lies outside
+     * the largest free block, the pool is compacted if that lets it shrink
+     * or saves a record from doubling it.
+     * 
+     * @return The percentage, -1 if the pool is only compacted by the
+     *         defrag command.
+     */
+    public int getDefragThreshold() {
+        return defragThreshold;
+    }
+
+    /**
+     * Setter for the fragmentation threshold of the memory pool.
+     * 
+     * @param defragThreshold The percentage, -1 to disable automatic
+     *                        compaction.
+     */
+    public void setDefragThreshold(int defragThreshold) {
+        this.defragThreshold = defragThreshold;
+    }
+
+    /**
+     * Get the name of the persistent store, set by -store=name. The records
+     * are kept in name.raw and the checkpoint of the index in name.idx.
+     * 
+     * @return The name, null if the store is not persistent.
+     */
+    public String getStore() {
+        return store;
+    }
+
+    /**
+     * Setter for the persistent store.
+     * 
+     * @param store The name of the store, null to delete the data file at
+     *              exit.
+     */
+    public void setStore(String store) {
+        this.store = store;
+    }
+
+    /**
+     * Get the number of operations per sync of the write-ahead log, set by
+     * -wal=operations. It only applies to a persistent store.
+     * 
+     * @return Number of operations, 1 to sync each operation before it is
+     *         acknowledged, 0 if operations are not logged.
+     */
+    public int getLogBatch() {
+        return logBatch;
+    }
+
+    /**
+     * Setter for the write-ahead log batch size.
+     * 
+     * @param logBatch Number of operations per sync, 0 to disable the log.
+     */
+    public void setLogBatch(int logBatch) {
+        this.logBatch = logBatch;
+    }
+
+    /**
+     * Get the file the latencies of the record operations are written to as
+     * comma separated values at exit, set by -metrics=file.
+     * 
+     * @return The name of the file, null if the metrics are only printed.
+     */
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    /**
+     * Setter for the metrics file.
+     * 
+     * @param metricsFile The name of the file, null to not write one.
+     */
+    public void setMetricsFile(String metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
+    /**
+     * Parse a percentage.
+     * 
+     * @param  value String holding an integer from 0 to 100.
+     * 
+     * @return       The percentage, -1 if value is not one.
+     */
+    private static int parsePercent(String value) {
+        try {
+            int percent = Integer.parseInt(value);
+            return (percent < 0 || percent > 100) ? -1 : percent;
+        }
+        catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
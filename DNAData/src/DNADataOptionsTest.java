@@ -0,0 +1,168 @@
+import student.TestCase;
+
+/**
+ * Test the DNADataOptions class.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class DNADataOptionsTest extends TestCase {
+    /** Test the defaults and parsing of the policy option. */
+    public void testPolicy() {
+        DNADataOptions options = new DNADataOptions();
+        assertEquals(options.getPolicy(), "lru");
+        assertTrue(options.parse("-policy=arc"));
+        assertEquals(options.getPolicy(), "arc");
+        assertFalse(options.parse("-policy=mru"));
+        assertFalse(options.parse("-policy"));
+        assertFalse(options.parse("policy=lru"));
+        assertFalse(options.parse("-colour=red"));
+        assertEquals(options.getPolicy(), "arc");
+    }
+
+    /** Test parsing of the io option. */
+    public void testIO() {
+        DNADataOptions options = new DNADataOptions();
+        assertFalse(options.isMemoryMapped());
+        assertTrue(options.parse("-io=mmap"));
+        assertTrue(options.isMemoryMapped());
+        assertTrue(options.parse("-io=raf"));
+        assertFalse(options.isMemoryMapped());
+        assertFalse(options.parse("-io=aio"));
+    }
+
+    /** Test parsing of the writebehind option. */
+    public void testWriteBehind() {
+        DNADataOptions options = new DNADataOptions();
+        assertEquals(options.getWriteBehind(), 0);
+        assertTrue(options.parse("-writebehind=75"));
+        assertEquals(options.getWriteBehind(), 75);
+        assertFalse(options.parse("-writebehind=101"));
+        assertFalse(options.parse("-writebehind=lots"));
+        assertEquals(options.getWriteBehind(), 75);
+    }
+
+    /** Test parsing of the readahead option. */
+    public void testReadAhead() {
+        DNADataOptions options = new DNADataOptions();
+        assertEquals(options.getReadAhead(), -1);
+        assertTrue(options.parse("-readahead=0"));
+        assertEquals(options.getReadAhead(), 0);
+        assertTrue(options.parse("-readahead=16"));
+        assertEquals(options.getReadAhead(), 16);
+        assertFalse(options.parse("-readahead=-2"));
+        assertFalse(options.parse("-readahead=some"));
+    }
+
+    /** Test the encoding option. */
+    public void testEncoding() {
+        DNADataOptions options = new DNADataOptions();
+        assertFalse(options.isPacked());
+        assertTrue(options.parse("-encoding=2bit"));
+        assertTrue(options.isPacked());
+        assertTrue(options.parse("-encoding=ascii"));
+        assertFalse(options.isPacked());
+        assertFalse(options.parse("-encoding=utf8"));
+    }
+
+    /** Test the table option. */
+    public void testTable() {
+        DNADataOptions options = new DNADataOptions();
+        assertEquals(options.getTable(), "object");
+        assertTrue(options.parse("-table=primitive"));
+        assertEquals(options.getTable(), "primitive");
+        assertTrue(options.parse("-table=robinhood"));
+        assertEquals(options.getTable(), "robinhood");
+        assertFalse(options.parse("-table=array"));
+        assertEquals(options.getTable(), "robinhood");
+    }
+
+    /** Test the allocator option. */
+    public void testAllocator() {
+        DNADataOptions options = new DNADataOptions();
+        assertEquals(options.getAllocator(), "buddy");
+        assertTrue(options.parse("-allocator=slab"));
+        assertEquals(options.getAllocator(), "slab");
+        assertTrue(options.parse("-allocator=extent"));
+        assertEquals(options.getAllocator(), "extent");
+        assertFalse(options.parse("-allocator=bump"));
+        assertEquals(options.getAllocator(), "extent");
+    }
+
+    /** Test the align option. */
+    public void testAlign() {
+        DNADataOptions options = new DNADataOptions();
+        assertFalse(options.isAligned());
+        assertTrue(options.parse("-align=on"));
+        assertTrue(options.isAligned());
+        assertFalse(options.parse("-align=yes"));
+        assertTrue(options.isAligned());
+        assertTrue(options.parse("-align=off"));
+        assertFalse(options.isAligned());
+    }
+
+    /** Test the resize option. */
+    public void testResize() {
+        DNADataOptions options = new DNADataOptions();
+        assertFalse(options.isIncrementalResize());
+        assertTrue(options.parse("-resize=incremental"));
+        assertTrue(options.isIncrementalResize());
+        assertTrue(options.parse("-resize=full"));
+        assertFalse(options.isIncrementalResize());
+        assertFalse(options.parse("-resize=lazy"));
+    }
+
+    /** Test the compact option. */
+    public void testCompact() {
+        DNADataOptions options = new DNADataOptions();
+        assertFalse(options.isCompaction());
+        assertTrue(options.parse("-compact=on"));
+        assertTrue(options.isCompaction());
+        assertTrue(options.parse("-compact=off"));
+        assertFalse(options.isCompaction());
+        assertFalse(options.parse("-compact=1"));
+    }
+
+    /** Test the store option. */
+    public void testStore() {
+        DNADataOptions options = new DNADataOptions();
+        assertNull(options.getStore());
+        assertTrue(options.parse("-store=records"));
+        assertEquals(options.getStore(), "records");
+        assertFalse(options.parse("-store="));
+        assertEquals(options.getStore(), "records");
+    }
+
+    /** Test the wal option. */
+    public void testLogBatch() {
+        DNADataOptions options = new DNADataOptions();
+        assertEquals(options.getLogBatch(), 0);
+        assertTrue(options.parse("-wal=8"));
+        assertEquals(options.getLogBatch(), 8);
+        assertFalse(options.parse("-wal=-1"));
+        assertFalse(options.parse("-wal=always"));
+        assertEquals(options.getLogBatch(), 8);
+    }
+
+    /** Test the metrics option. */
+    public void testMetrics() {
+        DNADataOptions options = new DNADataOptions();
+        assertNull(options.getMetricsFile());
+        assertTrue(options.parse("-metrics=latency.csv"));
+        assertEquals(options.getMetricsFile(), "latency.csv");
+        assertFalse(options.parse("-metrics="));
+        assertEquals(options.getMetricsFile(), "latency.csv");
+    }
+
+    /** Test the defrag option. */
+    public void testDefrag() {
+        DNADataOptions options = new DNADataOptions();
+        assertEquals(options.getDefragThreshold(), -1);
+        assertTrue(options.parse("-defrag=40"));
+        assertEquals(options.getDefragThreshold(), 40);
+        assertFalse(options.parse("-defrag=101"));
+        assertFalse(options.parse("-defrag=on"));
+        assertEquals(options.getDefragThreshold(), 40);
+    }
+}
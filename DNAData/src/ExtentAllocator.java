@@ -0,0 +1,173 @@
+import java.io.IOException;
+
+/**
+ * An allocator that gives each record an extent of its own size, rounded up
+ * to a few bytes, taken from the shortest free extent it fits in. When it
+ * is aligned to the blocks of the disk file, a record no longer than a
+ * block is placed within one block and a longer one starts at a block
+ * boundary, so reading or writing a record touches as few buffers as
+ * possible. Freed extents are merged with their free neighbours. Little
+ * space is lost to rounding, but free space can be left in gaps too short
+ * for the next record.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class ExtentAllocator implements Allocator {
+    /** Extents are multiples of this many bytes. */
+    private static final int GRANULE = 8;
+
+    /** Total number of bytes managed. */
+    private int poolSize;
+
+    /** Size of the blocks records are kept within, 0 for none. */
+    private int blockSize;
+
+    /** The free extents of the pool. */
+    private FreeExtentMap free;
+
+    /** Statistics of the allocations, splits, merges and doublings. */
+    private AllocatorStats stats;
+
+    /** Whether growing the pool goes unreported. */
+    private boolean quiet;
+
+    /**
+     * Construct an allocator with the whole pool free.
+     *
+     * @param poolSize  Total number of bytes to start managing.
+     * @param blockSize Size of the blocks of the disk file, a power of two,
+     *                  to keep records within them, or 0 to place records
+     *                  anywhere.
+     */
+    ExtentAllocator(int poolSize, int blockSize) {
+        this.poolSize = poolSize;
+        this.blockSize = blockSize;
+        free = new FreeExtentMap();
+        free.add(0, poolSize);
+        stats = new AllocatorStats();
+        quiet = false;
+    }
+
+    /**
+     * Take an extent for data out of the free extents, doubling the pool
+     * until one fits.
+     *
+     * @param  dataSize Number of bytes to be stored.
+     *
+     * @return          A MemoryHandle of the extent.
+     */
+    @Override
+    public MemoryHandle allocate(int dataSize) {
+        long start = System.nanoTime();
+        int length = Math.max((dataSize + GRANULE - 1) / GRANULE * GRANULE,
+                GRANULE);
+        int extents = free.size();
+        int pos = free.take(length, blockSize);
+        while (pos < 0) {
+            doublePoolSize();
+            extents = free.size();
+            pos = free.take(length, blockSize);
+        }
+        if (free.size() >= extents) {
+            stats.recordSplit();
+        }
+        stats.recordAllocation(length, dataSize, System.nanoTime() - start);
+        return new MemoryHandle(pos, length, dataSize);
+    }
+
+    /**
+     * Give an extent back, merging it with the free extents next to it.
+     *
+     * @param handle A MemoryHandle returned by allocate.
+     */
+    @Override
+    public void free(MemoryHandle handle) {
+        stats.recordFree(handle.getBlockSize(), handle.getDataSize());
+        int merges = free.add(handle.getPos(), handle.getBlockSize());
+        for (int i = 0; i < merges; ++i) {
+            stats.recordMerge();
+        }
+    }
+
+    /**
+     * Count an extent that is in use but was not allocated here.
+     *
+     * @param handle The MemoryHandle of the extent.
+     */
+    @Override
+    public void markUsed(MemoryHandle handle) {
+        stats.recordUsed(handle.getBlockSize(), handle.getDataSize());
+    }
+
+    /**
+     * Get the size of the pool.
+     *
+     * @return Total number of bytes managed.
+     */
+    @Override
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Take a snapshot of the statistics.
+     *
+     * @return The statistics so far, with the free extents as free blocks.
+     */
+    @Override
+    public AllocatorStats getStats() {
+        return stats.snapshot(poolSize, free.size(), free.getTotalLength(),
+                free.getLongest());
+    }
+
+    /**
+     * Write the free extents, one line per length with their positions.
+     *
+     * @param  out         Where the free extents are written.
+     *
+     * @throws IOException If out can't be written.
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        if (free.size() == 0) {
+            out.append("No free blocks are available.");
+            return;
+        }
+        free.appendTo(out);
+    }
+
+    /**
+     * Get the name of the allocator.
+     *
+     * @return "extent".
+     */
+    @Override
+    public String getName() {
+        return "extent";
+    }
+
+    /**
+     * Set whether growing the pool goes unreported.
+     *
+     * @param quiet True to leave the messages out.
+     */
+    @Override
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    /** Double the size of the pool, adding the new half as free. */
+    private void doublePoolSize() {
+        if (free.add(poolSize, poolSize) > 0) {
+            stats.recordMerge();
+        }
+        poolSize *= 2;
+        stats.recordDoubling();
+        if (!quiet) {
+            System.out.println("Memory pool expanded to be " + poolSize
+                    + " bytes.");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+import student.TestCase;
+
+import java.io.IOException;
+
+/**
+ * Test the ExtentAllocator class.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class ExtentAllocatorTest extends TestCase {
+    /**
+     * Test placing, freeing and merging extents.
+     *
+     * @throws IOException Never, the listing is written to a builder.
+     */
+    public void testAllocateAndFree() throws IOException {
+        ExtentAllocator allocator = new ExtentAllocator(64, 32);
+        assertEquals(allocator.getName(), "extent");
+        MemoryHandle first = allocator.allocate(13);
+        assertEquals(first, new MemoryHandle(0, 16, 13));
+        // 16 to 39 would cross the block boundary at 32
+        assertEquals(allocator.allocate(20), new MemoryHandle(32, 24, 20));
+        // the shortest free extent is 56 to 63
+        assertEquals(allocator.allocate(5), new MemoryHandle(56, 8, 5));
+        assertEquals(listing(allocator), "16:  16");
+
+        allocator.free(first);
+        assertEquals(listing(allocator), "32:  0");
+        AllocatorStats stats = allocator.getStats();
+        assertEquals(stats.getUsedBytes(), 32);
+        assertEquals(stats.getDataBytes(), 25);
+        assertEquals(stats.getFrees(), 1);
+        assertEquals(stats.getMerges(), 1);
+        assertEquals(stats.getFreeBytes(), 32);
+        assertEquals(stats.getLargestFree(), 32);
+    }
+
+    /**
+     * Test that the pool doubles until a record fits, a record longer than
+     * a block starting at a block boundary.
+     *
+     * @throws IOException Never, the listing is written to a builder.
+     */
+    public void testGrowth() throws IOException {
+        ExtentAllocator allocator = new ExtentAllocator(32, 32);
+        assertEquals(allocator.allocate(8), new MemoryHandle(0, 8, 8));
+        assertEquals(allocator.allocate(100), new MemoryHandle(32, 104,
+                100));
+        assertEquals(allocator.getPoolSize(), 256);
+        assertEquals(allocator.getStats().getDoublings(), 3);
+        assertEquals(listing(allocator), "24:  8\n120:  136");
+
+        allocator = new ExtentAllocator(16, 16);
+        allocator.allocate(16);
+        assertEquals(listing(allocator), "No free blocks are available.");
+    }
+
+    /** Test placing extents across block boundaries when not aligned. */
+    public void testUnaligned() {
+        ExtentAllocator allocator = new ExtentAllocator(32, 0);
+        allocator.allocate(8);
+        assertEquals(allocator.allocate(30), new MemoryHandle(8, 32, 30));
+
+        allocator = new ExtentAllocator(32, 32);
+        allocator.allocate(8);
+        assertEquals(allocator.allocate(30), new MemoryHandle(32, 32, 30));
+    }
+
+    /**
+     * List the free extents of an allocator.
+     *
+     * @param  allocator   The allocator.
+     *
+     * @return             The listing written by appendTo.
+     *
+     * @throws IOException Never, the listing is written to a builder.
+     */
+    private static String listing(Allocator allocator) throws IOException {
+        StringBuilder result = new StringBuilder();
+        allocator.appendTo(result);
+        return result.toString();
+    }
+}
@@ -0,0 +1,189 @@
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The free extents, i.e. ranges of any length, of a memory pool. Adjacent
+ * free extents are merged as soon as they are added. The extents are kept
+ * twice: by position, to find the neighbours of a freed extent, and by
+ * length, to find the shortest extent a request fits in. A request can ask
+ * not to be placed across a boundary of the blocks of the disk file, so
+ * that a record is read or written with as few block accesses as possible.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class FreeExtentMap {
+    /** Length of each free extent by its position. */
+    private TreeMap<Integer, Integer> byPos;
+
+    /** The free extents by length, as length << 32 | position. */
+    private TreeSet<Long> byLength;
+
+    /** Total length of the free extents. */
+    private long totalLength;
+
+    /** Construct a map without free extents. */
+    FreeExtentMap() {
+        byPos = new TreeMap<>();
+        byLength = new TreeSet<>();
+        totalLength = 0;
+    }
+
+    /**
+     * Get the number of free extents.
+     *
+     * @return Number of extents.
+     */
+    public int size() {
+        return byPos.size();
+    }
+
+    /**
+     * Get the total length of the free extents.
+     *
+     * @return Number of free bytes.
+     */
+    public long getTotalLength() {
+        return totalLength;
+    }
+
+    /**
+     * Get the length of the longest free extent.
+     *
+     * @return Number of bytes, 0 if nothing is free.
+     */
+    public int getLongest() {
+        return byLength.isEmpty() ? 0 : (int) (byLength.last() >>> 32);
+    }
+
+    /**
+     * Add a free extent, merging it with the free extents next to it.
+     *
+     * @param  pos    Position of the extent, not overlapping a free one.
+     * @param  length Length of the extent.
+     *
+     * @return        Number of extents it was merged with, from 0 to 2.
+     */
+    public int add(int pos, int length) {
+        int merges = 0;
+        Map.Entry<Integer, Integer> before = byPos.lowerEntry(pos);
+        if (before != null && before.getKey() + before.getValue() == pos) {
+            remove(before.getKey(), before.getValue());
+            pos = before.getKey();
+            length += before.getValue();
+            ++merges;
+        }
+        Integer after = byPos.get(pos + length);
+        if (after != null) {
+            remove(pos + length, after);
+            length += after;
+            ++merges;
+        }
+        put(pos, length);
+        return merges;
+    }
+
+    /**
+     * Take a range for a request out of the shortest free extent it fits
+     * in, at the lowest position of the extent that doesn't cross more
+     * block boundaries than needed: a request no longer than a block is
+     * kept within one block, and a longer one starts at a block boundary.
+     * What is left of the extent before and after the range stays free.
+     *
+     * @param  length    Length of the request.
+     * @param  blockSize Size of the blocks of the disk file, 0 if requests
+     *                   may be placed anywhere.
+     *
+     * @return           Position of the range, -1 if no extent fits it.
+     */
+    public int take(int length, int blockSize) {
+        Long key = byLength.ceiling((long) length << 32);
+        for (; key != null; key = byLength.higher(key)) {
+            int pos = (int) (key & 0xFFFFFFFFL);
+            int extent = (int) (key >>> 32);
+            int start = place(pos, length, blockSize);
+            if (start + (long) length <= pos + (long) extent) {
+                remove(pos, extent);
+                if (start > pos) {
+                    put(pos, start - pos);
+                }
+                if (start + length < pos + extent) {
+                    put(start + length, pos + extent - start - length);
+                }
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Write the free extents, one line per length with their positions in
+     * increasing order, like the free lists of a BuddyAllocator.
+     *
+     * @param  out         Where the free extents are written.
+     *
+     * @throws IOException If out can't be written.
+     */
+    public void appendTo(Appendable out) throws IOException {
+        long previous = -1;
+        for (long key : byLength) {
+            long length = key >>> 32;
+            if (length != previous) {
+                if (previous >= 0) {
+                    out.append('\n');
+                }
+                out.append(String.valueOf(length)).append(": ");
+                previous = length;
+            }
+            out.append(' ').append(String.valueOf(key & 0xFFFFFFFFL));
+        }
+    }
+
+    /**
+     * Find where a request goes in a free extent.
+     *
+     * @param  pos       Position of the extent.
+     * @param  length    Length of the request.
+     * @param  blockSize Size of the blocks, 0 if there are no boundaries.
+     *
+     * @return           Lowest position at or after pos the request can
+     *                   start at.
+     */
+    private static int place(int pos, int length, int blockSize) {
+        if (blockSize == 0 || pos % blockSize == 0) {
+            return pos;
+        }
+        if (length <= blockSize
+                && pos / blockSize == (pos + length - 1) / blockSize) {
+            return pos;
+        }
+        return (pos / blockSize + 1) * blockSize;
+    }
+
+    /**
+     * Record a free extent, without merging.
+     *
+     * @param pos    Position of the extent.
+     * @param length Length of the extent.
+     */
+    private void put(int pos, int length) {
+        byPos.put(pos, length);
+        byLength.add((long) length << 32 | pos);
+        totalLength += length;
+    }
+
+    /**
+     * Forget a free extent.
+     *
+     * @param pos    Position of the extent.
+     * @param length Length of the extent.
+     */
+    private void remove(int pos, int length) {
+        byPos.remove(pos);
+        byLength.remove((long) length << 32 | pos);
+        totalLength -= length;
+    }
+}
@@ -0,0 +1,72 @@
+import student.TestCase;
+
+import java.io.IOException;
+
+/**
+ * Test the FreeExtentMap class.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class FreeExtentMapTest extends TestCase {
+    /** Test that added extents are merged with their free neighbours. */
+    public void testAdd() {
+        FreeExtentMap map = new FreeExtentMap();
+        assertEquals(map.getLongest(), 0);
+        assertEquals(map.add(0, 16), 0);
+        assertEquals(map.add(32, 16), 0);
+        assertEquals(map.size(), 2);
+        assertEquals(map.getTotalLength(), 32);
+        assertEquals(map.add(16, 16), 2);
+        assertEquals(map.size(), 1);
+        assertEquals(map.getLongest(), 48);
+        assertEquals(map.add(48, 8), 1);
+        assertEquals(map.getTotalLength(), 56);
+    }
+
+    /**
+     * Test taking ranges out of the shortest extent they fit in without
+     * crossing block boundaries needlessly.
+     *
+     * @throws IOException Never, the listing is written to a builder.
+     */
+    public void testTake() throws IOException {
+        FreeExtentMap map = new FreeExtentMap();
+        map.add(0, 100);
+        assertEquals(map.take(10, 32), 0);
+        assertEquals(map.take(10, 32), 10);
+        // 20 to 39 would cross the block boundary at 32
+        assertEquals(map.take(20, 32), 32);
+        assertEquals(map.size(), 2);
+        // the shortest extent that fits, 20 to 31
+        assertEquals(map.take(12, 32), 20);
+        assertEquals(map.take(64, 0), -1);
+        // longer than a block, so it must start at 64
+        assertEquals(map.take(40, 32), -1);
+        assertEquals(map.take(36, 32), 64);
+        StringBuilder listing = new StringBuilder();
+        map.appendTo(listing);
+        assertEquals(listing.toString(), "12:  52");
+        assertEquals(map.take(12, 0), 52);
+        assertEquals(map.size(), 0);
+    }
+
+    /**
+     * Test listing the extents by length.
+     *
+     * @throws IOException Never, the listing is written to a builder.
+     */
+    public void testAppendTo() throws IOException {
+        FreeExtentMap map = new FreeExtentMap();
+        StringBuilder listing = new StringBuilder();
+        map.appendTo(listing);
+        assertEquals(listing.toString(), "");
+        map.add(40, 8);
+        map.add(0, 8);
+        map.add(16, 24);
+        listing = new StringBuilder();
+        map.appendTo(listing);
+        assertEquals(listing.toString(), "8:  0\n32:  16");
+    }
+}
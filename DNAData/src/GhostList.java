@@ -0,0 +1,95 @@
+/**
+ * A list of block ids of recently evicted blocks, used by replacement
+ * policies that remember history beyond the cached buffers. Each id is held
+ * by a zero sized Buffer descriptor so that the BufferList and BlockIndex
+ * classes give constant time membership tests, removal and reordering.
+ * Descriptors are recycled, so a full ghost list does not allocate.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class GhostList {
+    /** Descriptors from the most recently to the least recently added one. */
+    private BufferList ghosts;
+
+    /** Index from block ids to their descriptors. */
+    private BlockIndex index;
+
+    /** A descriptor kept for reuse, null if none. */
+    private Buffer spare;
+
+    /**
+     * Construct a GhostList.
+     * 
+     * @param capacity The number of ids the list is expected to hold.
+     */
+    GhostList(int capacity) {
+        ghosts = new BufferList();
+        index = new BlockIndex(capacity);
+        spare = null;
+    }
+
+    /**
+     * Get the number of ids in the list.
+     * 
+     * @return Number of remembered block ids.
+     */
+    public int getCount() {
+        return ghosts.getCount();
+    }
+
+    /**
+     * Check if a block id is remembered.
+     * 
+     * @param  blockId The block id being looked for.
+     * 
+     * @return         True if blockId is in the list.
+     */
+    public boolean contains(int blockId) {
+        return index.get(blockId) != null;
+    }
+
+    /**
+     * Remember a block id at the front of the list.
+     * 
+     * @param blockId A block id not in the list.
+     */
+    public void pushFront(int blockId) {
+        Buffer ghost = spare;
+        if (ghost == null) {
+            ghost = new Buffer(blockId, 0);
+        }
+        else {
+            ghost.setBlockId(blockId);
+            spare = null;
+        }
+        ghosts.pushFront(ghost);
+        index.put(blockId, ghost);
+    }
+
+    /**
+     * Forget a block id.
+     * 
+     * @param  blockId The block id to be forgotten.
+     * 
+     * @return         True if blockId was in the list.
+     */
+    public boolean remove(int blockId) {
+        Buffer ghost = index.remove(blockId);
+        if (ghost == null) {
+            return false;
+        }
+        ghosts.remove(ghost);
+        spare = ghost;
+        return true;
+    }
+
+    /** Forget the block id at the back of the list, if any. */
+    public void removeBack() {
+        Buffer ghost = ghosts.peekBack();
+        if (ghost != null) {
+            remove(ghost.getBlockId());
+        }
+    }
+}
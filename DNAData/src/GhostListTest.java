@@ -0,0 +1,34 @@
+import student.TestCase;
+
+/**
+ * Test the GhostList class.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class GhostListTest extends TestCase {
+    /** Test remembering and forgetting ids. */
+    public void testPushRemove() {
+        GhostList ghosts = new GhostList(2);
+        ghosts.pushFront(3);
+        ghosts.pushFront(5);
+        ghosts.pushFront(7);
+        assertEquals(ghosts.getCount(), 3);
+        assertTrue(ghosts.contains(5));
+
+        assertTrue(ghosts.remove(5));
+        assertFalse(ghosts.remove(5));
+        assertFalse(ghosts.contains(5));
+
+        // the oldest id goes first
+        ghosts.removeBack();
+        assertFalse(ghosts.contains(3));
+        assertTrue(ghosts.contains(7));
+        assertEquals(ghosts.getCount(), 1);
+
+        ghosts.removeBack();
+        ghosts.removeBack();
+        assertEquals(ghosts.getCount(), 0);
+    }
+}
@@ -1,3 +1,5 @@
+import java.io.IOException;
+
 /**
  * A hash table class to store a key-value record where key is of long integer
  * type and the value can be any Object. Key is hashed and found a position in
@@ -8,7 +10,13 @@
  * @version Mar 24, 2020
  *
  */
-public class HashTable {
+public class HashTable implements RecordIndex {
+    /** Number of old slots migrated by each operation during a resize. */
+    static final int MIGRATION_STEP = 4;
+
+    /** Slot index returned when probing finds no room for a new key. */
+    private static final int NO_ROOM = -2;
+
     /** The initialized size of the table. */
     private int initSize;
 
@@ -17,20 +25,62 @@ public class HashTable {
      */
     private int countActive;
 
+    /** The number of tombstones in tableData. */
+    private int countDeleted;
+
+    /** Probe length statistics. */
+    private ProbeStats probeStats;
+
     /**
      * The database handled by this hash table.
      */
     private TableEntry[] tableData;
 
+    /** Whether doubling migrates the entries a few at a time. */
+    private boolean incremental;
+
+    /**
+     * The database being migrated into tableData during an incremental
+     * resize, null otherwise.
+     */
+    private TableEntry[] oldData;
+
+    /** The next slot of oldData to be migrated. */
+    private int migrateNext;
+
+    /** Tombstone left in oldData in place of a migrated entry. */
+    private TableEntry movedEntry;
+
     /**
      * Construct a hash table.
      * 
      * @param tableSize The number of entries initialized.
      */
     HashTable(int tableSize) {
+        this(tableSize, false);
+    }
+
+    /**
+     * Construct a hash table, optionally resized incrementally. Doubling
+     * then only allocates the bigger table, and each following operation
+     * moves MIGRATION_STEP slots of the old table into it, so no single
+     * operation pays for rehashing the whole table. The slots the entries
+     * end up in may differ from a stop-the-world doubling since migrated
+     * entries and new ones arrive interleaved.
+     * 
+     * @param tableSize   The number of entries initialized.
+     * @param incremental True to resize incrementally.
+     */
+    HashTable(int tableSize, boolean incremental) {
         initSize = tableSize;
         countActive = 0;
+        countDeleted = 0;
+        probeStats = new ProbeStats();
         tableData = new TableEntry[tableSize];
+        this.incremental = incremental;
+        oldData = null;
+        movedEntry = new TableEntry(0, null);
+        movedEntry.markTombstone();
     }
 
     /**
@@ -51,6 +101,24 @@ public class HashTable {
         return countActive;
     }
 
+    /**
+     * Get the number of deleted entries still taking up slots.
+     * 
+     * @return Number of tombstones.
+     */
+    public int getCountDeleted() {
+        return countDeleted;
+    }
+
+    /**
+     * Get the probe length statistics of the table.
+     * 
+     * @return The statistics, updated as the table is used.
+     */
+    public ProbeStats getProbeStats() {
+        return probeStats;
+    }
+
     /**
      * Store value in the table along with key. Key is used for hashing.
      * 
@@ -60,7 +128,12 @@ public class HashTable {
      * @return       True if no duplicate pre-exist in the table.
      */
     public boolean insert(long key, Object value) {
-        int slot = findSlotForInsertion(key);
+        migrate(MIGRATION_STEP);
+        if (oldData != null && findSlot(oldData, key) != -1) {
+            // duplicate not migrated yet
+            return false;
+        }
+        int slot = findRoom(key);
         if (slot == -1) {
             // duplicate exists
             // insertion cannot be performed
@@ -68,6 +141,10 @@ public class HashTable {
         }
 
         // store the record
+        if (tableData[slot] != null) {
+            // reusing a tombstone
+            --countDeleted;
+        }
         tableData[slot] = new TableEntry(key, value);
         ++countActive;
         return true;
@@ -81,16 +158,26 @@ public class HashTable {
      * @return     True if key exists in the database.
      */
     public Object delete(long key) {
-        int slot = findSlot(key);
+        migrate(MIGRATION_STEP);
+        TableEntry[] data = tableData;
+        int slot = findSlot(data, key);
+        if (slot == -1 && oldData != null) {
+            data = oldData;
+            slot = findSlot(data, key);
+        }
         if (slot == -1) {
             // key doesn't exist
             return null;
         }
 
         // mark the deleted entry as a tombstone
-        tableData[slot].markTombstone();
+        data[slot].markTombstone();
         --countActive;
-        return tableData[slot].getValue();
+        if (data == tableData) {
+            // tombstones of the old table go away with it
+            ++countDeleted;
+        }
+        return data[slot].getValue();
     }
 
 
@@ -102,13 +189,41 @@ public class HashTable {
      * @return     The value corresponding to key if key exists, null otherwise.
      */
     public Object get(long key) {
-        int slot = findSlot(key);
+        migrate(MIGRATION_STEP);
+        TableEntry[] data = tableData;
+        int slot = findSlot(data, key);
+        if (slot == -1 && oldData != null) {
+            data = oldData;
+            slot = findSlot(data, key);
+        }
         if (slot == -1) {
             // key doesn't exist in the database
             return null;
         }
         // key exists
-        return tableData[slot].getValue();
+        return data[slot].getValue();
+    }
+
+    /**
+     * Replace the value of a key already in the table.
+     * 
+     * @param  key   The key of the entry.
+     * @param  value The new value.
+     * 
+     * @return       True if key was found and its value replaced.
+     */
+    public boolean replace(long key, Object value) {
+        TableEntry[] data = tableData;
+        int slot = findSlot(data, key);
+        if (slot == -1 && oldData != null) {
+            data = oldData;
+            slot = findSlot(data, key);
+        }
+        if (slot == -1) {
+            return false;
+        }
+        data[slot].setValue(value);
+        return true;
     }
 
     /**
@@ -126,42 +241,106 @@ public class HashTable {
      * database by rehashing.
      */
     public void doubleTableSize() {
-        HashTable biggerTable = new HashTable(2 * initSize);
+        if (incremental) {
+            // a resize still in progress is completed first
+            migrate(Integer.MAX_VALUE);
+            oldData = tableData;
+            migrateNext = 0;
+            initSize = 2 * initSize;
+            tableData = new TableEntry[initSize];
+            countDeleted = 0;
+            return;
+        }
+        rebuild(2 * initSize);
+    }
+
+    /**
+     * Check if tombstones take up enough of the table that it should be
+     * compacted: active and deleted entries together fill three quarters of
+     * the slots and some of them are tombstones.
+     * 
+     * @return True if compact is worth calling.
+     */
+    public boolean needsCompaction() {
+        return countDeleted > 0
+                && 4L * (countActive + countDeleted) >= 3L * initSize;
+    }
+
+    /**
+     * Rehash the active entries into a table of the same size, dropping the
+     * tombstones. A resize in progress is completed along the way.
+     */
+    public void compact() {
+        rebuild(initSize);
+    }
+
+    /**
+     * Check if an incremental resize is in progress.
+     * 
+     * @return True if some entries are still in the old table.
+     */
+    public boolean isMigrating() {
+        return oldData != null;
+    }
 
+    /**
+     * Get the keys of the active entries, finishing any migration first.
+     * 
+     * @return The keys in slot order.
+     */
+    public long[] getKeys() {
+        migrate(Integer.MAX_VALUE);
+        long[] keys = new long[countActive];
+        int k = 0;
         for (TableEntry entry : tableData) {
-            // iter through all entries
-            // skip processing empty or tombstone slots
-            if ((entry == null) || (entry.isTombstone())) {
-                continue;
+            if (entry != null && !entry.isTombstone()) {
+                keys[k++] = entry.getKey();
             }
-
-            biggerTable.insert(entry.getKey(), entry.getValue());
         }
-
-        // update this table's database
-        this.initSize = biggerTable.initSize;
-        this.tableData = biggerTable.tableData;
+        return keys;
     }
 
     /**
-     * Get string representation of the hash table.
+     * Get string representation of the hash table. A resize in progress is
+     * completed first so that every entry is listed with its final slot.
      * 
      * @return Keys and their slot positions in separate lines followed by the
      *         total number of active records present.
      */
     @Override
     public String toString() {
-        String result = "";
+        StringBuilder result = new StringBuilder();
+        try {
+            appendTo(result);
+        }
+        catch (IOException e) {
+            // a StringBuilder is never closed
+        }
+        return result.toString();
+    }
+
+    /**
+     * Write the keys and their slot positions, as toString has them. A
+     * resize in progress is completed first.
+     * 
+     * @param  out         Where the listing is written.
+     * 
+     * @throws IOException If out can't be written.
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        migrate(Integer.MAX_VALUE);
         for (int i = 0; i < tableData.length; ++i) {
             TableEntry entry = tableData[i];
             if ((entry == null) || (entry.isTombstone())) {
                 // not occupied slots or tombstone slots are skipped
                 continue;
             }
-            result += entry.getKey() + ": " + i + "\n";
+            out.append(String.valueOf(entry.getKey())).append(": ")
+                    .append(String.valueOf(i)).append('\n');
         }
-        result += "Total records: " + getCountActive();
-        return result;
+        out.append("Total records: ")
+                .append(String.valueOf(getCountActive()));
     }
 
 
@@ -169,11 +348,12 @@ public class HashTable {
      * Compute the hash function. This works for long int values, using a
      * mid-square style computation.
      *
-     * @param  key The int key to be hashed.
+     * @param  key       The int key to be hashed.
+     * @param  tableSize The number of slots of the table.
      * 
-     * @return     The home slot for key.
+     * @return           The home slot for key.
      */
-    private int getHomeSlot(long key) {
+    static int getHomeSlot(long key, int tableSize) {
 
         key = ((key >> 32) | (key & 0xffffffff));
         if (key < 256) {
@@ -182,7 +362,7 @@ public class HashTable {
         key = key * key;
         key = (key >> 15) & 0xffffffff;
         key = Math.abs(key);
-        return (int) (Math.abs(key) % getSize());
+        return (int) (Math.abs(key) % tableSize);
     }
 
     /**
@@ -190,11 +370,95 @@ public class HashTable {
      *
      * @param  homeSlot   The home slot position without probing.
      * @param  probeLevel Number of times position finding is attempted before.
+     * @param  tableSize  The number of slots of the table.
      * 
      * @return            The next slot found by probing.
      */
-    private int getProbedSlot(int homeSlot, int probeLevel) {
-        return (int) (homeSlot + probeLevel * probeLevel) % getSize();
+    static int getProbedSlot(int homeSlot, int probeLevel, int tableSize) {
+        return (int) ((homeSlot + (long) probeLevel * probeLevel) % tableSize);
+    }
+
+    /**
+     * Move entries of the old table into the current one, if a resize is in
+     * progress.
+     * 
+     * @param maxSlots Most old slots to be visited.
+     */
+    private void migrate(int maxSlots) {
+        if (oldData == null) {
+            return;
+        }
+        int end = (int) Math.min(oldData.length, (long) migrateNext
+                + maxSlots);
+        for (; oldData != null && migrateNext < end; ++migrateNext) {
+            TableEntry entry = oldData[migrateNext];
+            if ((entry == null) || (entry.isTombstone())) {
+                continue;
+            }
+            // keep the probe sequences of the old table going through; it's
+            // done first since findRoom may rebuild from what's left there
+            oldData[migrateNext] = movedEntry;
+            int slot = findRoom(entry.getKey());
+            if (tableData[slot] != null) {
+                --countDeleted;
+            }
+            tableData[slot] = entry;
+        }
+        if (oldData != null && migrateNext == oldData.length) {
+            oldData = null;
+        }
+    }
+
+    /**
+     * Find the slot for a new key in tableData, making room if probing finds
+     * none: by compacting the table if it has tombstones, by doubling its
+     * size otherwise.
+     * 
+     * @param  key The key to be inserted.
+     * 
+     * @return     A slot index eligible for insertion, -1 if the key is
+     *             already in tableData.
+     */
+    private int findRoom(long key) {
+        int slot = findSlotForInsertion(tableData, key);
+        if (slot == NO_ROOM && countDeleted > 0) {
+            rebuild(initSize);
+            slot = findSlotForInsertion(tableData, key);
+        }
+        while (slot == NO_ROOM) {
+            rebuild(2 * initSize);
+            slot = findSlotForInsertion(tableData, key);
+        }
+        return slot;
+    }
+
+    /**
+     * Replace the database with a new one and rehash the active entries in
+     * slot order, those of an unfinished incremental resize included.
+     * 
+     * @param newSize The number of slots of the new database.
+     */
+    private void rebuild(int newSize) {
+        TableEntry[][] sources = {tableData, oldData};
+        oldData = null;
+        initSize = newSize;
+        tableData = new TableEntry[newSize];
+        countDeleted = 0;
+
+        for (TableEntry[] source : sources) {
+            if (source == null) {
+                continue;
+            }
+            for (TableEntry entry : source) {
+                // skip processing empty or tombstone slots
+                if ((entry == null) || (entry.isTombstone())) {
+                    continue;
+                }
+                // findRoom may itself grow tableData, so it goes first
+                int slot = findRoom(entry.getKey());
+                tableData[slot] = entry;
+            }
+        }
     }
 
     /**
@@ -204,24 +468,26 @@ public class HashTable {
      * A free slot or a deleted slot (given that no duplicate exists after the
      * deleted slot) are valid slot indices. Whichever comes first is returned.
      *
-     * @param  key A key used for hashing and lookup.
+     * @param  data The database to look into.
+     * @param  key  A key used for hashing and lookup.
      * 
-     * @return     A valid slot index eligible for insertion, -1 if insertion
-     *             cannot be performed.
+     * @return      A valid slot index eligible for insertion, -1 if insertion
+     *              cannot be performed, NO_ROOM if there is no slot left on
+     *              the probe sequence of key.
      */
-    private int findSlotForInsertion(long key) {
-        int homeSlot = getHomeSlot(key);
+    private int findSlotForInsertion(TableEntry[] data, long key) {
+        int homeSlot = getHomeSlot(key, data.length);
         int runningSlot = homeSlot;
         int tombstoneSlot = -1;
         int probeLevel = 0;
         TableEntry curEntry = null;
 
-        // @note It is assumed that the state of the hash table allows this
-        // loop to break
-        for (;;) {
-            curEntry = tableData[runningSlot];
+        // the probe sequence repeats itself after data.length probes
+        for (; probeLevel < data.length; ++probeLevel) {
+            curEntry = data[runningSlot];
 
             if (curEntry == null) {
+                probeStats.record(probeLevel + 1);
                 // found a free slot
                 // if tombstoneSlot is also found to be available
                 // we prefer tombstones to be occupied
@@ -241,14 +507,20 @@ public class HashTable {
             }
 
             if ((!curEntry.isTombstone()) && curEntry.getKey() == key) {
+                probeStats.record(probeLevel + 1);
                 // found a duplicate that's not a tombstone
                 // insertion not possible
                 return -1;
             }
 
             // update the running slot
-            runningSlot = getProbedSlot(homeSlot, ++probeLevel);
+            runningSlot = getProbedSlot(homeSlot, probeLevel + 1,
+                    data.length);
         } // for
+        probeStats.record(probeLevel);
+
+        // every slot of the probe sequence was visited without a duplicate
+        return tombstoneSlot != -1 ? tombstoneSlot : NO_ROOM;
     }
 
     /**
@@ -259,34 +531,39 @@ public class HashTable {
      * such a slot's key. If a free slot is encountered, then it will be implied
      * that no key is present in the table and -1 will be returned.
      * 
-     * @param  key A key used for hashing and lookup.
+     * @param  data The database to look into.
+     * @param  key  A key used for hashing and lookup.
      * 
-     * @return     The slot index if the key exists, -1 otherwise.
+     * @return      The slot index if the key exists, -1 otherwise.
      */
-    private int findSlot(long key) {
-        int homeSlot = getHomeSlot(key);
+    private int findSlot(TableEntry[] data, long key) {
+        int homeSlot = getHomeSlot(key, data.length);
         int runningSlot = homeSlot;
         int probeLevel = 0;
         TableEntry curEntry = null;
 
-        // @note It is assumed that the state of the hash table allows this
-        // loop to break
-        for (;;) {
-            curEntry = tableData[runningSlot];
+        // the probe sequence repeats itself after data.length probes
+        for (; probeLevel < data.length; ++probeLevel) {
+            curEntry = data[runningSlot];
             if (curEntry == null) {
+                probeStats.record(probeLevel + 1);
                 // encountered a free slot
                 return -1;
             }
 
             // only active slots are considered
             if ((!curEntry.isTombstone()) && (curEntry.getKey() == key)) {
+                probeStats.record(probeLevel + 1);
                 // found the slot with the key
                 return runningSlot;
             }
 
             // update the runningSlot
-            runningSlot = getProbedSlot(homeSlot, ++probeLevel);
+            runningSlot = getProbedSlot(homeSlot, probeLevel + 1,
+                    data.length);
         } // for
+        probeStats.record(probeLevel);
+        return -1;
     }
 
     /**
@@ -332,6 +609,15 @@ public class HashTable {
             return recordValue;
         }
 
+        /**
+         * Setter for the record value.
+         * 
+         * @param recordValue The new value of the entry.
+         */
+        public void setValue(Object recordValue) {
+            this.recordValue = recordValue;
+        }
+
         /**
          * Check if entry is a tombstone.
          * 
@@ -0,0 +1,146 @@
+import java.util.Random;
+
+/**
+ * Compares the RecordIndex tables on sequential, random and strided keys.
+ * Strided keys differ only in their high 32 bits, which is adversarial for
+ * hashes that fold the key into 32 bits. Each table is filled from its
+ * initial size the way World fills it, doubling when half full, then
+ * queried for present and missing keys and emptied again. Every round is
+ * run on a fresh table; the first round warms up the JIT and the best of
+ * the remaining rounds is reported, in nanoseconds per operation.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class HashTableBenchmark {
+    /** The tables compared by the benchmark. */
+    private static final String[] TABLES = {"object", "primitive",
+        "robinhood"};
+
+    /** The key distributions. */
+    private static final String[] DISTRIBUTIONS = {"sequential", "random",
+        "strided"};
+
+    /** Folds the results of the lookups so that they can't be skipped. */
+    private static long sink;
+
+    /**
+     * @param args [0] Number of keys, 100000 by default.
+     *             [1] Initial table size, 1009 by default.
+     *             [2] Number of rounds, 5 by default.
+     */
+    public static void main(String[] args) {
+        int numKeys = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int initSize = args.length > 1 ? Integer.parseInt(args[1]) : 1009;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.println(String.format("%-10s %-10s %9s %9s %9s %9s %8s"
+                + " %8s", "keys", "table", "insert", "hit", "miss",
+                "delete", "probes", "longest"));
+        for (String distribution : DISTRIBUTIONS) {
+            long[] keys = makeKeys(distribution, numKeys, 1);
+            long[] missing = makeKeys(distribution, numKeys, 2);
+            for (String table : TABLES) {
+                double[] best = null;
+                ProbeStats stats = null;
+                for (int round = 0; round < Math.max(rounds, 2); ++round) {
+                    RecordIndex index = RecordIndex.forName(table, initSize,
+                            false);
+                    double[] nanos = run(index, keys, missing);
+                    if (round == 0) {
+                        // warm-up
+                        continue;
+                    }
+                    if (best == null) {
+                        best = nanos;
+                    }
+                    for (int i = 0; i < nanos.length; ++i) {
+                        best[i] = Math.min(best[i], nanos[i]);
+                    }
+                    stats = index.getProbeStats();
+                }
+                System.out.println(String.format("%-10s %-10s %9.1f %9.1f"
+                        + " %9.1f %9.1f %8.2f %8d", distribution, table,
+                        best[0], best[1], best[2], best[3],
+                        stats.getAverage(), stats.getLongest()));
+            }
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    /**
+     * Time the phases of one round.
+     *
+     * @param  index   An empty table.
+     * @param  keys    The keys inserted, looked up and deleted.
+     * @param  missing Keys that are never inserted.
+     *
+     * @return         Nanoseconds per operation of the insert, hit, miss and
+     *                 delete phases.
+     */
+    private static double[] run(RecordIndex index, long[] keys,
+            long[] missing) {
+        double[] nanos = new double[4];
+        Object value = new MemoryHandle(0, 16, 16);
+
+        long start = System.nanoTime();
+        for (long key : keys) {
+            if (index.isHalfFull()) {
+                index.doubleTableSize();
+            }
+            index.insert(key, value);
+        }
+        nanos[0] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (long key : keys) {
+            sink += index.get(key) == null ? 0 : 1;
+        }
+        nanos[1] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (long key : missing) {
+            sink += index.get(key) == null ? 0 : 1;
+        }
+        nanos[2] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (long key : keys) {
+            sink += index.delete(key) == null ? 0 : 1;
+        }
+        nanos[3] = System.nanoTime() - start;
+
+        for (int i = 0; i < nanos.length; ++i) {
+            nanos[i] /= keys.length;
+        }
+        return nanos;
+    }
+
+    /**
+     * Generate distinct keys.
+     *
+     * @param  distribution One of sequential, random or strided.
+     * @param  count        Number of keys.
+     * @param  set          1 or 2, the two sets don't share any key.
+     *
+     * @return              The keys.
+     */
+    private static long[] makeKeys(String distribution, int count, int set) {
+        long[] keys = new long[count];
+        Random random = new Random(set);
+        for (int i = 0; i < count; ++i) {
+            if (distribution.equals("sequential")) {
+                keys[i] = (long) (set - 1) * count + i + 1;
+            }
+            else if (distribution.equals("random")) {
+                // odd keys in one set, even in the other
+                keys[i] = (random.nextLong() & ~1L & Long.MAX_VALUE) + set - 1;
+            }
+            else {
+                keys[i] = ((long) i + 1) << 32 | (set - 1);
+            }
+        }
+        return keys;
+    }
+}
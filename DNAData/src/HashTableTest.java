@@ -1,5 +1,9 @@
 import student.TestCase;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
 /**
  * Test the HashTable class.
  * 
@@ -129,4 +133,128 @@ public class HashTableTest extends TestCase {
         assertFuzzyEquals(systemOut().getHistory(), expectedOutput);
         assertEquals(table.getSize(), 20);
     }
+
+    /** Test that an incremental resize keeps every entry reachable. */
+    public void testIncrementalResize() {
+        HashTable incremental = new HashTable(10, true);
+        for (long key = 1; key <= 5; ++key) {
+            incremental.insert(key * 7, "v" + key);
+        }
+        assertTrue(incremental.isHalfFull());
+        incremental.doubleTableSize();
+        assertEquals(incremental.getSize(), 20);
+        assertTrue(incremental.isMigrating());
+
+        // each operation moves a few old slots while both tables are used
+        assertFalse(incremental.insert(35, "dup"));
+        assertEquals(incremental.delete(14), "v2");
+        assertTrue(incremental.insert(100, "new"));
+        assertEquals(incremental.get(21), "v3");
+        assertNull(incremental.get(14));
+        assertFalse(incremental.isMigrating());
+        assertEquals(incremental.getCountActive(), 5);
+        for (long key : new long[] {7, 21, 28, 35, 100}) {
+            assertNotNull(incremental.get(key));
+        }
+
+        // a second doubling finishes the migration of the first one
+        incremental.doubleTableSize();
+        incremental.doubleTableSize();
+        assertEquals(incremental.getSize(), 80);
+        assertTrue(incremental.toString().endsWith("Total records: 5"));
+        assertFalse(incremental.isMigrating());
+    }
+
+    /** Test tombstone counting, compaction and bounded probing. */
+    public void testTombstones() {
+        HashTable small = new HashTable(4);
+        for (long key = 1; key <= 40; ++key) {
+            small.insert(key * 7919, "v");
+            small.delete(key * 7919);
+        }
+        // scattered keys leave every slot a tombstone, and missing keys
+        // are still not found
+        assertNull(small.get(999));
+        assertNull(small.delete(999));
+        assertTrue(small.getCountDeleted() > 0);
+        assertTrue(small.needsCompaction());
+
+        small.compact();
+        assertEquals(small.getCountDeleted(), 0);
+        assertFalse(small.needsCompaction());
+        assertEquals(small.getSize(), 4);
+        assertTrue(small.insert(5, "five"));
+        assertEquals(small.get(5), "five");
+        assertTrue(small.getProbeStats().getLookups() > 80);
+        assertTrue(small.getProbeStats().getLongest() <= 4);
+    }
+
+    /**
+     * Test that a key whose probe sequence is full still gets in, by growing
+     * the table.
+     */
+    public void testNoRoom() {
+        // quadratic probing visits only a few of the 16 slots from a home
+        HashTable crowded = new HashTable(16);
+        for (long key = 1; key <= 14; ++key) {
+            assertTrue(crowded.insert(key * 1000, "v" + key));
+        }
+        assertTrue(crowded.getSize() > 16);
+        for (long key = 1; key <= 14; ++key) {
+            assertEquals(crowded.get(key * 1000), "v" + key);
+        }
+        assertEquals(crowded.getCountActive(), 14);
+    }
+
+    /**
+     * Test that adds and deletes churning a small table keep every key, also
+     * when a compaction runs out of room and grows the table while it is
+     * rehashing.
+     */
+    public void testChurn() {
+        HashTable small = new HashTable(16);
+        Map<Long, String> expected = new HashMap<Long, String>();
+        Random random = new Random(15);
+        for (int i = 0; i < 2000; ++i) {
+            long key = random.nextInt(64) * 1000L;
+            if (random.nextBoolean()) {
+                assertEquals(small.insert(key, "v" + key),
+                        !expected.containsKey(key));
+                expected.put(key, "v" + key);
+            }
+            else {
+                assertEquals(small.delete(key), expected.remove(key));
+            }
+        }
+        for (long key = 0; key < 64000; key += 1000) {
+            assertEquals(small.get(key), expected.get(key));
+        }
+        assertEquals(small.getCountActive(), expected.size());
+        // the table grew without a call to doubleTableSize
+        assertTrue(small.getSize() > 16);
+    }
+
+    /** Test replacing values, also while an incremental resize is going. */
+    public void testReplace() {
+        assertFalse(table.replace(1, "one"));
+        table.insert(1, "Charlie");
+        assertTrue(table.replace(1, "Max"));
+        assertEquals(table.get(1), "Max");
+        assertEquals(table.getCountActive(), 1);
+
+        HashTable incremental = new HashTable(10, true);
+        for (long key = 1; key <= 5; ++key) {
+            incremental.insert(key * 7, "v" + key);
+        }
+        incremental.doubleTableSize();
+        assertTrue(incremental.isMigrating());
+        for (long key = 1; key <= 5; ++key) {
+            assertTrue(incremental.replace(key * 7, "w" + key));
+        }
+        incremental.doubleTableSize();
+        for (long key = 1; key <= 5; ++key) {
+            assertEquals(incremental.get(key * 7), "w" + key);
+        }
+        assertEquals(incremental.getCountActive(), 5);
+    }
 }
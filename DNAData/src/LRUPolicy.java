@@ -0,0 +1,81 @@
+/**
+ * Least recently used replacement. Buffers are kept in one list from the most
+ * to the least recently used and the tail is always the victim. Buffers that
+ * never held a block sit at the tail, so they are used first.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class LRUPolicy implements ReplacementPolicy {
+    /** Buffers from the most recently to the least recently used one. */
+    private BufferList buffers;
+
+    /** Construct an LRUPolicy. */
+    LRUPolicy() {
+        buffers = new BufferList();
+    }
+
+    /**
+     * Hand a buffer that does not hold any block yet to the policy.
+     * 
+     * @param buffer A buffer with the block id -1.
+     */
+    @Override
+    public void addFree(Buffer buffer) {
+        buffers.pushBack(buffer);
+    }
+
+    /**
+     * Record that a cached buffer was accessed.
+     * 
+     * @param buffer The buffer that was read or written.
+     */
+    @Override
+    public void recordHit(Buffer buffer) {
+        buffers.moveToFront(buffer);
+    }
+
+    /**
+     * Pick the buffer that will hold a block that is not cached.
+     * 
+     * @param  blockId The block id about to be loaded.
+     * 
+     * @return         The least recently used unpinned buffer, null if
+     *                 every buffer is pinned.
+     */
+    @Override
+    public Buffer admit(int blockId) {
+        Buffer victim = buffers.peekBackUnpinned();
+        if (victim != null) {
+            buffers.moveToFront(victim);
+        }
+        return victim;
+    }
+
+    /**
+     * Get the buffers in the order the policy keeps them.
+     * 
+     * @return Array of all buffers handed to the policy.
+     */
+    @Override
+    public Buffer[] getBuffers() {
+        Buffer[] result = new Buffer[buffers.getCount()];
+        int i = 0;
+        for (Buffer buffer = buffers.peekFront(); buffer != null;
+                buffer = buffers.following(buffer)) {
+            result[i++] = buffer;
+        }
+        return result;
+    }
+
+    /**
+     * Get the name of the policy.
+     * 
+     * @return The name used to pick the policy on the command line.
+     */
+    @Override
+    public String getName() {
+        return "lru";
+    }
+}
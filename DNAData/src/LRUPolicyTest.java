@@ -0,0 +1,37 @@
+import student.TestCase;
+
+/**
+ * Test the LRUPolicy class.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class LRUPolicyTest extends TestCase {
+    /** Test that the least recently used block is evicted. */
+    public void testEviction() {
+        PolicyTestHelper helper = new PolicyTestHelper(new LRUPolicy(), 3);
+        assertEquals(helper.listing(), "-1 -1 -1");
+        assertEquals(helper.access(1), -1);
+        assertEquals(helper.access(2), -1);
+        assertEquals(helper.access(3), -1);
+        assertEquals(helper.access(1), -1);
+        assertEquals(helper.listing(), "1 3 2");
+        assertEquals(helper.access(4), 2);
+        assertEquals(helper.listing(), "4 1 3");
+        assertEquals(new LRUPolicy().getName(), "lru");
+    }
+
+    /** Test that pinned buffers are never evicted. */
+    public void testPinned() {
+        PolicyTestHelper helper = new PolicyTestHelper(new LRUPolicy(), 2);
+        helper.access(1);
+        helper.access(2);
+        helper.setPinned(1, true);
+        assertEquals(helper.access(3), 2);
+        helper.setPinned(3, true);
+        assertEquals(helper.access(4), -2);
+        helper.setPinned(1, false);
+        assertEquals(helper.access(4), 1);
+    }
+}
@@ -0,0 +1,66 @@
+import student.TestCase;
+
+/**
+ * Test the LatencyHistogram class.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class LatencyHistogramTest extends TestCase {
+    /** Test recording latencies into their buckets. */
+    public void testRecord() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(histogram.getCount(), 0);
+        assertEquals(histogram.getPercentile(50), 0);
+        assertEquals(histogram.getMean(), 0.0, 1e-9);
+
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(5);
+        histogram.record(7);
+        histogram.record(-3);
+        histogram.record(1000);
+        assertEquals(histogram.getCount(), 6);
+        assertEquals(histogram.getBucketCount(0), 3);
+        assertEquals(histogram.getBucketCount(2), 2);
+        assertEquals(histogram.getBucketCount(9), 1);
+        assertEquals(histogram.getMax(), 1000);
+        assertEquals(histogram.getMean(), 1013 / 6.0, 1e-9);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(histogram.getBucketCount(62), 1);
+    }
+
+    /** Test the percentiles, which are the tops of their buckets. */
+    public void testPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; ++i) {
+            histogram.record(i);
+        }
+        // 63 of the latencies are below 64
+        assertEquals(histogram.getPercentile(50), 63);
+        assertEquals(histogram.getPercentile(63), 63);
+        assertEquals(histogram.getPercentile(64), 100);
+        assertEquals(histogram.getPercentile(0), 1);
+        assertEquals(histogram.getPercentile(100), 100);
+        assertTrue(histogram.toString().contains("p50 63 ns"));
+    }
+
+    /** Test adding histograms and copying one. */
+    public void testAddCopy() {
+        LatencyHistogram first = new LatencyHistogram();
+        first.record(3);
+        LatencyHistogram second = new LatencyHistogram();
+        second.record(300);
+        second.record(2);
+
+        LatencyHistogram copy = first.copy();
+        first.add(second);
+        assertEquals(first.getCount(), 3);
+        assertEquals(first.getBucketCount(1), 2);
+        assertEquals(first.getMax(), 300);
+        assertEquals(copy.getCount(), 1);
+        assertEquals(copy.getMax(), 3);
+        assertEquals(second.getCount(), 2);
+    }
+}
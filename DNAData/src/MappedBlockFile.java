@@ -0,0 +1,189 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A BlockFile that maps the file into memory in fixed size segments. A block
+ * transfer is then a copy between the buffer and the mapped segment instead
+ * of a seek and a system call. Segments are mapped on first use, which also
+ * grows the file to cover them. Transfers use the segments' positions, so
+ * they happen under the object's lock.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class MappedBlockFile implements BlockFile {
+    /** The default number of bytes mapped per segment. */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+
+    /** The file for disk I/O. */
+    private RandomAccessFile file;
+
+    /** The channel of the file. */
+    private FileChannel channel;
+
+    /** Number of bytes in a block. */
+    private int blockSize;
+
+    /** Number of blocks in a segment. */
+    private int blocksPerSegment;
+
+    /** The mapped segments, null for segments not mapped yet. */
+    private MappedByteBuffer[] segments;
+
+    /**
+     * Construct a MappedBlockFile with the default segment size.
+     * 
+     * @param file      The file for disk I/O.
+     * @param blockSize Number of bytes in a block, a power of two.
+     */
+    MappedBlockFile(RandomAccessFile file, int blockSize) {
+        this(file, blockSize, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Construct a MappedBlockFile.
+     * 
+     * @param file        The file for disk I/O.
+     * @param blockSize   Number of bytes in a block, a power of two.
+     * @param segmentSize Number of bytes mapped at once. Rounded up to a
+     *                    multiple of blockSize.
+     */
+    MappedBlockFile(RandomAccessFile file, int blockSize, int segmentSize) {
+        this.file = file;
+        this.channel = file.getChannel();
+        this.blockSize = blockSize;
+        blocksPerSegment = Math.max(1, segmentSize / blockSize);
+        segments = new MappedByteBuffer[1];
+    }
+
+    /**
+     * Copy a block from its mapped segment into a byte array.
+     * 
+     * @param  blockId     The id of the block to be read.
+     * @param  dest        Array of at least one block size to read into.
+     * 
+     * @throws IOException If the segment can't be mapped.
+     */
+    @Override
+    public synchronized void readBlock(int blockId, byte[] dest)
+            throws IOException {
+        MappedByteBuffer segment = getSegment(blockId / blocksPerSegment);
+        segment.position((blockId % blocksPerSegment) * blockSize);
+        segment.get(dest, 0, blockSize);
+    }
+
+    /**
+     * Copy a run of adjacent blocks from their mapped segments.
+     * 
+     * @param  firstBlockId The id of the first block of the run.
+     * @param  dest         Array to read into, count blocks long.
+     * @param  count        Number of blocks in the run.
+     * 
+     * @throws IOException  If a segment can't be mapped.
+     */
+    @Override
+    public synchronized void readBlocks(int firstBlockId, byte[] dest,
+            int count) throws IOException {
+        for (int i = 0; i < count; ++i) {
+            int blockId = firstBlockId + i;
+            MappedByteBuffer segment =
+                    getSegment(blockId / blocksPerSegment);
+            segment.position((blockId % blocksPerSegment) * blockSize);
+            segment.get(dest, i * blockSize, blockSize);
+        }
+    }
+
+    /**
+     * Copy a block from a byte array into its mapped segment.
+     * 
+     * @param  blockId     The id of the block to be written.
+     * @param  src         Array of one block size holding the data.
+     * 
+     * @throws IOException If the segment can't be mapped.
+     */
+    @Override
+    public synchronized void writeBlock(int blockId, byte[] src)
+            throws IOException {
+        MappedByteBuffer segment = getSegment(blockId / blocksPerSegment);
+        segment.position((blockId % blocksPerSegment) * blockSize);
+        segment.put(src, 0, blockSize);
+    }
+
+    /**
+     * Copy a run of adjacent blocks into their mapped segments. There is no
+     * system call to save, so this is a copy per block.
+     * 
+     * @param  firstBlockId The id of the first block of the run.
+     * @param  blocks       Arrays of one block size each.
+     * @param  count        Number of blocks in the run.
+     * 
+     * @throws IOException  If a segment can't be mapped.
+     */
+    @Override
+    public synchronized void writeBlocks(int firstBlockId, byte[][] blocks,
+            int count) throws IOException {
+        for (int i = 0; i < count; ++i) {
+            writeBlock(firstBlockId + i, blocks[i]);
+        }
+    }
+
+    /**
+     * Leave the file as is. Its mapped segments can't be unmapped before
+     * they are garbage collected, and shortening a file under a mapping
+     * makes touching the lost pages fault, so a mapped file keeps its
+     * length; blocks past the pool are simply never read.
+     * 
+     * @param numBlocks Number of blocks to keep.
+     */
+    @Override
+    public synchronized void truncate(int numBlocks) {
+        // nothing to do, see above
+    }
+
+    /**
+     * Flush the mapped segments to the disk and close the file. The mappings
+     * stay valid until they are garbage collected.
+     * 
+     * @throws IOException If the file can't be flushed or closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (MappedByteBuffer segment : segments) {
+            if (segment != null) {
+                segment.force();
+            }
+        }
+        segments = new MappedByteBuffer[1];
+        file.close();
+    }
+
+    /**
+     * Get a segment, mapping it if needed.
+     * 
+     * @param  segmentId   The index of the segment.
+     * 
+     * @return             The mapped segment.
+     * 
+     * @throws IOException If the segment can't be mapped.
+     */
+    private MappedByteBuffer getSegment(int segmentId) throws IOException {
+        if (segmentId >= segments.length) {
+            int length = segments.length;
+            while (length <= segmentId) {
+                length *= 2;
+            }
+            MappedByteBuffer[] temp = segments;
+            segments = new MappedByteBuffer[length];
+            System.arraycopy(temp, 0, segments, 0, temp.length);
+        }
+        if (segments[segmentId] == null) {
+            long segmentBytes = (long) blocksPerSegment * blockSize;
+            segments[segmentId] = channel.map(FileChannel.MapMode.READ_WRITE,
+                    segmentId * segmentBytes, segmentBytes);
+        }
+        return segments[segmentId];
+    }
+}
@@ -0,0 +1,69 @@
+import student.TestCase;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+/**
+ * Test the MappedBlockFile class.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class MappedBlockFileTest extends TestCase {
+    /** File used for I/O. */
+    private File ioFile;
+
+    /** The block file being tested. */
+    private MappedBlockFile blockFile;
+
+    /** Sets up the tests that follow. */
+    public void setUp() {
+        try {
+            ioFile = new File(".mappedTest.raw");
+            ioFile.delete();
+            // two blocks per segment to get several segments mapped
+            blockFile = new MappedBlockFile(new RandomAccessFile(ioFile, "rw"),
+                    16, 32);
+        }
+        catch (Exception e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /** Test writing and reading blocks across segments. */
+    public void testReadWrite() throws Exception {
+        byte[] block = new byte[16];
+        for (int id = 0; id < 9; ++id) {
+            block[0] = (byte) id;
+            block[15] = (byte) (id + 100);
+            blockFile.writeBlock(id, block);
+        }
+
+        byte[] read = new byte[16];
+        for (int id = 8; id >= 0; --id) {
+            blockFile.readBlock(id, read);
+            assertEquals(read[0], (byte) id);
+            assertEquals(read[15], (byte) (id + 100));
+        }
+
+        // a run spanning segments
+        byte[] run = new byte[48];
+        blockFile.readBlocks(3, run, 3);
+        assertEquals(run[0], 3);
+        assertEquals(run[16], 4);
+        assertEquals(run[47], 105);
+
+        // blocks never written read as zeros
+        blockFile.readBlock(9, read);
+        assertEquals(read[0], 0);
+        blockFile.close();
+
+        // the data made it to the file
+        RandomAccessFile raFile = new RandomAccessFile(ioFile, "r");
+        raFile.seek(16 * 5);
+        assertEquals(raFile.read(), 5);
+        raFile.close();
+        ioFile.delete();
+    }
+}
@@ -22,7 +22,8 @@ public class MemoryHandle implements Comparable<MemoryHandle> {
      * Construct MemoryHandle.
      * 
      * @param pos       Memory block position in the byte array.
-     * @param blockSize Number of bytes in the block. Always a power of two.
+     * @param blockSize Number of bytes in the block, a power of two with the
+     *                  buddy allocator.
      * @param dataSize  Number of bytes used for the data. Never greater than
      *                  blockSize.
      */
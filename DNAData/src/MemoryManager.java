@@ -1,24 +1,43 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 /**
- * A memory manager that makes use of disk I/O.
+ * A memory manager that makes use of disk I/O. Where records go in the
+ * memory pool is up to its Allocator, the buddy system unless another one
+ * is given; only the buddy system can be compacted.
  * 
  * @author  Bimal Gaudel
  * 
  * @version Mar 24, 2020
  */
 public class MemoryManager {
-    /**
-     * The total number of bytes intially available to the MemoryManager object.
-     */
-    private int poolSize;
+    /** Bytes of records moved per batch by a compaction. */
+    private static final int MOVE_BATCH_BYTES = 1 << 20;
+
+    /** Most records moved per batch by a compaction. */
+    private static final int MOVE_BATCH_RECORDS = 1 << 14;
+
+    /** The allocator placing records in the memory pool. */
+    private Allocator allocator;
+
+    /** The buddy allocator, which can be compacted; null for others. */
+    private BuddyAllocator buddy;
 
     /** The buffer pool object used for disk I/O. */
     private BufferPool bufferPool;
 
+    /** Number of used blocks whose data spans blocks of the disk file. */
+    private long spanningBlocks;
+
+    /** Number of those whose data is no longer than a disk block. */
+    private long avoidableSpans;
+
     /**
-     * An array of log2(poolSize) many BlockInfo objects to keep a record of
-     * free positions associated with each block.
+     * Where the blocks moved by stageCompaction start, the pool size before
+     * it; -1 if no compaction is under way.
      */
-    private BlockInfo[] blocks;
+    private int stagingOffset;
 
     /**
      * Construct the MemoryManager object.
@@ -27,17 +46,41 @@ public class MemoryManager {
      * @param bufferPool The buffer pool object used for disk I/O.
      */
     public MemoryManager(int poolSize, BufferPool bufferPool) {
-        this.poolSize = poolSize;
-        this.bufferPool = bufferPool;
-
-        blocks = new BlockInfo[HelperFunctions.getLog2(this.poolSize) + 1];
+        this(new BuddyAllocator(poolSize), bufferPool);
+    }
 
-        for (int i = 0; i < blocks.length; ++i) {
-            blocks[i] = new BlockInfo();
-        }
+    /**
+     * Construct a MemoryManager object that places records with a given
+     * allocator.
+     * 
+     * @param allocator  The allocator, e.g. made by Allocator.forName.
+     * @param bufferPool The buffer pool object used for disk I/O.
+     */
+    MemoryManager(Allocator allocator, BufferPool bufferPool) {
+        this.allocator = allocator;
+        this.bufferPool = bufferPool;
+        buddy = allocator instanceof BuddyAllocator
+                ? (BuddyAllocator) allocator : null;
+        spanningBlocks = 0;
+        avoidableSpans = 0;
+        stagingOffset = -1;
+    }
 
-        // initialize the whole block at the position 0
-        addPos(this.poolSize, 0);
+    /**
+     * Construct a MemoryManager object over a pool that is already in use,
+     * e.g. reopened from a checkpoint.
+     * 
+     * @param poolSize      Total number of bytes managed.
+     * @param freePositions For each power of two up to poolSize, the
+     *                      positions of the free blocks of that size in
+     *                      increasing order, as given by getFreePositions.
+     * @param minPoolSize   Size the pool never shrinks below.
+     * @param bufferPool    The buffer pool object used for disk I/O.
+     */
+    MemoryManager(int poolSize, int[][] freePositions, int minPoolSize,
+            BufferPool bufferPool) {
+        this(new BuddyAllocator(poolSize, freePositions, minPoolSize),
+                bufferPool);
     }
 
     /**
@@ -49,60 +92,78 @@ public class MemoryManager {
      * @return       A MemoryHandle object.
      */
     public MemoryHandle storeBytes(byte[] bytes) {
-        int dataSize = bytes.length;
-        // find an entry in the BlockInfo[] array
-        // that corresponds to the memory block of size
-        // that is required to store the received bytes
-        int minBlockPos = HelperFunctions.getLog2(dataSize);
-
-        // get rid of under estimation
-        int usedBlockSize = HelperFunctions.getPower2(minBlockPos);
-        minBlockPos = dataSize > usedBlockSize ? minBlockPos + 1 : minBlockPos;
-        usedBlockSize = HelperFunctions.getPower2(minBlockPos);
-
-        // usedBlockPos is the position in the BlockInfo array, the block
-        // corresponding to which is used to either store the data in case it is
-        // at least one free entry, or split until we get a free block of
-        // minimum size in the database
-        int usedBlockPos = minBlockPos;
-        //
-        // we want to store bytes in the computed minBlockPos
-        // however we may not have a free chunk of memory
-        // of that particular size
-        while (usedBlockPos < blocks.length) {
-            if (!blocks[usedBlockPos].isEmpty()) {
-                break;
-            }
-            ++usedBlockPos;
-        }
-
-        if (usedBlockPos >= blocks.length) {
-            // even the largest memory block is too small for our data
-            // double the pool size and call storeBytes recursively
-            doublePoolSize();
-            return storeBytes(bytes);
-        }
-
-        // gets the first free position to be used
-        int insertionPos = blocks[usedBlockPos].getPos();
-
-        // splitting is required if the block was different from first
-        // calculated
-        if (usedBlockPos > minBlockPos) {
-            splitBlock(insertionPos, HelperFunctions.getPower2(usedBlockPos),
-                    usedBlockSize);
-        }
+        MemoryHandle handle = allocate(bytes.length);
+        // inserting the data
+        writeBytes(bytes, handle);
+        return handle;
+    }
 
-        // creating the memory handle to return
-        MemoryHandle handle =
-                new MemoryHandle(insertionPos, usedBlockSize, dataSize);
+    /**
+     * Reserve a block for data without writing it, e.g. to write many
+     * records at once with writeBatch.
+     *
+     * @param  dataSize Number of bytes to be stored.
+     * 
+     * @return          A MemoryHandle object.
+     */
+    MemoryHandle allocate(int dataSize) {
+        MemoryHandle handle = allocator.allocate(dataSize);
+        countSpanning(handle, 1);
+        return handle;
+    }
 
-        // inserting the data
+    /**
+     * Write data into a block reserved by allocate.
+     * 
+     * @param bytes  The data, no longer than the block.
+     * @param handle The handle of the block.
+     */
+    void writeBytes(byte[] bytes, MemoryHandle handle) {
         bufferPool.insertBytes(bytes, handle);
-        // removing the just used memory block from the free-block database
-        blocks[minBlockPos].deletePos(insertionPos);
+    }
 
-        return handle;
+    /**
+     * Write records to blocks reserved by allocate. The records are written
+     * in the order of their positions, and records in adjacent blocks are
+     * joined into one write, so the buffer pool sees a few long sequential
+     * writes instead of one short write per record.
+     *
+     * @param records The records.
+     * @param handles The handles returned by allocate for the records.
+     * @param count   Number of records.
+     */
+    void writeBatch(byte[][] records, MemoryHandle[] handles, int count) {
+        // sort the records by position, carrying their index in the low bits
+        long[] order = new long[count];
+        for (int i = 0; i < count; ++i) {
+            order[i] = (long) handles[i].getPos() << 32 | i;
+        }
+        Arrays.sort(order);
+
+        int runStart = 0;
+        for (int i = 1; i <= count; ++i) {
+            if (i < count) {
+                MemoryHandle prev = handles[(int) order[i - 1]];
+                if (handles[(int) order[i]].getPos() == prev.getPos()
+                        + prev.getBlockSize()) {
+                    continue;
+                }
+            }
+            // records runStart..i-1 fill adjacent blocks
+            MemoryHandle first = handles[(int) order[runStart]];
+            MemoryHandle last = handles[(int) order[i - 1]];
+            int length = last.getPos() + last.getDataSize() - first.getPos();
+            byte[] run = new byte[length];
+            for (int j = runStart; j < i; ++j) {
+                int index = (int) order[j];
+                System.arraycopy(records[index], 0, run,
+                        handles[index].getPos() - first.getPos(),
+                        handles[index].getDataSize());
+            }
+            bufferPool.insertBytes(run, new MemoryHandle(first.getPos(),
+                    length, length));
+            runStart = i;
+        }
     }
 
     /**
@@ -118,241 +179,265 @@ public class MemoryManager {
         bufferPool.getBytes(bytes, handle);
     }
 
+    /**
+     * Retain the bytes from the memory without copying them when possible.
+     * The result is only valid until the memory is used again.
+     *
+     * @param  handle A MemoryHandle object that tells where to start and
+     *                stop reading.
+     *
+     * @return        The bytes, from position 0 up to the limit.
+     */
+    public ByteBuffer getSlice(MemoryHandle handle) {
+        return bufferPool.getSlice(handle);
+    }
+
     /**
      * Free a memory block associated with a memory handle.
      * 
      * @param handle A MemoryHandle object.
      */
     public void freeBlock(MemoryHandle handle) {
-        // simply mark the block as free by storing
-        // the position value of the handle in
-        // the block size's position database
-        int blockInfoPos = HelperFunctions.getLog2(handle.getBlockSize());
-
-        // first attempt merging buddies
-        // if it succeeds, then nothing needs to be done
-        boolean merged = mergeBuddy(handle.getBlockSize(), handle.getPos());
+        countSpanning(handle, -1);
+        allocator.free(handle);
+    }
 
-        if (!merged) {
-            blocks[blockInfoPos].insertPos(handle.getPos());
-        }
+    /**
+     * Set whether growing the memory pool goes unreported, e.g. while a log
+     * is replayed.
+     * 
+     * @param quiet True to leave the messages out.
+     */
+    void setQuiet(boolean quiet) {
+        allocator.setQuiet(quiet);
     }
 
     /**
-     * Getter method for the field poolSize.
+     * Get the size of the memory pool.
      * 
      * @return Total number of bytes being handled.
      */
     public int getPoolSize() {
-        return this.poolSize;
+        return allocator.getPoolSize();
     }
 
     /**
-     * String representation of the memory manager. It shows currently free
-     * blocks and their starting positions.
+     * Count a block that is in use but was not allocated by this manager,
+     * e.g. one of a store reopened from a checkpoint, in the statistics.
      * 
-     * @return String representation of the memory manager, showing free blocks.
+     * @param handle The MemoryHandle of the block.
      */
-    @Override
-    public String toString() {
-        String result = "";
-        for (int i = 0; i < blocks.length; ++i) {
-            String posStrings = blocks[i].toString();
-            if (!posStrings.isEmpty()) {
-                int size = HelperFunctions.getPower2(i);
-                result += size + ": " + posStrings + "\n";
-            }
-        }
-        if (result.isEmpty()) {
-            return "No free blocks are available.";
-        }
-        return result.trim();
+    void markUsed(MemoryHandle handle) {
+        countSpanning(handle, 1);
+        allocator.markUsed(handle);
     }
 
     /**
-     * Add a position of a memory block.
+     * Take a snapshot of the statistics of the manager, to size its pool:
+     * fragmentation, the largest free block, the number of splits, merges
+     * and pool doublings, the records spanning disk blocks and the
+     * latencies of the allocations.
      * 
-     * @param blockSize Size of the memory block, which is always a power of
-     *                  two.
-     * @param pos       Position in the bytes array where the block starts.
+     * @return The statistics so far, not changed by later use.
      */
-    private void addPos(int blockSize, int pos) {
-        int blockInfoPos = HelperFunctions.getLog2(blockSize);
-        this.blocks[blockInfoPos].insertPos(pos);
+    public AllocatorStats getStats() {
+        AllocatorStats stats = allocator.getStats();
+        stats.setSpanning(spanningBlocks, avoidableSpans,
+                bufferPool.getSpanningAccesses());
+        return stats;
     }
 
     /**
-     * Remove a position of a memory block.
-     * 
-     * @param  blockSize Size of the memory block, which is always a power of
-     *                   two.
-     * @param  pos       Position in the bytes array where the block starts.
+     * Get the allocator placing the records.
      * 
-     * @return           True if position removed, false otherwise.
+     * @return The allocator.
      */
-    private boolean removePos(int blockSize, int pos) {
-        int blockInfoPos = HelperFunctions.getLog2(blockSize);
-        return blocks[blockInfoPos].deletePos(pos);
+    Allocator getAllocator() {
+        return allocator;
     }
 
     /**
-     * Split a memory block into halves until desired size is achieved. This
-     * will simply record new block positions in the free blocks database and
-     * remove the starting blocks's position.
+     * Check if the pool can be compacted, which only the buddy allocator
+     * supports.
      * 
-     * @param blockPos   Position of the memory block to be split up.
-     *
-     * @param blockSize  Size of the memory block that is being split up.
-     *
-     * @param targetSize Memory block size desired to be obtained by splitting
-     *                   up.
+     * @return True if the allocator is a BuddyAllocator.
      */
-    private void splitBlock(int blockPos, int blockSize, int targetSize) {
-        removePos(blockSize, blockPos);
-        while (blockSize != targetSize) {
-            blockSize /= 2;
-            addPos(blockSize, blockPos + blockSize);
-        }
-        addPos(targetSize, blockPos);
+    boolean canCompact() {
+        return buddy != null;
     }
 
     /**
-     * Get the buddy's position.
+     * Check if compacting the pool would pay off, as decided by
+     * BuddyAllocator.needsCompaction; never for other allocators.
      * 
-     * @param  thisBuddyPos Position of the memory block for whom we are looking
-     *                      the buddy
-     * @param  size         The size of the memory block (both buddies have the
-     *                      same block sizes). Size is always a power of two.
+     * @param  dataSize  Number of bytes about to be stored, -1 if none.
+     * @param  threshold Percentage of the free bytes outside the largest
+     *                   free block at which compaction is considered.
      * 
-     * @return              Calculated int position of the buddy.
+     * @return           True if the pool should be compacted.
      */
-    private int getBuddyPos(int thisBuddyPos, int size) {
-        return thisBuddyPos ^ size;
+    boolean needsCompaction(int dataSize, int threshold) {
+        return buddy != null && buddy.needsCompaction(dataSize, threshold);
     }
 
     /**
-     * Merge buddy memory blocks if both are free.
-     *
-     * @param  blockSize The size of the memory block which started the merger.
-     *
-     * @param  pos       The position of the memory block in the bytes array.
+     * First step of a compaction: copy the used blocks that are not where
+     * the compacted pool has them past the end of the pool, in the layout
+     * of the compacted pool, and free their old blocks. The pool is doubled
+     * to hold the copies if any are needed. Until finishCompaction, the
+     * pool is in a state that can be checkpointed: nothing has been
+     * overwritten that the handles before this step refer to.
      * 
-     * @return           True if any merger occurred, false otherwise.
+     * @param  handles The handles of all of the used blocks.
+     * 
+     * @return         Their handles after the step, in the same order.
      */
-    private boolean mergeBuddy(int blockSize, int pos) {
-        int initBlockSize = blockSize;
-        while (blockSize < poolSize) {
-            int buddyPos = getBuddyPos(pos, blockSize);
-            boolean removed = removePos(blockSize, buddyPos);
-            if (!removed) {
-                break;
+    MemoryHandle[] stageCompaction(MemoryHandle[] handles) {
+        MemoryHandle[] dense = BuddyAllocator.getDenseLayout(handles);
+        MemoryHandle[] staged = new MemoryHandle[handles.length];
+        stagingOffset = buddy.getPoolSize();
+        int stagedPoolSize = stagingOffset;
+        for (int i = 0; i < handles.length; ++i) {
+            if (dense[i].getPos() == handles[i].getPos()) {
+                staged[i] = handles[i];
+                continue;
             }
-            removePos(blockSize, pos);
-            pos = pos < buddyPos ? pos : buddyPos;
-            blockSize *= 2;
-        }
-        if (initBlockSize != blockSize) {
-            addPos(blockSize, pos);
-            return true;
+            // every used block fits in the pool, so one doubling does
+            stagedPoolSize = 2 * stagingOffset;
+            staged[i] = new MemoryHandle(stagingOffset + dense[i].getPos(),
+                    dense[i].getBlockSize(), dense[i].getDataSize());
         }
-        return false;
+        moveRecords(handles, staged);
+        buddy.rebuild(stagedPoolSize, staged);
+        return staged;
     }
 
-    /** Double the capacity of the memory poolsize. */
-    private void doublePoolSize() {
-        try {
-            // turns out setLength is not needed as we can write beyond the file
-            // size limit
-            // bufferPool.getDiskIOFile().setLength(2 * poolSize);
-            poolSize *= 2;
-            BlockInfo[] temp = this.blocks;
-
-            this.blocks = new BlockInfo[temp.length + 1];
-            for (int i = 0; i < temp.length; ++i) {
-                blocks[i] = temp[i];
-            }
-            // finally mark the extra space as free
-            this.blocks[temp.length] = new BlockInfo();
-            addPos(poolSize / 2, poolSize / 2);
-            mergeBuddy(poolSize / 2, poolSize / 2);
-
-            System.out.println(
-                    "Memory pool expanded to be " + poolSize + " bytes.");
-        }
-        catch (Exception e) {
-            System.out.println(e.getMessage());
+    /**
+     * Second step of a compaction: move the copies made by stageCompaction
+     * to their places at the start of the pool, shrink the pool down to the
+     * smallest power of two that holds the used blocks, but not below its
+     * initial size, and shorten the disk file to match.
+     * 
+     * @param  staged The handles returned by stageCompaction.
+     * 
+     * @return        The handles of the used blocks in the compacted pool,
+     *                in the same order.
+     */
+    MemoryHandle[] finishCompaction(MemoryHandle[] staged) {
+        MemoryHandle[] compacted = new MemoryHandle[staged.length];
+        int usedBytes = 0;
+        for (int i = 0; i < staged.length; ++i) {
+            MemoryHandle handle = staged[i];
+            compacted[i] = handle.getPos() < stagingOffset ? handle
+                    : new MemoryHandle(handle.getPos() - stagingOffset,
+                            handle.getBlockSize(), handle.getDataSize());
+            usedBytes += handle.getBlockSize();
         }
+        stagingOffset = -1;
+        moveRecords(staged, compacted);
+        buddy.rebuild(buddy.getCompactedSize(usedBytes), compacted);
+        bufferPool.truncate(buddy.getPoolSize());
+        return compacted;
     }
 
     /**
-     * A class that holds the information on a block of given size. It is a
-     * wrapper class around the generic LinkedList class.
+     * Get the positions of the free blocks of the buddy allocator.
      * 
-     * @author  Bimal Gaudel
+     * @return For each power of two up to the pool size, the positions of
+     *         the free blocks of that size in increasing order.
+     */
+    int[][] getFreePositions() {
+        return buddy.getFreePositions();
+    }
+
+    /**
+     * String representation of the memory manager. It shows currently free
+     * blocks and their starting positions.
      * 
-     * @version Feb 2020
+     * @return String representation of the memory manager, showing free blocks.
      */
-    private class BlockInfo {
-        /**
-         * Various positions (if any) where blocks start in the byteArray.
-         */
-        private LinkedList<Integer> blockPos;
-
-        /** Construct a BlockInfo. */
-        BlockInfo() {
-            this.blockPos = new LinkedList<Integer>();
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        try {
+            appendTo(result);
         }
-
-        /**
-         * Insert a new position index for the current block. The insertion will
-         * maintain a lexicographic ordering of the positions.
-         */
-        public void insertPos(int pos) {
-            this.blockPos.insert(pos);
+        catch (IOException e) {
+            // a StringBuilder is never closed
         }
+        return result.toString();
+    }
 
-        /**
-         * Delete a position entry for the block.
-         * 
-         * @param  pos Position to be deleted.
-         * 
-         * @return     True if position deleted, false otherwise.
-         */
-        public boolean deletePos(int pos) {
-            return this.blockPos.remove(pos);
-        }
+    /**
+     * Write the free blocks, as toString has them, without building the
+     * whole listing first.
+     * 
+     * @param  out         Where the free blocks are written, e.g. System.out.
+     * 
+     * @throws IOException If out can't be written.
+     */
+    public void appendTo(Appendable out) throws IOException {
+        allocator.appendTo(out);
+    }
 
-        /**
-         * Get a free position from the positions record for the current
-         * block size. It will also remove the position from the database.
-         * 
-         * @return The first occurring position.
-         */
-        public int getPos() {
-            return this.blockPos.popFront();
+    /**
+     * Copy the data of records to new blocks, in batches read in the order
+     * of the new positions and written by writeBatch, so that the writes
+     * are long and sequential. The old and the new blocks must not overlap.
+     * 
+     * @param from The handles of the records.
+     * @param to   Their new handles, in the same order; records whose
+     *             position doesn't change are not copied.
+     */
+    private void moveRecords(MemoryHandle[] from, MemoryHandle[] to) {
+        long[] order = new long[from.length];
+        int count = 0;
+        for (int i = 0; i < from.length; ++i) {
+            if (from[i].getPos() != to[i].getPos()) {
+                order[count++] = (long) to[i].getPos() << 32 | i;
+                countSpanning(from[i], -1);
+                countSpanning(to[i], 1);
+            }
         }
-
-        /**
-         * Check if this block has any free positions.
-         *
-         * @return true if no positions in record, false otherwise.
-         */
-        public boolean isEmpty() {
-            boolean empty = this.blockPos.isEmpty();
-            return empty;
+        Arrays.sort(order, 0, count);
+
+        byte[][] records = new byte[MOVE_BATCH_RECORDS][];
+        MemoryHandle[] handles = new MemoryHandle[MOVE_BATCH_RECORDS];
+        int batchCount = 0;
+        int batchBytes = 0;
+        for (int j = 0; j < count; ++j) {
+            int index = (int) order[j];
+            records[batchCount] = new byte[from[index].getDataSize()];
+            bufferPool.getBytes(records[batchCount], from[index]);
+            handles[batchCount++] = to[index];
+            batchBytes += from[index].getDataSize();
+            if (batchCount == MOVE_BATCH_RECORDS
+                    || batchBytes >= MOVE_BATCH_BYTES) {
+                writeBatch(records, handles, batchCount);
+                batchCount = 0;
+                batchBytes = 0;
+            }
         }
+        writeBatch(records, handles, batchCount);
+    }
 
-        /**
-         * String representation of a BlockInfo object.
-         */
-        @Override
-        public String toString() {
-            String result = "";
-            for (blockPos.moveToHead(); !blockPos.atEnd(); blockPos
-                    .curseToNext()) {
-                result += " " + blockPos.yieldCurrNode().toString();
+    /**
+     * Add a used block to the counts of blocks whose data spans blocks of
+     * the disk file, or take it off them, if it is one.
+     * 
+     * @param handle The handle of the block.
+     * @param delta  1 for a block taken into use, -1 for a freed one.
+     */
+    private void countSpanning(MemoryHandle handle, int delta) {
+        int diskBlock = bufferPool.getBufferSize();
+        int first = handle.getPos() / diskBlock;
+        int last = (handle.getPos() + Math.max(handle.getDataSize(), 1) - 1)
+                / diskBlock;
+        if (first != last) {
+            spanningBlocks += delta;
+            if (handle.getDataSize() <= diskBlock) {
+                avoidableSpans += delta;
             }
-            return result;
         }
     }
 }
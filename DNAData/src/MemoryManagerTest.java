@@ -253,6 +253,229 @@ public class MemoryManagerTest extends TestCase {
         deleteIOfile();
     }
 
+    /** Test the statistics of splits, merges, doublings and fragmentation. */
+    public void testGetStats() {
+        AllocatorStats stats = manager.getStats();
+        assertEquals(stats.getPoolSize(), 32);
+        assertEquals(stats.getLargestFree(), 32);
+        assertEquals(stats.getExternalFragmentation(), 0.0, 1e-9);
+
+        MemoryHandle small = manager.storeBytes(new byte[2]);
+        manager.storeBytes(new byte[33]);
+        stats = manager.getStats();
+        assertEquals(stats.getAllocations(), 2);
+        assertEquals(stats.getSplits(), 4);
+        assertEquals(stats.getDoublings(), 2);
+        assertEquals(stats.getMerges(), 0);
+        assertEquals(stats.getPoolSize(), 128);
+        assertEquals(stats.getFreeBlocks(), 5);
+        assertEquals(stats.getFreeBytes(), 62);
+        assertEquals(stats.getLargestFree(), 32);
+        assertEquals(stats.getUsedBlocks(), 2);
+        assertEquals(stats.getUsedBytes(), 66);
+        assertEquals(stats.getDataBytes(), 35);
+        assertEquals(stats.getInternalFragmentation(), 1 - 35.0 / 66, 1e-9);
+        assertEquals(stats.getExternalFragmentation(), 1 - 32.0 / 62, 1e-9);
+        assertEquals(stats.getLatency().getCount(), 2);
+
+        // the snapshot is not changed by later use
+        manager.freeBlock(small);
+        assertEquals(stats.getFrees(), 0);
+        stats = manager.getStats();
+        assertEquals(stats.getFrees(), 1);
+        assertEquals(stats.getMerges(), 5);
+        assertEquals(stats.getFreeBlocks(), 1);
+        assertEquals(stats.getLargestFree(), 64);
+        assertEquals(stats.getUsedBytes(), 64);
+        assertEquals(stats.getDataBytes(), 33);
+        assertTrue(stats.toString().contains("pool doublings: 2"));
+        deleteIOfile();
+    }
+
+    /** Test moving the records into a dense prefix and shrinking. */
+    public void testCompaction() throws Exception {
+        ioFile.delete();
+        BufferPool buffer = new BufferPool(5, 16,
+                new RandomAccessFile(ioFile, "rw"));
+        manager = new MemoryManager(32, buffer);
+        MemoryHandle first = manager.storeBytes("abcdefghij".getBytes());
+        MemoryHandle[] handles = {manager.storeBytes("klm".getBytes()),
+            manager.storeBytes("mnopq".getBytes())};
+        manager.freeBlock(first);
+        assertEquals(handles[0], new MemoryHandle(16, 4, 3));
+        assertEquals(handles[1], new MemoryHandle(24, 8, 5));
+
+        // the records are copied past the end of the pool first
+        MemoryHandle[] staged = manager.stageCompaction(handles);
+        assertEquals(manager.getPoolSize(), 64);
+        assertEquals(staged[0], new MemoryHandle(40, 4, 3));
+        assertEquals(staged[1], new MemoryHandle(32, 8, 5));
+        assertFuzzyEquals(manager.toString(), "4: 44\n16: 48\n32: 0");
+        assertEquals(readString(staged[0]), "klm");
+        assertEquals(readString(handles[1]), "mnopq");
+
+        MemoryHandle[] compacted = manager.finishCompaction(staged);
+        assertEquals(manager.getPoolSize(), 32);
+        assertEquals(compacted[0], new MemoryHandle(8, 4, 3));
+        assertEquals(compacted[1], new MemoryHandle(0, 8, 5));
+        assertFuzzyEquals(manager.toString(), "4: 12\n16: 16");
+        assertEquals(readString(compacted[0]), "klm");
+        assertEquals(readString(compacted[1]), "mnopq");
+        assertEquals(manager.getStats().getDoublings(), 0);
+        buffer.flush();
+        assertTrue(ioFile.length() <= 32);
+
+        // the pool keeps working after it shrank
+        assertEquals(manager.storeBytes(new byte[16]),
+                new MemoryHandle(16, 16, 16));
+        assertEquals(manager.storeBytes(new byte[32]).getPos(), 32);
+        deleteIOfile();
+    }
+
+    /** Test when compaction is considered worth it. */
+    public void testNeedsCompaction() throws Exception {
+        MemoryHandle[] handles = new MemoryHandle[4];
+        for (int i = 0; i < handles.length; ++i) {
+            handles[i] = manager.storeBytes(new byte[8]);
+        }
+        manager.freeBlock(handles[0]);
+        manager.freeBlock(handles[2]);
+        // half of the free bytes are outside the largest free block
+        assertTrue(manager.needsCompaction(16, 50));
+        assertFalse(manager.needsCompaction(16, 60));
+        assertFalse(manager.needsCompaction(8, 0));
+        assertFalse(manager.needsCompaction(-1, 0));
+        // a compacted pool doesn't fit a block of 32 either
+        assertFalse(manager.needsCompaction(17, 0));
+
+        // a pool four times larger than the records shrinks
+        ioFile.delete();
+        manager = new MemoryManager(32, new BufferPool(5, 16,
+                new RandomAccessFile(ioFile, "rw")));
+        MemoryHandle small = manager.storeBytes(new byte[2]);
+        manager.freeBlock(manager.storeBytes(new byte[33]));
+        assertEquals(manager.getPoolSize(), 128);
+        assertTrue(manager.needsCompaction(-1, 40));
+        assertFalse(manager.needsCompaction(-1, 50));
+        MemoryHandle[] staged = manager.stageCompaction(
+                new MemoryHandle[] {small});
+        assertEquals(manager.getPoolSize(), 128);
+        assertEquals(manager.finishCompaction(staged)[0], small);
+        assertEquals(manager.getPoolSize(), 32);
+        assertFuzzyEquals(manager.toString(), "2: 2\n4: 4\n8: 8\n16: 16");
+        deleteIOfile();
+    }
+
+    /** Test reserving blocks and writing them in one batch. */
+    public void testWriteBatch() {
+        byte[][] records = {"abc".getBytes(), "defghij".getBytes(),
+            "kl".getBytes(), "mnopq".getBytes()};
+        MemoryHandle[] handles = new MemoryHandle[records.length];
+        for (int i = 0; i < records.length; ++i) {
+            handles[i] = manager.allocate(records[i].length);
+        }
+        // nothing is written until the batch is
+        assertEquals(ioFile.length(), 0);
+        assertEquals(handles[1], new MemoryHandle(8, 8, 7));
+        manager.writeBatch(records, handles, records.length);
+
+        for (int i = 0; i < records.length; ++i) {
+            byte[] read = new byte[records[i].length];
+            manager.getBytes(read, handles[i]);
+            assertEquals(new String(read), new String(records[i]));
+        }
+        deleteIOfile();
+    }
+
+    /**
+     * Test storing, reading and freeing records with each allocator.
+     * 
+     * @throws Exception If the disk file can't be opened.
+     */
+    public void testAllocators() throws Exception {
+        assertNull(Allocator.forName("bump", 32, 16, false));
+        for (String name : new String[] {"buddy", "slab", "extent"}) {
+            ioFile.delete();
+            manager = new MemoryManager(Allocator.forName(name, 32, 16, false),
+                    new BufferPool(5, 16, new RandomAccessFile(ioFile, "rw")));
+            assertEquals(manager.getAllocator().getName(), name);
+            assertEquals(manager.canCompact(), name.equals("buddy"));
+            assertFalse(manager.needsCompaction(-1, 0));
+            MemoryHandle[] handles = new MemoryHandle[20];
+            for (int i = 0; i < handles.length; ++i) {
+                handles[i] = manager.storeBytes(("record " + i).getBytes());
+            }
+            for (int i = 0; i < handles.length; i += 2) {
+                manager.freeBlock(handles[i]);
+            }
+            MemoryHandle large = manager.storeBytes(
+                    "a record longer than a block".getBytes());
+            for (int i = 1; i < handles.length; i += 2) {
+                assertEquals(readString(handles[i]), "record " + i);
+            }
+            assertEquals(readString(large), "a record longer than a block");
+            assertEquals(manager.getStats().getUsedBlocks(), 11);
+        }
+        deleteIOfile();
+    }
+
+    /**
+     * Test counting the records that span blocks of the disk file, with
+     * and without aligned placement.
+     * 
+     * @throws Exception If the disk file can't be opened.
+     */
+    public void testSpanning() throws Exception {
+        manager.storeBytes(new byte[4]);
+        manager.storeBytes(new byte[12]);
+        AllocatorStats stats = manager.getStats();
+        assertEquals(stats.getSpanningBlocks(), 0);
+        assertEquals(stats.getSpanningAccesses(), 0);
+
+        ioFile.delete();
+        manager = new MemoryManager(Allocator.forName("extent", 32, 16,
+                false), new BufferPool(5, 16, new RandomAccessFile(ioFile,
+                "rw")));
+        manager.storeBytes(new byte[4]);
+        MemoryHandle handle = manager.storeBytes("spans two".getBytes());
+        assertEquals(handle.getPos(), 8);
+        MemoryHandle large = manager.storeBytes(new byte[20]);
+        assertEquals(readString(handle), "spans two");
+        stats = manager.getStats();
+        assertEquals(stats.getSpanningBlocks(), 2);
+        assertEquals(stats.getAvoidableSpans(), 1);
+        assertEquals(stats.getSpanningAccesses(), 3);
+        manager.freeBlock(handle);
+        manager.freeBlock(large);
+        assertEquals(manager.getStats().getSpanningBlocks(), 0);
+        assertEquals(manager.getStats().getAvoidableSpans(), 0);
+
+        ioFile.delete();
+        manager = new MemoryManager(Allocator.forName("extent", 32, 16,
+                true), new BufferPool(5, 16, new RandomAccessFile(ioFile,
+                "rw")));
+        manager.storeBytes(new byte[4]);
+        assertEquals(manager.storeBytes("spans two".getBytes()).getPos(), 16);
+        manager.storeBytes(new byte[20]);
+        stats = manager.getStats();
+        assertEquals(stats.getSpanningBlocks(), 1);
+        assertEquals(stats.getAvoidableSpans(), 0);
+        deleteIOfile();
+    }
+
+    /**
+     * Read a record of the manager as a String.
+     * 
+     * @param  handle The handle of the record.
+     * 
+     * @return        The bytes of the record.
+     */
+    private String readString(MemoryHandle handle) {
+        byte[] bytes = new byte[handle.getDataSize()];
+        manager.getBytes(bytes, handle);
+        return new String(bytes);
+    }
+
     /** Close the File object accompanying the random access file. */
     private void deleteIOfile() {
         try {
@@ -0,0 +1,214 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+/**
+ * Latencies and throughput of the record operations of a World: adding,
+ * deleting and printing a record. Each operation is timed as a whole and
+ * in three phases: the hash table lookups and updates, the allocation and
+ * freeing of its block, and the buffer I/O of its bytes. What is left,
+ * parsing, serializing, logging and printing, is the other phase, so the
+ * phase that dominates under load stands out.
+ *
+ * <p>An operation is timed from begin to end; the phases of the operation
+ * in between are added up with endPhase, and the sums are recorded in the
+ * histograms at the end. Phases timed outside an operation, e.g. by a bulk
+ * load, are dropped by the next begin.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class OperationMetrics {
+    /** Index of the add operation. */
+    static final int ADD = 0;
+
+    /** Index of the delete operation. */
+    static final int DELETE = 1;
+
+    /** Index of the print operation. */
+    static final int PRINT = 2;
+
+    /** Index of the time of a whole operation. */
+    static final int TOTAL = 0;
+
+    /** Index of the hash table phase. */
+    static final int HASH = 1;
+
+    /** Index of the allocation phase. */
+    static final int ALLOC = 2;
+
+    /** Index of the buffer I/O phase. */
+    static final int IO = 3;
+
+    /** Index of the rest of an operation. */
+    static final int OTHER = 4;
+
+    /** Names of the operations, by index. */
+    private static final String[] OPERATIONS = {"add", "delete", "print"};
+
+    /** Names of the phases, by index. */
+    private static final String[] PHASES = {"total", "hash", "alloc", "io",
+        "other"};
+
+    /** The latencies of each phase of each operation. */
+    private LatencyHistogram[][] latencies;
+
+    /** Time spent in each phase by the current operation. */
+    private long[] phaseNanos;
+
+    /** The current operation, -1 if none. */
+    private int current;
+
+    /** When the current operation began. */
+    private long begun;
+
+    /** When the metrics were created, the start of the session. */
+    private long created;
+
+    /** Construct metrics with nothing recorded. */
+    OperationMetrics() {
+        latencies = new LatencyHistogram[OPERATIONS.length][PHASES.length];
+        for (LatencyHistogram[] phases : latencies) {
+            for (int i = 0; i < phases.length; ++i) {
+                phases[i] = new LatencyHistogram();
+            }
+        }
+        phaseNanos = new long[PHASES.length];
+        current = -1;
+        created = System.nanoTime();
+    }
+
+    /**
+     * Begin timing an operation.
+     *
+     * @param operation ADD, DELETE or PRINT.
+     */
+    void begin(int operation) {
+        Arrays.fill(phaseNanos, 0);
+        current = operation;
+        begun = System.nanoTime();
+    }
+
+    /**
+     * Add the time since a phase started to the current operation.
+     *
+     * @param  phase HASH, ALLOC or IO.
+     * @param  start When the phase started, from System.nanoTime.
+     *
+     * @return       The time now, when a phase that follows starts.
+     */
+    long endPhase(int phase, long start) {
+        long now = System.nanoTime();
+        phaseNanos[phase] += now - start;
+        return now;
+    }
+
+    /**
+     * End timing the current operation and record its latencies, if an
+     * operation was begun.
+     */
+    void end() {
+        if (current < 0) {
+            return;
+        }
+        long total = System.nanoTime() - begun;
+        phaseNanos[TOTAL] = total;
+        phaseNanos[OTHER] = total - phaseNanos[HASH] - phaseNanos[ALLOC]
+                - phaseNanos[IO];
+        for (int i = 0; i < PHASES.length; ++i) {
+            latencies[current][i].record(phaseNanos[i]);
+        }
+        current = -1;
+    }
+
+    /**
+     * Get the latencies of a phase of an operation.
+     *
+     * @param  operation ADD, DELETE or PRINT.
+     * @param  phase     TOTAL, HASH, ALLOC, IO or OTHER.
+     *
+     * @return           The histogram, which later operations change.
+     */
+    LatencyHistogram getLatency(int operation, int phase) {
+        return latencies[operation][phase];
+    }
+
+    /**
+     * Get the number of operations of a kind per second of the session.
+     *
+     * @param  operation ADD, DELETE or PRINT.
+     *
+     * @return           Operations per second since the metrics were
+     *                   created.
+     */
+    double getThroughput(int operation) {
+        long elapsed = Math.max(System.nanoTime() - created, 1);
+        return latencies[operation][TOTAL].getCount() * 1e9 / elapsed;
+    }
+
+    /**
+     * Write the metrics as comma separated values: a header, then one line
+     * per phase of each operation.
+     *
+     * @param  file        The file to be written, replaced if it exists.
+     *
+     * @throws IOException If the file can't be written.
+     */
+    void writeCsv(File file) throws IOException {
+        PrintWriter out = new PrintWriter(file);
+        try {
+            out.println("operation,phase,count,per_second,mean_ns,p50_ns,"
+                    + "p90_ns,p99_ns,p999_ns,max_ns,total_ms");
+            for (int op = 0; op < OPERATIONS.length; ++op) {
+                String throughput = String.format("%.1f", getThroughput(op));
+                for (int i = 0; i < PHASES.length; ++i) {
+                    LatencyHistogram latency = latencies[op][i];
+                    out.println(OPERATIONS[op] + "," + PHASES[i] + ","
+                            + latency.getCount() + "," + throughput + ","
+                            + Math.round(latency.getMean()) + ","
+                            + latency.getPercentile(50) + ","
+                            + latency.getPercentile(90) + ","
+                            + latency.getPercentile(99) + ","
+                            + latency.getPercentile(99.9) + ","
+                            + latency.getMax() + ","
+                            + String.format("%.3f", latency.getMean()
+                                    * latency.getCount() / 1e6));
+                }
+            }
+            if (out.checkError()) {
+                throw new IOException("Could not write |" + file + "|");
+            }
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Get a string representation of the metrics.
+     *
+     * @return For each operation, its count and throughput, then the
+     *         latencies of each of its phases.
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (int op = 0; op < OPERATIONS.length; ++op) {
+            if (op > 0) {
+                result.append('\n');
+            }
+            result.append(OPERATIONS[op]).append(": ")
+                    .append(latencies[op][TOTAL].getCount())
+                    .append(" operations, ")
+                    .append(String.format("%.1f", getThroughput(op)))
+                    .append(" per second");
+            for (int i = 0; i < PHASES.length; ++i) {
+                result.append("\n  ").append(PHASES[i]).append(": ")
+                        .append(latencies[op][i]);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,74 @@
+import student.TestCase;
+
+import java.io.File;
+import java.util.Scanner;
+
+/**
+ * Test the OperationMetrics class.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class OperationMetricsTest extends TestCase {
+    /** Test timing operations and their phases. */
+    public void testPhases() {
+        OperationMetrics metrics = new OperationMetrics();
+        // phases outside an operation are dropped
+        metrics.endPhase(OperationMetrics.IO, System.nanoTime() - 1000000);
+        metrics.end();
+        assertEquals(metrics.getLatency(OperationMetrics.ADD,
+                OperationMetrics.TOTAL).getCount(), 0);
+
+        metrics.begin(OperationMetrics.ADD);
+        long start = System.nanoTime() - 1000;
+        start = metrics.endPhase(OperationMetrics.HASH, start);
+        metrics.endPhase(OperationMetrics.HASH, start - 500);
+        metrics.end();
+        LatencyHistogram hash = metrics.getLatency(OperationMetrics.ADD,
+                OperationMetrics.HASH);
+        assertEquals(hash.getCount(), 1);
+        assertTrue(hash.getMax() >= 1500);
+        assertEquals(metrics.getLatency(OperationMetrics.ADD,
+                OperationMetrics.IO).getMax(), 0);
+        assertEquals(metrics.getLatency(OperationMetrics.ADD,
+                OperationMetrics.OTHER).getCount(), 1);
+        assertEquals(metrics.getLatency(OperationMetrics.DELETE,
+                OperationMetrics.TOTAL).getCount(), 0);
+        assertTrue(metrics.getThroughput(OperationMetrics.ADD) > 0);
+        assertEquals(metrics.getThroughput(OperationMetrics.PRINT), 0.0,
+                1e-9);
+    }
+
+    /**
+     * Test the string form and the comma separated values.
+     *
+     * @throws Exception If the file can't be written or read.
+     */
+    public void testOutput() throws Exception {
+        OperationMetrics metrics = new OperationMetrics();
+        metrics.begin(OperationMetrics.DELETE);
+        metrics.end();
+        String text = metrics.toString();
+        assertTrue(text.startsWith("add: 0 operations, 0.0 per second\n"
+                + "  total: count 0"));
+        assertTrue(text.contains("\ndelete: 1 operations, "));
+        assertTrue(text.contains("\n  other: count 1"));
+
+        File file = new File(".metrics.csv");
+        metrics.writeCsv(file);
+        Scanner lines = new Scanner(file);
+        assertEquals(lines.nextLine(), "operation,phase,count,per_second,"
+                + "mean_ns,p50_ns,p90_ns,p99_ns,p999_ns,max_ns,total_ms");
+        int count = 0;
+        while (lines.hasNextLine()) {
+            String[] fields = lines.nextLine().split(",");
+            assertEquals(fields.length, 11);
+            assertEquals(fields[2], fields[0].equals("delete") ? "1" : "0");
+            ++count;
+        }
+        lines.close();
+        assertEquals(count, 15);
+        file.delete();
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Helper for the replacement policy tests. It drives a policy the way the
+ * BufferPool does, without any disk I/O.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class PolicyTestHelper {
+    /** The policy being driven. */
+    private ReplacementPolicy policy;
+
+    /** Index from block ids to buffers. */
+    private BlockIndex index;
+
+    /**
+     * Construct a PolicyTestHelper.
+     * 
+     * @param policy     The policy being driven.
+     * @param numBuffers Number of buffers handed to the policy.
+     */
+    PolicyTestHelper(ReplacementPolicy policy, int numBuffers) {
+        this.policy = policy;
+        index = new BlockIndex(numBuffers);
+        for (int i = 0; i < numBuffers; ++i) {
+            policy.addFree(new Buffer(-1, 0));
+        }
+    }
+
+    /**
+     * Access a block.
+     * 
+     * @param  blockId The block id.
+     * 
+     * @return         The block id evicted to make room, -1 on a hit or if a
+     *                 free buffer was used, -2 if every buffer is pinned.
+     */
+    public int access(int blockId) {
+        Buffer buffer = index.get(blockId);
+        if (buffer != null) {
+            policy.recordHit(buffer);
+            return -1;
+        }
+        buffer = policy.admit(blockId);
+        if (buffer == null) {
+            return -2;
+        }
+        int evicted = buffer.getBlockId();
+        if (evicted != -1) {
+            index.remove(evicted);
+        }
+        buffer.setBlockId(blockId);
+        index.put(blockId, buffer);
+        return evicted;
+    }
+
+    /**
+     * Pin or unpin the buffer holding a cached block.
+     * 
+     * @param blockId The block id.
+     * @param pinned  True to pin, false to unpin.
+     */
+    public void setPinned(int blockId, boolean pinned) {
+        if (pinned) {
+            index.get(blockId).pin();
+        }
+        else {
+            index.get(blockId).unpin();
+        }
+    }
+
+    /**
+     * Check if a block is cached.
+     * 
+     * @param  blockId The block id.
+     * 
+     * @return         True if a buffer holds the block.
+     */
+    public boolean isCached(int blockId) {
+        return index.get(blockId) != null;
+    }
+
+    /**
+     * Get the block ids in the order the policy lists the buffers.
+     * 
+     * @return Block ids separated by spaces.
+     */
+    public String listing() {
+        String result = "";
+        for (Buffer buffer : policy.getBuffers()) {
+            result += buffer.getBlockId() + " ";
+        }
+        return result.trim();
+    }
+}
@@ -0,0 +1,453 @@
+import java.io.IOException;
+
+/**
+ * A hash table from long keys to memory handles that keeps no per-entry
+ * objects. The keys and the three fields of the handles live in parallel
+ * arrays, and whether a slot is occupied or a tombstone is kept in two
+ * bitsets, so inserting allocates nothing and probing touches only the key
+ * array. It hashes and probes exactly like HashTable, so both tables put
+ * every key in the same slot.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class PrimitiveHashTable implements RecordIndex {
+    /** Slot index returned when probing finds no room for a new key. */
+    private static final int NO_ROOM = -2;
+
+    /** The number of slots of the table. */
+    private int size;
+
+    /** The number of active records the table holds. */
+    private int countActive;
+
+    /** The number of tombstones. */
+    private int countDeleted;
+
+    /** Probe length statistics. */
+    private ProbeStats probeStats;
+
+    /** The keys stored in the slots. */
+    private long[] keys;
+
+    /** Positions of the handles stored in the slots. */
+    private int[] positions;
+
+    /** Block sizes of the handles stored in the slots. */
+    private int[] blockSizes;
+
+    /** Data sizes of the handles stored in the slots. */
+    private int[] dataSizes;
+
+    /** One bit per slot, set if the slot holds an entry or a tombstone. */
+    private long[] occupied;
+
+    /** One bit per slot, set if the slot holds a tombstone. */
+    private long[] tombstones;
+
+    /**
+     * Construct a hash table.
+     *
+     * @param tableSize The number of entries initialized.
+     */
+    PrimitiveHashTable(int tableSize) {
+        allocate(tableSize);
+        countActive = 0;
+        probeStats = new ProbeStats();
+    }
+
+    /**
+     * Get the size of the table.
+     *
+     * @return Total number of entries present in the table.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Get the number of active entries.
+     *
+     * @return Number of active entries.
+     */
+    public int getCountActive() {
+        return countActive;
+    }
+
+    /**
+     * Get the number of deleted entries still taking up slots.
+     *
+     * @return Number of tombstones.
+     */
+    public int getCountDeleted() {
+        return countDeleted;
+    }
+
+    /**
+     * Get the probe length statistics of the table.
+     *
+     * @return The statistics, updated as the table is used.
+     */
+    public ProbeStats getProbeStats() {
+        return probeStats;
+    }
+
+    /**
+     * Store a memory handle in the table along with key.
+     *
+     * @param  key   The key of the record to be inserted.
+     * @param  value The MemoryHandle of the record.
+     *
+     * @return       True if no duplicate pre-exist in the table.
+     */
+    public boolean insert(long key, Object value) {
+        int slot = findRoom(key);
+        if (slot == -1) {
+            return false;
+        }
+
+        MemoryHandle handle = (MemoryHandle) value;
+        store(slot, key, handle.getPos(), handle.getBlockSize(),
+                handle.getDataSize());
+        ++countActive;
+        return true;
+    }
+
+    /**
+     * Mark the entry of a key as a tombstone.
+     *
+     * @param  key The key of the entry to be marked as tombstone.
+     *
+     * @return     A MemoryHandle equal to the one stored for key, null if key
+     *             doesn't exist.
+     */
+    public Object delete(long key) {
+        int slot = findSlot(key);
+        if (slot == -1) {
+            return null;
+        }
+
+        setBit(tombstones, slot, true);
+        --countActive;
+        ++countDeleted;
+        return getHandle(slot);
+    }
+
+    /**
+     * Get the memory handle associated with a key.
+     *
+     * @param  key The key of the entry to look for.
+     *
+     * @return     A MemoryHandle equal to the one stored for key, null if key
+     *             doesn't exist.
+     */
+    public Object get(long key) {
+        int slot = findSlot(key);
+        return slot == -1 ? null : getHandle(slot);
+    }
+
+    /**
+     * Replace the memory handle of a key already in the table.
+     *
+     * @param  key   The key of the entry.
+     * @param  value The new MemoryHandle of the record.
+     *
+     * @return       True if key was found and its handle replaced.
+     */
+    public boolean replace(long key, Object value) {
+        int slot = findSlot(key);
+        if (slot == -1) {
+            return false;
+        }
+        MemoryHandle handle = (MemoryHandle) value;
+        positions[slot] = handle.getPos();
+        blockSizes[slot] = handle.getBlockSize();
+        dataSizes[slot] = handle.getDataSize();
+        return true;
+    }
+
+    /**
+     * Check if the table has at least half of the entries marked as active.
+     *
+     * @return True if floor(size/2) entries are active.
+     */
+    public boolean isHalfFull() {
+        return (size / 2) == countActive;
+    }
+
+    /**
+     * Double the size of the hash table. The active entries are rehashed in
+     * slot order, dropping the tombstones.
+     */
+    public void doubleTableSize() {
+        rebuild(2 * size);
+    }
+
+    /**
+     * Check if tombstones take up enough of the table that it should be
+     * compacted: active and deleted entries together fill three quarters of
+     * the slots and some of them are tombstones.
+     *
+     * @return True if compact is worth calling.
+     */
+    public boolean needsCompaction() {
+        return countDeleted > 0
+                && 4L * (countActive + countDeleted) >= 3L * size;
+    }
+
+    /**
+     * Rehash the active entries into a table of the same size, dropping the
+     * tombstones.
+     */
+    public void compact() {
+        rebuild(size);
+    }
+
+    /**
+     * Get the keys of the active entries.
+     *
+     * @return The keys in slot order.
+     */
+    public long[] getKeys() {
+        long[] result = new long[countActive];
+        int k = 0;
+        for (int i = 0; i < size; ++i) {
+            if (getBit(occupied, i) && !getBit(tombstones, i)) {
+                result[k++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get string representation of the hash table.
+     *
+     * @return Keys and their slot positions in separate lines followed by the
+     *         total number of active records present.
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        try {
+            appendTo(result);
+        }
+        catch (IOException e) {
+            // a StringBuilder is never closed
+        }
+        return result.toString();
+    }
+
+    /**
+     * Write the keys and their slot positions, as toString has them.
+     * 
+     * @param  out         Where the listing is written.
+     * 
+     * @throws IOException If out can't be written.
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        for (int i = 0; i < size; ++i) {
+            if (getBit(occupied, i) && !getBit(tombstones, i)) {
+                out.append(String.valueOf(keys[i])).append(": ")
+                        .append(String.valueOf(i)).append('\n');
+            }
+        }
+        out.append("Total records: ")
+                .append(String.valueOf(getCountActive()));
+    }
+
+    /**
+     * Find the slot for a new key, making room if probing finds none: by
+     * compacting the table if it has tombstones, by doubling its size
+     * otherwise.
+     *
+     * @param  key The key to be inserted.
+     *
+     * @return     A slot index eligible for insertion, -1 if the key is
+     *             already present.
+     */
+    private int findRoom(long key) {
+        int slot = findSlotForInsertion(key);
+        if (slot == NO_ROOM && countDeleted > 0) {
+            rebuild(size);
+            slot = findSlotForInsertion(key);
+        }
+        while (slot == NO_ROOM) {
+            rebuild(2 * size);
+            slot = findSlotForInsertion(key);
+        }
+        return slot;
+    }
+
+    /**
+     * Replace the arrays with new ones and rehash the active entries in slot
+     * order, dropping the tombstones.
+     *
+     * @param newSize The number of slots of the new arrays.
+     */
+    private void rebuild(int newSize) {
+        long[] oldKeys = keys;
+        int[] oldPositions = positions;
+        int[] oldBlockSizes = blockSizes;
+        int[] oldDataSizes = dataSizes;
+        long[] oldOccupied = occupied;
+        long[] oldTombstones = tombstones;
+        allocate(newSize);
+
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (!getBit(oldOccupied, i) || getBit(oldTombstones, i)) {
+                continue;
+            }
+            store(findRoom(oldKeys[i]), oldKeys[i], oldPositions[i],
+                    oldBlockSizes[i], oldDataSizes[i]);
+        }
+    }
+
+    /**
+     * Fill a free slot or a tombstone with an entry.
+     *
+     * @param slot      The slot index.
+     * @param key       The key of the entry.
+     * @param pos       The position of the handle.
+     * @param blockSize The block size of the handle.
+     * @param dataSize  The data size of the handle.
+     */
+    private void store(int slot, long key, int pos, int blockSize,
+            int dataSize) {
+        if (getBit(tombstones, slot)) {
+            --countDeleted;
+        }
+        keys[slot] = key;
+        positions[slot] = pos;
+        blockSizes[slot] = blockSize;
+        dataSizes[slot] = dataSize;
+        setBit(occupied, slot, true);
+        setBit(tombstones, slot, false);
+    }
+
+    /**
+     * Return a slot index for insertion: the first tombstone on the probe
+     * sequence if the key is not further along, the free slot ending the
+     * sequence otherwise.
+     *
+     * @param  key A key used for hashing and lookup.
+     *
+     * @return     A valid slot index eligible for insertion, -1 if the key is
+     *             already present, NO_ROOM if there is no slot left on the
+     *             probe sequence of key.
+     */
+    private int findSlotForInsertion(long key) {
+        int homeSlot = HashTable.getHomeSlot(key, size);
+        int runningSlot = homeSlot;
+        int tombstoneSlot = -1;
+        int probeLevel = 0;
+
+        // the probe sequence repeats itself after size probes
+        for (; probeLevel < size; ++probeLevel) {
+            if (!getBit(occupied, runningSlot)) {
+                probeStats.record(probeLevel + 1);
+                return tombstoneSlot != -1 ? tombstoneSlot : runningSlot;
+            }
+            if (getBit(tombstones, runningSlot)) {
+                if (tombstoneSlot == -1) {
+                    tombstoneSlot = runningSlot;
+                }
+            }
+            else if (keys[runningSlot] == key) {
+                probeStats.record(probeLevel + 1);
+                return -1;
+            }
+            runningSlot = HashTable.getProbedSlot(homeSlot, probeLevel + 1,
+                    size);
+        }
+        probeStats.record(probeLevel);
+        return tombstoneSlot != -1 ? tombstoneSlot : NO_ROOM;
+    }
+
+    /**
+     * Return the slot index of an active key.
+     *
+     * @param  key A key used for hashing and lookup.
+     *
+     * @return     The slot index if the key exists, -1 otherwise.
+     */
+    private int findSlot(long key) {
+        int homeSlot = HashTable.getHomeSlot(key, size);
+        int runningSlot = homeSlot;
+        int probeLevel = 0;
+
+        // the probe sequence repeats itself after size probes
+        for (; probeLevel < size; ++probeLevel) {
+            if (!getBit(occupied, runningSlot)) {
+                probeStats.record(probeLevel + 1);
+                return -1;
+            }
+            if (keys[runningSlot] == key
+                    && !getBit(tombstones, runningSlot)) {
+                probeStats.record(probeLevel + 1);
+                return runningSlot;
+            }
+            runningSlot = HashTable.getProbedSlot(homeSlot, probeLevel + 1,
+                    size);
+        }
+        probeStats.record(probeLevel);
+        return -1;
+    }
+
+    /**
+     * Rebuild the handle stored in a slot.
+     *
+     * @param  slot An occupied slot.
+     *
+     * @return      A new MemoryHandle with the slot's fields.
+     */
+    private MemoryHandle getHandle(int slot) {
+        return new MemoryHandle(positions[slot], blockSizes[slot],
+                dataSizes[slot]);
+    }
+
+    /**
+     * Allocate empty arrays for a number of slots.
+     *
+     * @param tableSize The number of slots.
+     */
+    private void allocate(int tableSize) {
+        size = tableSize;
+        countDeleted = 0;
+        keys = new long[tableSize];
+        positions = new int[tableSize];
+        blockSizes = new int[tableSize];
+        dataSizes = new int[tableSize];
+        occupied = new long[(tableSize + 63) / 64];
+        tombstones = new long[(tableSize + 63) / 64];
+    }
+
+    /**
+     * Read a bit of a bitset.
+     *
+     * @param  bits  The bitset.
+     * @param  index The bit index.
+     *
+     * @return       True if the bit is set.
+     */
+    private static boolean getBit(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Set or clear a bit of a bitset.
+     *
+     * @param bits  The bitset.
+     * @param index The bit index.
+     * @param value True to set the bit, false to clear it.
+     */
+    private static void setBit(long[] bits, int index, boolean value) {
+        if (value) {
+            bits[index >>> 6] |= 1L << index;
+        }
+        else {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+    }
+}
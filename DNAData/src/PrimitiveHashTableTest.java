@@ -0,0 +1,114 @@
+import student.TestCase;
+
+import java.util.Random;
+
+/**
+ * Test the PrimitiveHashTable class.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class PrimitiveHashTableTest extends TestCase {
+    /** A PrimitiveHashTable object used for test methods below. */
+    private PrimitiveHashTable table;
+
+    /** Sets up the tests that follow. */
+    public void setUp() {
+        table = new PrimitiveHashTable(10);
+    }
+
+    /** Test insertion, lookup and deletion. */
+    public void testInsertGetDelete() {
+        assertEquals(table.getSize(), 10);
+        assertTrue(table.insert(1, new MemoryHandle(0, 32, 20)));
+        assertTrue(table.insert(2, new MemoryHandle(32, 16, 13)));
+        assertFalse(table.insert(2, new MemoryHandle(48, 16, 13)));
+        assertEquals(table.getCountActive(), 2);
+
+        assertEquals(table.get(1), new MemoryHandle(0, 32, 20));
+        assertNull(table.get(3));
+
+        assertEquals(table.delete(2), new MemoryHandle(32, 16, 13));
+        assertNull(table.delete(2));
+        assertNull(table.get(2));
+        assertEquals(table.getCountActive(), 1);
+    }
+
+    /** Test that tombstones are reused as HashTable reuses them. */
+    public void testTombstones() {
+        // the home slot of 100, 105 and 110 is 0
+        table.insert(100L, new MemoryHandle(0, 16, 16));
+        table.insert(105L, new MemoryHandle(16, 16, 16));
+        table.delete(100L);
+        table.insert(110L, new MemoryHandle(32, 16, 16));
+        table.delete(105L);
+        assertEquals(table.toString(), "110: 0\nTotal records: 1");
+        table.doubleTableSize();
+        assertEquals(table.getSize(), 20);
+        assertEquals(table.get(110L), new MemoryHandle(32, 16, 16));
+    }
+
+    /**
+     * Test that a random mix of operations leaves both tables with the same
+     * keys in the same slots.
+     */
+    public void testSameSlotsAsHashTable() {
+        HashTable reference = new HashTable(10);
+        Random random = new Random(7);
+        for (int i = 0; i < 5000; ++i) {
+            long key = random.nextInt(400) * 1000003L;
+            if (random.nextInt(3) == 0) {
+                Object expected = reference.delete(key);
+                assertEquals(table.delete(key), expected);
+            }
+            else {
+                MemoryHandle handle = new MemoryHandle(i, 16, 9);
+                assertEquals(table.insert(key, handle),
+                        reference.insert(key, handle));
+            }
+            if (reference.isHalfFull()) {
+                reference.doubleTableSize();
+                table.doubleTableSize();
+            }
+            assertEquals(table.isHalfFull(), reference.isHalfFull());
+        }
+        assertEquals(table.toString(), reference.toString());
+        assertEquals(table.getSize(), reference.getSize());
+    }
+
+    /** Test tombstone counting, compaction and bounded probing. */
+    public void testCompaction() {
+        PrimitiveHashTable small = new PrimitiveHashTable(4);
+        for (int key = 1; key <= 40; ++key) {
+            small.insert(key * 7919L, new MemoryHandle(key, 16, 16));
+            small.delete(key * 7919L);
+        }
+        assertNull(small.get(999));
+        assertTrue(small.needsCompaction());
+        small.compact();
+        assertEquals(small.getCountDeleted(), 0);
+
+        PrimitiveHashTable crowded = new PrimitiveHashTable(16);
+        for (int key = 1; key <= 14; ++key) {
+            assertTrue(crowded.insert(key * 1000L,
+                    new MemoryHandle(key, 16, 16)));
+        }
+        assertTrue(crowded.getSize() > 16);
+        assertEquals(crowded.get(7000), new MemoryHandle(7, 16, 16));
+        assertTrue(crowded.getProbeStats().getAverage() >= 1);
+    }
+
+    /** Test replacing the handle of a key. */
+    public void testReplace() {
+        assertFalse(table.replace(1, new MemoryHandle(0, 32, 20)));
+        table.insert(1, new MemoryHandle(0, 32, 20));
+        table.insert(11, new MemoryHandle(32, 16, 13));
+        table.delete(1);
+        assertFalse(table.replace(1, new MemoryHandle(64, 32, 20)));
+        assertTrue(table.replace(11, new MemoryHandle(16, 16, 14)));
+        assertEquals(table.get(11), new MemoryHandle(16, 16, 14));
+        assertEquals(table.getCountActive(), 1);
+        assertEquals(table.getCountDeleted(), 1);
+    }
+}
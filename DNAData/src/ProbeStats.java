@@ -0,0 +1,67 @@
+/**
+ * Probe length statistics of a hash table. Every lookup of a slot, for
+ * reading or for insertion, records the number of slots it examined.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class ProbeStats {
+    /** Number of slot lookups recorded. */
+    private long lookups;
+
+    /** Total number of slots examined by the lookups. */
+    private long probes;
+
+    /** Most slots examined by a single lookup. */
+    private int longest;
+
+    /**
+     * Record a lookup.
+     * 
+     * @param numProbes Number of slots the lookup examined.
+     */
+    void record(int numProbes) {
+        ++lookups;
+        probes += numProbes;
+        longest = Math.max(longest, numProbes);
+    }
+
+    /**
+     * Get the number of lookups recorded.
+     * 
+     * @return Number of slot lookups.
+     */
+    public long getLookups() {
+        return lookups;
+    }
+
+    /**
+     * Get the average number of slots examined per lookup.
+     * 
+     * @return Average probe length, 0 if nothing was recorded.
+     */
+    public double getAverage() {
+        return lookups == 0 ? 0 : (double) probes / lookups;
+    }
+
+    /**
+     * Get the most slots examined by a single lookup.
+     * 
+     * @return Longest probe length.
+     */
+    public int getLongest() {
+        return longest;
+    }
+
+    /**
+     * Get a string representation of the statistics.
+     * 
+     * @return Number of lookups, average and longest probe lengths.
+     */
+    @Override
+    public String toString() {
+        return String.format("Probes: %d lookups, %.2f average, %d longest",
+                getLookups(), getAverage(), getLongest());
+    }
+}
@@ -0,0 +1,143 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * A BlockFile that seeks and does one blocking read or write per block
+ * transfer on a RandomAccessFile. The seek and the transfer happen under the
+ * object's lock, so the file can be shared by several pools.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class RandomAccessBlockFile implements BlockFile {
+    /** The file for disk I/O. */
+    private RandomAccessFile file;
+
+    /** Number of bytes in a block. */
+    private int blockSize;
+
+    /**
+     * Construct a RandomAccessBlockFile.
+     * 
+     * @param file      The file for disk I/O.
+     * @param blockSize Number of bytes in a block.
+     */
+    RandomAccessBlockFile(RandomAccessFile file, int blockSize) {
+        this.file = file;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Read a block into a byte array.
+     * 
+     * @param  blockId     The id of the block to be read.
+     * @param  dest        Array of at least one block size to read into.
+     * 
+     * @throws IOException If the file can't be read.
+     */
+    @Override
+    public synchronized void readBlock(int blockId, byte[] dest)
+            throws IOException {
+        // move to the beginning of the block
+        file.seek((long) blockId * blockSize);
+        file.read(dest, 0, blockSize);
+    }
+
+    /**
+     * Read a run of adjacent blocks with one positional read.
+     * 
+     * @param  firstBlockId The id of the first block of the run.
+     * @param  dest         Array to read into, count blocks long.
+     * @param  count        Number of blocks in the run.
+     * 
+     * @throws IOException  If the file can't be read.
+     */
+    @Override
+    public synchronized void readBlocks(int firstBlockId, byte[] dest,
+            int count) throws IOException {
+        int length = count * blockSize;
+        int done = 0;
+        file.seek((long) firstBlockId * blockSize);
+        while (done < length) {
+            int read = file.read(dest, done, length - done);
+            if (read < 0) {
+                break;
+            }
+            done += read;
+        }
+        // past the end of the file
+        Arrays.fill(dest, done, length, (byte) 0);
+    }
+
+    /**
+     * Write a block from a byte array.
+     * 
+     * @param  blockId     The id of the block to be written.
+     * @param  src         Array of one block size holding the data.
+     * 
+     * @throws IOException If the file can't be written.
+     */
+    @Override
+    public synchronized void writeBlock(int blockId, byte[] src)
+            throws IOException {
+        // move to the beginning of the block
+        file.seek((long) blockId * blockSize);
+        file.write(src, 0, blockSize);
+    }
+
+    /**
+     * Write a run of adjacent blocks with one gathering write on the file's
+     * channel.
+     * 
+     * @param  firstBlockId The id of the first block of the run.
+     * @param  blocks       Arrays of one block size each.
+     * @param  count        Number of blocks in the run.
+     * 
+     * @throws IOException  If the file can't be written.
+     */
+    @Override
+    public synchronized void writeBlocks(int firstBlockId, byte[][] blocks,
+            int count) throws IOException {
+        ByteBuffer[] sources = new ByteBuffer[count];
+        long remaining = 0;
+        for (int i = 0; i < count; ++i) {
+            sources[i] = ByteBuffer.wrap(blocks[i], 0, blockSize);
+            remaining += blockSize;
+        }
+        // the channel shares its position with the file
+        file.seek((long) firstBlockId * blockSize);
+        FileChannel channel = file.getChannel();
+        while (remaining > 0) {
+            remaining -= channel.write(sources);
+        }
+    }
+
+    /**
+     * Shorten the file to a number of blocks.
+     * 
+     * @param  numBlocks   Number of blocks to keep.
+     * 
+     * @throws IOException If the file can't be shortened.
+     */
+    @Override
+    public synchronized void truncate(int numBlocks) throws IOException {
+        long length = (long) numBlocks * blockSize;
+        if (file.length() > length) {
+            file.setLength(length);
+        }
+    }
+
+    /**
+     * Close the file.
+     * 
+     * @throws IOException If the file can't be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        file.close();
+    }
+}
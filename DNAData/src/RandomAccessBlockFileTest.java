@@ -0,0 +1,59 @@
+import student.TestCase;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+/**
+ * Test the RandomAccessBlockFile class.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class RandomAccessBlockFileTest extends TestCase {
+    /** Test writing and reading blocks. */
+    public void testReadWrite() throws Exception {
+        File ioFile = new File(".rafTest.raw");
+        ioFile.delete();
+        RandomAccessBlockFile blockFile = new RandomAccessBlockFile(
+                new RandomAccessFile(ioFile, "rw"), 8);
+
+        byte[] block = "blockone".getBytes();
+        blockFile.writeBlock(3, block);
+        blockFile.writeBlock(1, "blocktwo".getBytes());
+
+        byte[] read = new byte[8];
+        blockFile.readBlock(3, read);
+        assertEquals(new String(read), "blockone");
+        blockFile.readBlock(1, read);
+        assertEquals(new String(read), "blocktwo");
+        assertEquals(ioFile.length(), 32);
+
+        // a run reaching past the end of the file reads zeros there
+        byte[] run = new byte[24];
+        run[23] = 1;
+        blockFile.readBlocks(1, run, 3);
+        assertEquals(new String(run, 0, 8), "blocktwo");
+        assertEquals(new String(run, 16, 8), "blockone");
+        blockFile.readBlocks(3, run, 3);
+        assertEquals(run[23], 0);
+
+        blockFile.close();
+        ioFile.delete();
+    }
+
+    /** Test shortening the file. */
+    public void testTruncate() throws Exception {
+        File ioFile = new File(".rafTest.raw");
+        ioFile.delete();
+        RandomAccessBlockFile blockFile = new RandomAccessBlockFile(
+                new RandomAccessFile(ioFile, "rw"), 8);
+        blockFile.writeBlock(3, "blockone".getBytes());
+        blockFile.truncate(5);
+        assertEquals(ioFile.length(), 32);
+        blockFile.truncate(1);
+        assertEquals(ioFile.length(), 8);
+        blockFile.close();
+        ioFile.delete();
+    }
+}
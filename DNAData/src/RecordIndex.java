@@ -0,0 +1,151 @@
+import java.io.IOException;
+
+/**
+ * A table from long record keys to the values stored for them, the memory
+ * handles of the records in the case of DNAData. HashTable and
+ * PrimitiveHashTable hash and probe the same way, so the slots reported by
+ * their toString are the same; RobinHoodHashTable places keys its own way.
+ * Probing gives up after visiting as many slots as the table has, and a
+ * table that finds no room for a new key compacts itself or, failing that,
+ * grows.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public interface RecordIndex {
+    /**
+     * Get the size of the table.
+     * 
+     * @return Total number of entries present in the table.
+     */
+    int getSize();
+
+    /**
+     * Get the number of active entries.
+     * 
+     * @return Number of active entries.
+     */
+    int getCountActive();
+
+    /**
+     * Store value in the table along with key. Key is used for hashing.
+     * 
+     * @param  key   The key of the record to be inserted.
+     * @param  value Object to be stored associated with the key.
+     * 
+     * @return       True if no duplicate pre-exist in the table.
+     */
+    boolean insert(long key, Object value);
+
+    /**
+     * Remove the entry of a key.
+     * 
+     * @param  key The key of the entry to be removed.
+     * 
+     * @return     The value that was associated with key, null if none.
+     */
+    Object delete(long key);
+
+    /**
+     * Get the value associated with a key.
+     * 
+     * @param  key The key of the entry to look for.
+     * 
+     * @return     The value corresponding to key if key exists, null otherwise.
+     */
+    Object get(long key);
+
+    /**
+     * Replace the value of a key already in the table, e.g. the handle of a
+     * record the memory manager moved, without deleting the entry.
+     * 
+     * @param  key   The key of the entry.
+     * @param  value The new value.
+     * 
+     * @return       True if key was found and its value replaced.
+     */
+    boolean replace(long key, Object value);
+
+    /**
+     * Check if the table has at least half of the entries marked as active.
+     * 
+     * @return True if floor(size/2) entries are active.
+     */
+    boolean isHalfFull();
+
+    /** Double the size of the table, rehashing the active entries. */
+    void doubleTableSize();
+
+    /**
+     * Get the number of deleted entries still taking up slots.
+     * 
+     * @return Number of tombstones.
+     */
+    int getCountDeleted();
+
+    /**
+     * Check if tombstones take up enough of the table that it should be
+     * compacted: active and deleted entries together fill three quarters of
+     * the slots and some of them are tombstones.
+     * 
+     * @return True if compact is worth calling.
+     */
+    boolean needsCompaction();
+
+    /**
+     * Rehash the active entries into a table of the same size, dropping the
+     * tombstones.
+     */
+    void compact();
+
+    /**
+     * Get the probe length statistics of the table.
+     * 
+     * @return The statistics, updated as the table is used.
+     */
+    ProbeStats getProbeStats();
+
+    /**
+     * Get the keys of the active entries, e.g. to save the table.
+     * 
+     * @return The keys in slot order.
+     */
+    long[] getKeys();
+
+    /**
+     * Write the keys and their slot positions in separate lines followed by
+     * the total number of active records, the same as toString but without
+     * building the whole listing first.
+     * 
+     * @param  out         Where the listing is written, e.g. System.out.
+     * 
+     * @throws IOException If out can't be written.
+     */
+    void appendTo(Appendable out) throws IOException;
+
+    /**
+     * Create a table by the name used on the command line.
+     * 
+     * @param  name              One of object, primitive or robinhood.
+     * @param  tableSize         The number of entries initialized.
+     * @param  incrementalResize True to resize the object table
+     *                           incrementally, ignored by the others.
+     * 
+     * @return                   A new table, null if the name is not
+     *                           recognized.
+     */
+    static RecordIndex forName(String name, int tableSize,
+            boolean incrementalResize) {
+        if (name.equals("object")) {
+            return new HashTable(tableSize, incrementalResize);
+        }
+        if (name.equals("primitive")) {
+            return new PrimitiveHashTable(tableSize);
+        }
+        if (name.equals("robinhood")) {
+            return new RobinHoodHashTable(tableSize);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * A policy deciding which buffer of a BufferPool is reused when a block that
+ * is not cached is requested. The policy keeps the buffers in its own order;
+ * the BufferPool keeps the index from block ids to buffers and does the disk
+ * I/O.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public interface ReplacementPolicy {
+
+    /**
+     * Hand a buffer that does not hold any block yet to the policy.
+     * 
+     * @param buffer A buffer with the block id -1.
+     */
+    public void addFree(Buffer buffer);
+
+
+    /**
+     * Record that a cached buffer was accessed.
+     * 
+     * @param buffer The buffer that was read or written.
+     */
+    public void recordHit(Buffer buffer);
+
+
+    /**
+     * Pick the buffer that will hold a block that is not cached and place it
+     * in the policy's order as a resident of that block. The returned buffer
+     * still holds its old block (or -1), so that the caller can drop it from
+     * the index and write it to the disk if it is dirty. Pinned buffers are
+     * never picked.
+     * 
+     * @param  blockId The block id about to be loaded.
+     * 
+     * @return         The buffer to be overwritten, null if every buffer is
+     *                 pinned.
+     */
+    public Buffer admit(int blockId);
+
+
+    /**
+     * Get the buffers in the order the policy keeps them, the buffer that
+     * would be evicted last first.
+     * 
+     * @return Array of all buffers handed to the policy.
+     */
+    public Buffer[] getBuffers();
+
+
+    /**
+     * Get the name of the policy.
+     * 
+     * @return The name used to pick the policy on the command line.
+     */
+    public String getName();
+
+
+    /**
+     * Create a policy by its name.
+     * 
+     * @param  name       One of lru, clock, 2q or arc.
+     * @param  numBuffers The number of buffers that will be handed over.
+     * 
+     * @return            A new policy, null if the name is not recognized.
+     */
+    public static ReplacementPolicy forName(String name, int numBuffers) {
+        if (name.equals("lru")) {
+            return new LRUPolicy();
+        }
+        if (name.equals("clock")) {
+            return new ClockPolicy(numBuffers);
+        }
+        if (name.equals("2q")) {
+            return new TwoQueuePolicy(numBuffers);
+        }
+        if (name.equals("arc")) {
+            return new ARCPolicy(numBuffers);
+        }
+        return null;
+    }
+}
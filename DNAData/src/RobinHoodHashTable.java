@@ -0,0 +1,363 @@
+import java.io.IOException;
+
+/**
+ * A hash table from long keys to any Object using Robin Hood hashing. Keys
+ * are scrambled with a 64-bit finalizer, which spreads sequential ids, and
+ * reduced to a slot by a multiply-shift instead of a modulo. Collisions are
+ * resolved by linear probing where an inserted key takes the slot of any key
+ * closer to its home, so the distances from home stay short and even, and a
+ * lookup stops as soon as it meets a key closer to home than itself.
+ * Deletion shifts the following keys back, so there are no tombstones.
+ *
+ * The table has as many slots as it is given and doubles like HashTable, but
+ * keys end up in other slots than in HashTable.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class RobinHoodHashTable implements RecordIndex {
+    /** Distance marking a free slot. */
+    private static final int FREE = -1;
+
+    /** The number of slots of the table. */
+    private int size;
+
+    /** The number of active records the table holds. */
+    private int countActive;
+
+    /** The keys stored in the slots. */
+    private long[] keys;
+
+    /** The values stored in the slots. */
+    private Object[] values;
+
+    /** Distance of each slot's key from its home slot, FREE if none. */
+    private int[] distances;
+
+    /** Probe length statistics. */
+    private ProbeStats probeStats;
+
+    /**
+     * Construct a hash table.
+     *
+     * @param tableSize The number of entries initialized.
+     */
+    RobinHoodHashTable(int tableSize) {
+        allocate(tableSize);
+        countActive = 0;
+        probeStats = new ProbeStats();
+    }
+
+    /**
+     * Get the size of the table.
+     *
+     * @return Total number of entries present in the table.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Get the number of active entries.
+     *
+     * @return Number of active entries.
+     */
+    public int getCountActive() {
+        return countActive;
+    }
+
+    /**
+     * Get the number of deleted entries still taking up slots.
+     *
+     * @return Always 0, deletion leaves no tombstones.
+     */
+    public int getCountDeleted() {
+        return 0;
+    }
+
+    /**
+     * Get the probe length statistics of the table.
+     *
+     * @return The statistics, updated as the table is used.
+     */
+    public ProbeStats getProbeStats() {
+        return probeStats;
+    }
+
+    /**
+     * Store value in the table along with key. Key is used for hashing.
+     *
+     * @param  key   The key of the record to be inserted.
+     * @param  value Object to be stored associated with the key.
+     *
+     * @return       True if no duplicate pre-exist in the table.
+     */
+    public boolean insert(long key, Object value) {
+        if (findSlot(key) != -1) {
+            return false;
+        }
+        if (countActive == size) {
+            rebuild(2 * size);
+        }
+        place(key, value);
+        ++countActive;
+        return true;
+    }
+
+    /**
+     * Remove the entry of a key, shifting the following keys back.
+     *
+     * @param  key The key of the entry to be removed.
+     *
+     * @return     The value that was associated with key, null if none.
+     */
+    public Object delete(long key) {
+        int slot = findSlot(key);
+        if (slot == -1) {
+            return null;
+        }
+        Object removed = values[slot];
+
+        int next = nextSlot(slot);
+        while (distances[next] > 0) {
+            keys[slot] = keys[next];
+            values[slot] = values[next];
+            distances[slot] = distances[next] - 1;
+            slot = next;
+            next = nextSlot(next);
+        }
+        distances[slot] = FREE;
+        values[slot] = null;
+        --countActive;
+        return removed;
+    }
+
+    /**
+     * Get the value associated with a key.
+     *
+     * @param  key The key of the entry to look for.
+     *
+     * @return     The value corresponding to key if key exists, null otherwise.
+     */
+    public Object get(long key) {
+        int slot = findSlot(key);
+        return slot == -1 ? null : values[slot];
+    }
+
+    /**
+     * Replace the value of a key already in the table.
+     *
+     * @param  key   The key of the entry.
+     * @param  value The new value.
+     *
+     * @return       True if key was found and its value replaced.
+     */
+    public boolean replace(long key, Object value) {
+        int slot = findSlot(key);
+        if (slot == -1) {
+            return false;
+        }
+        values[slot] = value;
+        return true;
+    }
+
+    /**
+     * Check if the table has at least half of the entries marked as active.
+     *
+     * @return True if floor(size/2) entries are active.
+     */
+    public boolean isHalfFull() {
+        return (size / 2) == countActive;
+    }
+
+    /** Double the size of the hash table, rehashing the entries. */
+    public void doubleTableSize() {
+        rebuild(2 * size);
+    }
+
+    /**
+     * Check if the table should be compacted.
+     *
+     * @return Always false, deletion leaves no tombstones.
+     */
+    public boolean needsCompaction() {
+        return false;
+    }
+
+    /** Rehash the entries into a table of the same size. */
+    public void compact() {
+        rebuild(size);
+    }
+
+    /**
+     * Get the keys of the active entries.
+     *
+     * @return The keys in slot order.
+     */
+    public long[] getKeys() {
+        long[] result = new long[countActive];
+        int k = 0;
+        for (int i = 0; i < size; ++i) {
+            if (distances[i] != FREE) {
+                result[k++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get string representation of the hash table.
+     *
+     * @return Keys and their slot positions in separate lines followed by the
+     *         total number of active records present.
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        try {
+            appendTo(result);
+        }
+        catch (IOException e) {
+            // a StringBuilder is never closed
+        }
+        return result.toString();
+    }
+
+    /**
+     * Write the keys and their slot positions, as toString has them.
+     * 
+     * @param  out         Where the listing is written.
+     * 
+     * @throws IOException If out can't be written.
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        for (int i = 0; i < size; ++i) {
+            if (distances[i] != FREE) {
+                out.append(String.valueOf(keys[i])).append(": ")
+                        .append(String.valueOf(i)).append('\n');
+            }
+        }
+        out.append("Total records: ")
+                .append(String.valueOf(getCountActive()));
+    }
+
+    /**
+     * Compute the home slot of a key.
+     *
+     * @param  key The key to be hashed.
+     *
+     * @return     The home slot for key.
+     */
+    private int getHomeSlot(long key) {
+        // the finalizer of MurmurHash3
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        // map the top 32 bits onto [0, size) without a division
+        return (int) (((key >>> 32) * size) >>> 32);
+    }
+
+    /**
+     * Get the slot following another, wrapping around.
+     *
+     * @param  slot A slot index.
+     *
+     * @return      The next slot index.
+     */
+    private int nextSlot(int slot) {
+        return slot + 1 == size ? 0 : slot + 1;
+    }
+
+    /**
+     * Return the slot index of a key.
+     *
+     * @param  key A key used for hashing and lookup.
+     *
+     * @return     The slot index if the key exists, -1 otherwise.
+     */
+    private int findSlot(long key) {
+        int slot = getHomeSlot(key);
+        int distance = 0;
+        // a key further from home than the slot's key would have taken it
+        while (distance <= distances[slot] && distance < size) {
+            if (keys[slot] == key) {
+                probeStats.record(distance + 1);
+                return slot;
+            }
+            slot = nextSlot(slot);
+            ++distance;
+        }
+        probeStats.record(distance + 1);
+        return -1;
+    }
+
+    /**
+     * Place a new key, displacing keys closer to their home slot than the
+     * key being placed is to its own. The table must have a free slot.
+     *
+     * @param key   The key.
+     * @param value The value.
+     */
+    private void place(long key, Object value) {
+        int slot = getHomeSlot(key);
+        int distance = 0;
+        for (;;) {
+            if (distances[slot] == FREE) {
+                keys[slot] = key;
+                values[slot] = value;
+                distances[slot] = distance;
+                return;
+            }
+            if (distances[slot] < distance) {
+                // take the slot and carry on placing the displaced key
+                long displacedKey = keys[slot];
+                Object displacedValue = values[slot];
+                int displacedDistance = distances[slot];
+                keys[slot] = key;
+                values[slot] = value;
+                distances[slot] = distance;
+                key = displacedKey;
+                value = displacedValue;
+                distance = displacedDistance;
+            }
+            slot = nextSlot(slot);
+            ++distance;
+        }
+    }
+
+    /**
+     * Replace the arrays with new ones and rehash the entries in slot order.
+     *
+     * @param newSize The number of slots of the new arrays.
+     */
+    private void rebuild(int newSize) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldDistances = distances;
+        allocate(newSize);
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldDistances[i] != FREE) {
+                place(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Allocate empty arrays for a number of slots.
+     *
+     * @param tableSize The number of slots.
+     */
+    private void allocate(int tableSize) {
+        size = tableSize;
+        keys = new long[tableSize];
+        values = new Object[tableSize];
+        distances = new int[tableSize];
+        for (int i = 0; i < tableSize; ++i) {
+            distances[i] = FREE;
+        }
+    }
+}
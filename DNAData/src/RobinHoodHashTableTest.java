@@ -0,0 +1,93 @@
+import student.TestCase;
+
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Test the RobinHoodHashTable class.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class RobinHoodHashTableTest extends TestCase {
+    /** A RobinHoodHashTable object used for test methods below. */
+    private RobinHoodHashTable table;
+
+    /** Sets up the tests that follow. */
+    public void setUp() {
+        table = new RobinHoodHashTable(10);
+    }
+
+    /** Test insertion, lookup and deletion. */
+    public void testInsertGetDelete() {
+        assertTrue(table.insert(1, "Charlie"));
+        assertTrue(table.insert(2, "Max"));
+        assertFalse(table.insert(2, "Buddy"));
+        assertEquals(table.getCountActive(), 2);
+        assertEquals(table.get(1), "Charlie");
+        assertNull(table.get(3));
+
+        assertEquals(table.delete(1), "Charlie");
+        assertNull(table.delete(1));
+        assertEquals(table.getCountActive(), 1);
+        assertEquals(table.getCountDeleted(), 0);
+        assertFalse(table.needsCompaction());
+        assertTrue(table.toString().matches("2: \\d\nTotal records: 1"));
+    }
+
+    /** Test that the table grows even if it is never doubled on purpose. */
+    public void testFull() {
+        for (long key = 0; key < 25; ++key) {
+            assertTrue(table.insert(key, key));
+        }
+        assertEquals(table.getSize(), 40);
+        table.doubleTableSize();
+        assertEquals(table.getSize(), 80);
+        for (long key = 0; key < 25; ++key) {
+            assertEquals(table.get(key), key);
+        }
+    }
+
+    /**
+     * Test a random mix of operations against a HashMap, so that backward
+     * shifts on deletion keep every key reachable.
+     */
+    public void testAgainstHashMap() {
+        HashMap<Long, Object> reference = new HashMap<Long, Object>();
+        Random random = new Random(3);
+        for (int i = 0; i < 20000; ++i) {
+            long key = random.nextInt(300);
+            int op = random.nextInt(3);
+            if (op == 0) {
+                assertEquals(table.insert(key, i),
+                        !reference.containsKey(key));
+                if (!reference.containsKey(key)) {
+                    reference.put(key, i);
+                }
+            }
+            else if (op == 1) {
+                assertEquals(table.delete(key), reference.remove(key));
+            }
+            else {
+                assertEquals(table.get(key), reference.get(key));
+            }
+            if (table.isHalfFull()) {
+                table.doubleTableSize();
+            }
+        }
+        assertEquals(table.getCountActive(), reference.size());
+        assertTrue(table.getProbeStats().getAverage() < 3);
+    }
+
+    /** Test replacing the value of a key. */
+    public void testReplace() {
+        assertFalse(table.replace(1, "Charlie"));
+        table.insert(1, "Charlie");
+        table.insert(11, "Max");
+        assertTrue(table.replace(11, "Buddy"));
+        assertEquals(table.get(11), "Buddy");
+        assertEquals(table.get(1), "Charlie");
+        assertEquals(table.getCountActive(), 2);
+    }
+}
@@ -0,0 +1,471 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A size class allocator. Record sizes are rounded up to a size class:
+ * multiples of 8 bytes up to 64, then four classes per power of two, so a
+ * record wastes less than 8 bytes or a fifth of its block instead of up to
+ * half of it with the buddy system. Each class carves slabs, runs of whole
+ * pages of the size of a disk block, into slots of its size; a slab is long
+ * enough that its slots fill at least 7/8 of it where possible. Records
+ * larger than the largest class take a run of whole pages of their own.
+ * Free slots are reused before a new slab is carved, and a slab that
+ * empties is given back to the free pages unless it is the last one of its
+ * class with free slots. When aligned to the pages, no class is larger
+ * than a page and every slab is one page, so no slot crosses a page
+ * boundary and a record no longer than a page is read or written with one
+ * block access.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class SlabAllocator implements Allocator {
+    /** Size classes are multiples of this many bytes up to 8 times it. */
+    private static final int QUANTUM = 8;
+
+    /** Number of size classes per power of two past 8 quanta. */
+    private static final int CLASSES_PER_DOUBLING = 4;
+
+    /** Records larger than this many pages take whole pages. */
+    private static final int MAX_CLASS_PAGES = 4;
+
+    /** Total number of bytes managed. */
+    private int poolSize;
+
+    /** Size of a page, the size of the blocks of the disk file. */
+    private int pageSize;
+
+    /** The sizes of the classes, in increasing order. */
+    private int[] classSizes;
+
+    /** Number of pages of a slab of each class. */
+    private int[] slabPages;
+
+    /** For each class, the first of a list of its slabs with free slots. */
+    private Slab[] partial;
+
+    /** The slab each page belongs to, null for free or whole-page runs. */
+    private Slab[] slabsByPage;
+
+    /** The runs of free pages. */
+    private FreeExtentMap pages;
+
+    /** Statistics of the allocations, splits, merges and doublings. */
+    private AllocatorStats stats;
+
+    /** Whether growing the pool goes unreported. */
+    private boolean quiet;
+
+    /**
+     * Construct an allocator with the whole pool free.
+     *
+     * @param poolSize Total number of bytes to start managing, a multiple
+     *                 of pageSize.
+     * @param pageSize Size of the blocks of the disk file, a power of two.
+     * @param aligned  True to keep every slot within a page.
+     */
+    SlabAllocator(int poolSize, int pageSize, boolean aligned) {
+        this.poolSize = poolSize;
+        this.pageSize = pageSize;
+        classSizes = makeClassSizes(aligned ? Math.max(pageSize, QUANTUM)
+                : Math.max(MAX_CLASS_PAGES * pageSize, 8 * QUANTUM));
+        slabPages = new int[classSizes.length];
+        for (int i = 0; i < classSizes.length; ++i) {
+            slabPages[i] = aligned ? 1 : getSlabPages(classSizes[i],
+                    pageSize);
+        }
+        partial = new Slab[classSizes.length];
+        slabsByPage = new Slab[poolSize / pageSize];
+        pages = new FreeExtentMap();
+        pages.add(0, poolSize);
+        stats = new AllocatorStats();
+        quiet = false;
+    }
+
+    /**
+     * Take a slot of the smallest class that holds the data, or a run of
+     * whole pages for a record larger than every class, carving a new slab
+     * or doubling the pool if needed.
+     *
+     * @param  dataSize Number of bytes to be stored.
+     *
+     * @return          A MemoryHandle of the slot or run.
+     */
+    @Override
+    public MemoryHandle allocate(int dataSize) {
+        long start = System.nanoTime();
+        MemoryHandle handle;
+        if (dataSize > classSizes[classSizes.length - 1]) {
+            int count = (dataSize + pageSize - 1) / pageSize;
+            handle = new MemoryHandle(takePages(count), count * pageSize,
+                    dataSize);
+        }
+        else {
+            int sizeClass = getSizeClass(dataSize);
+            Slab slab = partial[sizeClass];
+            if (slab == null) {
+                slab = newSlab(sizeClass);
+            }
+            int slot = slab.freeSlots[--slab.freeCount];
+            if (slab.freeCount == 0) {
+                unlink(slab);
+            }
+            handle = new MemoryHandle(slab.start
+                    + slot * classSizes[sizeClass], classSizes[sizeClass],
+                    dataSize);
+        }
+        stats.recordAllocation(handle.getBlockSize(), dataSize,
+                System.nanoTime() - start);
+        return handle;
+    }
+
+    /**
+     * Give a slot back to its slab, or a run back to the free pages.
+     *
+     * @param handle A MemoryHandle returned by allocate.
+     */
+    @Override
+    public void free(MemoryHandle handle) {
+        stats.recordFree(handle.getBlockSize(), handle.getDataSize());
+        Slab slab = slabsByPage[handle.getPos() / pageSize];
+        if (slab == null) {
+            releasePages(handle.getPos(), handle.getBlockSize());
+            return;
+        }
+        slab.freeSlots[slab.freeCount++] = (handle.getPos() - slab.start)
+                / classSizes[slab.sizeClass];
+        if (slab.freeCount == 1) {
+            link(slab);
+        }
+        if (slab.freeCount == slab.freeSlots.length
+                && (slab.prev != null || slab.next != null)) {
+            // keep one empty slab per class so that a record added and
+            // deleted over and over doesn't carve and release a slab each
+            // time
+            unlink(slab);
+            int length = slabPages[slab.sizeClass] * pageSize;
+            Arrays.fill(slabsByPage, slab.start / pageSize,
+                    (slab.start + length) / pageSize, null);
+            releasePages(slab.start, length);
+        }
+    }
+
+    /**
+     * Count a block that is in use but was not allocated here.
+     *
+     * @param handle The MemoryHandle of the block.
+     */
+    @Override
+    public void markUsed(MemoryHandle handle) {
+        stats.recordUsed(handle.getBlockSize(), handle.getDataSize());
+    }
+
+    /**
+     * Get the size of the pool.
+     *
+     * @return Total number of bytes managed.
+     */
+    @Override
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Take a snapshot of the statistics. The runs of free pages and the
+     * free slots are the free blocks.
+     *
+     * @return The statistics so far, not changed by later use.
+     */
+    @Override
+    public AllocatorStats getStats() {
+        long freeBlocks = pages.size();
+        long freeBytes = pages.getTotalLength();
+        long largest = pages.getLongest();
+        for (int i = 0; i < partial.length; ++i) {
+            int freeSlots = getFreeSlots(i);
+            freeBlocks += freeSlots;
+            freeBytes += (long) freeSlots * classSizes[i];
+            if (freeSlots > 0) {
+                largest = Math.max(largest, classSizes[i]);
+            }
+        }
+        return stats.snapshot(poolSize, freeBlocks, freeBytes, largest);
+    }
+
+    /**
+     * Write the runs of free pages, one line per length with their
+     * positions, then the number of free slots of each class that has any.
+     *
+     * @param  out         Where the free space is written.
+     *
+     * @throws IOException If out can't be written.
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        boolean empty = pages.size() == 0;
+        pages.appendTo(out);
+        for (int i = 0; i < partial.length; ++i) {
+            int freeSlots = getFreeSlots(i);
+            if (freeSlots == 0) {
+                continue;
+            }
+            if (!empty) {
+                out.append('\n');
+            }
+            out.append(String.valueOf(classSizes[i])).append("-byte slots: ")
+                    .append(String.valueOf(freeSlots)).append(" free");
+            empty = false;
+        }
+        if (empty) {
+            out.append("No free blocks are available.");
+        }
+    }
+
+    /**
+     * Get the name of the allocator.
+     *
+     * @return "slab".
+     */
+    @Override
+    public String getName() {
+        return "slab";
+    }
+
+    /**
+     * Set whether growing the pool goes unreported.
+     *
+     * @param quiet True to leave the messages out.
+     */
+    @Override
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    /**
+     * Get the sizes of the classes.
+     *
+     * @return The sizes in increasing order, not to be changed.
+     */
+    int[] getClassSizes() {
+        return classSizes;
+    }
+
+    /**
+     * Make the sizes of the classes.
+     *
+     * @param  maxSize Size of the largest class, a power of two of at least
+     *                 a quantum.
+     *
+     * @return         The sizes in increasing order.
+     */
+    private static int[] makeClassSizes(int maxSize) {
+        ArrayList<Integer> sizes = new ArrayList<>();
+        for (int size = QUANTUM; size <= Math.min(8 * QUANTUM, maxSize);
+                size += QUANTUM) {
+            sizes.add(size);
+        }
+        for (int base = 8 * QUANTUM; base < maxSize; base *= 2) {
+            for (int i = 1; i <= CLASSES_PER_DOUBLING; ++i) {
+                sizes.add(base + i * base / CLASSES_PER_DOUBLING);
+            }
+        }
+        int[] result = new int[sizes.size()];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = sizes.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Find the number of pages of a slab of a class: the fewest that its
+     * slots fill to at least 7/8, or the ones they fill best if none do
+     * within eight times the fewest pages that hold a slot.
+     *
+     * @param  size     Size of the class.
+     * @param  pageSize Size of a page.
+     *
+     * @return          Number of pages.
+     */
+    private static int getSlabPages(int size, int pageSize) {
+        int least = (size + pageSize - 1) / pageSize;
+        int best = least;
+        double bestWaste = 1;
+        for (int count = least; count <= 8 * least; ++count) {
+            long length = (long) count * pageSize;
+            double waste = (double) (length % size) / length;
+            if (8 * (length % size) <= length) {
+                return count;
+            }
+            if (waste < bestWaste) {
+                best = count;
+                bestWaste = waste;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Find the smallest class that holds some data.
+     *
+     * @param  dataSize Number of bytes, at most the largest class.
+     *
+     * @return          Index of the class.
+     */
+    private int getSizeClass(int dataSize) {
+        int i = Arrays.binarySearch(classSizes, Math.max(dataSize, 1));
+        return i < 0 ? -i - 1 : i;
+    }
+
+    /**
+     * Count the free slots of a class.
+     *
+     * @param  sizeClass Index of the class.
+     *
+     * @return           Number of free slots in its slabs.
+     */
+    private int getFreeSlots(int sizeClass) {
+        int count = 0;
+        for (Slab slab = partial[sizeClass]; slab != null; slab = slab.next) {
+            count += slab.freeCount;
+        }
+        return count;
+    }
+
+    /**
+     * Carve a new slab for a class out of the free pages.
+     *
+     * @param  sizeClass Index of the class.
+     *
+     * @return           The slab, every slot free, first of the class's
+     *                   list.
+     */
+    private Slab newSlab(int sizeClass) {
+        int length = slabPages[sizeClass] * pageSize;
+        Slab slab = new Slab(takePages(slabPages[sizeClass]), sizeClass,
+                length / classSizes[sizeClass]);
+        Arrays.fill(slabsByPage, slab.start / pageSize,
+                (slab.start + length) / pageSize, slab);
+        link(slab);
+        return slab;
+    }
+
+    /**
+     * Make a slab the first of the list of its class.
+     *
+     * @param slab A slab that is in no list.
+     */
+    private void link(Slab slab) {
+        slab.prev = null;
+        slab.next = partial[slab.sizeClass];
+        if (slab.next != null) {
+            slab.next.prev = slab;
+        }
+        partial[slab.sizeClass] = slab;
+    }
+
+    /**
+     * Take a slab off the list of its class.
+     *
+     * @param slab A slab in the list.
+     */
+    private void unlink(Slab slab) {
+        if (slab.prev == null) {
+            partial[slab.sizeClass] = slab.next;
+        }
+        else {
+            slab.prev.next = slab.next;
+        }
+        if (slab.next != null) {
+            slab.next.prev = slab.prev;
+        }
+        slab.prev = null;
+        slab.next = null;
+    }
+
+    /**
+     * Take a run of pages out of the shortest run of free pages it fits in,
+     * doubling the pool until one fits.
+     *
+     * @param  count Number of pages.
+     *
+     * @return       Position of the first page.
+     */
+    private int takePages(int count) {
+        int runs = pages.size();
+        int pos = pages.take(count * pageSize, 0);
+        while (pos < 0) {
+            doublePoolSize();
+            runs = pages.size();
+            pos = pages.take(count * pageSize, 0);
+        }
+        if (pages.size() >= runs) {
+            stats.recordSplit();
+        }
+        return pos;
+    }
+
+    /**
+     * Give a run of pages back, merging it with the free runs next to it.
+     *
+     * @param pos    Position of the first page.
+     * @param length Length of the run.
+     */
+    private void releasePages(int pos, int length) {
+        int merges = pages.add(pos, length);
+        for (int i = 0; i < merges; ++i) {
+            stats.recordMerge();
+        }
+    }
+
+    /** Double the size of the pool, adding the new half as free pages. */
+    private void doublePoolSize() {
+        releasePages(poolSize, poolSize);
+        poolSize *= 2;
+        slabsByPage = Arrays.copyOf(slabsByPage, poolSize / pageSize);
+        stats.recordDoubling();
+        if (!quiet) {
+            System.out.println("Memory pool expanded to be " + poolSize
+                    + " bytes.");
+        }
+    }
+
+    /** A run of pages carved into the slots of one class. */
+    private static class Slab {
+        /** Position of the first page. */
+        private int start;
+
+        /** Index of the class of the slots. */
+        private int sizeClass;
+
+        /** The free slots by index; the first freeCount are valid. */
+        private int[] freeSlots;
+
+        /** Number of free slots. */
+        private int freeCount;
+
+        /** Previous slab in the list of the class, null if first. */
+        private Slab prev;
+
+        /** Next slab in the list of the class, null if last. */
+        private Slab next;
+
+        /**
+         * Construct a slab with every slot free, the lowest taken first.
+         *
+         * @param start     Position of the first page.
+         * @param sizeClass Index of the class of the slots.
+         * @param numSlots  Number of slots.
+         */
+        Slab(int start, int sizeClass, int numSlots) {
+            this.start = start;
+            this.sizeClass = sizeClass;
+            freeSlots = new int[numSlots];
+            for (int i = 0; i < numSlots; ++i) {
+                freeSlots[i] = numSlots - 1 - i;
+            }
+            freeCount = numSlots;
+        }
+    }
+}
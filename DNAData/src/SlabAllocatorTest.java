@@ -0,0 +1,125 @@
+import student.TestCase;
+
+import java.io.IOException;
+
+/**
+ * Test the SlabAllocator class.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class SlabAllocatorTest extends TestCase {
+    /** Test the size classes. */
+    public void testClassSizes() {
+        int[] sizes = new SlabAllocator(4096, 4096, false).getClassSizes();
+        assertEquals(sizes[0], 8);
+        assertEquals(sizes[7], 64);
+        assertEquals(sizes[8], 80);
+        assertEquals(sizes[11], 128);
+        assertEquals(sizes[12], 160);
+        assertEquals(sizes[sizes.length - 1], 4 * 4096);
+        for (int i = 8; i < sizes.length; ++i) {
+            // a record one byte over the previous class wastes under a fifth
+            assertTrue(5 * (sizes[i] - sizes[i - 1] - 1) < sizes[i]);
+        }
+        sizes = new SlabAllocator(64, 16, false).getClassSizes();
+        assertEquals(sizes.length, 8);
+    }
+
+    /** Test that no slot crosses a page boundary in aligned mode. */
+    public void testAligned() {
+        int[] sizes = new SlabAllocator(4096, 4096, true).getClassSizes();
+        assertEquals(sizes[sizes.length - 1], 4096);
+        assertEquals(new SlabAllocator(16, 16, true).getClassSizes().length,
+                2);
+
+        // unaligned, 40-byte slots share slabs of two pages
+        SlabAllocator allocator = new SlabAllocator(256, 64, false);
+        assertEquals(allocator.allocate(40), new MemoryHandle(0, 40, 40));
+        assertEquals(allocator.allocate(40), new MemoryHandle(40, 40, 40));
+
+        allocator = new SlabAllocator(256, 64, true);
+        assertEquals(allocator.allocate(40), new MemoryHandle(0, 40, 40));
+        assertEquals(allocator.allocate(40), new MemoryHandle(64, 40, 40));
+        assertEquals(allocator.allocate(65), new MemoryHandle(128, 128,
+                65));
+    }
+
+    /**
+     * Test placing records in slots and in runs of pages, and freeing them.
+     *
+     * @throws IOException Never, the listing is written to a builder.
+     */
+    public void testAllocateAndFree() throws IOException {
+        SlabAllocator allocator = new SlabAllocator(64, 64, false);
+        assertEquals(allocator.getName(), "slab");
+        MemoryHandle first = allocator.allocate(13);
+        assertEquals(first, new MemoryHandle(0, 16, 13));
+        MemoryHandle second = allocator.allocate(14);
+        assertEquals(second, new MemoryHandle(16, 16, 14));
+        assertEquals(allocator.allocate(30), new MemoryHandle(64, 32, 30));
+        // larger than the largest class, 256 bytes, so five whole pages
+        MemoryHandle large = allocator.allocate(300);
+        assertEquals(large, new MemoryHandle(128, 320, 300));
+        assertEquals(allocator.getPoolSize(), 512);
+        assertEquals(listing(allocator), "64:  448\n16-byte slots: 2 free\n"
+                + "32-byte slots: 1 free");
+
+        allocator.free(second);
+        allocator.free(first);
+        // the only slab of its class is kept even though it is empty
+        assertEquals(allocator.allocate(9), new MemoryHandle(0, 16, 9));
+        allocator.free(large);
+        assertEquals(listing(allocator), "384:  128\n16-byte slots: 3 free\n"
+                + "32-byte slots: 1 free");
+
+        AllocatorStats stats = allocator.getStats();
+        assertEquals(stats.getUsedBytes(), 48);
+        assertEquals(stats.getDataBytes(), 39);
+        assertEquals(stats.getDoublings(), 3);
+        assertEquals(stats.getMerges(), 2);
+        assertEquals(stats.getFreeBytes(), 384 + 3 * 16 + 32);
+        assertEquals(stats.getLargestFree(), 384);
+    }
+
+    /**
+     * Test that an empty slab is given back to the free pages when its
+     * class has another slab with free slots.
+     *
+     * @throws IOException Never, the listing is written to a builder.
+     */
+    public void testReleaseSlab() throws IOException {
+        SlabAllocator allocator = new SlabAllocator(64, 64, false);
+        MemoryHandle[] handles = new MemoryHandle[5];
+        for (int i = 0; i < handles.length; ++i) {
+            handles[i] = allocator.allocate(16);
+        }
+        assertEquals(handles[4], new MemoryHandle(64, 16, 16));
+        for (int i = 0; i < 4; ++i) {
+            allocator.free(handles[i]);
+        }
+        assertEquals(listing(allocator), "64:  0\n16-byte slots: 3 free");
+        allocator.free(handles[4]);
+        assertEquals(listing(allocator), "64:  0\n16-byte slots: 4 free");
+
+        allocator = new SlabAllocator(16, 16, false);
+        allocator.allocate(16);
+        assertEquals(listing(allocator), "No free blocks are available.");
+    }
+
+    /**
+     * List the free space of an allocator.
+     *
+     * @param  allocator   The allocator.
+     *
+     * @return             The listing written by appendTo.
+     *
+     * @throws IOException Never, the listing is written to a builder.
+     */
+    private static String listing(Allocator allocator) throws IOException {
+        StringBuilder result = new StringBuilder();
+        allocator.appendTo(result);
+        return result.toString();
+    }
+}
@@ -0,0 +1,477 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+/**
+ * A benchmark suite for the storage stack of DNAData that runs headless with
+ * nothing but the JDK, in the manner of JMH: each benchmark is run for some
+ * warm-up iterations, whose results are discarded, then for the measured
+ * iterations, each on fresh state, and the results of the operations are
+ * folded into a sink so that the JIT can't skip them. For each phase of a
+ * benchmark the mean time per operation over the measured iterations, its
+ * standard deviation and the best iteration are reported.
+ *
+ * <p>The benchmarks are:
+ * <ul>
+ * <li>hashtable: HashTable insert, get of present and missing keys and
+ * delete, filling the table from its initial size the way World does;</li>
+ * <li>memman: MemoryManager storeBytes and freeBlock under churn, freeing a
+ * random record for each one stored while a steady number are live;</li>
+ * <li>bufferpool: BufferPool getBytes that hit resident blocks, and that
+ * miss every time by cycling through four times as many blocks as there
+ * are buffers, for each number and size of buffers;</li>
+ * <li>world: replay of a synthetic DNAData command file of adds, deletes
+ * and prints on keys drawn uniformly or with Zipfian skew.</li>
+ * </ul>
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class StorageBenchmark {
+    /** The benchmarks of the suite. */
+    private static final String[] BENCHMARKS = {"hashtable", "memman",
+        "bufferpool", "world"};
+
+    /** Folds the results of the operations so that they can't be skipped. */
+    private static long sink;
+
+    /** Number of warm-up iterations of each benchmark. */
+    private static int warmup = 3;
+
+    /** Number of measured iterations of each benchmark. */
+    private static int iterations = 5;
+
+    /** Number of operations of each phase of an iteration. */
+    private static int ops = 100000;
+
+    /** Number of distinct keys of the world replay and of live records. */
+    private static int keys = 10000;
+
+    /** The numbers of buffers of the bufferpool and world benchmarks. */
+    private static int[] buffers = {8, 64, 512};
+
+    /** The sizes of buffers of the bufferpool and world benchmarks. */
+    private static int[] sizes = {512, 4096};
+
+    /** Distribution of the keys of the world replay, uniform or zipf. */
+    private static String distribution = "zipf";
+
+    /** The skew of the Zipfian distribution. */
+    private static double theta = 0.99;
+
+    /** Seed of every random choice. */
+    private static long seed = 1;
+
+    /**
+     * @param args Settings in the form -name=value, all optional:
+     *             -bench=all or a comma separated list of hashtable,
+     *             memman, bufferpool and world; -warmup=3; -iterations=5;
+     *             -ops=100000 operations per phase; -keys=10000 distinct
+     *             keys; -buffers=8,64,512; -sizes=512,4096;
+     *             -distribution=zipf or uniform; -theta=0.99; -seed=1.
+     */
+    public static void main(String[] args) {
+        String bench = "all";
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("-") || equals < 0) {
+                System.out.println("Unrecognized option |" + arg + "|");
+                return;
+            }
+            String name = arg.substring(1, equals);
+            String value = arg.substring(equals + 1);
+            try {
+                if (name.equals("bench")) {
+                    bench = value;
+                }
+                else if (name.equals("warmup")) {
+                    warmup = Integer.parseInt(value);
+                }
+                else if (name.equals("iterations")) {
+                    iterations = Integer.parseInt(value);
+                }
+                else if (name.equals("ops")) {
+                    ops = Integer.parseInt(value);
+                }
+                else if (name.equals("keys")) {
+                    keys = Integer.parseInt(value);
+                }
+                else if (name.equals("buffers")) {
+                    buffers = parseList(value);
+                }
+                else if (name.equals("sizes")) {
+                    sizes = parseList(value);
+                }
+                else if (name.equals("distribution")
+                        && (value.equals("zipf") || value.equals("uniform"))) {
+                    distribution = value;
+                }
+                else if (name.equals("theta")) {
+                    theta = Double.parseDouble(value);
+                }
+                else if (name.equals("seed")) {
+                    seed = Long.parseLong(value);
+                }
+                else {
+                    System.out.println("Unrecognized option |" + arg + "|");
+                    return;
+                }
+            }
+            catch (NumberFormatException e) {
+                System.out.println("Unrecognized option |" + arg + "|");
+                return;
+            }
+        }
+        if (warmup < 0 || iterations < 1 || ops < 1 || keys < 1) {
+            System.out.println("Need at least one measured iteration, "
+                    + "operation and key.");
+            return;
+        }
+
+        System.out.println(String.format("%-24s %-32s %4s %10s %10s %10s",
+                "benchmark", "params", "cnt", "ns/op", "stdev", "best"));
+        for (String name : BENCHMARKS) {
+            if (!bench.equals("all")
+                    && !("," + bench + ",").contains("," + name + ",")) {
+                continue;
+            }
+            try {
+                if (name.equals("hashtable")) {
+                    benchHashTable();
+                }
+                else if (name.equals("memman")) {
+                    benchMemoryManager();
+                }
+                else if (name.equals("bufferpool")) {
+                    benchBufferPool();
+                }
+                else {
+                    benchWorld();
+                }
+            }
+            catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+        // keep the sink alive
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    /** Benchmark insert, get and delete on HashTable. */
+    private static void benchHashTable() {
+        String[] phases = {"insert", "hit", "miss", "delete"};
+        double[][] samples = new double[iterations][];
+        Random random = new Random(seed);
+        long[] present = new long[ops];
+        long[] missing = new long[ops];
+        for (int i = 0; i < ops; ++i) {
+            // odd keys are present, even ones missing
+            present[i] = random.nextLong() & Long.MAX_VALUE | 1;
+            missing[i] = random.nextLong() & Long.MAX_VALUE & ~1L;
+        }
+        for (int it = -warmup; it < iterations; ++it) {
+            RecordIndex table = new HashTable(1009);
+            Object value = new MemoryHandle(0, 16, 16);
+            double[] nanos = new double[phases.length];
+            long start = System.nanoTime();
+            for (long key : present) {
+                if (table.isHalfFull()) {
+                    table.doubleTableSize();
+                }
+                table.insert(key, value);
+            }
+            start = lap(nanos, 0, start);
+            for (long key : present) {
+                sink += table.get(key) == null ? 0 : 1;
+            }
+            start = lap(nanos, 1, start);
+            for (long key : missing) {
+                sink += table.get(key) == null ? 0 : 1;
+            }
+            start = lap(nanos, 2, start);
+            for (long key : present) {
+                sink += table.delete(key) == null ? 0 : 1;
+            }
+            lap(nanos, 3, start);
+            record(samples, it, nanos, ops);
+        }
+        report("hashtable", "keys=" + ops, phases, samples);
+    }
+
+    /**
+     * Benchmark storeBytes and freeBlock on a MemoryManager under churn.
+     *
+     * @throws IOException If the disk file can't be opened.
+     */
+    private static void benchMemoryManager() throws IOException {
+        String[] phases = {"store", "free"};
+        double[][] samples = new double[iterations][];
+        File file = File.createTempFile("membench", ".raw");
+        // the pool grows while it is filled, which would print messages
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(
+                new DNADataBenchmark.NullOutputStream()));
+        try {
+            runMemoryManager(file, samples);
+        }
+        finally {
+            System.setOut(stdout);
+        }
+        file.delete();
+        report("memman", "live=" + keys, phases, samples);
+    }
+
+    /**
+     * Run the iterations of the memman benchmark.
+     *
+     * @param  file        The disk file.
+     * @param  samples     Where the times of the measured iterations go.
+     *
+     * @throws IOException If the disk file can't be opened.
+     */
+    private static void runMemoryManager(File file, double[][] samples)
+            throws IOException {
+        for (int it = -warmup; it < iterations; ++it) {
+            file.delete();
+            RandomAccessFile raFile = new RandomAccessFile(file, "rw");
+            MemoryManager manager = new MemoryManager(4096,
+                    new BufferPool(64, 4096, raFile));
+            Random random = new Random(seed);
+            MemoryHandle[] live = new MemoryHandle[keys];
+            byte[][] records = new byte[64][];
+            for (int i = 0; i < records.length; ++i) {
+                records[i] = new byte[12 + random.nextInt(116)];
+            }
+            for (int i = 0; i < live.length; ++i) {
+                live[i] = manager.storeBytes(records[i % records.length]);
+            }
+            int[] victims = new int[ops];
+            for (int i = 0; i < ops; ++i) {
+                victims[i] = random.nextInt(live.length);
+            }
+            double[] nanos = new double[2];
+            for (int i = 0; i < ops; ++i) {
+                long start = System.nanoTime();
+                manager.freeBlock(live[victims[i]]);
+                start = lap(nanos, 1, start);
+                live[victims[i]] = manager.storeBytes(
+                        records[i % records.length]);
+                lap(nanos, 0, start);
+            }
+            sink += manager.getPoolSize();
+            manager.getStats();
+            raFile.close();
+            record(samples, it, nanos, ops);
+        }
+    }
+
+    /**
+     * Benchmark the hit and miss paths of BufferPool getBytes for each
+     * number and size of buffers.
+     *
+     * @throws IOException If the disk file can't be written.
+     */
+    private static void benchBufferPool() throws IOException {
+        String[] phases = {"hit", "miss"};
+        File file = File.createTempFile("poolbench", ".raw");
+        for (int numBuffers : buffers) {
+            for (int size : sizes) {
+                double[][] samples = new double[iterations][];
+                int blocks = 4 * numBuffers;
+                byte[] record = new byte[Math.min(size, 64)];
+                Random random = new Random(seed);
+                int[] resident = new int[ops];
+                for (int i = 0; i < ops; ++i) {
+                    resident[i] = random.nextInt(numBuffers);
+                }
+                for (int it = -warmup; it < iterations; ++it) {
+                    file.delete();
+                    RandomAccessFile raFile = new RandomAccessFile(file, "rw");
+                    raFile.setLength((long) blocks * size);
+                    BufferPool pool = new BufferPool(numBuffers, size,
+                            raFile);
+                    for (int b = 0; b < numBuffers; ++b) {
+                        pool.getBytes(record, handle(b, size, record));
+                    }
+                    double[] nanos = new double[phases.length];
+                    long start = System.nanoTime();
+                    for (int b : resident) {
+                        pool.getBytes(record, handle(b, size, record));
+                        sink += record[0];
+                    }
+                    start = lap(nanos, 0, start);
+                    for (int i = 0; i < ops; ++i) {
+                        // cycling through more blocks than buffers evicts
+                        // each block before it comes round again
+                        pool.getBytes(record, handle(numBuffers + i % (blocks
+                                - numBuffers), size, record));
+                        sink += record[0];
+                    }
+                    lap(nanos, 1, start);
+                    pool.close();
+                    record(samples, it, nanos, ops);
+                }
+                report("bufferpool", "buffers=" + numBuffers + " size="
+                        + size, phases, samples);
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * Benchmark the replay of a synthetic command file on a World for each
+     * number and size of buffers.
+     *
+     * @throws IOException If the command file can't be written.
+     */
+    private static void benchWorld() throws IOException {
+        String[] phases = {"command"};
+        File commands = File.createTempFile("worldbench", ".txt");
+        writeCommands(commands, ops, keys, distribution, seed);
+        for (int numBuffers : buffers) {
+            for (int size : sizes) {
+                double[][] samples = new double[iterations][];
+                for (int it = -warmup; it < iterations; ++it) {
+                    ByteTokenizer tokens = DNADataBenchmark.openCommands(
+                            commands.getPath());
+                    if (tokens == null) {
+                        return;
+                    }
+                    World world = new World(numBuffers, size, 1009);
+                    long elapsed = DNADataBenchmark.runSilently(world, tokens);
+                    sink += world.getBytesStored();
+                    world.deleteIOfileFromDisk();
+                    record(samples, it, new double[] {elapsed}, ops);
+                }
+                report("world", distribution + " buffers=" + numBuffers
+                        + " size=" + size, phases, samples);
+            }
+        }
+        commands.delete();
+    }
+
+    /**
+     * Write a synthetic DNAData command file: a quarter prints, the rest
+     * adds and deletes, on keys drawn from a distribution, with DNA codes
+     * of 4 to 64 bases.
+     *
+     * @param  file         The file to be written.
+     * @param  count        Number of commands.
+     * @param  numKeys      Number of distinct keys.
+     * @param  distribution zipf or uniform.
+     * @param  seed         Seed of the random choices.
+     *
+     * @throws IOException  If the file can't be written.
+     */
+    static void writeCommands(File file, int count, int numKeys,
+            String distribution, long seed) throws IOException {
+        WorkloadGenerator generator = new WorkloadGenerator();
+        generator.parse("-ops=" + count);
+        generator.parse("-keys=" + numKeys);
+        generator.parse("-seed=" + seed);
+        generator.parse("-reads=25");
+        if (distribution.equals("zipf")) {
+            generator.parse("-theta=" + theta);
+        }
+        generator.write(file);
+    }
+
+    /**
+     * Make the handle of a record at the start of a block.
+     *
+     * @param  block  Index of the block.
+     * @param  size   Size of the blocks.
+     * @param  record The record.
+     *
+     * @return        The handle.
+     */
+    private static MemoryHandle handle(int block, int size, byte[] record) {
+        return new MemoryHandle(block * size, record.length, record.length);
+    }
+
+    /**
+     * Add the time since a phase started to its total.
+     *
+     * @param  nanos Total time of each phase.
+     * @param  phase Index of the phase.
+     * @param  start When the phase started.
+     *
+     * @return       The time now.
+     */
+    private static long lap(double[] nanos, int phase, long start) {
+        long now = System.nanoTime();
+        nanos[phase] += now - start;
+        return now;
+    }
+
+    /**
+     * Keep the times per operation of a measured iteration.
+     *
+     * @param samples   The times of the measured iterations.
+     * @param iteration Index of the iteration, negative for warm-up.
+     * @param nanos     Total time of each phase of the iteration.
+     * @param count     Number of operations of each phase.
+     */
+    private static void record(double[][] samples, int iteration,
+            double[] nanos, int count) {
+        if (iteration < 0) {
+            return;
+        }
+        for (int i = 0; i < nanos.length; ++i) {
+            nanos[i] /= count;
+        }
+        samples[iteration] = nanos;
+    }
+
+    /**
+     * Print one line per phase of a benchmark: the mean, standard deviation
+     * and best of its times per operation.
+     *
+     * @param name    Name of the benchmark.
+     * @param params  Parameters of the run.
+     * @param phases  Names of the phases.
+     * @param samples The times per operation of each measured iteration.
+     */
+    private static void report(String name, String params, String[] phases,
+            double[][] samples) {
+        for (int p = 0; p < phases.length; ++p) {
+            double sum = 0;
+            double best = Double.MAX_VALUE;
+            for (double[] sample : samples) {
+                sum += sample[p];
+                best = Math.min(best, sample[p]);
+            }
+            double mean = sum / samples.length;
+            double squares = 0;
+            for (double[] sample : samples) {
+                squares += (sample[p] - mean) * (sample[p] - mean);
+            }
+            double stdev = samples.length < 2 ? 0
+                    : Math.sqrt(squares / (samples.length - 1));
+            System.out.println(String.format("%-24s %-32s %4d %10.1f %10.1f"
+                    + " %10.1f", name + "." + phases[p], params,
+                    samples.length, mean, stdev, best));
+        }
+    }
+
+    /**
+     * Parse a comma separated list of numbers.
+     *
+     * @param  value The list.
+     *
+     * @return       The numbers.
+     */
+    private static int[] parseList(String value) {
+        String[] parts = value.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; ++i) {
+            result[i] = Integer.parseInt(parts[i]);
+        }
+        return result;
+    }
+}
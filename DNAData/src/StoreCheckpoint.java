@@ -0,0 +1,303 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+/**
+ * The in-memory state of a persistent DNAData store: the free lists of the
+ * memory manager and the record index. The records themselves stay in the
+ * data file; a checkpoint is written next to it when the store is closed so
+ * that reopening it takes time proportional to the index instead of a scan
+ * of the data. Each checkpoint has a generation, one more than the one it
+ * was opened from, which ties a WriteAheadLog to it. The checkpoint file is
+ * laid out as:
+ *
+ * <pre>
+ * int  MAGIC
+ * int  VERSION
+ * long generation
+ * int  block size of the data file
+ * int  1 if DNA code sequences are packed, 0 otherwise
+ * long length of the data file
+ * int  memory pool size
+ * int  number of free lists, then for each one:
+ *      int count, count int positions
+ * int  hash table size
+ * int  number of records, then for each one:
+ *      long key, int position, int block size, int data size
+ * long CRC32 of everything above
+ * </pre>
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class StoreCheckpoint {
+    /** The first four bytes of a checkpoint, "DNAX". */
+    private static final int MAGIC = 0x444E4158;
+
+    /** Version of the layout. */
+    private static final int VERSION = 2;
+
+    /** Generation of the checkpoint, counting from 1. */
+    private long generation;
+
+    /** Length of the data file when the checkpoint was written. */
+    private long dataLength;
+
+    /** Size of the memory pool. */
+    private int poolSize;
+
+    /** Positions of the free blocks, per power of two. */
+    private int[][] freePositions;
+
+    /** Whether DNA code sequences are packed. */
+    private boolean packed;
+
+    /** Number of slots of the hash table. */
+    private int tableSize;
+
+    /** Keys of the records. */
+    private long[] keys;
+
+    /** Memory handles of the records, in the order of keys. */
+    private MemoryHandle[] handles;
+
+    /**
+     * Construct a checkpoint.
+     *
+     * @param generation    Generation of the checkpoint.
+     * @param poolSize      Size of the memory pool.
+     * @param freePositions Positions of the free blocks, as given by
+     *                      MemoryManager.getFreePositions.
+     * @param packed        Whether DNA code sequences are packed.
+     * @param tableSize     Number of slots of the hash table.
+     * @param keys          Keys of the records.
+     * @param handles       Memory handles of the records.
+     */
+    StoreCheckpoint(long generation, int poolSize, int[][] freePositions,
+            boolean packed, int tableSize, long[] keys,
+            MemoryHandle[] handles) {
+        this.generation = generation;
+        this.dataLength = -1;
+        this.poolSize = poolSize;
+        this.freePositions = freePositions;
+        this.packed = packed;
+        this.tableSize = tableSize;
+        this.keys = keys;
+        this.handles = handles;
+    }
+
+    /**
+     * Getter for the generation.
+     *
+     * @return Generation of the checkpoint, counting from 1.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Get the length of the data file when the checkpoint was written.
+     *
+     * @return Number of bytes, -1 if the checkpoint was not read or written.
+     */
+    public long getDataLength() {
+        return dataLength;
+    }
+
+    /**
+     * Getter for the memory pool size.
+     *
+     * @return Size of the memory pool.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Getter for the free block positions.
+     *
+     * @return Positions of the free blocks, per power of two.
+     */
+    public int[][] getFreePositions() {
+        return freePositions;
+    }
+
+    /**
+     * Check if DNA code sequences are packed.
+     *
+     * @return True for two bits per base.
+     */
+    public boolean isPacked() {
+        return packed;
+    }
+
+    /**
+     * Getter for the hash table size.
+     *
+     * @return Number of slots of the hash table.
+     */
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    /**
+     * Getter for the record keys.
+     *
+     * @return Keys of the records.
+     */
+    public long[] getKeys() {
+        return keys;
+    }
+
+    /**
+     * Getter for the record handles.
+     *
+     * @return Memory handles of the records, in the order of getKeys.
+     */
+    public MemoryHandle[] getHandles() {
+        return handles;
+    }
+
+    /**
+     * Write the checkpoint. It is written to a temporary file first and
+     * renamed over file, so a crash never leaves a half written checkpoint.
+     *
+     * @param  file        The checkpoint file.
+     * @param  blockSize   Block size of the data file.
+     * @param  dataLength  Length of the data file, once flushed.
+     *
+     * @throws IOException If the file can't be written.
+     */
+    public void write(File file, int blockSize, long dataLength)
+            throws IOException {
+        int length = 6 * Integer.BYTES + 3 * Long.BYTES
+                + 2 * Integer.BYTES + keys.length * (Long.BYTES
+                        + 3 * Integer.BYTES);
+        for (int[] positions : freePositions) {
+            length += (1 + positions.length) * Integer.BYTES;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(generation);
+        buffer.putInt(blockSize);
+        buffer.putInt(packed ? 1 : 0);
+        buffer.putLong(dataLength);
+        buffer.putInt(poolSize);
+        buffer.putInt(freePositions.length);
+        for (int[] positions : freePositions) {
+            buffer.putInt(positions.length);
+            for (int pos : positions) {
+                buffer.putInt(pos);
+            }
+        }
+        buffer.putInt(tableSize);
+        buffer.putInt(keys.length);
+        for (int i = 0; i < keys.length; ++i) {
+            buffer.putLong(keys[i]);
+            buffer.putInt(handles[i].getPos());
+            buffer.putInt(handles[i].getBlockSize());
+            buffer.putInt(handles[i].getDataSize());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc.getValue());
+
+        File temp = new File(file.getPath() + ".tmp");
+        FileOutputStream out = new FileOutputStream(temp);
+        try {
+            out.write(buffer.array());
+            out.getFD().sync();
+        }
+        finally {
+            out.close();
+        }
+        Files.move(temp.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        this.dataLength = dataLength;
+    }
+
+    /**
+     * Read a checkpoint, checking that it is intact and matches the data
+     * file.
+     *
+     * @param  file        The checkpoint file.
+     * @param  blockSize   Block size the data file is opened with.
+     * @param  dataLength  Current length of the data file.
+     *
+     * @return             The checkpoint.
+     *
+     * @throws IOException If the file can't be read, is damaged or doesn't
+     *                     belong to the data file.
+     */
+    public static StoreCheckpoint read(File file, int blockSize,
+            long dataLength) throws IOException {
+        StoreCheckpoint checkpoint = read(file, blockSize);
+        if (checkpoint.getDataLength() != dataLength) {
+            throw new IOException("data file changed since the checkpoint");
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Read a checkpoint, checking that it is intact but not the length of
+     * the data file, which a store with a WriteAheadLog may have grown since.
+     *
+     * @param  file        The checkpoint file.
+     * @param  blockSize   Block size the data file is opened with.
+     *
+     * @return             The checkpoint.
+     *
+     * @throws IOException If the file can't be read or is damaged.
+     */
+    public static StoreCheckpoint read(File file, int blockSize)
+            throws IOException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        if (bytes.length < 4 * Integer.BYTES + 3 * Long.BYTES) {
+            throw new IOException("checkpoint is truncated");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - Long.BYTES);
+        if (crc.getValue() != buffer.getLong(bytes.length - Long.BYTES)) {
+            throw new IOException("checkpoint checksum mismatch");
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("not a checkpoint of this version");
+        }
+        long generation = buffer.getLong();
+        if (buffer.getInt() != blockSize) {
+            throw new IOException("checkpoint has another block size");
+        }
+        boolean packed = buffer.getInt() == 1;
+        long dataLength = buffer.getLong();
+
+        int poolSize = buffer.getInt();
+        int[][] freePositions = new int[buffer.getInt()][];
+        for (int i = 0; i < freePositions.length; ++i) {
+            freePositions[i] = new int[buffer.getInt()];
+            for (int j = 0; j < freePositions[i].length; ++j) {
+                freePositions[i][j] = buffer.getInt();
+            }
+        }
+        int tableSize = buffer.getInt();
+        long[] keys = new long[buffer.getInt()];
+        MemoryHandle[] handles = new MemoryHandle[keys.length];
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] = buffer.getLong();
+            handles[i] = new MemoryHandle(buffer.getInt(), buffer.getInt(),
+                    buffer.getInt());
+        }
+        StoreCheckpoint checkpoint = new StoreCheckpoint(generation,
+                poolSize, freePositions, packed, tableSize, keys, handles);
+        checkpoint.dataLength = dataLength;
+        return checkpoint;
+    }
+}
@@ -0,0 +1,127 @@
+import student.TestCase;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+/**
+ * Test the StoreCheckpoint class and reopening a persistent World.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class StoreCheckpointTest extends TestCase {
+    /** The checkpoint file. */
+    private File file;
+
+    /** Sets up the tests that follow. */
+    public void setUp() {
+        file = new File(".checkpointTest.idx");
+        file.delete();
+    }
+
+    /** Cleans up after each test. */
+    public void tearDown() {
+        file.delete();
+        new File(".checkpointTest.raw").delete();
+    }
+
+    /** Test writing and reading back a checkpoint. */
+    public void testRoundTrip() throws Exception {
+        int[][] free = {{}, {}, {4}, {8, 24}, {}};
+        long[] keys = {7, -3};
+        MemoryHandle[] handles = {new MemoryHandle(0, 4, 3),
+            new MemoryHandle(16, 8, 5)};
+        new StoreCheckpoint(3, 64, free, true, 11, keys, handles).write(file,
+                32, 64);
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        StoreCheckpoint read = StoreCheckpoint.read(file, 32, 64);
+        assertEquals(read.getGeneration(), 3);
+        assertEquals(read.getDataLength(), 64);
+        assertEquals(read.getPoolSize(), 64);
+        assertTrue(read.isPacked());
+        assertEquals(read.getTableSize(), 11);
+        assertEquals(read.getFreePositions().length, 5);
+        assertEquals(read.getFreePositions()[3][1], 24);
+        assertEquals(read.getFreePositions()[4].length, 0);
+        assertEquals(read.getKeys()[1], -3);
+        assertEquals(read.getHandles()[1].getPos(), 16);
+        assertEquals(read.getHandles()[1].getBlockSize(), 8);
+        assertEquals(read.getHandles()[1].getDataSize(), 5);
+    }
+
+    /** Test that damaged or mismatched checkpoints are rejected. */
+    public void testRejected() throws Exception {
+        new StoreCheckpoint(1, 32, new int[][] {{}, {}}, false, 10,
+                new long[] {1}, new MemoryHandle[] {new MemoryHandle(0, 4,
+                        4)}).write(file, 32, 32);
+        assertTrue(isRejected(32, 64));
+        assertTrue(isRejected(16, 32));
+        assertFalse(isRejected(32, 32));
+
+        RandomAccessFile raFile = new RandomAccessFile(file, "rw");
+        raFile.seek(30);
+        raFile.write(99);
+        raFile.close();
+        assertTrue(isRejected(32, 32));
+    }
+
+    /** Test that a persistent world keeps its records across sessions. */
+    public void testReopenWorld() throws Exception {
+        DNADataOptions options = new DNADataOptions();
+        options.setStore(".checkpointTest");
+
+        World world = new World(2, 16, 4, options);
+        world.addRecord("1 1 ACGTACGTACGT");
+        world.addRecord("2 2 TTTT");
+        world.addRecord("3 3 GATTACA");
+        world.deleteRecord("2");
+        world.close();
+        assertTrue(file.exists());
+
+        world = new World(2, 16, 4, options);
+        assertFalse(file.exists());
+        world.addRecord("4 4 CC");
+        world.deleteRecord("1");
+        world.close();
+
+        File ioFile = new File(".checkpointTest.raw");
+        StoreCheckpoint read = StoreCheckpoint.read(file, 16,
+                ioFile.length());
+        assertEquals(read.getTableSize(), 8);
+        assertEquals(read.getKeys().length, 2);
+        assertEquals(read.getKeys()[0], 3);
+        assertEquals(read.getKeys()[1], 4);
+
+        // the records must be in the data file where the handles say
+        RandomAccessFile raFile = new RandomAccessFile(ioFile, "r");
+        byte[] record = new byte[read.getHandles()[0].getDataSize()];
+        raFile.seek(read.getHandles()[0].getPos());
+        raFile.readFully(record);
+        assertEquals(new String(record, 12, 7), "GATTACA");
+        record = new byte[read.getHandles()[1].getDataSize()];
+        raFile.seek(read.getHandles()[1].getPos());
+        raFile.readFully(record);
+        assertEquals(new String(record, 12, 2), "CC");
+        raFile.close();
+    }
+
+    /**
+     * Check if reading the checkpoint fails.
+     *
+     * @param  blockSize  Block size the data file is opened with.
+     * @param  dataLength Length of the data file.
+     *
+     * @return            True if read throws.
+     */
+    private boolean isRejected(int blockSize, long dataLength) {
+        try {
+            StoreCheckpoint.read(file, blockSize, dataLength);
+            return false;
+        }
+        catch (Exception e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * The full 2Q replacement policy of Johnson and Shasha. A block seen for the
+ * first time goes to the FIFO queue A1in. When it is evicted from there only
+ * its id is remembered in A1out. A block requested again while remembered in
+ * A1out has proved to be hot and goes to the LRU queue Am. A sequential scan
+ * therefore only churns A1in and leaves the hot set in Am alone.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class TwoQueuePolicy implements ReplacementPolicy {
+    /** Policy tag of a buffer in the free list. */
+    private static final int FREE = 0;
+
+    /** Policy tag of a buffer in A1in. */
+    private static final int IN_A1IN = 1;
+
+    /** Policy tag of a buffer in Am. */
+    private static final int IN_AM = 2;
+
+    /** Buffers that never held a block. */
+    private BufferList free;
+
+    /** First time residents, the newest first. */
+    private BufferList a1in;
+
+    /** Residents that were requested again, the most recently used first. */
+    private BufferList am;
+
+    /** Ids of blocks recently evicted from A1in. */
+    private GhostList a1out;
+
+    /** Target number of buffers in A1in (Kin). */
+    private int maxA1in;
+
+    /** Maximum number of ids remembered in A1out (Kout). */
+    private int maxA1out;
+
+    /**
+     * Construct a TwoQueuePolicy with the tuning recommended by the authors:
+     * a quarter of the buffers for A1in and half as many ids as buffers in
+     * A1out.
+     * 
+     * @param numBuffers The number of buffers that will be handed over.
+     */
+    TwoQueuePolicy(int numBuffers) {
+        free = new BufferList();
+        a1in = new BufferList();
+        am = new BufferList();
+        maxA1in = Math.max(1, numBuffers / 4);
+        maxA1out = Math.max(1, numBuffers / 2);
+        a1out = new GhostList(maxA1out);
+    }
+
+    /**
+     * Hand a buffer that does not hold any block yet to the policy.
+     * 
+     * @param buffer A buffer with the block id -1.
+     */
+    @Override
+    public void addFree(Buffer buffer) {
+        buffer.setPolicyTag(FREE);
+        free.pushBack(buffer);
+    }
+
+    /**
+     * Record that a cached buffer was accessed. Only Am is reordered; a hit
+     * in A1in is deliberately ignored since correlated references right after
+     * the first one are no evidence of a hot block.
+     * 
+     * @param buffer The buffer that was read or written.
+     */
+    @Override
+    public void recordHit(Buffer buffer) {
+        if (buffer.getPolicyTag() == IN_AM) {
+            am.moveToFront(buffer);
+        }
+    }
+
+    /**
+     * Pick the buffer that will hold a block that is not cached.
+     * 
+     * @param  blockId The block id about to be loaded.
+     * 
+     * @return         The buffer to be overwritten, null if every buffer is
+     *                 pinned.
+     */
+    @Override
+    public Buffer admit(int blockId) {
+        Buffer victim = reclaim();
+        if (victim == null) {
+            return null;
+        }
+        if (a1out.remove(blockId)) {
+            victim.setPolicyTag(IN_AM);
+            am.pushFront(victim);
+        }
+        else {
+            victim.setPolicyTag(IN_A1IN);
+            a1in.pushFront(victim);
+        }
+        return victim;
+    }
+
+    /**
+     * Get the buffers in the order the policy keeps them: Am from the most
+     * recently used, then A1in from the newest, then the free buffers.
+     * 
+     * @return Array of all buffers handed to the policy.
+     */
+    @Override
+    public Buffer[] getBuffers() {
+        Buffer[] result = new Buffer[am.getCount() + a1in.getCount()
+                + free.getCount()];
+        int i = 0;
+        BufferList[] lists = {am, a1in, free};
+        for (BufferList list : lists) {
+            for (Buffer buffer = list.peekFront(); buffer != null;
+                    buffer = list.following(buffer)) {
+                result[i++] = buffer;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the name of the policy.
+     * 
+     * @return The name used to pick the policy on the command line.
+     */
+    @Override
+    public String getName() {
+        return "2q";
+    }
+
+    /**
+     * Unlink a buffer to be reused. Free buffers go first, then the oldest of
+     * A1in if it is over its target size, otherwise the least recently used
+     * buffer of Am. Pinned buffers are passed over.
+     * 
+     * @return The unlinked buffer, null if every buffer is pinned.
+     */
+    private Buffer reclaim() {
+        Buffer victim = free.peekBack();
+        if (victim != null) {
+            free.remove(victim);
+            return victim;
+        }
+        Buffer fromA1in = a1in.peekBackUnpinned();
+        Buffer fromAm = am.peekBackUnpinned();
+        if (fromA1in != null && (a1in.getCount() > maxA1in
+                || fromAm == null)) {
+            victim = fromA1in;
+            a1in.remove(victim);
+            if (a1out.getCount() >= maxA1out) {
+                a1out.removeBack();
+            }
+            a1out.pushFront(victim.getBlockId());
+            return victim;
+        }
+        if (fromAm != null) {
+            am.remove(fromAm);
+        }
+        return fromAm;
+    }
+}
@@ -0,0 +1,44 @@
+import student.TestCase;
+
+/**
+ * Test the TwoQueuePolicy class.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class TwoQueuePolicyTest extends TestCase {
+    /** Test that a scan does not flush blocks that proved to be hot. */
+    public void testScanResistance() {
+        PolicyTestHelper helper =
+                new PolicyTestHelper(new TwoQueuePolicy(4), 4);
+        for (int i = 1; i <= 4; ++i) {
+            helper.access(i);
+        }
+        // 1 leaves A1in and is remembered in A1out
+        assertEquals(helper.access(5), 1);
+        // requesting 1 again promotes it to Am
+        helper.access(1);
+        assertEquals(helper.listing(), "1 5 4 3");
+
+        // a long scan only churns A1in
+        for (int i = 100; i < 120; ++i) {
+            helper.access(i);
+        }
+        assertTrue(helper.isCached(1));
+        assertEquals(new TwoQueuePolicy(1).getName(), "2q");
+    }
+
+    /** Test that pinned buffers are never evicted. */
+    public void testPinned() {
+        PolicyTestHelper helper = new PolicyTestHelper(new TwoQueuePolicy(4),
+                4);
+        for (int id = 1; id <= 4; ++id) {
+            helper.access(id);
+            helper.setPinned(id, true);
+        }
+        assertEquals(helper.access(5), -2);
+        helper.setPinned(2, false);
+        assertEquals(helper.access(5), 2);
+    }
+}
@@ -0,0 +1,350 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Writes reproducible DNAData command files of any length for load tests:
+ * adds, deletes and prints of records whose keys are drawn uniformly or
+ * with Zipfian skew, in a given mix of reads and writes, with DNA codes
+ * whose lengths follow a given distribution. Writes are adds and deletes
+ * in equal numbers, so the records hover around half of the keys. The
+ * same settings always give the same file.
+ *
+ * <p>With -checksum=on the file is then run through DNAData, and the CRC32
+ * and length of the output are written next to it, to file.crc32. Later,
+ * e.g. after a performance change, -verify=file runs it again with the
+ * same DNAData arguments and reports whether the output still matches.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class WorkloadGenerator {
+    /** The bases of a DNA code. */
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+
+    /** Number of commands. */
+    private int ops;
+
+    /** Number of distinct keys. */
+    private int keys;
+
+    /** Seed of every random choice. */
+    private long seed;
+
+    /** The skew of the keys, 0 for uniform. */
+    private double theta;
+
+    /** Percentage of commands that print a record. */
+    private int reads;
+
+    /** Distribution of the lengths of DNA codes: fixed, uniform or exp. */
+    private String sizes;
+
+    /** Shortest DNA code. */
+    private int minSize;
+
+    /** Longest DNA code, the length of every code if they are fixed. */
+    private int maxSize;
+
+    /** Whether the expected output is checksummed. */
+    private boolean checksum;
+
+    /** Number of buffers DNAData is run with. */
+    private int numBuffers;
+
+    /** Buffer size DNAData is run with. */
+    private int buffSize;
+
+    /** Initial hash size DNAData is run with. */
+    private int hashSize;
+
+    /** Construct a generator with the default settings. */
+    WorkloadGenerator() {
+        ops = 1000000;
+        keys = 100000;
+        seed = 1;
+        theta = 0;
+        reads = 50;
+        sizes = "uniform";
+        minSize = 4;
+        maxSize = 64;
+        checksum = false;
+        numBuffers = 10;
+        buffSize = 4096;
+        hashSize = 1024;
+    }
+
+    /**
+     * @param args [0] The command file to be written, then optional
+     *             settings of the form -name=value: -ops=1000000 commands;
+     *             -keys=100000 distinct keys; -seed=1; -skew=uniform or
+     *             zipf; -theta=0.99 for zipf; -reads=50 percent of prints;
+     *             -sizes=uniform, fixed or exp for the lengths of the DNA
+     *             codes, from -minsize=4 to -maxsize=64; -checksum=on to
+     *             checksum the expected output; and the arguments DNAData
+     *             is run with, -buffers=10, -buffsize=4096 and -hash=1024.
+     *             Or -verify=file, with the same DNAData arguments, to
+     *             check the output of a file against its checksum.
+     */
+    public static void main(String[] args) {
+        WorkloadGenerator generator = new WorkloadGenerator();
+        String fileName = null;
+        String verify = null;
+        for (String arg : args) {
+            if (arg.startsWith("-verify=")) {
+                verify = arg.substring(8);
+            }
+            else if (!arg.startsWith("-")) {
+                fileName = arg;
+            }
+            else if (!generator.parse(arg)) {
+                System.out.println("Unrecognized option |" + arg + "|");
+                return;
+            }
+        }
+        if (fileName == null && verify == null) {
+            System.out.println("Usage: WorkloadGenerator <command-file> "
+                    + "[-option=value]... | -verify=<command-file>");
+            return;
+        }
+        try {
+            if (verify != null) {
+                generator.verify(verify);
+                return;
+            }
+            if (generator.minSize > generator.maxSize) {
+                System.out.println("minsize must not exceed maxsize.");
+                return;
+            }
+            generator.write(new File(fileName));
+            System.out.println("Wrote " + generator.ops + " commands to |"
+                    + fileName + "|.");
+            if (generator.checksum) {
+                String expected = generator.runChecksum(fileName);
+                Files.write(new File(fileName + ".crc32").toPath(),
+                        (expected + "\n").getBytes(StandardCharsets.UTF_8));
+                System.out.println("Expected output of |" + fileName
+                        + "|: crc32 " + expected + " bytes.");
+            }
+        }
+        catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Apply one setting.
+     *
+     * @param  arg The setting in the form -name=value.
+     *
+     * @return     True if the setting was recognized and its value valid.
+     */
+    boolean parse(String arg) {
+        int equals = arg.indexOf('=');
+        if (!arg.startsWith("-") || equals < 0) {
+            return false;
+        }
+        String name = arg.substring(1, equals);
+        String value = arg.substring(equals + 1);
+        try {
+            if (name.equals("skew")) {
+                if (value.equals("zipf")) {
+                    theta = theta == 0 ? 0.99 : theta;
+                    return true;
+                }
+                theta = 0;
+                return value.equals("uniform");
+            }
+            if (name.equals("sizes")) {
+                sizes = value;
+                return value.equals("fixed") || value.equals("uniform")
+                        || value.equals("exp");
+            }
+            if (name.equals("checksum")) {
+                checksum = value.equals("on");
+                return checksum || value.equals("off");
+            }
+            if (name.equals("seed")) {
+                seed = Long.parseLong(value);
+                return true;
+            }
+            if (name.equals("theta")) {
+                theta = Double.parseDouble(value);
+                return theta >= 0 && theta < 1;
+            }
+            int number = Integer.parseInt(value);
+            if (name.equals("ops")) {
+                ops = number;
+                return number >= 0;
+            }
+            if (name.equals("keys")) {
+                keys = number;
+                return number > 0;
+            }
+            if (name.equals("reads")) {
+                reads = number;
+                return number >= 0 && number <= 100;
+            }
+            if (name.equals("minsize")) {
+                minSize = number;
+                return number > 0;
+            }
+            if (name.equals("maxsize")) {
+                maxSize = number;
+                return number > 0;
+            }
+            if (name.equals("buffers")) {
+                numBuffers = number;
+                return number > 0;
+            }
+            if (name.equals("buffsize")) {
+                buffSize = number;
+                return number > 0;
+            }
+            if (name.equals("hash")) {
+                hashSize = number;
+                return number > 0;
+            }
+            return false;
+        }
+        catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Write the command file.
+     *
+     * @param  file        The file, replaced if it exists.
+     *
+     * @throws IOException If the file can't be written.
+     */
+    void write(File file) throws IOException {
+        Random random = new Random(seed);
+        ZipfGenerator ranks = new ZipfGenerator(keys, theta, random);
+        // scatter the hot keys over the key space
+        int[] order = shuffle(keys, random);
+        PrintWriter out = new PrintWriter(file);
+        try {
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < ops; ++i) {
+                int key = order[(int) ranks.next()];
+                line.setLength(0);
+                if (random.nextInt(100) < reads) {
+                    line.append("print record ").append(key);
+                }
+                else if (random.nextBoolean()) {
+                    line.append("add ").append(key).append(' ')
+                            .append(random.nextInt(100)).append(' ');
+                    for (int j = nextSize(random); j > 0; --j) {
+                        line.append(BASES[random.nextInt(BASES.length)]);
+                    }
+                }
+                else {
+                    line.append("delete ").append(key);
+                }
+                out.println(line);
+            }
+            if (out.checkError()) {
+                throw new IOException("Could not write |" + file + "|");
+            }
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Run a command file through DNAData and checksum its output.
+     *
+     * @param  fileName The command file.
+     *
+     * @return          The CRC32 and length of the output.
+     */
+    String runChecksum(String fileName) {
+        PrintStream stdout = System.out;
+        OutputChecksum sum = new OutputChecksum();
+        PrintStream captured = new PrintStream(sum);
+        System.setOut(captured);
+        try {
+            DNAData.main(new String[] {String.valueOf(numBuffers),
+                String.valueOf(buffSize), String.valueOf(hashSize),
+                fileName});
+        }
+        finally {
+            captured.flush();
+            System.setOut(stdout);
+        }
+        return sum.toString();
+    }
+
+    /**
+     * Run a command file again and compare its output with the checksum
+     * written when it was generated.
+     *
+     * @param  fileName    The command file.
+     *
+     * @throws IOException If the checksum can't be read.
+     */
+    void verify(String fileName) throws IOException {
+        String expected = new String(Files.readAllBytes(new File(fileName
+                + ".crc32").toPath()), StandardCharsets.UTF_8).trim();
+        String actual = runChecksum(fileName);
+        if (actual.equals(expected)) {
+            System.out.println("Output of |" + fileName + "| matches: crc32 "
+                    + actual + " bytes.");
+        }
+        else {
+            System.out.println("Output of |" + fileName + "| differs: "
+                    + "expected crc32 " + expected + " bytes, got "
+                    + actual + " bytes.");
+        }
+    }
+
+    /**
+     * Draw the length of a DNA code.
+     *
+     * @param  random The source of randomness.
+     *
+     * @return        A length from minSize to maxSize.
+     */
+    private int nextSize(Random random) {
+        int range = maxSize - minSize;
+        if (sizes.equals("fixed")) {
+            return maxSize;
+        }
+        if (sizes.equals("uniform")) {
+            return minSize + random.nextInt(range + 1);
+        }
+        // exponential, with a mean a quarter of the way up the range
+        double draw = -Math.log(1 - random.nextDouble()) * range / 4;
+        return minSize + (int) Math.min(draw, range);
+    }
+
+    /**
+     * Make a random order of the numbers from 0 to count - 1.
+     *
+     * @param  count  Number of numbers.
+     * @param  random The source of randomness.
+     *
+     * @return        The numbers, shuffled.
+     */
+    private static int[] shuffle(int count, Random random) {
+        int[] order = new int[count];
+        for (int i = 0; i < count; ++i) {
+            order[i] = i;
+        }
+        for (int i = count - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+}
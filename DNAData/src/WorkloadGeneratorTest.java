@@ -0,0 +1,111 @@
+import student.TestCase;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Test the WorkloadGenerator class.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class WorkloadGeneratorTest extends TestCase {
+    /** The command file written by the tests. */
+    private File file;
+
+    /** Sets up the tests that follow. */
+    public void setUp() {
+        file = new File(".workload.txt");
+    }
+
+    /** Removes the files written by a test. */
+    public void tearDown() {
+        file.delete();
+        new File(file.getPath() + ".crc32").delete();
+    }
+
+    /** Test that settings are checked. */
+    public void testParse() {
+        WorkloadGenerator generator = new WorkloadGenerator();
+        assertTrue(generator.parse("-ops=10"));
+        assertTrue(generator.parse("-skew=zipf"));
+        assertTrue(generator.parse("-theta=0.5"));
+        assertTrue(generator.parse("-sizes=exp"));
+        assertTrue(generator.parse("-checksum=off"));
+        assertFalse(generator.parse("-reads=101"));
+        assertFalse(generator.parse("-theta=1"));
+        assertFalse(generator.parse("-keys=many"));
+        assertFalse(generator.parse("-sizes=normal"));
+        assertFalse(generator.parse("-colour=blue"));
+        assertFalse(generator.parse("ops=10"));
+    }
+
+    /** Test that the file follows the settings and the seed. */
+    public void testWrite() throws Exception {
+        WorkloadGenerator generator = new WorkloadGenerator();
+        generator.parse("-ops=2000");
+        generator.parse("-keys=50");
+        generator.parse("-reads=20");
+        generator.parse("-sizes=fixed");
+        generator.parse("-maxsize=8");
+        generator.parse("-skew=zipf");
+        generator.write(file);
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(lines.size(), 2000);
+        int prints = 0;
+        for (String line : lines) {
+            String[] words = line.split(" ");
+            if (words[0].equals("print")) {
+                ++prints;
+                assertEquals(words[1], "record");
+            }
+            else if (words[0].equals("add")) {
+                assertEquals(words[3].length(), 8);
+                assertTrue(words[3].matches("[ACGT]+"));
+            }
+            else {
+                assertEquals(words[0], "delete");
+            }
+            int key = Integer.parseInt(words[words[0].equals("print") ? 2
+                    : 1]);
+            assertTrue(key >= 0 && key < 50);
+        }
+        assertEquals(prints, 400, 60);
+
+        generator.write(file);
+        assertEquals(Files.readAllLines(file.toPath()), lines);
+        generator.parse("-seed=2");
+        generator.write(file);
+        assertFalse(Files.readAllLines(file.toPath()).equals(lines));
+    }
+
+    /** Test that the expected output is checksummed and verified. */
+    public void testChecksum() throws Exception {
+        systemOut().clearHistory();
+        WorkloadGenerator.main(new String[] {file.getPath(), "-ops=300",
+            "-keys=20", "-checksum=on", "-buffers=3", "-buffsize=64"});
+        assertTrue(systemOut().getHistory().contains("Wrote 300 commands"));
+        File crc = new File(file.getPath() + ".crc32");
+        assertTrue(crc.exists());
+        String expected = Files.readAllLines(crc.toPath()).get(0);
+        WorkloadGenerator generator = new WorkloadGenerator();
+        generator.parse("-buffers=3");
+        generator.parse("-buffsize=64");
+        assertEquals(generator.runChecksum(file.getPath()), expected);
+
+        systemOut().clearHistory();
+        WorkloadGenerator.main(new String[] {"-verify=" + file.getPath(),
+            "-buffers=3", "-buffsize=64"});
+        assertTrue(systemOut().getHistory().contains("matches"));
+        Files.write(file.toPath(), "print record 1\n".getBytes());
+        WorkloadGenerator.main(new String[] {"-verify=" + file.getPath(),
+            "-buffers=3", "-buffsize=64"});
+        assertTrue(systemOut().getHistory().contains("differs"));
+
+        systemOut().clearHistory();
+        WorkloadGenerator.main(new String[] {file.getPath(), "-ops=x"});
+        assertTrue(systemOut().getHistory().contains("Unrecognized"));
+    }
+}
@@ -1,7 +1,11 @@
 import java.util.Scanner;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
 
 /**
  * World object is the platform for DNAData project actions.
@@ -11,6 +15,12 @@ import java.nio.ByteBuffer;
  * @version Mar 21, 2020
  */
 public class World {
+    /** Bytes of records bulkLoad collects before writing them. */
+    private static final int LOAD_BATCH_BYTES = 1 << 20;
+
+    /** Most records bulkLoad collects before writing them. */
+    private static final int LOAD_BATCH_RECORDS = 1 << 14;
+
     // /** Number of buffers in the buffer pool. */
     // private int numBuffers;
 
@@ -24,11 +34,50 @@ public class World {
     private BufferPool bufferPool;
 
     /** The hash table for this world. */
-    private HashTable hashTable;
+    private RecordIndex hashTable;
 
     /** The disk file used for I/O. */
     private File ioFile;
 
+    /** The checkpoint of a persistent store, null if not persistent. */
+    private File checkpointFile;
+
+    /** The write-ahead log of a persistent store, null if not persistent. */
+    private File logFile;
+
+    /** The open write-ahead log, null if operations are not logged. */
+    private WriteAheadLog log;
+
+    /** Generation of the checkpoint the store was opened from, 0 if none. */
+    private long generation;
+
+    /** Block size of the disk file. */
+    private int blockSize;
+
+    /** Whether DNA code sequences are stored with two bits per base. */
+    private boolean packed;
+
+    /** Whether the hash table is compacted once tombstones pile up. */
+    private boolean compaction;
+
+    /**
+     * Percentage of external fragmentation at which the memory pool is
+     * compacted when that pays off, -1 if it is only compacted by defrag.
+     */
+    private int defragThreshold;
+
+    /** Total size of the records stored in the memory pool. */
+    private long bytesStored;
+
+    /** Latencies of the record operations, by phase. */
+    private OperationMetrics metrics;
+
+    /** The file the metrics are written to at close, null if none. */
+    private String metricsFile;
+
+    /** Size of the hash table as of the last doubling reported. */
+    private int reportedSize;
+
     /**
      * Construct a World object.
      * 
@@ -37,19 +86,97 @@ public class World {
      * @param hashSlots  Number of slots in the hash table.
      */
     World(int numBuffers, int buffSize, int hashSlots) {
+        this(numBuffers, buffSize, hashSlots, new DNADataOptions());
+    }
+
+    /**
+     * Construct a World object with optional settings.
+     * 
+     * @param numBuffers Number of buffers in the buffer pool.
+     * @param buffSize   Size of a buffer in bytes that is a power of two.
+     * @param hashSlots  Number of slots in the hash table.
+     * @param options    Optional settings of the session.
+     */
+    World(int numBuffers, int buffSize, int hashSlots,
+            DNADataOptions options) {
         // this.numBuffers = numBuffers;
         // this.buffSize = buffSize;
 
+        packed = options.isPacked();
+        compaction = options.isCompaction();
+        defragThreshold = options.getDefragThreshold();
+        bytesStored = 0;
+        metrics = new OperationMetrics();
+        metricsFile = options.getMetricsFile();
+        blockSize = buffSize;
+        String allocator = options.getAllocator();
+        if (options.getStore() != null && !allocator.equals("buddy")) {
+            // checkpoints keep the free lists of the buddy system
+            System.out.println("A persistent store uses the buddy "
+                    + "allocator.");
+            allocator = "buddy";
+        }
         // buffSize serves as the initial size of the memory pool as per the
         // spec document of the project
         try {
-            ioFile = new File(".diskIO.raw");
-            ioFile.delete();
-            bufferPool = new BufferPool(numBuffers, buffSize,
-                    new RandomAccessFile(ioFile, "rw"));
-            memManager = new MemoryManager(buffSize, bufferPool);
-            // initialize the hash table
-            hashTable = new HashTable(hashSlots);
+            StoreCheckpoint checkpoint = null;
+            if (options.getStore() == null) {
+                ioFile = new File(".diskIO.raw");
+                checkpointFile = null;
+                logFile = null;
+            }
+            else {
+                ioFile = new File(options.getStore() + ".raw");
+                checkpointFile = new File(options.getStore() + ".idx");
+                logFile = new File(options.getStore() + ".wal");
+                checkpoint = readCheckpoint(options.getLogBatch() > 0);
+            }
+            generation = checkpoint == null ? 0 : checkpoint.getGeneration();
+            if (checkpoint == null) {
+                ioFile.delete();
+            }
+            else {
+                packed = checkpoint.isPacked();
+            }
+            int blocksOnDisk = (int) (ioFile.length() / buffSize);
+            RandomAccessFile raFile = new RandomAccessFile(ioFile, "rw");
+            BlockFile blockFile = options.isMemoryMapped()
+                    ? new MappedBlockFile(raFile, buffSize)
+                    : new RandomAccessBlockFile(raFile, buffSize);
+            bufferPool = new BufferPool(numBuffers, buffSize, blockFile,
+                    ReplacementPolicy.forName(options.getPolicy(),
+                            numBuffers));
+            if (options.getReadAhead() >= 0) {
+                bufferPool.enableReadAhead(options.getReadAhead());
+            }
+            if (options.getWriteBehind() > 0) {
+                bufferPool.enableWriteBehind(options.getWriteBehind());
+            }
+            if (checkpoint == null) {
+                memManager = new MemoryManager(Allocator.forName(
+                        allocator, buffSize, buffSize, options.isAligned()),
+                        bufferPool);
+                // initialize the hash table
+                hashTable = RecordIndex.forName(options.getTable(),
+                        hashSlots, options.isIncrementalResize());
+            }
+            else {
+                bufferPool.setBlocksOnDisk(blocksOnDisk);
+                memManager = new MemoryManager(checkpoint.getPoolSize(),
+                        checkpoint.getFreePositions(), buffSize, bufferPool);
+                hashTable = RecordIndex.forName(options.getTable(),
+                        checkpoint.getTableSize(),
+                        options.isIncrementalResize());
+                long[] keys = checkpoint.getKeys();
+                for (int i = 0; i < keys.length; ++i) {
+                    hashTable.insert(keys[i], checkpoint.getHandles()[i]);
+                    memManager.markUsed(checkpoint.getHandles()[i]);
+                }
+            }
+            reportedSize = hashTable.getSize();
+            if (logFile != null) {
+                openLog(options.getLogBatch());
+            }
         }
         catch (Exception e) {
             System.out.println(e.getMessage());
@@ -64,45 +191,255 @@ public class World {
      *                   inserted.
      */
     public void addRecord(String recordSpec) {
-        // a DNA record is made of three parts: long key, int type, and string
-        // sequence of DNA code
-        Scanner sc = new Scanner(recordSpec);
+        metrics.begin(OperationMetrics.ADD);
+        try {
+            // a DNA record is made of three parts: long key, int type, and
+            // string sequence of DNA code
+            Scanner sc = new Scanner(recordSpec);
 
-        // parse the key of the record
-        long key = sc.nextLong();
+            // parse the key of the record
+            long key = sc.nextLong();
+
+            // handle duplicate additions
+            if (isDuplicate(key)) {
+                // close the scanner since we are about to return
+                sc.close();
+                return;
+            }
+
+            // parse the type of the record
+            int type = sc.nextInt();
 
-        // handle duplicate additions
-        if (hashTable.get(key) != null) {
-            System.out.println(
-                    key + " duplicates a record already in the key database.");
-            // close the scanner since we are about to return
+            // parse the sequence of DNA code
+            String dnaCode = sc.next();
+            // done with the scanner
             sc.close();
-            return;
+
+            // serializing the record to store in the memory pool
+            addRecord(key, serializeDNARecord(key, type, dnaCode));
         }
+        finally {
+            metrics.end();
+        }
+    }
 
-        // parse the type of the record
-        int type = sc.nextInt();
+    /**
+     * Add a record whose id, type and DNA code are the next tokens of the
+     * current line of a command file, without making Strings of them. The
+     * rest of the line is left to the caller.
+     * 
+     * @param spec Tokenizer positioned before the id of the record.
+     */
+    public void addRecord(ByteTokenizer spec) {
+        metrics.begin(OperationMetrics.ADD);
+        try {
+            spec.nextInLine();
+            long key = spec.toLong();
+            if (isDuplicate(key)) {
+                return;
+            }
+            spec.nextInLine();
+            int type = spec.toInt();
+            if (!spec.nextInLine()) {
+                throw new NoSuchElementException();
+            }
+            addRecord(key, packed
+                    ? serializeDNARecord(key, type, spec.toString())
+                    : serializeDNARecord(key, type, spec));
+        }
+        catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+        finally {
+            metrics.end();
+        }
+    }
 
-        // parse the sequence of DNA code
-        String dnaCode = sc.next();
-        // done with the scanner
-        sc.close();
+    /**
+     * Print a message if a record with a key is already in the database.
+     * 
+     * @param  key The key of the record to be added.
+     * 
+     * @return     True if the key is taken.
+     */
+    private boolean isDuplicate(long key) {
+        long start = System.nanoTime();
+        Object found = hashTable.get(key);
+        metrics.endPhase(OperationMetrics.HASH, start);
+        if (found == null) {
+            return false;
+        }
+        System.out.println(
+                key + " duplicates a record already in the key database.");
+        return true;
+    }
 
-        // serializing the record to store in the memory pool
-        byte[] recordData = serializeDNARecord(key, type, dnaCode);
+    /**
+     * Log, store and acknowledge a serialized record.
+     * 
+     * @param key        The key of the record.
+     * @param recordData The serialized record.
+     */
+    private void addRecord(long key, byte[] recordData) {
+        if (defragThreshold >= 0 && memManager.needsCompaction(
+                recordData.length, defragThreshold)) {
+            defrag();
+        }
+        // log the record before any of its bytes reach a buffer
+        if (log != null) {
+            log.append(WriteAheadLog.ADD, key, recordData);
+        }
+        storeRecord(key, recordData, false);
+        System.out.println(key + " has been added to the database.");
+    }
 
+    /**
+     * Store a serialized record in the memory pool and its handle in the
+     * hash table.
+     * 
+     * @param key        The key of the record.
+     * @param recordData The serialized record.
+     * @param quiet      True to leave out the message of a doubling of the
+     *                   hash table.
+     */
+    private void storeRecord(long key, byte[] recordData, boolean quiet) {
         // store recordData in the memory pool and obtain a MemoryHandle
-        MemoryHandle recordHandle = memManager.storeBytes(recordData);
+        long start = System.nanoTime();
+        MemoryHandle recordHandle = memManager.allocate(recordData.length);
+        start = metrics.endPhase(OperationMetrics.ALLOC, start);
+        memManager.writeBytes(recordData, recordHandle);
+        start = metrics.endPhase(OperationMetrics.IO, start);
+        bytesStored += recordData.length;
 
         if (hashTable.isHalfFull()) {
             hashTable.doubleTableSize();
-            System.out.println("Hash table size doubled to "
-                    + hashTable.getSize() + " slots.");
+        }
+        else if (compaction && hashTable.needsCompaction()) {
+            hashTable.compact();
         }
 
         // store the key and the handle in the hash table
         hashTable.insert(key, recordHandle);
-        System.out.println(key + " has been added to the database.");
+        if (quiet) {
+            reportedSize = hashTable.getSize();
+        }
+        reportGrowth();
+        metrics.endPhase(OperationMetrics.HASH, start);
+    }
+
+    /**
+     * Print one line per doubling of the hash table since the last one
+     * printed, including those the table made on its own when probing found
+     * no room for a key.
+     */
+    private void reportGrowth() {
+        while (reportedSize < hashTable.getSize()) {
+            reportedSize *= 2;
+            System.out.println("Hash table size doubled to " + reportedSize
+                    + " slots.");
+        }
+    }
+
+    /**
+     * Add every record of a file, one per line as the id, type and DNA code
+     * of an add command, optionally preceded by the word add. This is the
+     * same as adding the records one by one, except that only duplicates,
+     * skipped lines and a summary are printed. A line without an id, type
+     * and DNA code is reported and skipped before any of it is stored. The
+     * hash table is sized for all of the lines up front, the records are
+     * tokenized straight from the file, and their blocks are reserved as
+     * they are read but written in batches, in the order of their positions.
+     * 
+     * @param fileName The file with the records.
+     */
+    public void bulkLoad(String fileName) {
+        try {
+            FileInputStream counted = new FileInputStream(fileName);
+            long expected = ByteTokenizer.countLines(counted);
+            counted.close();
+            // size the table once instead of doubling it along the way
+            while (hashTable.getSize() / 2 < hashTable.getCountActive()
+                    + expected) {
+                hashTable.doubleTableSize();
+            }
+            reportGrowth();
+
+            FileInputStream in = new FileInputStream(fileName);
+            ByteTokenizer tokens = new ByteTokenizer(in);
+            byte[][] records = new byte[LOAD_BATCH_RECORDS][];
+            MemoryHandle[] handles = new MemoryHandle[LOAD_BATCH_RECORDS];
+            int batchCount = 0;
+            int batchBytes = 0;
+            int loaded = 0;
+            try {
+                while (tokens.next()) {
+                    // check the whole line before anything is stored
+                    long key;
+                    byte[] recordData;
+                    try {
+                        if (tokens.matches("add")) {
+                            tokens.nextInLine();
+                        }
+                        key = tokens.toLong();
+                        tokens.nextInLine();
+                        int type = tokens.toInt();
+                        if (!tokens.nextInLine()) {
+                            throw new NoSuchElementException();
+                        }
+                        recordData = packed
+                                ? serializeDNARecord(key, type,
+                                        tokens.toString())
+                                : serializeDNARecord(key, type, tokens);
+                    }
+                    catch (NumberFormatException | NoSuchElementException e) {
+                        System.out.println("Skipped a line of |" + fileName
+                                + "| without an id, type and DNA code.");
+                        tokens.skipLine();
+                        continue;
+                    }
+                    tokens.skipLine();
+                    if (hashTable.get(key) != null) {
+                        System.out.println(key
+                                + " duplicates a record already in the key"
+                                + " database.");
+                        continue;
+                    }
+
+                    if (log != null) {
+                        log.append(WriteAheadLog.ADD, key, recordData);
+                    }
+                    MemoryHandle handle = memManager.allocate(
+                            recordData.length);
+                    bytesStored += recordData.length;
+                    if (hashTable.isHalfFull()) {
+                        hashTable.doubleTableSize();
+                    }
+                    hashTable.insert(key, handle);
+                    reportGrowth();
+
+                    records[batchCount] = recordData;
+                    handles[batchCount++] = handle;
+                    batchBytes += recordData.length;
+                    ++loaded;
+                    if (batchCount == LOAD_BATCH_RECORDS
+                            || batchBytes >= LOAD_BATCH_BYTES) {
+                        memManager.writeBatch(records, handles, batchCount);
+                        batchCount = 0;
+                        batchBytes = 0;
+                    }
+                }
+            }
+            finally {
+                // never leave records in the table whose bytes were not written
+                memManager.writeBatch(records, handles, batchCount);
+                in.close();
+            }
+            System.out.println("Loaded " + loaded + " records from |"
+                    + fileName + "|.");
+        }
+        catch (Exception e) {
+            System.out.println(e.getMessage());
+        }
     }
 
     /**
@@ -115,22 +452,92 @@ public class World {
         Scanner sc = new Scanner(recordId);
         long key = sc.nextLong();
         sc.close();
+        deleteRecord(key);
+    }
+
+    /**
+     * Delete a record from the database if it exists.
+     *
+     * @param key The key of the record to be deleted.
+     */
+    public void deleteRecord(long key) {
+        metrics.begin(OperationMetrics.DELETE);
+        try {
+            // delete the object from the database and get a reference
+            long start = System.nanoTime();
+            Object deleted = hashTable.delete(key);
+            metrics.endPhase(OperationMetrics.HASH, start);
 
-        // delete the object from the database and get a reference to it
-        Object deleted = hashTable.delete(key);
+            if (deleted == null) {
+                System.out.println(key + " not deleted because it does not"
+                        + " exist in the database.");
+            }
+            else {
+                if (log != null) {
+                    log.append(WriteAheadLog.DELETE, key, null);
+                }
+                // need to deserialize the record from the memory manager
+                MemoryHandle handle = (MemoryHandle) deleted;
+                System.out.println(String.format(
+                        "Record %s has been deleted from the database.",
+                        deserializeMemoryHandle(handle)));
+                // free the memory block in the memory pool
+                start = System.nanoTime();
+                memManager.freeBlock(handle);
+                metrics.endPhase(OperationMetrics.ALLOC, start);
+                if (defragThreshold >= 0
+                        && memManager.needsCompaction(-1, defragThreshold)) {
+                    defrag();
+                }
+            }
+        }
+        finally {
+            metrics.end();
+        }
+    }
 
-        if (deleted == null) {
-            System.out.println(key + " not deleted because it does not"
-                    + " exist in the database.");
+    /**
+     * Compact the memory pool: move the records into a dense prefix of the
+     * pool, update their handles in the hash table and shrink the pool and
+     * the disk file as far as the records allow. The records are first
+     * copied past the end of the pool and only then to their final places;
+     * a logged store is checkpointed after each of the two steps, so a
+     * crash in between leaves a checkpoint that matches the disk file. If
+     * the buffers can't be flushed before a checkpoint, the compaction
+     * stops there and the log is kept.
+     */
+    public void defrag() {
+        if (!memManager.canCompact()) {
+            System.out.println("Only the buddy allocator can be compacted.");
+            return;
         }
-        else {
-            // need to deserialize the record from the memory manager
-            MemoryHandle handle = (MemoryHandle) deleted;
-            System.out.println(String.format(
-                    "Record %s has been deleted from the database.",
-                    deserializeMemoryHandle(handle)));
-            // free the memory block in the memory pool
-            memManager.freeBlock(handle);
+        long[] keys = hashTable.getKeys();
+        MemoryHandle[] handles = new MemoryHandle[keys.length];
+        for (int i = 0; i < keys.length; ++i) {
+            handles[i] = (MemoryHandle) hashTable.get(keys[i]);
+        }
+        try {
+            handles = memManager.stageCompaction(handles);
+            for (int i = 0; i < keys.length; ++i) {
+                hashTable.replace(keys[i], handles[i]);
+            }
+            if (log != null) {
+                bufferPool.flush();
+                writeCheckpoint();
+            }
+            handles = memManager.finishCompaction(handles);
+            for (int i = 0; i < keys.length; ++i) {
+                hashTable.replace(keys[i], handles[i]);
+            }
+            if (log != null) {
+                bufferPool.flush();
+                writeCheckpoint();
+            }
+            System.out.println("Memory pool compacted to be "
+                    + memManager.getPoolSize() + " bytes.");
+        }
+        catch (Exception e) {
+            System.out.println(e.getMessage());
         }
     }
 
@@ -144,27 +551,100 @@ public class World {
         Scanner sc = new Scanner(recordId);
         long key = sc.nextLong();
         sc.close();
+        printRecord(key);
+    }
 
-        Object found = hashTable.get(key);
-        if (found == null) {
-            System.out.println(key + " not printed because "
-                    + "it does not exist in the database.");
+    /**
+     * Print the three fields id, type, and name associated with a record.
+     * 
+     * @param key The key of the record to be printed.
+     */
+    public void printRecord(long key) {
+        metrics.begin(OperationMetrics.PRINT);
+        try {
+            long start = System.nanoTime();
+            Object found = hashTable.get(key);
+            metrics.endPhase(OperationMetrics.HASH, start);
+            if (found == null) {
+                System.out.println(key + " not printed because "
+                        + "it does not exist in the database.");
+            }
+            else {
+                DNARecord foundRecord =
+                        deserializeMemoryHandle((MemoryHandle) found);
+                System.out.println("Record found: " + foundRecord);
+            }
         }
-        else {
-            DNARecord foundRecord =
-                    deserializeMemoryHandle((MemoryHandle) found);
-            System.out.println("Record found: " + foundRecord);
+        finally {
+            metrics.end();
         }
     }
 
     /** Print the hashtable of the current world. */
     public void printHashtable() {
-        System.out.println(hashTable);
+        try {
+            hashTable.appendTo(System.out);
+            System.out.println();
+        }
+        catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Print the probe length statistics and the number of tombstones of the
+     * hashtable of the current world.
+     */
+    public void printProbes() {
+        System.out.println(hashTable.getProbeStats() + "\nTombstones: "
+                + hashTable.getCountDeleted());
     }
 
     /** Print the free blocks in the hashtable of the current world. */
     public void printBlocks() {
-        System.out.println(memManager);
+        try {
+            memManager.appendTo(System.out);
+            System.out.println();
+        }
+        catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Print the statistics of the memory manager: fragmentation, the
+     * largest free block, splits, merges, pool doublings and allocation
+     * latencies.
+     */
+    public void printStats() {
+        System.out.println(memManager.getStats());
+    }
+
+    /**
+     * Print the latencies of the add, delete and print operations so far,
+     * each as a whole and by phase: hash table, allocation, buffer I/O and
+     * the rest, with the number of operations per second of the session.
+     */
+    public void printMetrics() {
+        System.out.println(metrics);
+    }
+
+    /**
+     * Get the latencies of the record operations.
+     * 
+     * @return The metrics, which later operations change.
+     */
+    OperationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get a snapshot of the statistics of the memory manager.
+     * 
+     * @return The statistics so far.
+     */
+    public AllocatorStats getAllocatorStats() {
+        return memManager.getStats();
     }
 
     /**
@@ -173,12 +653,220 @@ public class World {
      * dirty.
      */
     public void printBuffers() {
-        System.out.println(bufferPool);
+        try {
+            bufferPool.appendTo(System.out);
+            System.out.println();
+        }
+        catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Get the buffer pool of this world, e.g. to read its statistics.
+     * 
+     * @return The buffer pool used by the memory manager.
+     */
+    BufferPool getBufferPool() {
+        return bufferPool;
     }
 
-    /** Delete the file that is used for disk I/O. */
+    /**
+     * Get the total size of the records added so far, deleted ones included.
+     * 
+     * @return Number of bytes handed to the memory manager.
+     */
+    long getBytesStored() {
+        return bytesStored;
+    }
+
+    /**
+     * Get the length of the data file once the dirty buffers are written.
+     * 
+     * @return Number of bytes of the file.
+     */
+    long getDataFileLength() {
+        bufferPool.flush();
+        return ioFile.length();
+    }
+
+    /**
+     * Delete the file that is used for disk I/O. The buffer pool is closed
+     * first, which also stops its write-behind flusher.
+     */
     public void deleteIOfileFromDisk() {
+        try {
+            bufferPool.close();
+        }
+        catch (UncheckedIOException e) {
+            System.out.println(e.getMessage());
+        }
         ioFile.delete();
+        if (log != null) {
+            try {
+                log.close();
+            }
+            catch (Exception e) {
+                System.out.println(e.getMessage());
+            }
+            logFile.delete();
+        }
+    }
+
+    /**
+     * End the session. A persistent store keeps its disk file and gets a
+     * checkpoint of its index, which empties its write-ahead log; any other
+     * world deletes its disk file. If a dirty block can't be written, no
+     * checkpoint is taken and the log keeps the operations. The latencies
+     * of the record operations are written to the metrics file first, if
+     * one was given.
+     */
+    public void close() {
+        if (metricsFile != null) {
+            try {
+                metrics.writeCsv(new File(metricsFile));
+            }
+            catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+        if (checkpointFile == null) {
+            deleteIOfileFromDisk();
+            return;
+        }
+        try {
+            bufferPool.close();
+            writeCheckpoint();
+        }
+        catch (Exception e) {
+            System.out.println(e.getMessage());
+        }
+        if (log != null) {
+            try {
+                log.close();
+            }
+            catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Write a checkpoint of the persistent store and empty its write-ahead
+     * log, if any. The buffer pool must be flushed or closed first.
+     * 
+     * @throws IOException If the checkpoint or the log can't be written.
+     */
+    private void writeCheckpoint() throws IOException {
+        long[] keys = hashTable.getKeys();
+        MemoryHandle[] handles = new MemoryHandle[keys.length];
+        for (int i = 0; i < keys.length; ++i) {
+            handles[i] = (MemoryHandle) hashTable.get(keys[i]);
+        }
+        new StoreCheckpoint(generation + 1, memManager.getPoolSize(),
+                memManager.getFreePositions(), packed, hashTable.getSize(),
+                keys, handles).write(checkpointFile, blockSize,
+                        ioFile.length());
+        ++generation;
+        if (log != null) {
+            // a crash before this leaves a log the new checkpoint ignores
+            log.reset(generation);
+        }
+    }
+
+    /**
+     * Read the checkpoint of the persistent store. Unless the session logs
+     * its operations, the checkpoint is deleted once read: the session is
+     * about to change the disk file, and a session that ends without close
+     * must not leave a stale checkpoint behind. A logging session keeps it
+     * as the base its log is replayed on.
+     * 
+     * @param  logging True if the session logs its operations.
+     * 
+     * @return         The checkpoint, null if there is none or it can't be
+     *                 used.
+     */
+    private StoreCheckpoint readCheckpoint(boolean logging) {
+        if (!checkpointFile.exists()) {
+            return null;
+        }
+        try {
+            StoreCheckpoint checkpoint = StoreCheckpoint.read(checkpointFile,
+                    blockSize);
+            // only logged operations may have grown the disk file since
+            long length = ioFile.length();
+            if (logFile.exists() ? length < checkpoint.getDataLength()
+                    : length != checkpoint.getDataLength()) {
+                throw new IOException(
+                        "data file changed since the checkpoint");
+            }
+            return checkpoint;
+        }
+        catch (Exception e) {
+            System.out.println("Starting a new store, " + e.getMessage());
+            return null;
+        }
+        finally {
+            if (!logging) {
+                checkpointFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Replay the write-ahead log of the persistent store, if any, and keep
+     * it open for the operations of the session if they are logged.
+     * 
+     * @param  batch       Number of operations per sync, 0 if the session
+     *                     doesn't log its operations.
+     * 
+     * @throws IOException If the log can't be read or written.
+     */
+    private void openLog(int batch) throws IOException {
+        if (batch == 0 && !logFile.exists()) {
+            return;
+        }
+        log = new WriteAheadLog(logFile, Math.max(batch, 1));
+        WriteAheadLog.Entry[] entries = log.recover(generation);
+        if (entries.length > 0) {
+            replay(entries);
+            System.out.println("Recovered " + entries.length
+                    + " operations from the log.");
+        }
+        if (batch == 0) {
+            log.close();
+            logFile.delete();
+            log = null;
+        }
+        else {
+            bufferPool.setLog(log);
+        }
+    }
+
+    /**
+     * Redo logged operations. Allocation is deterministic, so each record
+     * lands where it was first stored; the messages of the memory manager
+     * and the hash table are not repeated.
+     * 
+     * @param entries The operations, in the order they were logged.
+     */
+    private void replay(WriteAheadLog.Entry[] entries) {
+        memManager.setQuiet(true);
+        try {
+            for (WriteAheadLog.Entry entry : entries) {
+                if (entry.getOp() == WriteAheadLog.ADD) {
+                    storeRecord(entry.getKey(), entry.getData(), true);
+                    continue;
+                }
+                Object deleted = hashTable.delete(entry.getKey());
+                if (deleted != null) {
+                    memManager.freeBlock((MemoryHandle) deleted);
+                }
+            }
+        }
+        finally {
+            memManager.setQuiet(false);
+        }
     }
 
 
@@ -190,7 +878,9 @@ public class World {
      */
     private byte[] serializeDNARecord(long key, int type, String dnaCode) {
 
-        int arraySize = Long.BYTES + Integer.BYTES + dnaCode.length();
+        int arraySize = Long.BYTES + Integer.BYTES + (packed
+                ? DNACodec.getPackedSize(dnaCode)
+                : dnaCode.length());
 
         ByteBuffer buffer = ByteBuffer.wrap(new byte[arraySize]);
 
@@ -201,19 +891,40 @@ public class World {
         buffer.putInt(type);
 
         // serialize DNA code
-        buffer.put(dnaCode.getBytes());
+        if (packed) {
+            DNACodec.pack(dnaCode, buffer);
+        }
+        else {
+            buffer.put(dnaCode.getBytes());
+        }
 
         return buffer.array();
     }
 
     /**
-     * Deserialize the DNA record that is in the form of byte array.
+     * Serialize a DNA record whose DNA code is the current token of a
+     * tokenizer, one byte per symbol, without making a String of it.
      * 
-     * @return DNARecord object.
+     * @return Byte array of the serialized data.
      */
-    private DNARecord deserializeBytes(byte[] recordBytes) {
-        ByteBuffer buffer = ByteBuffer.wrap(recordBytes);
+    private byte[] serializeDNARecord(long key, int type,
+            ByteTokenizer dnaCode) {
+        int offset = Long.BYTES + Integer.BYTES;
+        byte[] recordData = new byte[offset + dnaCode.getLength()];
+        ByteBuffer buffer = ByteBuffer.wrap(recordData);
+        buffer.putLong(key);
+        buffer.putInt(type);
+        dnaCode.copyTo(recordData, offset);
+        return recordData;
+    }
 
+    /**
+     * Deserialize the DNA record that is in the form of a byte buffer. The
+     * DNA code is decoded straight from the buffer's backing array.
+     * 
+     * @return DNARecord object.
+     */
+    private DNARecord deserializeBytes(ByteBuffer buffer) {
         // deserialize the key
         long key = buffer.getLong(0);
 
@@ -222,29 +933,28 @@ public class World {
 
         // deserialize the String
         int offset = Long.BYTES + Integer.BYTES;
-        int stringLength = buffer.capacity() - offset;
-        //
-        byte[] stringBytes = new byte[stringLength];
-        for (int i = 0; i < stringLength; ++i) {
-            stringBytes[i] = buffer.get(offset + i);
+        if (packed) {
+            return new DNARecord(key, type, DNACodec.unpack(buffer, offset));
         }
+        int stringLength = buffer.limit() - offset;
 
         // create a DNARecord and return it
-        return new DNARecord(key, type, new String(stringBytes));
+        return new DNARecord(key, type, new String(buffer.array(),
+                buffer.arrayOffset() + offset, stringLength));
 
     }
 
     /**
-     * Retain a DNARecord object using a MemoryHandle.
+     * Retain a DNARecord object using a MemoryHandle. Records within one
+     * block are decoded in place from the buffer pool.
      * 
      * @return DNARecord object read from the memory pool.
      */
     private DNARecord deserializeMemoryHandle(MemoryHandle handle) {
-        // allocate a byte array to read in bytes from the memory manager
-        byte[] recordBytes = new byte[handle.getDataSize()];
-        // read in the bytes
-        memManager.getBytes(recordBytes, handle);
-        return deserializeBytes(recordBytes);
+        long start = System.nanoTime();
+        ByteBuffer slice = memManager.getSlice(handle);
+        metrics.endPhase(OperationMetrics.IO, start);
+        return deserializeBytes(slice);
     }
 
     /**
@@ -1,7 +1,9 @@
 import student.TestCase;
 
 import java.io.File;
+import java.io.FileWriter;
 import java.io.RandomAccessFile;
+import java.util.Scanner;
 
 /**
  * Test the World class.
@@ -135,4 +137,120 @@ public class WorldTest extends TestCase {
         // finally delete the I/O file from the disk
         world.deleteIOfileFromDisk();
     }
+
+    /**
+     * Test timing the record operations and writing the metrics at close.
+     * 
+     * @throws Exception If the metrics file can't be read.
+     */
+    public void testMetrics() throws Exception {
+        world.deleteIOfileFromDisk();
+        File csv = new File(".metrics.csv");
+        DNADataOptions options = new DNADataOptions();
+        options.setMetricsFile(csv.getName());
+        world = new World(5, 32, 10, options);
+        world.addRecord("1 1 ATG");
+        world.addRecord("1 2 ATG");
+        world.printRecord("1");
+        world.deleteRecord("1");
+        world.deleteRecord("1");
+        OperationMetrics metrics = world.getMetrics();
+        assertEquals(metrics.getLatency(OperationMetrics.ADD,
+                OperationMetrics.TOTAL).getCount(), 2);
+        assertEquals(metrics.getLatency(OperationMetrics.ADD,
+                OperationMetrics.IO).getCount(), 2);
+        assertEquals(metrics.getLatency(OperationMetrics.DELETE,
+                OperationMetrics.TOTAL).getCount(), 2);
+        assertEquals(metrics.getLatency(OperationMetrics.PRINT,
+                OperationMetrics.TOTAL).getCount(), 1);
+        world.printMetrics();
+        assertTrue(systemOut().getHistory().contains(
+                "print: 1 operations, "));
+
+        world.close();
+        Scanner lines = new Scanner(csv);
+        assertTrue(lines.nextLine().startsWith("operation,phase,count,"));
+        assertTrue(lines.nextLine().startsWith("add,total,2,"));
+        lines.close();
+        csv.delete();
+    }
+
+    /** Test that bulkLoad stores the records of a file like addRecord. */
+    public void testBulkLoad() throws Exception {
+        world.deleteIOfileFromDisk();
+        File records = new File(".bulkLoad.txt");
+        FileWriter writer = new FileWriter(records);
+        writer.write("1 1 ACGTACGTACGTACGTACGT\nadd 2 2 TT\n\n3 3 GATTACA\n"
+                + "2 9 CCCC\n4 4 A\n");
+        writer.close();
+
+        DNADataOptions options = new DNADataOptions();
+        options.setStore(".bulkLoad");
+        world = new World(2, 16, 4, options);
+        world.bulkLoad(records.getPath());
+        assertEquals(world.getBytesStored(), 4 * 12 + 20 + 2 + 7 + 1);
+        world.close();
+        records.delete();
+
+        StoreCheckpoint read = StoreCheckpoint.read(new File(".bulkLoad.idx"),
+                16);
+        // sized for the five lines up front
+        assertEquals(read.getTableSize(), 16);
+        assertEquals(read.getKeys().length, 4);
+        RandomAccessFile raFile = new RandomAccessFile(".bulkLoad.raw", "r");
+        String[] codes = new String[5];
+        for (int i = 0; i < read.getKeys().length; ++i) {
+            MemoryHandle handle = read.getHandles()[i];
+            byte[] record = new byte[handle.getDataSize()];
+            raFile.seek(handle.getPos());
+            raFile.readFully(record);
+            codes[(int) read.getKeys()[i]] = new String(record, 12,
+                    record.length - 12);
+        }
+        raFile.close();
+        new File(".bulkLoad.raw").delete();
+        new File(".bulkLoad.idx").delete();
+        assertEquals(codes[1], "ACGTACGTACGTACGTACGT");
+        assertEquals(codes[2], "TT");
+        assertEquals(codes[3], "GATTACA");
+        assertEquals(codes[4], "A");
+    }
+
+    /** Test that bulkLoad skips bad and short lines but keeps the rest. */
+    public void testBulkLoadBadLines() throws Exception {
+        world.deleteIOfileFromDisk();
+        File records = new File(".bulkLoad.txt");
+        FileWriter writer = new FileWriter(records);
+        writer.write("1 1 ACGT\nadd 3 x GGGG\n5 5\n6\n7 7 TTT\nadd\n"
+                + "8 8 CC\n");
+        writer.close();
+
+        DNADataOptions options = new DNADataOptions();
+        options.setStore(".bulkLoad");
+        world = new World(2, 16, 4, options);
+        systemOut().clearHistory();
+        world.bulkLoad(records.getPath());
+        records.delete();
+        String skipped = "Skipped a line of |.bulkLoad.txt| without an id,"
+                + " type and DNA code.\n";
+        // the table is sized for the seven lines up front
+        assertEquals(systemOut().getHistory(), "Hash table size doubled to 8"
+                + " slots.\nHash table size doubled to 16 slots.\n"
+                + skipped + skipped + skipped
+                + "Memory pool expanded to be 32 bytes.\n" + skipped
+                + "Memory pool expanded to be 64 bytes.\n"
+                + "Loaded 3 records from |.bulkLoad.txt|.\n");
+        assertEquals(world.getBytesStored(), 3 * 12 + 4 + 3 + 2);
+        // every record indexed was also written
+        systemOut().clearHistory();
+        world.printRecord(3);
+        world.printRecord(7);
+        world.printRecord(8);
+        assertEquals(systemOut().getHistory(), "3 not printed because it"
+                + " does not exist in the database.\n"
+                + "Record found: 7, 7, |TTT|\nRecord found: 8, 8, |CC|\n");
+        world.close();
+        new File(".bulkLoad.raw").delete();
+        new File(".bulkLoad.idx").delete();
+    }
 }
@@ -0,0 +1,295 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of the adds and deletes of a persistent DNAData store,
+ * relative to the store's last checkpoint. Operations are appended before
+ * they are applied and go to the disk in groups: the log is synced once
+ * every batchSize operations, and always before the buffer pool writes a
+ * dirty block, so a block on the disk never holds data the log can't redo.
+ * With a batch size of 1 every operation is on the disk before it is
+ * acknowledged; larger batches trade the last few acknowledged operations
+ * for fewer syncs. The log is laid out as:
+ *
+ * <pre>
+ * int  MAGIC
+ * int  VERSION
+ * long generation of the checkpoint the log applies to
+ * entries, each:
+ *      byte op, long key, int length, length bytes of record data,
+ *      int CRC32 of the entry's previous fields
+ * </pre>
+ *
+ * A torn or damaged entry ends the log; it and anything after it are
+ * dropped by recover.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class WriteAheadLog {
+    /** Op of an added record, logged with its serialized data. */
+    public static final byte ADD = 'A';
+
+    /** Op of a deleted record, logged without data. */
+    public static final byte DELETE = 'D';
+
+    /** The first four bytes of a log, "DNAW". */
+    private static final int MAGIC = 0x444E4157;
+
+    /** Version of the layout. */
+    private static final int VERSION = 1;
+
+    /** Number of bytes of the header. */
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES;
+
+    /** Number of bytes of an entry besides its record data. */
+    private static final int ENTRY_BYTES = 1 + Long.BYTES
+            + 2 * Integer.BYTES;
+
+    /** The log file. */
+    private RandomAccessFile file;
+
+    /** Number of operations appended per sync. */
+    private int batchSize;
+
+    /** Entries appended but not written yet. */
+    private ByteBuffer pending;
+
+    /** Number of operations in pending. */
+    private int numPending;
+
+    /** Number of operations appended. */
+    private int numAppended;
+
+    /** Number of times the log was synced. */
+    private int numSyncs;
+
+    /**
+     * Open a log, creating the file if needed. recover must be called
+     * before anything is appended.
+     *
+     * @param  file        The log file.
+     * @param  batchSize   Number of operations appended per sync.
+     *
+     * @throws IOException If the file can't be opened.
+     */
+    WriteAheadLog(File file, int batchSize) throws IOException {
+        this.file = new RandomAccessFile(file, "rw");
+        this.batchSize = batchSize;
+        pending = ByteBuffer.allocate(1024);
+        numPending = 0;
+        numAppended = 0;
+        numSyncs = 0;
+    }
+
+    /**
+     * Read the operations logged for a checkpoint and position the log for
+     * appending after them. A log of another generation is emptied.
+     *
+     * @param  generation  Generation of the checkpoint the store was opened
+     *                     from, 0 for a new store.
+     *
+     * @return             The intact operations, in the order they were
+     *                     appended.
+     *
+     * @throws IOException If the file can't be read or written.
+     */
+    public synchronized Entry[] recover(long generation) throws IOException {
+        ArrayList<Entry> entries = new ArrayList<Entry>();
+        byte[] bytes = new byte[(int) file.length()];
+        file.seek(0);
+        file.readFully(bytes);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        if (bytes.length < HEADER_BYTES || buffer.getInt() != MAGIC
+                || buffer.getInt() != VERSION
+                || buffer.getLong() != generation) {
+            reset(generation);
+            return new Entry[0];
+        }
+
+        int end = HEADER_BYTES;
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= ENTRY_BYTES) {
+            byte op = buffer.get();
+            long key = buffer.getLong();
+            int length = buffer.getInt();
+            if (length < 0 || buffer.remaining() < length + Integer.BYTES) {
+                break;
+            }
+            byte[] data = new byte[length];
+            buffer.get(data);
+            crc.reset();
+            crc.update(bytes, end, ENTRY_BYTES - Integer.BYTES + length);
+            if ((int) crc.getValue() != buffer.getInt()) {
+                break;
+            }
+            entries.add(new Entry(op, key, data));
+            end = buffer.position();
+        }
+        // drop a torn tail so that appends follow the last intact entry
+        file.setLength(end);
+        file.seek(end);
+        return entries.toArray(new Entry[entries.size()]);
+    }
+
+    /**
+     * Append an operation, syncing the log if it completes a batch.
+     *
+     * @param op   ADD or DELETE.
+     * @param key  The key of the record.
+     * @param data The serialized record for ADD, null for DELETE.
+     */
+    public synchronized void append(byte op, long key, byte[] data) {
+        int length = data == null ? 0 : data.length;
+        if (pending.remaining() < ENTRY_BYTES + length) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(
+                    2 * pending.capacity(), pending.position() + ENTRY_BYTES
+                            + length));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+        int start = pending.position();
+        pending.put(op);
+        pending.putLong(key);
+        pending.putInt(length);
+        if (data != null) {
+            pending.put(data);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(pending.array(), start, pending.position() - start);
+        pending.putInt((int) crc.getValue());
+
+        ++numAppended;
+        if (++numPending >= batchSize) {
+            sync();
+        }
+    }
+
+    /** Write the pending operations and force them to the disk. */
+    public synchronized void sync() {
+        if (numPending == 0) {
+            return;
+        }
+        try {
+            file.write(pending.array(), 0, pending.position());
+            file.getFD().sync();
+            ++numSyncs;
+        }
+        catch (Exception e) {
+            System.out.println(e.getMessage());
+        }
+        pending.clear();
+        numPending = 0;
+    }
+
+    /**
+     * Empty the log once a new checkpoint holds everything it logged.
+     *
+     * @param  generation  Generation of the new checkpoint.
+     *
+     * @throws IOException If the file can't be written.
+     */
+    public synchronized void reset(long generation) throws IOException {
+        pending.clear();
+        numPending = 0;
+        file.setLength(0);
+        file.seek(0);
+        file.writeInt(MAGIC);
+        file.writeInt(VERSION);
+        file.writeLong(generation);
+        file.getFD().sync();
+    }
+
+    /**
+     * Sync any pending operations and close the file.
+     *
+     * @throws IOException If the file can't be closed.
+     */
+    public synchronized void close() throws IOException {
+        sync();
+        file.close();
+    }
+
+    /**
+     * Get the number of operations appended since the log was opened.
+     *
+     * @return Number of operations.
+     */
+    public int getNumAppended() {
+        return numAppended;
+    }
+
+    /**
+     * Get the number of syncs since the log was opened.
+     *
+     * @return Number of syncs.
+     */
+    public int getNumSyncs() {
+        return numSyncs;
+    }
+
+    /**
+     * A logged operation.
+     *
+     * @author  Bimal Gaudel
+     *
+     * @version Oct 18, 2026
+     */
+    public static class Entry {
+        /** ADD or DELETE. */
+        private byte op;
+
+        /** The key of the record. */
+        private long key;
+
+        /** The serialized record, empty for DELETE. */
+        private byte[] data;
+
+        /**
+         * Construct an entry.
+         *
+         * @param op   ADD or DELETE.
+         * @param key  The key of the record.
+         * @param data The serialized record, empty for DELETE.
+         */
+        Entry(byte op, long key, byte[] data) {
+            this.op = op;
+            this.key = key;
+            this.data = data;
+        }
+
+        /**
+         * Getter for the op.
+         *
+         * @return ADD or DELETE.
+         */
+        public byte getOp() {
+            return op;
+        }
+
+        /**
+         * Getter for the key.
+         *
+         * @return The key of the record.
+         */
+        public long getKey() {
+            return key;
+        }
+
+        /**
+         * Getter for the data.
+         *
+         * @return The serialized record, empty for DELETE.
+         */
+        public byte[] getData() {
+            return data;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+import student.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Test the WriteAheadLog class and recovering a World that was not closed.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class WriteAheadLogTest extends TestCase {
+    /** The log file. */
+    private File file;
+
+    /** Sets up the tests that follow. */
+    public void setUp() {
+        file = new File(".walTest.wal");
+        file.delete();
+    }
+
+    /** Cleans up after each test. */
+    public void tearDown() {
+        file.delete();
+        new File(".walTest.raw").delete();
+        new File(".walTest.idx").delete();
+    }
+
+    /** Test appending, group commit and reading the log back. */
+    public void testAppendRecover() throws Exception {
+        WriteAheadLog log = new WriteAheadLog(file, 2);
+        assertEquals(log.recover(5).length, 0);
+        log.append(WriteAheadLog.ADD, 1, "one".getBytes());
+        assertEquals(log.getNumSyncs(), 0);
+        log.append(WriteAheadLog.DELETE, 2, null);
+        assertEquals(log.getNumSyncs(), 1);
+        log.append(WriteAheadLog.ADD, 3, "three".getBytes());
+        log.close();
+        assertEquals(log.getNumAppended(), 3);
+        assertEquals(log.getNumSyncs(), 2);
+
+        log = new WriteAheadLog(file, 1);
+        WriteAheadLog.Entry[] entries = log.recover(5);
+        assertEquals(entries.length, 3);
+        assertEquals(entries[0].getOp(), WriteAheadLog.ADD);
+        assertEquals(new String(entries[0].getData()), "one");
+        assertEquals(entries[1].getOp(), WriteAheadLog.DELETE);
+        assertEquals(entries[1].getKey(), 2);
+        assertEquals(entries[1].getData().length, 0);
+        assertEquals(entries[2].getKey(), 3);
+        log.close();
+
+        // another generation is not replayed
+        log = new WriteAheadLog(file, 1);
+        assertEquals(log.recover(6).length, 0);
+        log.close();
+        assertEquals(file.length(), 16);
+    }
+
+    /** Test that a torn entry and what follows it are dropped. */
+    public void testTornTail() throws Exception {
+        WriteAheadLog log = new WriteAheadLog(file, 1);
+        log.recover(0);
+        log.append(WriteAheadLog.ADD, 1, "one".getBytes());
+        log.append(WriteAheadLog.ADD, 2, "two".getBytes());
+        log.close();
+        long intact = file.length() - 20;
+
+        // damage the last byte of the record data of the second entry
+        RandomAccessFile raFile = new RandomAccessFile(file, "rw");
+        raFile.seek(file.length() - 5);
+        raFile.write('X');
+        raFile.close();
+
+        log = new WriteAheadLog(file, 1);
+        assertEquals(log.recover(0).length, 1);
+        assertEquals(file.length(), intact);
+        log.append(WriteAheadLog.DELETE, 1, null);
+        log.close();
+
+        log = new WriteAheadLog(file, 1);
+        assertEquals(log.recover(0).length, 2);
+        log.close();
+    }
+
+    /** Test that a world abandoned without close is recovered from its log. */
+    public void testRecoverWorld() throws Exception {
+        DNADataOptions options = new DNADataOptions();
+        options.setStore(".walTest");
+        options.setLogBatch(1);
+
+        World world = new World(2, 16, 4, options);
+        world.addRecord("1 1 ACGTACGTACGT");
+        world.close();
+
+        // the dirty buffers of this session are never written
+        world = new World(2, 16, 4, options);
+        world.addRecord("2 2 TTTT");
+        world.addRecord("3 3 GATTACA");
+        world.deleteRecord("1");
+        world.addRecord("4 4 CC");
+
+        // the pool and the table grow again, without messages
+        systemOut().clearHistory();
+        world = new World(2, 16, 4, options);
+        assertEquals(systemOut().getHistory(),
+                "Recovered 4 operations from the log.\n");
+        world.close();
+        StoreCheckpoint read = StoreCheckpoint.read(
+                new File(".walTest.idx"), 16);
+        assertEquals(read.getGeneration(), 2);
+        assertEquals(read.getKeys().length, 3);
+        assertEquals(file.length(), 16);
+
+        String[] codes = readCodes(read);
+        assertNull(codes[1]);
+        assertEquals(codes[2], "TTTT");
+        assertEquals(codes[3], "GATTACA");
+        assertEquals(codes[4], "CC");
+    }
+
+    /**
+     * Test that a world that compacted its memory pool is recovered from
+     * the checkpoints of the compaction and its log.
+     */
+    public void testRecoverAfterDefrag() throws Exception {
+        DNADataOptions options = new DNADataOptions();
+        options.setStore(".walTest");
+        options.setLogBatch(1);
+
+        World world = new World(2, 16, 4, options);
+        world.addRecord("1 1 ACGTACGTACGTACGTACGT");
+        world.addRecord("2 2 TTTT");
+        world.addRecord("3 3 GATTACA");
+        world.deleteRecord("1");
+        world.defrag();
+        assertEquals(world.getAllocatorStats().getPoolSize(), 64);
+        // logged after the compaction, which emptied the log
+        world.addRecord("4 4 CC");
+
+        world = new World(2, 16, 4, options);
+        world.close();
+        StoreCheckpoint read = StoreCheckpoint.read(
+                new File(".walTest.idx"), 16);
+        assertEquals(read.getGeneration(), 3);
+        String[] codes = readCodes(read);
+        assertNull(codes[1]);
+        assertEquals(codes[2], "TTTT");
+        assertEquals(codes[3], "GATTACA");
+        assertEquals(codes[4], "CC");
+    }
+
+    /**
+     * Read the DNA codes of the records of a store from its data file.
+     *
+     * @param  checkpoint  The checkpoint of the store, keys 1 to 4.
+     *
+     * @return             The codes by key, null for missing records.
+     *
+     * @throws IOException If the data file can't be read.
+     */
+    private String[] readCodes(StoreCheckpoint checkpoint)
+            throws IOException {
+        RandomAccessFile raFile = new RandomAccessFile(".walTest.raw", "r");
+        String[] codes = new String[5];
+        for (int i = 0; i < checkpoint.getKeys().length; ++i) {
+            MemoryHandle handle = checkpoint.getHandles()[i];
+            byte[] record = new byte[handle.getDataSize()];
+            raFile.seek(handle.getPos());
+            raFile.readFully(record);
+            codes[(int) checkpoint.getKeys()[i]] = new String(record, 12,
+                    record.length - 12);
+        }
+        raFile.close();
+        return codes;
+    }
+}
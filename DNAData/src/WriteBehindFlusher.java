@@ -0,0 +1,131 @@
+import java.io.UncheckedIOException;
+
+/**
+ * A background thread that writes dirty buffers of a BufferPool to the disk
+ * before they are picked as victims. It sleeps until the share of dirty
+ * buffers reaches a high-water mark, or until a period passes, and then
+ * cleans every dirty buffer with coalesced writes. A request that misses the
+ * cache then nearly always finds a clean victim and does not pay for a disk
+ * write.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class WriteBehindFlusher implements Runnable {
+    /** Milliseconds between flushes when the high-water mark isn't hit. */
+    public static final long DEFAULT_PERIOD = 100;
+
+    /** The pool whose buffers are flushed. */
+    private BufferPool pool;
+
+    /** Number of dirty buffers at which the flusher is woken up. */
+    private int highWater;
+
+    /** Milliseconds between periodic flushes. */
+    private long period;
+
+    /** Whether the pool asked for a flush since the last one. */
+    private boolean requested;
+
+    /** Whether the flusher has been asked to stop. */
+    private boolean stopping;
+
+    /** The thread running the flusher. */
+    private Thread thread;
+
+    /**
+     * Construct a WriteBehindFlusher.
+     * 
+     * @param pool      The pool whose buffers are flushed.
+     * @param highWater Number of dirty buffers at which a flush starts.
+     * @param period    Milliseconds between periodic flushes.
+     */
+    WriteBehindFlusher(BufferPool pool, int highWater, long period) {
+        this.pool = pool;
+        this.highWater = Math.max(1, highWater);
+        this.period = period;
+        requested = false;
+        stopping = false;
+        thread = new Thread(this, "write-behind");
+        // never keep the program alive just to flush a file
+        thread.setDaemon(true);
+    }
+
+    /** Start the background thread. */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Get the number of dirty buffers at which a flush starts.
+     * 
+     * @return The high-water mark.
+     */
+    public int getHighWater() {
+        return highWater;
+    }
+
+    /**
+     * Tell the flusher the number of dirty buffers changed. It is woken up if
+     * the high-water mark is reached.
+     * 
+     * @param numDirty The number of dirty buffers in the pool.
+     */
+    public synchronized void dirtyCountChanged(int numDirty) {
+        if (numDirty >= highWater && !requested) {
+            requested = true;
+            notifyAll();
+        }
+    }
+
+    /** Stop the background thread and wait for it to finish. */
+    public void shutdown() {
+        synchronized (this) {
+            stopping = true;
+            notifyAll();
+        }
+        try {
+            thread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** The loop of the background thread. */
+    @Override
+    public void run() {
+        while (awaitWork()) {
+            try {
+                pool.flushDirtyBuffers();
+            }
+            catch (UncheckedIOException e) {
+                // the blocks stay dirty, so flush or close report the error
+            }
+        }
+    }
+
+    /**
+     * Sleep until a flush is requested or the period passes.
+     * 
+     * @return False if the flusher is stopping.
+     */
+    private synchronized boolean awaitWork() {
+        long deadline = System.currentTimeMillis() + period;
+        while (!requested && !stopping) {
+            long wait = deadline - System.currentTimeMillis();
+            if (wait <= 0) {
+                break;
+            }
+            try {
+                wait(wait);
+            }
+            catch (InterruptedException e) {
+                return false;
+            }
+        }
+        requested = false;
+        return !stopping;
+    }
+}
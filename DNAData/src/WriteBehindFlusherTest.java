@@ -0,0 +1,51 @@
+import student.TestCase;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+/**
+ * Test the WriteBehindFlusher class.
+ * 
+ * @author  Bimal Gaudel
+ * 
+ * @version Oct 18, 2026
+ */
+public class WriteBehindFlusherTest extends TestCase {
+    /** Test that dirty buffers get cleaned in the background. */
+    public void testBackgroundFlush() throws Exception {
+        File ioFile = new File(".writeBehindTest.raw");
+        ioFile.delete();
+        BufferPool pool = new BufferPool(4, 16,
+                new RandomAccessFile(ioFile, "rw"));
+        pool.enableWriteBehind(50);
+
+        // two dirty buffers reach the high-water mark
+        pool.insertBytes(new byte[32], new MemoryHandle(0, 32, 32));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pool.toString().contains("dirty")
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(pool.toString().contains("dirty"));
+        assertEquals(pool.getDiskWrites(), 2);
+
+        // the last miss evicts clean block 0, so every block is written
+        // exactly once no matter when the flusher runs
+        pool.insertBytes(new byte[16], new MemoryHandle(32, 16, 16));
+        pool.insertBytes(new byte[16], new MemoryHandle(48, 16, 16));
+        pool.insertBytes(new byte[16], new MemoryHandle(64, 16, 16));
+
+        pool.close();
+        assertEquals(pool.getDiskWrites(), 5);
+        assertEquals(ioFile.length(), 80);
+        ioFile.delete();
+    }
+
+    /** Test the getter and shutting down an idle flusher. */
+    public void testShutdown() {
+        WriteBehindFlusher flusher = new WriteBehindFlusher(null, 0, 10);
+        assertEquals(flusher.getHighWater(), 1);
+        flusher.shutdown();
+    }
+}
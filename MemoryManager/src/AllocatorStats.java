@@ -0,0 +1,311 @@
+/**
+ * Statistics of a buddy memory manager, to size its pool. The manager
+ * records its allocations, frees, splits, merges and pool doublings as they
+ * happen; a snapshot of them, taken by MemoryManager.getStats together with
+ * the state of the free blocks at that time, is not changed by later use of
+ * the manager.
+ *
+ * <p>Internal fragmentation is the share of the bytes of the used blocks
+ * that holds no data, since a block is the next power of two up from its
+ * data. External fragmentation is the share of the free bytes outside the
+ * largest free block, i.e. how far free space is from being usable by one
+ * large allocation.
+ *
+ * @author Bimal Gaudel
+ * @version 2026-10-18
+ */
+public class AllocatorStats {
+  /** Number of blocks allocated. */
+  private long allocations;
+
+  /** Number of blocks freed. */
+  private long frees;
+
+  /** Number of times a block was split in halves. */
+  private long splits;
+
+  /** Number of times two free buddies were merged. */
+  private long merges;
+
+  /** Number of times the pool was doubled. */
+  private long doublings;
+
+  /** Number of blocks in use. */
+  private long usedBlocks;
+
+  /** Total size of the blocks in use. */
+  private long usedBytes;
+
+  /** Total size of the data in the blocks in use. */
+  private long dataBytes;
+
+  /** Size of the pool, when the snapshot was taken. */
+  private long poolSize;
+
+  /** Number of free blocks, when the snapshot was taken. */
+  private long freeBlocks;
+
+  /** Total size of the free blocks, when the snapshot was taken. */
+  private long freeBytes;
+
+  /** Size of the largest free block, when the snapshot was taken. */
+  private long largestFree;
+
+  /** Latencies of the allocations. */
+  private LatencyHistogram latency;
+
+  /** Construct statistics with nothing recorded. */
+  AllocatorStats() {
+    latency = new LatencyHistogram();
+  }
+
+  /**
+   * Record an allocation.
+   *
+   * @param blockSize Size of the block.
+   * @param dataSize  Number of bytes of data the block was allocated for.
+   * @param nanos     Time the allocation took.
+   */
+  void recordAllocation(int blockSize, int dataSize, long nanos) {
+    ++allocations;
+    latency.record(nanos);
+    recordUsed(blockSize, dataSize);
+  }
+
+  /**
+   * Record that a block is in use.
+   *
+   * @param blockSize Size of the block.
+   * @param dataSize  Number of bytes of data in the block.
+   */
+  void recordUsed(int blockSize, int dataSize) {
+    ++usedBlocks;
+    usedBytes += blockSize;
+    dataBytes += dataSize;
+  }
+
+  /**
+   * Record that a block was freed.
+   *
+   * @param blockSize Size of the block.
+   * @param dataSize  Number of bytes of data the block held.
+   */
+  void recordFree(int blockSize, int dataSize) {
+    ++frees;
+    --usedBlocks;
+    usedBytes -= blockSize;
+    dataBytes -= dataSize;
+  }
+
+  /** Record that a block was split in halves. */
+  void recordSplit() {
+    ++splits;
+  }
+
+  /** Record that two free buddies were merged. */
+  void recordMerge() {
+    ++merges;
+  }
+
+  /** Record that the pool was doubled. */
+  void recordDoubling() {
+    ++doublings;
+  }
+
+  /**
+   * Take a snapshot of the statistics.
+   *
+   * @param  pool     Size of the pool.
+   * @param  blocks   Number of free blocks.
+   * @param  bytes    Total size of the free blocks.
+   * @param  largest  Size of the largest free block.
+   * @return          A copy of the statistics recorded so far with the
+   *                  state of the free blocks.
+   */
+  AllocatorStats snapshot(long pool, long blocks, long bytes,
+      long largest) {
+    AllocatorStats result = new AllocatorStats();
+    result.allocations = allocations;
+    result.frees = frees;
+    result.splits = splits;
+    result.merges = merges;
+    result.doublings = doublings;
+    result.usedBlocks = usedBlocks;
+    result.usedBytes = usedBytes;
+    result.dataBytes = dataBytes;
+    result.poolSize = pool;
+    result.freeBlocks = blocks;
+    result.freeBytes = bytes;
+    result.largestFree = largest;
+    result.latency = latency.copy();
+    return result;
+  }
+
+  /**
+   * Get the number of blocks allocated.
+   *
+   * @return Number of allocations.
+   */
+  public long getAllocations() {
+    return allocations;
+  }
+
+  /**
+   * Get the number of blocks freed.
+   *
+   * @return Number of frees.
+   */
+  public long getFrees() {
+    return frees;
+  }
+
+  /**
+   * Get the number of times a block was split in halves.
+   *
+   * @return Number of splits.
+   */
+  public long getSplits() {
+    return splits;
+  }
+
+  /**
+   * Get the number of times two free buddies were merged.
+   *
+   * @return Number of merges.
+   */
+  public long getMerges() {
+    return merges;
+  }
+
+  /**
+   * Get the number of times the pool was doubled.
+   *
+   * @return Number of pool doublings.
+   */
+  public long getDoublings() {
+    return doublings;
+  }
+
+  /**
+   * Get the number of blocks in use.
+   *
+   * @return Number of used blocks.
+   */
+  public long getUsedBlocks() {
+    return usedBlocks;
+  }
+
+  /**
+   * Get the total size of the blocks in use.
+   *
+   * @return Number of bytes.
+   */
+  public long getUsedBytes() {
+    return usedBytes;
+  }
+
+  /**
+   * Get the total size of the data in the blocks in use.
+   *
+   * @return Number of bytes.
+   */
+  public long getDataBytes() {
+    return dataBytes;
+  }
+
+  /**
+   * Get the size of the pool.
+   *
+   * @return Number of bytes.
+   */
+  public long getPoolSize() {
+    return poolSize;
+  }
+
+  /**
+   * Get the number of free blocks.
+   *
+   * @return Number of blocks.
+   */
+  public long getFreeBlocks() {
+    return freeBlocks;
+  }
+
+  /**
+   * Get the total size of the free blocks.
+   *
+   * @return Number of bytes.
+   */
+  public long getFreeBytes() {
+    return freeBytes;
+  }
+
+  /**
+   * Get the size of the largest free block.
+   *
+   * @return Number of bytes, 0 if no block is free.
+   */
+  public long getLargestFree() {
+    return largestFree;
+  }
+
+  /**
+   * Get the internal fragmentation.
+   *
+   * @return Share of the bytes of the used blocks that holds no data, 0
+   *         if no block is used.
+   */
+  public double getInternalFragmentation() {
+    return usedBytes == 0 ? 0 : 1 - (double) dataBytes / usedBytes;
+  }
+
+  /**
+   * Get the external fragmentation.
+   *
+   * @return Share of the free bytes outside the largest free block, 0 if
+   *         no block is free.
+   */
+  public double getExternalFragmentation() {
+    return freeBytes == 0 ? 0 : 1 - (double) largestFree / freeBytes;
+  }
+
+  /**
+   * Get the latencies of the allocations.
+   *
+   * @return The histogram, in nanoseconds.
+   */
+  public LatencyHistogram getLatency() {
+    return latency;
+  }
+
+  /**
+   * Get a string representation of the statistics, one line per group.
+   *
+   * @return The statistics.
+   */
+  @Override
+  public String toString() {
+    return "Pool: " + poolSize + " bytes, " + freeBytes + " free in "
+        + freeBlocks + " blocks, largest " + largestFree
+        + "\nUsed: " + usedBlocks + " blocks, " + usedBytes
+        + " bytes holding " + dataBytes + " bytes of data"
+        + "\nInternal fragmentation: "
+        + percent(getInternalFragmentation())
+        + "\nExternal fragmentation: "
+        + percent(getExternalFragmentation())
+        + "\nAllocations: " + allocations + ", frees: " + frees
+        + "\nSplits: " + splits + ", merges: " + merges
+        + ", pool doublings: " + doublings
+        + "\nAllocation latency: " + latency;
+  }
+
+  /**
+   * Format a share as a percentage with two decimals.
+   *
+   * @param  share The share, from 0 to 1.
+   * @return       The percentage, e.g. 12.50%.
+   */
+  private static String percent(double share) {
+    return String.format("%.2f%%", 100 * share);
+  }
+}
@@ -0,0 +1,478 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits a stream of bytes into whitespace separated tokens without making
+ * a String or any other object per token. The current token stays in the
+ * tokenizer's buffer, where it is compared, parsed or copied; the buffer
+ * grows only if a single token is longer than it. Tokens can be read across
+ * lines, like Scanner.next, or within the current line, with the rest of
+ * the line skipped like Scanner.nextLine does.
+ *
+ * @author Bimal Gaudel
+ * @version 2026-10-18
+ */
+public class ByteTokenizer {
+  /** Default number of bytes read from the stream at once. */
+  public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+  /** The channel being tokenized. */
+  private ReadableByteChannel in;
+
+  /** Bytes read from the channel. */
+  private byte[] buffer;
+
+  /** A view of buffer for reading from the channel. */
+  private ByteBuffer view;
+
+  /** The bytes of the line being read by readLine. */
+  private byte[] lineBytes;
+
+  /** Number of valid bytes in buffer. */
+  private int limit;
+
+  /** Position of the next byte to be scanned. */
+  private int pos;
+
+  /** Start of the current token in buffer. */
+  private int tokenStart;
+
+  /** End of the current token in buffer, exclusive. */
+  private int tokenEnd;
+
+  /**
+   * Construct a tokenizer.
+   *
+   * @param in The stream to be tokenized.
+   */
+  ByteTokenizer(InputStream in) {
+    this(Channels.newChannel(in), DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Construct a tokenizer.
+   *
+   * @param in         The stream to be tokenized.
+   * @param bufferSize Number of bytes read from the stream at once.
+   */
+  ByteTokenizer(InputStream in, int bufferSize) {
+    this(Channels.newChannel(in), bufferSize);
+  }
+
+  /**
+   * Construct a tokenizer over a channel, e.g. the FileChannel of a
+   * command file.
+   *
+   * @param in The channel to be tokenized.
+   */
+  ByteTokenizer(ReadableByteChannel in) {
+    this(in, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Construct a tokenizer over a channel.
+   *
+   * @param in         The channel to be tokenized.
+   * @param bufferSize Number of bytes read from the channel at once.
+   */
+  ByteTokenizer(ReadableByteChannel in, int bufferSize) {
+    this.in = in;
+    buffer = new byte[Math.max(bufferSize, 1)];
+    view = ByteBuffer.wrap(buffer);
+    lineBytes = new byte[64];
+    limit = 0;
+    pos = 0;
+    tokenStart = 0;
+    tokenEnd = 0;
+  }
+
+  /**
+   * Advance to the next token.
+   *
+   * @return             True if there is one, false at the end of the
+   *                     stream.
+   * @throws IOException If the stream can't be read.
+   */
+  public boolean next() throws IOException {
+    // skip whitespace, keeping nothing of the buffer when refilling it
+    for (;;) {
+      if (pos == limit) {
+        tokenStart = pos;
+        if (!fill()) {
+          tokenEnd = tokenStart;
+          return false;
+        }
+      }
+      if (!isSpace(buffer[pos])) {
+        break;
+      }
+      ++pos;
+    }
+    tokenStart = pos;
+    for (;;) {
+      if (pos == limit && !fill()) {
+        break;
+      }
+      if (isSpace(buffer[pos])) {
+        break;
+      }
+      ++pos;
+    }
+    tokenEnd = pos;
+    return true;
+  }
+
+  /**
+   * Advance to the next token, which must exist.
+   *
+   * @throws IOException            If the stream can't be read.
+   * @throws NoSuchElementException At the end of the stream.
+   */
+  public void nextToken() throws IOException {
+    if (!next()) {
+      throw new NoSuchElementException();
+    }
+  }
+
+  /**
+   * Advance to the next token of the current line.
+   *
+   * @return             True if there is one, false if the line or the
+   *                     stream ends first, leaving the end of the line to
+   *                     skipLine.
+   * @throws IOException If the stream can't be read.
+   */
+  public boolean nextInLine() throws IOException {
+    for (;;) {
+      if (pos == limit) {
+        tokenStart = pos;
+        if (!fill()) {
+          tokenEnd = tokenStart;
+          return false;
+        }
+      }
+      if (buffer[pos] == '\n') {
+        tokenStart = pos;
+        tokenEnd = pos;
+        return false;
+      }
+      if (!isSpace(buffer[pos])) {
+        break;
+      }
+      ++pos;
+    }
+    return next();
+  }
+
+  /**
+   * Skip the rest of the current line, end of line included.
+   *
+   * @throws IOException If the stream can't be read.
+   */
+  public void skipLine() throws IOException {
+    for (;;) {
+      if (pos == limit) {
+        tokenStart = pos;
+        if (!fill()) {
+          break;
+        }
+      }
+      if (buffer[pos++] == '\n') {
+        break;
+      }
+    }
+    tokenStart = pos;
+    tokenEnd = pos;
+  }
+
+  /**
+   * Get the rest of the current line, without the spaces around it, and
+   * skip to the next line.
+   *
+   * @return             The rest of the line, like Scanner.nextLine().trim().
+   * @throws IOException If the stream can't be read.
+   */
+  public String restOfLine() throws IOException {
+    int length = 0;
+    for (;;) {
+      if (pos == limit) {
+        tokenStart = pos;
+        if (!fill()) {
+          break;
+        }
+      }
+      byte b = buffer[pos++];
+      if (b == '\n') {
+        break;
+      }
+      if (length > 0 || !isSpace(b)) {
+        length = appendLineByte(length, b);
+      }
+    }
+    while (length > 0 && isSpace(lineBytes[length - 1])) {
+      --length;
+    }
+    tokenStart = pos;
+    tokenEnd = pos;
+    return new String(lineBytes, 0, length);
+  }
+
+  /**
+   * Read the next line with its tokens joined by single spaces, like
+   * Scanner.nextLine().trim().replaceAll("\\s+", " "). Lines of ASCII
+   * characters are appended to line without making a String.
+   *
+   * @param  line        Builder that is cleared and gets the line.
+   * @return             True if there was a line, false at the end of the
+   *                     stream.
+   * @throws IOException If the stream can't be read.
+   */
+  public boolean readLine(StringBuilder line) throws IOException {
+    if (pos == limit) {
+      tokenStart = pos;
+      if (!fill()) {
+        return false;
+      }
+    }
+    line.setLength(0);
+    int length = 0;
+    boolean ascii = true;
+    boolean space = false;
+    for (;;) {
+      if (pos == limit) {
+        tokenStart = pos;
+        if (!fill()) {
+          break;
+        }
+      }
+      byte b = buffer[pos++];
+      if (b == '\n') {
+        break;
+      }
+      if (b == ' ' || (b >= '\t' && b <= '\r')) {
+        space = length > 0;
+        continue;
+      }
+      if (length == 0 && isSpace(b)) {
+        continue;
+      }
+      if (space) {
+        length = appendLineByte(length, (byte) ' ');
+        space = false;
+      }
+      ascii &= b >= 0;
+      length = appendLineByte(length, b);
+    }
+    while (length > 0 && isSpace(lineBytes[length - 1])) {
+      --length;
+    }
+    tokenStart = pos;
+    tokenEnd = pos;
+    if (!ascii) {
+      line.append(new String(lineBytes, 0, length));
+      return true;
+    }
+    for (int i = 0; i < length; ++i) {
+      line.append((char) lineBytes[i]);
+    }
+    return true;
+  }
+
+  /**
+   * Get the length of the current token.
+   *
+   * @return Number of bytes of the token.
+   */
+  public int getLength() {
+    return tokenEnd - tokenStart;
+  }
+
+  /**
+   * Check if the current token is a given word.
+   *
+   * @param  word The word, of one byte characters.
+   * @return      True if the token has the same characters.
+   */
+  public boolean matches(String word) {
+    if (word.length() != getLength()) {
+      return false;
+    }
+    for (int i = 0; i < word.length(); ++i) {
+      if (buffer[tokenStart + i] != word.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Parse the current token as a decimal integer.
+   *
+   * @return                       The value of the token.
+   * @throws NumberFormatException If the token is not an integer.
+   */
+  public long toLong() {
+    int i = tokenStart;
+    boolean negative = i < tokenEnd && buffer[i] == '-';
+    if (negative || (i < tokenEnd && buffer[i] == '+')) {
+      ++i;
+    }
+    if (i == tokenEnd) {
+      throw new NumberFormatException(toString());
+    }
+    // accumulate negatively, which also reaches Long.MIN_VALUE
+    long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+    long value = 0;
+    for (; i < tokenEnd; ++i) {
+      int digit = buffer[i] - '0';
+      if (digit < 0 || digit > 9 || value < (limit + digit) / 10) {
+        throw new NumberFormatException(toString());
+      }
+      value = 10 * value - digit;
+    }
+    return negative ? value : -value;
+  }
+
+  /**
+   * Parse the current token as a decimal int.
+   *
+   * @return                       The value of the token.
+   * @throws NumberFormatException If the token is not an int.
+   */
+  public int toInt() {
+    long value = toLong();
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+      throw new NumberFormatException(toString());
+    }
+    return (int) value;
+  }
+
+  /**
+   * Parse the current token as a double. Unlike the integer parsers this
+   * one allocates.
+   *
+   * @return                       The value of the token.
+   * @throws NumberFormatException If the token is not a number.
+   */
+  public double toDouble() {
+    return Double.parseDouble(toString());
+  }
+
+  /**
+   * Copy the current token into an array.
+   *
+   * @param dest   The destination array.
+   * @param offset Position in dest where the token starts.
+   */
+  public void copyTo(byte[] dest, int offset) {
+    System.arraycopy(buffer, tokenStart, dest, offset, getLength());
+  }
+
+  /**
+   * Get the current token as a String. Unlike the other methods this one
+   * allocates.
+   *
+   * @return The token.
+   */
+  @Override
+  public String toString() {
+    return new String(buffer, tokenStart, getLength());
+  }
+
+  /**
+   * Count the lines of a stream that hold a token.
+   *
+   * @param  in          The stream, read to its end.
+   * @return             Number of lines that are not blank.
+   * @throws IOException If the stream can't be read.
+   */
+  public static long countLines(InputStream in) throws IOException {
+    byte[] bytes = new byte[DEFAULT_BUFFER_SIZE];
+    long count = 0;
+    boolean blank = true;
+    for (int read = in.read(bytes); read > 0; read = in.read(bytes)) {
+      for (int i = 0; i < read; ++i) {
+        if (bytes[i] == '\n') {
+          count += blank ? 0 : 1;
+          blank = true;
+        }
+        else if (!isSpace(bytes[i])) {
+          blank = false;
+        }
+      }
+    }
+    return blank ? count : count + 1;
+  }
+
+  /**
+   * Close the channel.
+   *
+   * @throws IOException If the channel can't be closed.
+   */
+  public void close() throws IOException {
+    in.close();
+  }
+
+  /**
+   * Check if a byte separates tokens. Bytes of non-ASCII characters, which
+   * are negative, never do.
+   *
+   * @param  b The byte.
+   * @return   True for a space or control character.
+   */
+  private static boolean isSpace(byte b) {
+    return b >= 0 && b <= ' ';
+  }
+
+  /**
+   * Append a byte to lineBytes, growing it if needed.
+   *
+   * @param  length Number of bytes in lineBytes.
+   * @param  b      The byte.
+   * @return        The new number of bytes.
+   */
+  private int appendLineByte(int length, byte b) {
+    if (length == lineBytes.length) {
+      lineBytes = Arrays.copyOf(lineBytes, 2 * length);
+    }
+    lineBytes[length] = b;
+    return length + 1;
+  }
+
+  /**
+   * Read more of the stream, moving the current token to the start of the
+   * buffer first and growing the buffer if the token fills it.
+   *
+   * @return             True if bytes were read, false at the end of the
+   *                     stream.
+   * @throws IOException If the stream can't be read.
+   */
+  private boolean fill() throws IOException {
+    if (tokenStart > 0) {
+      System.arraycopy(buffer, tokenStart, buffer, 0,
+          limit - tokenStart);
+      limit -= tokenStart;
+      pos -= tokenStart;
+      tokenStart = 0;
+    }
+    if (limit == buffer.length) {
+      buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+      view = ByteBuffer.wrap(buffer);
+    }
+    view.limit(buffer.length).position(limit);
+    int read = in.read(view);
+    while (read == 0) {
+      read = in.read(view);
+    }
+    if (read < 0) {
+      return false;
+    }
+    limit += read;
+    return true;
+  }
+}
@@ -28,6 +28,11 @@ class Communicator {
     theHashTable.printMemoryPool();
   }
 
+  /** Print the fragmentation and other statistics of the memory pool. */
+  public void printAllocatorStats() {
+    theHashTable.printAllocatorStats();
+  }
+
   /**
    * Add a Record name to the hashtable database.
    * 
@@ -0,0 +1,151 @@
+/**
+ * A histogram of latencies in nanoseconds with one bucket per power of two,
+ * so recording a latency is a few arithmetic operations on a fixed array
+ * and percentiles are reported to within a factor of two. Bucket i holds
+ * the latencies from 2^i to 2^(i+1) - 1; bucket 0 also holds 0.
+ *
+ * @author Bimal Gaudel
+ * @version 2026-10-18
+ */
+public class LatencyHistogram {
+  /** Number of buckets, enough for any non-negative long. */
+  private static final int NUM_BUCKETS = 63;
+
+  /** Number of latencies recorded in each bucket. */
+  private long[] buckets;
+
+  /** Number of latencies recorded. */
+  private long count;
+
+  /** Sum of the latencies recorded. */
+  private long total;
+
+  /** Largest latency recorded. */
+  private long max;
+
+  /** Construct an empty histogram. */
+  public LatencyHistogram() {
+    buckets = new long[NUM_BUCKETS];
+    count = 0;
+    total = 0;
+    max = 0;
+  }
+
+  /**
+   * Record a latency.
+   *
+   * @param nanos The latency in nanoseconds, taken as 0 if negative.
+   */
+  public void record(long nanos) {
+    nanos = Math.max(nanos, 0);
+    ++buckets[bucketOf(nanos)];
+    ++count;
+    total += nanos;
+    max = Math.max(max, nanos);
+  }
+
+  /**
+   * Add the latencies recorded by another histogram to this one.
+   *
+   * @param other The other histogram, which is not changed.
+   */
+  public void add(LatencyHistogram other) {
+    for (int i = 0; i < NUM_BUCKETS; ++i) {
+      buckets[i] += other.buckets[i];
+    }
+    count += other.count;
+    total += other.total;
+    max = Math.max(max, other.max);
+  }
+
+  /**
+   * Get a copy of the histogram that later records don't change.
+   *
+   * @return A new histogram with the same latencies.
+   */
+  public LatencyHistogram copy() {
+    LatencyHistogram result = new LatencyHistogram();
+    result.add(this);
+    return result;
+  }
+
+  /**
+   * Get the number of latencies recorded.
+   *
+   * @return Number of latencies.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Get the number of latencies recorded in a bucket.
+   *
+   * @param  bucket Index of the bucket, the log2 of its lowest latency.
+   * @return        Number of latencies from 2^bucket to 2^(bucket+1) - 1.
+   */
+  public long getBucketCount(int bucket) {
+    return buckets[bucket];
+  }
+
+  /**
+   * Get the average latency.
+   *
+   * @return Average in nanoseconds, 0 if nothing was recorded.
+   */
+  public double getMean() {
+    return count == 0 ? 0 : (double) total / count;
+  }
+
+  /**
+   * Get the largest latency.
+   *
+   * @return Largest latency in nanoseconds, 0 if nothing was recorded.
+   */
+  public long getMax() {
+    return max;
+  }
+
+  /**
+   * Get an upper bound of a percentile of the latencies: the top of the
+   * bucket the percentile falls in, or the largest latency if that is
+   * lower.
+   *
+   * @param  percent The percentile, from 0 to 100.
+   * @return         Latency in nanoseconds, 0 if nothing was recorded.
+   */
+  public long getPercentile(double percent) {
+    long rank = (long) Math.ceil(percent / 100 * count);
+    long seen = 0;
+    for (int i = 0; i < NUM_BUCKETS; ++i) {
+      seen += buckets[i];
+      if (seen > 0 && seen >= rank) {
+        return Math.min((2L << i) - 1, max);
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Get a string representation of the histogram.
+   *
+   * @return Number of latencies, average, some percentiles and largest.
+   */
+  @Override
+  public String toString() {
+    return "count " + count + ", mean " + Math.round(getMean())
+        + " ns, p50 " + getPercentile(50) + " ns, p90 "
+        + getPercentile(90) + " ns, p99 " + getPercentile(99)
+        + " ns, max " + max + " ns";
+  }
+
+  /**
+   * Find the bucket of a latency.
+   *
+   * @param  nanos The latency, not negative.
+   * @return       Index of the bucket.
+   */
+  private static int bucketOf(long nanos) {
+    return nanos == 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+  }
+}
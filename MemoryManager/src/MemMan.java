@@ -5,10 +5,7 @@
  * Spring 2020, Virginia Tech
  */
 
-import java.io.File;
-import java.util.Scanner;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
+import java.io.FileInputStream;
 
 /**
  * The class containing the main method.
@@ -52,68 +49,101 @@ public class MemMan {
     // the initial hashtable size
     int initHashTblSize = Integer.parseInt(args[1]);
 
-    // the command file
-    File commandFile = new File(args[2]);
+    // buffer the output instead of flushing every line
+    OutputSink sink = new OutputSink();
 
     // ready to honor any commands
     try {
-      // scans the command file
-      Scanner sc = new Scanner(commandFile);
+      // reads the command file a line at a time
+      ByteTokenizer tokens = new ByteTokenizer(
+          new FileInputStream(args[2]).getChannel());
+      StringBuilder commandLine = new StringBuilder();
 
       // our hashtable
       RecordHashTable hashTable = new RecordHashTable(initHashTblSize,
           initMemSizeInTwosPower);
 
       Communicator memManCommunicator = new Communicator(hashTable);
-      while (sc.hasNext()) {
-        String commandLine = sc.nextLine().trim().replaceAll("\\s+", " ");
-
-        if (commandLine.equals("print hashtable")) {
+      // lines come with their spaces trimmed and runs of spaces collapsed
+      while (tokens.readLine(commandLine)) {
+        if ("print hashtable".contentEquals(commandLine)) {
           memManCommunicator.printHashTable();
 
         }
-        else if (commandLine.equals("print blocks")) {
+        else if ("print blocks".contentEquals(commandLine)) {
           memManCommunicator.printMemoryPool();
         }
-        else if (commandLine.startsWith("add")) {
+        else if ("print stats".contentEquals(commandLine)) {
+          memManCommunicator.printAllocatorStats();
+        }
+        else if (startsWith(commandLine, "add")) {
           String recordName = commandLine.substring(4);
           memManCommunicator.addRecordToHashTable(recordName);
 
         }
-        else if (commandLine.startsWith("delete")) {
+        else if (startsWith(commandLine, "delete")) {
           String recordName = commandLine.substring(7);
           memManCommunicator.deleteRecordFromHashTable(recordName);
 
         }
-        else if (commandLine.startsWith("update add")) {
-          String pattern = "^update add(.*?)<SEP>(.*?)<SEP>(.*)$";
-          Pattern r = Pattern.compile(pattern);
-          Matcher m = r.matcher(commandLine);
-          m.find();
-          String name = m.group(1).trim();
-          String fieldName = m.group(2).trim();
-          String fieldValue = m.group(3).trim();
+        else if (startsWith(commandLine, "update add")) {
+          // update add <name><SEP><field name><SEP><field value>
+          int nameEnd = commandLine.indexOf("<SEP>", 10);
+          int fieldEnd = nameEnd < 0 ? -1
+              : commandLine.indexOf("<SEP>", nameEnd + 5);
+          if (fieldEnd < 0) {
+            // malformed update, quit
+            return;
+          }
+          String name = commandLine.substring(10, nameEnd).trim();
+          String fieldName = commandLine.substring(nameEnd + 5, fieldEnd)
+              .trim();
+          String fieldValue = commandLine.substring(fieldEnd + 5).trim();
 
           memManCommunicator.updateAddRecordKeyVal(name, fieldName, fieldValue);
 
         }
-        else if (commandLine.startsWith("update delete")) {
-          String pattern = "^update delete(.*?)<SEP>(.*?)$";
-          Pattern r = Pattern.compile(pattern);
-          Matcher m = r.matcher(commandLine);
-          m.find();
-          String nameString = m.group(1).trim();
-          String fieldNameString = m.group(2).trim();
+        else if (startsWith(commandLine, "update delete")) {
+          // update delete <name><SEP><field name>
+          int nameEnd = commandLine.indexOf("<SEP>", 13);
+          if (nameEnd < 0) {
+            // malformed update, quit
+            return;
+          }
+          String nameString = commandLine.substring(13, nameEnd).trim();
+          String fieldNameString = commandLine.substring(nameEnd + 5).trim();
 
           memManCommunicator.updateDeleteRecordKeyVal(nameString,
               fieldNameString);
         }
       }
-      // sc has been read thoroughly
-      sc.close();
+      // the command file has been read thoroughly
+      tokens.close();
     } catch (Exception e) {
       // can't read commands, then quit
       return;
+    } finally {
+      sink.close();
     }
   } // main
+
+  /**
+   * Check if a command line starts with a word, without making a String of
+   * the line.
+   * 
+   * @param line   The command line.
+   * @param prefix The word.
+   * @return true if line starts with prefix.
+   */
+  private static boolean startsWith(StringBuilder line, String prefix) {
+    if (line.length() < prefix.length()) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length(); ++i) {
+      if (line.charAt(i) != prefix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
 } // class MemMan
@@ -62,9 +62,9 @@ public class MemManTest extends TestCase {
         + "Name hash table size doubled to 20 slots.\n"
         + "Memory pool expanded to be 256 bytes.\n"
         + "|Castle in the Sky| has been added to the Name database.\n"
-        + "|Fullmetal Alchemist| 0\n" + "|Death Note| 1\n"
-        + "|Spirited Away| 4\n" + "|Castle in the Sky| 7\n" + "|death note| 8\n"
-        + "|Can You Handle?| 9\n" + "Total records: 6";
+        + "|Fullmetal Alchemist| 3\n" + "|Death Note| 4\n"
+        + "|Spirited Away| 5\n" + "|Castle in the Sky| 7\n" + "|death note| 8\n"
+        + "|Can You Handle?| 16\n" + "Total records: 6";
 
     assertFuzzyEquals(systemOut().getHistory(), expectedOutput);
   }
@@ -1,3 +1,5 @@
+import java.io.IOException;
+
 /**
  * The memory manager class.
  * 
@@ -21,6 +23,9 @@ public class MemoryManager {
    */
   private BlockInfo[] blocks;
 
+  /** Statistics of the allocations, splits, merges and doublings. */
+  private AllocatorStats stats;
+
   /**
    * Construct the MemoryManager object.
    * 
@@ -31,6 +36,7 @@ public class MemoryManager {
     this.poolSize = 1 << size;
     this.byteArray = new byte[this.poolSize];
     this.blocks = new BlockInfo[size + 1];
+    this.stats = new AllocatorStats();
     for (int i = 0; i <= size; ++i) {
       this.blocks[i] = new BlockInfo();
     }
@@ -43,6 +49,21 @@ public class MemoryManager {
    * retrieval or freeing up the occupied space.
    */
   public MemoryHandle storeBytes(byte[] bytes) {
+    long start = System.nanoTime();
+    MemoryHandle handle = this.placeBytes(bytes);
+    this.stats.recordAllocation(handle.getBlockSize(), bytes.length,
+        System.nanoTime() - start);
+    return handle;
+  }
+
+  /**
+   * Store information in a free block, splitting a larger block or doubling
+   * the pool if needed.
+   *
+   * @param bytes The bytes to be stored.
+   * @return A MemoryHandle object.
+   */
+  private MemoryHandle placeBytes(byte[] bytes) {
     int size = bytes.length;
     int expectedBlockPos = MemoryManager.getLog2(size);
 
@@ -63,7 +84,7 @@ public class MemoryManager {
 
     if (blockPos >= this.blocks.length) {
       this.doublePoolSize();
-      return this.storeBytes(bytes);
+      return this.placeBytes(bytes);
     }
 
     int insertionPos = this.blocks[blockPos].getPos();
@@ -107,6 +128,7 @@ public class MemoryManager {
     // the position of the handle's database into
     // the block size's position database
     int blockArrayPos = MemoryManager.getLog2(handle.getBlockSize());
+    this.stats.recordFree(handle.getBlockSize(), handle.getDataSize());
 
     // first attempt mergin buddies
     // if it succeeds, then nothing needs to be done
@@ -126,24 +148,67 @@ public class MemoryManager {
     return this.poolSize;
   }
 
+  /**
+   * Take a snapshot of the statistics of the memory manager, to size its
+   * pool: fragmentation, the largest free block, the number of splits, merges
+   * and pool doublings and the latencies of the allocations.
+   * 
+   * @return The statistics so far, not changed by later use.
+   */
+  public AllocatorStats getStats() {
+    long freeBlocks = 0;
+    long freeBytes = 0;
+    long largest = 0;
+    for (int i = 0; i < this.blocks.length; ++i) {
+      if (!this.blocks[i].isEmpty()) {
+        long blockSize = 1L << i;
+        freeBlocks += this.blocks[i].size();
+        freeBytes += blockSize * this.blocks[i].size();
+        largest = blockSize;
+      }
+    }
+    return this.stats.snapshot(this.poolSize, freeBlocks, freeBytes,
+        largest);
+  }
+
   /**
    * String representation of the memory manager. It shows currently free blocks
    * and their starting positions.
    */
   @Override
   public String toString() {
-    String result = "";
+    StringBuilder result = new StringBuilder();
+    try {
+      appendTo(result);
+    } catch (IOException e) {
+      // a StringBuilder is never closed
+    }
+    return result.toString();
+  }
+
+  /**
+   * Write the free blocks and their starting positions, as toString has them,
+   * without building the whole listing first.
+   * 
+   * @param out Where the free blocks are written, e.g. System.out.
+   * @throws IOException If out can't be written.
+   */
+  public void appendTo(Appendable out) throws IOException {
+    boolean empty = true;
     for (int i = 0; i < this.blocks.length; ++i) {
-      String posStrings = this.blocks[i].toString();
-      if (!posStrings.isEmpty()) {
-        int size = 1 << i;
-        result += size + ": " + posStrings + "\n";
+      if (this.blocks[i].isEmpty()) {
+        continue;
       }
+      if (!empty) {
+        out.append('\n');
+      }
+      out.append(String.valueOf(1 << i)).append(": ");
+      this.blocks[i].appendTo(out);
+      empty = false;
     }
-    if (result.isEmpty()) {
-      return "No free blocks are available.";
+    if (empty) {
+      out.append("No free blocks are available.");
     }
-    return result.trim();
   }
 
   /**
@@ -184,6 +249,7 @@ public class MemoryManager {
     while (blockSize != targetSize) {
       blockSize /= 2;
       this.addPos(blockSize, blockPos + blockSize);
+      this.stats.recordSplit();
     }
     this.addPos(targetSize, blockPos);
   }
@@ -220,6 +286,7 @@ public class MemoryManager {
       this.removePos(blockSize, pos);
       pos = pos < buddyPos ? pos : buddyPos;
       blockSize *= 2;
+      this.stats.recordMerge();
     }
     if (initBlockSize != blockSize) {
       this.addPos(blockSize, pos);
@@ -230,6 +297,7 @@ public class MemoryManager {
 
   /** Double the capacity of the memory poolsize. */
   private void doublePoolSize() {
+    this.stats.recordDoubling();
     // initialize a new MemoryManager object with double capacity
     MemoryManager biggerMemoryManager = new MemoryManager(
         MemoryManager.getLog2(this.poolSize) + 1);
@@ -279,9 +347,13 @@ public class MemoryManager {
      */
     private LinkedList<Integer> blockPos;
 
+    /** Number of positions in blockPos. */
+    private int count;
+
     /** Construct a BlockInfo. */
     BlockInfo() {
       this.blockPos = new LinkedList<Integer>();
+      this.count = 0;
     }
 
     /**
@@ -290,6 +362,7 @@ public class MemoryManager {
      */
     public void insertPos(int pos) {
       this.blockPos.insert(pos);
+      ++this.count;
     }
 
     /**
@@ -300,6 +373,9 @@ public class MemoryManager {
      */
     public boolean deletePos(int pos) {
       boolean deleted = this.blockPos.remove(pos);
+      if (deleted) {
+        --this.count;
+      }
       return deleted;
     }
 
@@ -311,9 +387,19 @@ public class MemoryManager {
      */
     public int getPos() {
       int pos = this.blockPos.popFront();
+      --this.count;
       return pos;
     }
 
+    /**
+     * Get the number of free positions.
+     *
+     * @return Number of positions in record.
+     */
+    public int size() {
+      return this.count;
+    }
+
     /**
      * Check if this block has any free positions.
      *
@@ -329,7 +415,31 @@ public class MemoryManager {
      */
     @Override
     public String toString() {
-      return this.blockPos.toString().replaceAll("<SEP>", " ");
+      StringBuilder result = new StringBuilder();
+      try {
+        appendTo(result);
+      } catch (IOException e) {
+        // a StringBuilder is never closed
+      }
+      return result.toString();
+    }
+
+    /**
+     * Write the positions separated by spaces.
+     * 
+     * @param out Where the positions are written.
+     * @throws IOException If out can't be written.
+     */
+    public void appendTo(Appendable out) throws IOException {
+      this.blockPos.moveToFront();
+      for (Integer pos = this.blockPos.yieldNode(); pos != null; pos =
+          this.blockPos.yieldNode()) {
+        out.append(String.valueOf(pos));
+        this.blockPos.curseToNext();
+        if (this.blockPos.yieldNode() != null) {
+          out.append(' ');
+        }
+      }
     }
   }
 }
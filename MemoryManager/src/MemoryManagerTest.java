@@ -169,4 +169,42 @@ public class MemoryManagerTest extends TestCase {
     aMemManager.storeBytes("Can You Handle?".getBytes()); // 15 bytes
     assertEquals(aMemManager.getPoolSize(), 64);
   }
+
+  /** Test the statistics of splits, merges, doublings and fragmentation. */
+  public void testGetStats() {
+    AllocatorStats stats = aMemManager.getStats();
+    assertEquals(stats.getPoolSize(), 32);
+    assertEquals(stats.getLargestFree(), 32);
+    assertEquals(stats.getExternalFragmentation(), 0.0, 1e-9);
+
+    MemoryHandle small = aMemManager.storeBytes(new byte[2]);
+    aMemManager.storeBytes(new byte[33]);
+    stats = aMemManager.getStats();
+    assertEquals(stats.getAllocations(), 2);
+    assertEquals(stats.getSplits(), 4);
+    assertEquals(stats.getDoublings(), 2);
+    assertEquals(stats.getMerges(), 0);
+    assertEquals(stats.getPoolSize(), 128);
+    assertEquals(stats.getFreeBlocks(), 5);
+    assertEquals(stats.getFreeBytes(), 62);
+    assertEquals(stats.getLargestFree(), 32);
+    assertEquals(stats.getUsedBlocks(), 2);
+    assertEquals(stats.getUsedBytes(), 66);
+    assertEquals(stats.getDataBytes(), 35);
+    assertEquals(stats.getInternalFragmentation(), 1 - 35.0 / 66, 1e-9);
+    assertEquals(stats.getExternalFragmentation(), 1 - 32.0 / 62, 1e-9);
+    assertEquals(stats.getLatency().getCount(), 2);
+
+    // the snapshot is not changed by later use
+    aMemManager.freeBlock(small);
+    assertEquals(stats.getFrees(), 0);
+    stats = aMemManager.getStats();
+    assertEquals(stats.getFrees(), 1);
+    assertEquals(stats.getMerges(), 5);
+    assertEquals(stats.getFreeBlocks(), 1);
+    assertEquals(stats.getLargestFree(), 64);
+    assertEquals(stats.getUsedBytes(), 64);
+    assertEquals(stats.getDataBytes(), 33);
+    assertTrue(stats.toString().contains("pool doublings: 2"));
+  }
 }
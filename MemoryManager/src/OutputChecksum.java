@@ -0,0 +1,76 @@
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+
+/**
+ * An output stream that keeps only the CRC32 and the length of what is
+ * written to it, to compare the output of a long run with an expected one
+ * without storing either.
+ *
+ * @author Bimal Gaudel
+ * @version 2026-10-18
+ */
+public class OutputChecksum extends OutputStream {
+  /** The checksum of the bytes written. */
+  private CRC32 crc;
+
+  /** Number of bytes written. */
+  private long length;
+
+  /** Construct a checksum of nothing. */
+  public OutputChecksum() {
+    crc = new CRC32();
+    length = 0;
+  }
+
+  /**
+   * Add a byte to the checksum.
+   *
+   * @param b The byte, in the low eight bits.
+   */
+  @Override
+  public void write(int b) {
+    crc.update(b);
+    ++length;
+  }
+
+  /**
+   * Add bytes to the checksum.
+   *
+   * @param bytes  The array holding the bytes.
+   * @param offset Index of the first byte.
+   * @param count  Number of bytes.
+   */
+  @Override
+  public void write(byte[] bytes, int offset, int count) {
+    crc.update(bytes, offset, count);
+    length += count;
+  }
+
+  /**
+   * Get the CRC32 of the bytes written.
+   *
+   * @return The checksum.
+   */
+  public long getValue() {
+    return crc.getValue();
+  }
+
+  /**
+   * Get the number of bytes written.
+   *
+   * @return Number of bytes.
+   */
+  public long getLength() {
+    return length;
+  }
+
+  /**
+   * Get a string representation of the checksum.
+   *
+   * @return The CRC32 in hexadecimal and the length, e.g. "0a1b2c3d 42".
+   */
+  @Override
+  public String toString() {
+    return String.format("%08x %d", crc.getValue(), length);
+  }
+}
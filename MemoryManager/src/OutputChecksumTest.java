@@ -0,0 +1,26 @@
+import student.TestCase;
+
+import java.util.zip.CRC32;
+
+/**
+ * Test the OutputChecksum class.
+ *
+ * @author Bimal Gaudel
+ * @version 2026-10-18
+ */
+public class OutputChecksumTest extends TestCase {
+  /** Test that single bytes and arrays give the CRC32 of the whole. */
+  public void testChecksum() {
+    OutputChecksum sum = new OutputChecksum();
+    assertEquals(sum.toString(), "00000000 0");
+    byte[] bytes = "ACGT\n".getBytes();
+    sum.write(bytes[0]);
+    sum.write(bytes, 1, bytes.length - 1);
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    assertEquals(sum.getValue(), crc.getValue());
+    assertEquals(sum.getLength(), 5);
+    assertEquals(sum.toString(),
+        String.format("%08x 5", crc.getValue()));
+  }
+}
@@ -0,0 +1,57 @@
+import java.io.BufferedOutputStream;
+import java.io.PrintStream;
+
+/**
+ * A buffered sink for the output of a command driver. While a sink is open,
+ * System.out is a PrintStream that neither flushes on each println nor
+ * writes anything until a large buffer fills up; the buffered output goes
+ * to the stream System.out was before, which close flushes and restores.
+ * Drivers open a sink before running their commands and close it in a
+ * finally block, so output is complete even when a command throws.
+ *
+ * @author Bimal Gaudel
+ * @version 2026-10-18
+ */
+public class OutputSink {
+  /** Default number of bytes buffered before they are written. */
+  public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+  /** System.out when the sink was opened. */
+  private PrintStream original;
+
+  /** The buffered stream that replaces System.out. */
+  private PrintStream buffered;
+
+  /** Open a sink, replacing System.out. */
+  OutputSink() {
+    this(DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Open a sink, replacing System.out.
+   *
+   * @param bufferSize Number of bytes buffered before they are written.
+   */
+  OutputSink(int bufferSize) {
+    original = System.out;
+    buffered = new PrintStream(new BufferedOutputStream(original,
+        bufferSize), false);
+    System.setOut(buffered);
+  }
+
+  /** Write out everything buffered so far. */
+  public void flush() {
+    buffered.flush();
+  }
+
+  /**
+   * Flush the buffer and put the original System.out back. The original
+   * stream is left open.
+   */
+  public void close() {
+    buffered.flush();
+    if (System.out == buffered) {
+      System.setOut(original);
+    }
+  }
+}
@@ -1,3 +1,5 @@
+import java.io.IOException;
+
 // -------------------------------------------------------------------------
 /**
  * RecordHashTable represents the hashtable of Record objects.
@@ -188,7 +190,29 @@ public class RecordHashTable {
    * pool.
    */
   public void printMemoryPool() {
-    System.out.println(memoryManager);
+    try {
+      memoryManager.appendTo(System.out);
+      System.out.println();
+    } catch (IOException e) {
+      System.out.println(e.getMessage());
+    }
+  }
+
+  /**
+   * Get a snapshot of the statistics of the memory manager.
+   *
+   * @return The statistics so far.
+   */
+  public AllocatorStats getAllocatorStats() {
+    return memoryManager.getStats();
+  }
+
+  /**
+   * Prints the statistics of the memory manager: fragmentation, the largest
+   * free block, splits, merges, pool doublings and allocation latencies.
+   */
+  public void printAllocatorStats() {
+    System.out.println(memoryManager.getStats());
   }
 
   /**
@@ -290,6 +314,8 @@ public class RecordHashTable {
   private void doubleTableSize() {
     RecordHashTable newHashTable = new RecordHashTable(this.getSize() * 2,
         MemoryManager.getLog2(memoryManager.getPoolSize()));
+    // the names being rehashed are in this table's memory pool
+    newHashTable.memoryManager = this.memoryManager;
     for (int i = 0; i < this.getSize(); ++i) {
       if (tableData[i].isActive()) {
         Record oldRecord = tableData[i].getRecord();
@@ -325,7 +351,8 @@ public class RecordHashTable {
         break;
       }
 
-      if (getStrFromMemory(curEntry.getRecordNameHandle()).equals(key)) {
+      if (curEntry.isActive()
+          && getStrFromMemory(curEntry.getRecordNameHandle()).equals(key)) {
         return runningSlot;
       }
       runningSlot = RecordHashTable.getProbedSlot(homeSlot, ++probeLevel,
@@ -102,7 +102,10 @@ public class RecordHashTableTest extends TestCase {
     assertEquals(aTable.getCount(), 1);
     aTable.addRecord("Poochie");
     assertEquals(aTable.getSize(), 6);
-    // assertEquals(aTable.getCount(), 2);
+    assertEquals(aTable.getCount(), 2);
+    // the names are rehashed from the memory pool they are stored in
+    assertNotNull(aTable.getRecord("Charlie"));
+    assertNotNull(aTable.getRecord("Poochie"));
   }
 
   /**
@@ -127,5 +130,9 @@ public class RecordHashTableTest extends TestCase {
     assertEquals(deleted, true);
     deleted = sampleTable.deleteRecord("Maggie");
     assertEquals(deleted, false);
+    // a deleted record is not found again, so it is not freed twice
+    deleted = sampleTable.deleteRecord("Bailey");
+    assertEquals(deleted, false);
+    assertNull(sampleTable.getRecord("Bailey"));
   }
 }
@@ -0,0 +1,97 @@
+import student.TestCase;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Test the WorkloadGenerator class.
+ *
+ * @author Bimal Gaudel
+ * @version 2026-10-18
+ */
+public class WorkloadGeneratorTest extends TestCase {
+  /** The command file written by the tests. */
+  private File file;
+
+  /** Sets up the tests that follow. */
+  public void setUp() {
+    file = new File(".workload.txt");
+  }
+
+  /** Removes the files written by a test. */
+  public void tearDown() {
+    file.delete();
+    new File(file.getPath() + ".crc32").delete();
+  }
+
+  /** Test that settings are checked. */
+  public void testParse() {
+    WorkloadGenerator generator = new WorkloadGenerator();
+    assertTrue(generator.parse("-ops=10"));
+    assertTrue(generator.parse("-skew=zipf"));
+    assertTrue(generator.parse("-memory=5"));
+    assertTrue(generator.parse("-sizes=exp"));
+    assertFalse(generator.parse("-reads=-1"));
+    assertFalse(generator.parse("-memory=40"));
+    assertFalse(generator.parse("-hash=0"));
+    assertFalse(generator.parse("-colour=blue"));
+  }
+
+  /** Test that the file follows the settings and the seed. */
+  public void testWrite() throws Exception {
+    WorkloadGenerator generator = new WorkloadGenerator();
+    generator.parse("-ops=2000");
+    generator.parse("-keys=50");
+    generator.parse("-reads=30");
+    generator.parse("-sizes=fixed");
+    generator.parse("-maxsize=6");
+    generator.write(file);
+    List<String> lines = Files.readAllLines(file.toPath());
+    assertEquals(lines.size(), 2000);
+    int updates = 0;
+    for (String line : lines) {
+      if (line.startsWith("update add Record ")) {
+        ++updates;
+        assertTrue(line.matches("update add Record \\d+<SEP>Field\\d"
+            + "<SEP>[a-z]{6}"));
+      }
+      else if (line.startsWith("update delete Record ")) {
+        ++updates;
+        assertTrue(line.matches("update delete Record \\d+<SEP>Field\\d"));
+      }
+      else {
+        assertTrue(line.matches("(add|delete) Record \\d+"));
+      }
+    }
+    assertEquals(updates, 600, 70);
+
+    generator.write(file);
+    assertEquals(Files.readAllLines(file.toPath()), lines);
+    generator.parse("-seed=2");
+    generator.write(file);
+    assertFalse(Files.readAllLines(file.toPath()).equals(lines));
+  }
+
+  /** Test that the expected output is checksummed and verified. */
+  public void testChecksum() throws Exception {
+    systemOut().clearHistory();
+    WorkloadGenerator.main(new String[] {file.getPath(), "-ops=300",
+      "-keys=20", "-checksum=on", "-memory=5"});
+    assertTrue(systemOut().getHistory().contains("Wrote 300 commands"));
+    File crc = new File(file.getPath() + ".crc32");
+    String expected = Files.readAllLines(crc.toPath()).get(0);
+    WorkloadGenerator generator = new WorkloadGenerator();
+    generator.parse("-memory=5");
+    assertEquals(generator.runChecksum(file.getPath()), expected);
+
+    systemOut().clearHistory();
+    WorkloadGenerator.main(new String[] {"-verify=" + file.getPath(),
+      "-memory=5"});
+    assertTrue(systemOut().getHistory().contains("matches"));
+    Files.write(file.toPath(), "print blocks\n".getBytes());
+    WorkloadGenerator.main(new String[] {"-verify=" + file.getPath(),
+      "-memory=5"});
+    assertTrue(systemOut().getHistory().contains("differs"));
+  }
+}
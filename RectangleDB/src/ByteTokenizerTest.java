@@ -0,0 +1,145 @@
+import student.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.util.NoSuchElementException;
+
+/**
+ * Test the ByteTokenizer class.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class ByteTokenizerTest extends TestCase {
+    /** Test tokens that straddle refills of a small buffer. */
+    public void testTokens() throws Exception {
+        String text = "add 12345678901 -7\tACGTACGTACGTACGT\n\n  +3 x";
+        ByteTokenizer tokens = new ByteTokenizer(
+                new ByteArrayInputStream(text.getBytes()), 4);
+        assertTrue(tokens.next());
+        assertTrue(tokens.matches("add"));
+        assertFalse(tokens.matches("ad"));
+        assertTrue(tokens.next());
+        assertEquals(tokens.toLong(), 12345678901L);
+        assertTrue(tokens.next());
+        assertEquals(tokens.toLong(), -7);
+        assertTrue(tokens.next());
+        assertEquals(tokens.getLength(), 16);
+        byte[] copy = new byte[18];
+        tokens.copyTo(copy, 2);
+        assertEquals(new String(copy, 2, 16), "ACGTACGTACGTACGT");
+        assertTrue(tokens.next());
+        assertEquals(tokens.toLong(), 3);
+        assertTrue(tokens.next());
+        assertEquals(tokens.toString(), "x");
+        try {
+            tokens.toLong();
+            fail();
+        }
+        catch (NumberFormatException e) {
+            assertEquals(e.getMessage(), "x");
+        }
+        assertFalse(tokens.next());
+        assertFalse(tokens.next());
+    }
+
+    /** Test counting the lines that are not blank. */
+    public void testCountLines() throws Exception {
+        assertEquals(ByteTokenizer.countLines(new ByteArrayInputStream(
+                "a\n\n  \nb c\nd".getBytes())), 3);
+        assertEquals(ByteTokenizer.countLines(new ByteArrayInputStream(
+                "a\n".getBytes())), 1);
+        assertEquals(ByteTokenizer.countLines(new ByteArrayInputStream(
+                new byte[0])), 0);
+    }
+
+    /** Test the ends of the range of a long and past them. */
+    public void testLongRange() throws Exception {
+        String text = "9223372036854775807 -9223372036854775808"
+                + " 9223372036854775808 -9223372036854775809"
+                + " 18446744073709551617 -0";
+        ByteTokenizer tokens = new ByteTokenizer(
+                new ByteArrayInputStream(text.getBytes()), 5);
+        tokens.nextToken();
+        assertEquals(tokens.toLong(), Long.MAX_VALUE);
+        tokens.nextToken();
+        assertEquals(tokens.toLong(), Long.MIN_VALUE);
+        for (int i = 0; i < 3; ++i) {
+            tokens.nextToken();
+            try {
+                tokens.toLong();
+                fail();
+            }
+            catch (NumberFormatException e) {
+                assertEquals(e.getMessage(), tokens.toString());
+            }
+        }
+        tokens.nextToken();
+        assertEquals(tokens.toLong(), 0);
+    }
+
+    /** Test reading tokens line by line and whole lines. */
+    public void testLines() throws Exception {
+        String text = "print record 42 extra\ndelete\n 7 \n"
+                + "load  some file.txt \n2147483648 2.5\n";
+        ByteTokenizer tokens = new ByteTokenizer(
+                new ByteArrayInputStream(text.getBytes()), 3);
+        tokens.nextToken();
+        assertTrue(tokens.nextInLine());
+        assertTrue(tokens.matches("record"));
+        assertTrue(tokens.nextInLine());
+        assertEquals(tokens.toInt(), 42);
+        tokens.skipLine();
+        assertTrue(tokens.nextInLine());
+        assertTrue(tokens.matches("delete"));
+        assertFalse(tokens.nextInLine());
+        assertEquals(tokens.getLength(), 0);
+        tokens.skipLine();
+        assertTrue(tokens.nextInLine());
+        assertEquals(tokens.toLong(), 7);
+        assertFalse(tokens.nextInLine());
+        tokens.skipLine();
+        tokens.nextToken();
+        assertEquals(tokens.restOfLine(), "some file.txt");
+        tokens.nextToken();
+        try {
+            tokens.toInt();
+            fail();
+        }
+        catch (NumberFormatException e) {
+            assertEquals(e.getMessage(), "2147483648");
+        }
+        tokens.nextToken();
+        assertEquals(tokens.toDouble(), 2.5, 0);
+        assertFalse(tokens.nextInLine());
+        tokens.skipLine();
+        try {
+            tokens.nextToken();
+            fail();
+        }
+        catch (NoSuchElementException e) {
+            assertFalse(tokens.next());
+        }
+    }
+
+    /** Test that readLine normalizes lines the way the drivers did. */
+    public void testReadLine() throws Exception {
+        String[] lines = {"  update add  a \u00e9  b<SEP> c\t\t<SEP>d \r",
+            "", " \t ", "\u0001x\u0001 \u0001", "last"};
+        StringBuilder text = new StringBuilder();
+        for (String line : lines) {
+            text.append(line).append('\n');
+        }
+        byte[] bytes = text.toString().getBytes();
+        ByteTokenizer tokens = new ByteTokenizer(new ByteArrayInputStream(
+                bytes), 5);
+        StringBuilder line = new StringBuilder("stale");
+        // compare with the lines as the default charset decodes them
+        for (String expected : new String(bytes).split("\n")) {
+            assertTrue(tokens.readLine(line));
+            assertEquals(line.toString(),
+                    expected.trim().replaceAll("\\s+", " "));
+        }
+        assertFalse(tokens.readLine(line));
+    }
+}
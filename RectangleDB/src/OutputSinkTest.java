@@ -0,0 +1,42 @@
+import student.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+/**
+ * Test the OutputSink class.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class OutputSinkTest extends TestCase {
+    /** Test that output is held back until the sink is flushed or closed. */
+    public void testBuffering() {
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream capture = new PrintStream(bytes, true);
+        System.setOut(capture);
+        try {
+            OutputSink sink = new OutputSink(1024);
+            assertNotSame(System.out, capture);
+            System.out.println("first");
+            assertEquals(bytes.size(), 0);
+            sink.flush();
+            assertEquals(bytes.toString(), "first\n");
+
+            System.out.print("second");
+            // a full buffer is written without a flush
+            System.out.print(new String(new char[1024]).replace('\0', 'x'));
+            assertTrue(bytes.size() > 6);
+            System.out.println();
+            sink.close();
+            assertSame(System.out, capture);
+            assertTrue(bytes.toString().startsWith("first\nsecondxx"));
+            assertTrue(bytes.toString().endsWith("xx\n"));
+        }
+        finally {
+            System.setOut(stdout);
+        }
+    }
+}
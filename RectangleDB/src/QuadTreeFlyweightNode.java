@@ -97,8 +97,7 @@ public class QuadTreeFlyweightNode extends QuadTreeLeafNode {
      */
     @Override
     public int dump(SquareCanvas canvas) {
-        System.out
-                .println(String.format("Node at %s: Empty", canvas.toString()));
+        System.out.println("Node at " + canvas + ": Empty");
         return 1;
     }
 }
@@ -178,8 +178,7 @@ public class QuadTreeInternalNode extends QuadTree {
      */
     @Override
     public int dump(SquareCanvas canvas) {
-        System.out.println(
-                String.format("Node at %s internal:", canvas.toString()));
+        System.out.println("Node at " + canvas + " internal:");
         int visitCount = 1; // visited this node
         for (int i = 0; i < children.length; ++i) {
             visitCount += children[i].dump(canvas.getQuadrant(i));
@@ -234,7 +234,7 @@ public class QuadTreeLeafNode extends QuadTree {
      */
     @Override
     public int dump(SquareCanvas canvas) {
-        System.out.println(String.format("Node at %s:", canvas.toString()));
+        System.out.println("Node at " + canvas + ":");
             //@formatter:off
         for (recordList.moveToHead();
             (!recordList.atEnd());
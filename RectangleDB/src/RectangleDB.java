@@ -23,9 +23,8 @@
 // during the discussion. I have violated neither the spirit nor
 // letter of this restriction.
 
-import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.Scanner;
 
 /**
  * Rectangle data base manager's main method lives in this class. Programming
@@ -49,11 +48,12 @@ public class RectangleDB {
             return;
         }
 
-        // scanner object to parse the command file
-        Scanner sc;
+        // tokenizer to parse the command file
+        ByteTokenizer tokens;
 
         try {
-            sc = new Scanner(new File(args[0]));
+            tokens = new ByteTokenizer(
+                    new FileInputStream(args[0]).getChannel());
         }
         catch (Exception e) {
             System.out.println(e.getMessage());
@@ -66,30 +66,58 @@ public class RectangleDB {
         /** A handler object to channel commands to the World object. */
         RequestHandler requestHandler = new RequestHandler(world);
 
-        while (sc.hasNext()) {
-            String cmd = sc.next();
+        // buffer the output instead of flushing every line
+        OutputSink sink = new OutputSink();
+        try {
+            runCommands(requestHandler, tokens);
+            // done with the tokenizer object
+            tokens.close();
+        }
+        catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+        finally {
+            sink.close();
+        }
+    }
 
-            if (cmd.equals("dump")) {
+    /**
+     * Pass all commands read by a tokenizer to a handler. The numbers of a
+     * command are parsed in the tokenizer's buffer.
+     * 
+     * @param  requestHandler The handler of the commands.
+     * @param  tokens         Tokenizer over the commands.
+     * 
+     * @throws IOException    If the commands can't be read.
+     */
+    private static void runCommands(RequestHandler requestHandler,
+            ByteTokenizer tokens) throws IOException {
+        while (tokens.next()) {
+            if (tokens.matches("dump")) {
                 requestHandler.dump();
             }
-            else if (cmd.equals("intersections")) {
+            else if (tokens.matches("intersections")) {
                 requestHandler.intersections();
             }
-            else if (cmd.equals("regionsearch")) {
-                requestHandler.regionsearch(sc.nextLine());
+            else if (tokens.matches("regionsearch")) {
+                requestHandler.regionsearch(RequestHandler.scanSpecs(tokens));
+                tokens.skipLine();
             }
-            else if (cmd.equals("remove")) {
-                requestHandler.remove(sc.next(), sc.nextLine());
+            else if (tokens.matches("remove")) {
+                tokens.nextToken();
+                requestHandler.remove(tokens.toString(),
+                        RequestHandler.scanSpecs(tokens));
+                tokens.skipLine();
             }
-            else if (cmd.equals("insert")) {
-                requestHandler.insert(sc.next(), sc.nextLine());
+            else if (tokens.matches("insert")) {
+                tokens.nextToken();
+                requestHandler.insert(tokens.toString(),
+                        RequestHandler.scanSpecs(tokens));
+                tokens.skipLine();
             }
             else {
-                System.out.println("Unrecognized input: |" + cmd + "|");
+                System.out.println("Unrecognized input: |" + tokens + "|");
             }
         }
-
-        // done with the scanner object
-        sc.close();
     }
 }
@@ -91,8 +91,8 @@ public class RectangleRecord {
      */
     @Override
     public String toString() {
-        return String.format("(%s, %d, %d, %d, %d)", getName(),
-                rectangle.getX(), rectangle.getY(), rectangle.getWidth(),
-                rectangle.getHeight());
+        return "(" + getName() + ", " + rectangle.getX() + ", "
+                + rectangle.getY() + ", " + rectangle.getWidth() + ", "
+                + rectangle.getHeight() + ")";
     }
 }
@@ -1,4 +1,5 @@
 
+import java.io.IOException;
 import java.util.Scanner;
 
 /**
@@ -46,8 +47,21 @@ public class RequestHandler {
      *
      */
     public void insert(String rectName, String args) {
+        insert(rectName, scanSpecs(args));
+    }
+
+    /**
+     * Insert a rectangle to the database.
+     * 
+     * @param rectName A String name for the rectangle. eg. "Rec_A"
+     * @param specs    The x and y coordinates, width and height of the
+     *                 rectangle, null if they could not be scanned.
+     */
+    public void insert(String rectName, int[] specs) {
         try {
-            int[] specs = scanSpecs(args);
+            if (specs == null) {
+                throw new IllegalArgumentException();
+            }
             // rectangle specs to print when we are done
             String recSpecPrint = specsToString(rectName, specs);
 
@@ -93,8 +107,21 @@ public class RequestHandler {
      *                 height respectively.
      */
     public void remove(String rectName, String args) {
+        remove(rectName, scanSpecs(args));
+    }
+
+    /**
+     * Remove a rectangle from the database.
+     * 
+     * @param rectName A String name for the rectangle. eg. "Rec_A"
+     * @param specs    The x and y coordinates, width and height of the
+     *                 rectangle, null if they could not be scanned.
+     */
+    public void remove(String rectName, int[] specs) {
         try {
-            int[] specs = scanSpecs(args);
+            if (specs == null) {
+                throw new IllegalArgumentException();
+            }
             // rectangle specs to print when we are done
             String recSpecPrint = specsToString(rectName, specs);
 
@@ -148,7 +175,17 @@ public class RequestHandler {
      *             respectively.
      */
     public void regionsearch(String args) {
-        int[] specs = RequestHandler.scanSpecs(args);
+        regionsearch(RequestHandler.scanSpecs(args));
+    }
+
+    /**
+     * Report all rectangles currently in the database that intersect the query
+     * rectangle.
+     * 
+     * @param specs The x and y coordinates, width and height of the query
+     *              rectangle.
+     */
+    public void regionsearch(int[] specs) {
         String recSpecPrint = specsToString(specs);
 
         int x = specs[X_COORD];
@@ -222,20 +259,54 @@ public class RequestHandler {
      * 
      * @return      An array of ints that are the specifications of the
      *              rectangle in the order of x and y coordinates, width and
-     *              the height.
+     *              the height, null if args doesn't start with four ints.
      */
     private static int[] scanSpecs(String args) {
 
         int[] specs = new int[SPECS_NUM];
         Scanner sc = new Scanner(args);
-        for (int i = 0; i < SPECS_NUM; ++i) {
-            specs[i] = sc.nextInt();
+        try {
+            for (int i = 0; i < SPECS_NUM; ++i) {
+                specs[i] = sc.nextInt();
+            }
+        }
+        catch (Exception e) {
+            specs = null;
         }
 
         sc.close();
         return specs;
     }
 
+    /**
+     * Scan a rectangle specification from the current line of a command
+     * file, parsing the numbers in the tokenizer's buffer. The rest of the
+     * line is left to the caller.
+     *
+     * @param  tokens      Tokenizer positioned before the x coordinate.
+     * 
+     * @return             An array of ints that are the x and y coordinates,
+     *                     width and height of the rectangle, null if the line
+     *                     doesn't go on with four ints.
+     * 
+     * @throws IOException If the command file can't be read.
+     */
+    static int[] scanSpecs(ByteTokenizer tokens) throws IOException {
+        int[] specs = new int[SPECS_NUM];
+        for (int i = 0; i < SPECS_NUM; ++i) {
+            if (!tokens.nextInLine()) {
+                return null;
+            }
+            try {
+                specs[i] = tokens.toInt();
+            }
+            catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return specs;
+    }
+
     /**
      * Format rectangle specs for printing.
      * 
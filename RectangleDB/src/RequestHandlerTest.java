@@ -1,5 +1,7 @@
 import student.TestCase;
 
+import java.io.ByteArrayInputStream;
+
 /**
  * Test the RequestHandler class.
  * 
@@ -219,4 +221,21 @@ public class RequestHandlerTest extends TestCase {
                 "Rectangle intersections in the database:\n"
                 + "1. quadtree nodes visited");
     }
+
+    /** Test scanning rectangle specs from a command file. */
+    public void testScanSpecs() throws Exception {
+        String commands = "1 2 3 4 extra\n5 6 x 8\n9 10\n11 12 13 14";
+        ByteTokenizer tokens = new ByteTokenizer(
+                new ByteArrayInputStream(commands.getBytes()));
+        int[] specs = RequestHandler.scanSpecs(tokens);
+        assertEquals(specs[0], 1);
+        assertEquals(specs[3], 4);
+        tokens.skipLine();
+        assertNull(RequestHandler.scanSpecs(tokens));
+        tokens.skipLine();
+        // the specs must be on the line of the command
+        assertNull(RequestHandler.scanSpecs(tokens));
+        tokens.skipLine();
+        assertEquals(RequestHandler.scanSpecs(tokens)[2], 13);
+    }
 }
@@ -77,7 +77,7 @@ public class SquareCanvas extends Rectangle {
      */
     @Override
     public String toString() {
-        return String.format("%d, %d, %d", getX(), getY(), getSize());
+        return getX() + ", " + getY() + ", " + getSize();
     }
 
     /** Array indices for the four quadrants. */
@@ -0,0 +1,421 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Writes reproducible RectangleDB command files of any length for load
+ * tests: inserts and removes of rectangles, and region searches, on names
+ * drawn uniformly or with Zipfian skew, in a given mix of reads and writes.
+ * Each name has one rectangle, so a remove matches its insert; the sides
+ * follow a given distribution and the rectangles are placed uniformly in
+ * the world or around a number of cluster centers, so the quadtree is as
+ * deep as a crowded region makes it. The reads search regions drawn like
+ * the rectangles. The writes are inserts and removes in equal numbers. The
+ * same settings always give the same file.
+ *
+ * <p>With -checksum=on the file is then run through RectangleDB, and the
+ * CRC32 and length of the output are written next to it, to file.crc32.
+ * Later, e.g. after a performance change, -verify=file runs it again and
+ * reports whether the output still matches.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class WorkloadGenerator {
+    /** Size of the world in each dimension. */
+    private static final int WORLD_SIZE = World.SIZE_ONE_DIM;
+
+    /** Number of commands. */
+    private int ops;
+
+    /** Number of distinct names. */
+    private int keys;
+
+    /** Seed of every random choice. */
+    private long seed;
+
+    /** The skew of the names, 0 for uniform. */
+    private double theta;
+
+    /** Percentage of commands that read. */
+    private int reads;
+
+    /** Distribution of the sides of rectangles: fixed, uniform or exp. */
+    private String sizes;
+
+    /** Shortest side. */
+    private int minSize;
+
+    /** Longest side, every side if they are fixed. */
+    private int maxSize;
+
+    /** Number of clusters the rectangles are placed around, 0 for none. */
+    private int clusters;
+
+    /** Standard deviation of the distance of a rectangle from its cluster. */
+    private int spread;
+
+    /** Number of commands between two intersections commands, 0 for none. */
+    private int intersections;
+
+    /** Whether the expected output is checksummed. */
+    private boolean checksum;
+
+    /** Construct a generator with the default settings. */
+    WorkloadGenerator() {
+        ops = 1000000;
+        keys = 100000;
+        seed = 1;
+        theta = 0;
+        reads = 50;
+        sizes = "uniform";
+        minSize = 1;
+        maxSize = 64;
+        clusters = 0;
+        spread = 32;
+        intersections = 0;
+        checksum = false;
+    }
+
+    /**
+     * @param args [0] The command file to be written, then optional
+     *             settings of the form -name=value: -ops=1000000 commands;
+     *             -keys=100000 distinct names; -seed=1; -skew=uniform or
+     *             zipf; -theta=0.99 for zipf; -reads=50 percent of region
+     *             searches; -sizes=uniform, fixed or exp for the sides of
+     *             the rectangles, from -minsize=1 to -maxsize=64;
+     *             -clusters=0 centers the rectangles are placed around, at
+     *             a distance of -spread=32; -intersections=0 commands
+     *             between two intersections commands; and -checksum=on to
+     *             checksum the expected output. Or
+     *             -verify=file to check the output of a file against its
+     *             checksum.
+     */
+    public static void main(String[] args) {
+        WorkloadGenerator generator = new WorkloadGenerator();
+        String fileName = null;
+        String verify = null;
+        for (String arg : args) {
+            if (arg.startsWith("-verify=")) {
+                verify = arg.substring(8);
+            }
+            else if (!arg.startsWith("-")) {
+                fileName = arg;
+            }
+            else if (!generator.parse(arg)) {
+                System.out.println("Unrecognized option |" + arg + "|");
+                return;
+            }
+        }
+        if (fileName == null && verify == null) {
+            System.out.println("Usage: WorkloadGenerator <command-file> "
+                    + "[-option=value]... | -verify=<command-file>");
+            return;
+        }
+        try {
+            if (verify != null) {
+                verify(verify);
+                return;
+            }
+            if (generator.minSize > generator.maxSize) {
+                System.out.println("minsize must not exceed maxsize.");
+                return;
+            }
+            generator.write(new File(fileName));
+            System.out.println("Wrote " + generator.ops + " commands to |"
+                    + fileName + "|.");
+            if (generator.checksum) {
+                String expected = runChecksum(fileName);
+                Files.write(new File(fileName + ".crc32").toPath(),
+                        (expected + "\n").getBytes(StandardCharsets.UTF_8));
+                System.out.println("Expected output of |" + fileName
+                        + "|: crc32 " + expected + " bytes.");
+            }
+        }
+        catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Apply one setting.
+     *
+     * @param  arg The setting in the form -name=value.
+     *
+     * @return     True if the setting was recognized and its value valid.
+     */
+    boolean parse(String arg) {
+        int equals = arg.indexOf('=');
+        if (!arg.startsWith("-") || equals < 0) {
+            return false;
+        }
+        String name = arg.substring(1, equals);
+        String value = arg.substring(equals + 1);
+        try {
+            if (name.equals("skew")) {
+                if (value.equals("zipf")) {
+                    theta = theta == 0 ? 0.99 : theta;
+                    return true;
+                }
+                theta = 0;
+                return value.equals("uniform");
+            }
+            if (name.equals("sizes")) {
+                sizes = value;
+                return value.equals("fixed") || value.equals("uniform")
+                        || value.equals("exp");
+            }
+            if (name.equals("checksum")) {
+                checksum = value.equals("on");
+                return checksum || value.equals("off");
+            }
+            if (name.equals("seed")) {
+                seed = Long.parseLong(value);
+                return true;
+            }
+            if (name.equals("theta")) {
+                theta = Double.parseDouble(value);
+                return theta >= 0 && theta < 1;
+            }
+            int number = Integer.parseInt(value);
+            if (name.equals("ops")) {
+                ops = number;
+                return number >= 0;
+            }
+            if (name.equals("keys")) {
+                keys = number;
+                return number > 0;
+            }
+            if (name.equals("reads")) {
+                reads = number;
+                return number >= 0 && number <= 100;
+            }
+            if (name.equals("minsize")) {
+                minSize = number;
+                return number > 0 && number < WORLD_SIZE;
+            }
+            if (name.equals("maxsize")) {
+                maxSize = number;
+                return number > 0 && number < WORLD_SIZE;
+            }
+            if (name.equals("clusters")) {
+                clusters = number;
+                return number >= 0;
+            }
+            if (name.equals("spread")) {
+                spread = number;
+                return number >= 0;
+            }
+            if (name.equals("intersections")) {
+                intersections = number;
+                return number >= 0;
+            }
+            return false;
+        }
+        catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Write the command file.
+     *
+     * @param  file        The file, replaced if it exists.
+     *
+     * @throws IOException If the file can't be written.
+     */
+    void write(File file) throws IOException {
+        Random random = new Random(seed);
+        int[][] centers = new int[clusters][2];
+        for (int[] center : centers) {
+            for (int dim = 0; dim < 2; ++dim) {
+                center[dim] = random.nextInt(WORLD_SIZE);
+            }
+        }
+        int[][] rectangles = new int[keys][];
+        for (int key = 0; key < keys; ++key) {
+            rectangles[key] = nextRectangle(random, centers);
+        }
+        ZipfGenerator ranks = new ZipfGenerator(keys, theta, random);
+        // scatter the hot rectangles over the names
+        int[] order = shuffle(keys, random);
+        int digits = String.valueOf(keys - 1).length();
+        PrintWriter out = new PrintWriter(file);
+        try {
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < ops; ++i) {
+                int key = order[(int) ranks.next()];
+                line.setLength(0);
+                if (intersections > 0 && (i + 1) % intersections == 0) {
+                    line.append("intersections");
+                }
+                else if (random.nextInt(100) < reads) {
+                    appendRectangle(line.append("regionsearch"),
+                            nextRectangle(random, centers));
+                }
+                else {
+                    appendName(line.append(random.nextBoolean() ? "insert "
+                            : "remove "), key, digits);
+                    appendRectangle(line, rectangles[key]);
+                }
+                out.println(line);
+            }
+            if (out.checkError()) {
+                throw new IOException("Could not write |" + file + "|");
+            }
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Run a command file through RectangleDB and checksum its output.
+     *
+     * @param  fileName The command file.
+     *
+     * @return          The CRC32 and length of the output.
+     */
+    static String runChecksum(String fileName) {
+        PrintStream stdout = System.out;
+        OutputChecksum sum = new OutputChecksum();
+        PrintStream captured = new PrintStream(sum);
+        System.setOut(captured);
+        try {
+            RectangleDB.main(new String[] {fileName});
+        }
+        finally {
+            captured.flush();
+            System.setOut(stdout);
+        }
+        return sum.toString();
+    }
+
+    /**
+     * Run a command file again and compare its output with the checksum
+     * written when it was generated.
+     *
+     * @param  fileName    The command file.
+     *
+     * @throws IOException If the checksum can't be read.
+     */
+    static void verify(String fileName) throws IOException {
+        String expected = new String(Files.readAllBytes(new File(fileName
+                + ".crc32").toPath()), StandardCharsets.UTF_8).trim();
+        String actual = runChecksum(fileName);
+        if (actual.equals(expected)) {
+            System.out.println("Output of |" + fileName + "| matches: crc32 "
+                    + actual + " bytes.");
+        }
+        else {
+            System.out.println("Output of |" + fileName + "| differs: "
+                    + "expected crc32 " + expected + " bytes, got "
+                    + actual + " bytes.");
+        }
+    }
+
+    /**
+     * Draw a rectangle that lies in the world.
+     *
+     * @param  random  The source of randomness.
+     * @param  centers The centers of the clusters, none to place the
+     *                 rectangle uniformly.
+     *
+     * @return         The x and y of the corner, the width and the height.
+     */
+    private int[] nextRectangle(Random random, int[][] centers) {
+        int[] rectangle = new int[4];
+        int[] center = centers.length == 0 ? null
+                : centers[random.nextInt(centers.length)];
+        for (int dim = 0; dim < 2; ++dim) {
+            int width = nextSize(random);
+            int origin;
+            if (center == null) {
+                origin = random.nextInt(WORLD_SIZE - width + 1);
+            }
+            else {
+                origin = (int) Math.round(center[dim]
+                        + random.nextGaussian() * spread) - width / 2;
+            }
+            rectangle[dim] = Math.max(0, Math.min(origin,
+                    WORLD_SIZE - width));
+            rectangle[dim + 2] = width;
+        }
+        return rectangle;
+    }
+
+    /**
+     * Draw a side of a rectangle.
+     *
+     * @param  random The source of randomness.
+     *
+     * @return        A side from minSize to maxSize.
+     */
+    private int nextSize(Random random) {
+        int range = maxSize - minSize;
+        if (sizes.equals("fixed")) {
+            return maxSize;
+        }
+        if (sizes.equals("uniform")) {
+            return minSize + random.nextInt(range + 1);
+        }
+        // exponential, with a mean a quarter of the way up the range
+        double draw = -Math.log(1 - random.nextDouble()) * range / 4;
+        return minSize + (int) Math.min(draw, range);
+    }
+
+    /**
+     * Append the name of a key, padded so names sort like their keys.
+     *
+     * @param line   The command being written.
+     * @param key    The key.
+     * @param digits Number of digits of the largest key.
+     */
+    private static void appendName(StringBuilder line, int key, int digits) {
+        line.append("rect");
+        for (int i = String.valueOf(key).length(); i < digits; ++i) {
+            line.append('0');
+        }
+        line.append(key);
+    }
+
+    /**
+     * Append a rectangle, each number after a space.
+     *
+     * @param line      The command being written.
+     * @param rectangle The corner, width and height of the rectangle.
+     */
+    private static void appendRectangle(StringBuilder line,
+            int[] rectangle) {
+        for (int number : rectangle) {
+            line.append(' ').append(number);
+        }
+    }
+
+    /**
+     * Make a random order of the numbers from 0 to count - 1.
+     *
+     * @param  count  Number of numbers.
+     * @param  random The source of randomness.
+     *
+     * @return        The numbers, shuffled.
+     */
+    private static int[] shuffle(int count, Random random) {
+        int[] order = new int[count];
+        for (int i = 0; i < count; ++i) {
+            order[i] = i;
+        }
+        for (int i = count - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+}
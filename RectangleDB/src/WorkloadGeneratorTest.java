@@ -0,0 +1,106 @@
+import student.TestCase;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test the WorkloadGenerator class.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class WorkloadGeneratorTest extends TestCase {
+    /** The command file written by the tests. */
+    private File file;
+
+    /** Sets up the tests that follow. */
+    public void setUp() {
+        file = new File(".workload.txt");
+    }
+
+    /** Removes the files written by a test. */
+    public void tearDown() {
+        file.delete();
+        new File(file.getPath() + ".crc32").delete();
+    }
+
+    /** Test that settings are checked. */
+    public void testParse() {
+        WorkloadGenerator generator = new WorkloadGenerator();
+        assertTrue(generator.parse("-clusters=4"));
+        assertTrue(generator.parse("-intersections=100"));
+        assertTrue(generator.parse("-maxsize=1023"));
+        assertFalse(generator.parse("-maxsize=1024"));
+        assertFalse(generator.parse("-spread=-1"));
+        assertFalse(generator.parse("-collisions=100"));
+    }
+
+    /** Test that each name keeps one rectangle, which lies in the world. */
+    public void testWrite() throws Exception {
+        WorkloadGenerator generator = new WorkloadGenerator();
+        generator.parse("-ops=3000");
+        generator.parse("-keys=100");
+        generator.parse("-reads=30");
+        generator.parse("-clusters=3");
+        generator.parse("-sizes=exp");
+        generator.parse("-maxsize=200");
+        generator.parse("-intersections=500");
+        generator.write(file);
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(lines.size(), 3000);
+        assertEquals(lines.get(499), "intersections");
+        Map<String, String> rectangles = new HashMap<String, String>();
+        int searches = 0;
+        for (String line : lines) {
+            String[] words = line.split(" ");
+            if (words[0].equals("intersections")) {
+                continue;
+            }
+            int first = words[0].equals("regionsearch") ? 1 : 2;
+            for (int i = first; i < first + 2; ++i) {
+                int corner = Integer.parseInt(words[i]);
+                int side = Integer.parseInt(words[i + 2]);
+                assertTrue(corner >= 0 && side >= 1 && side <= 200);
+                assertTrue(corner + side <= 1024);
+            }
+            if (first == 1) {
+                ++searches;
+                continue;
+            }
+            assertTrue(words[1].matches("rect\\d{2}"));
+            String rectangle = line.substring(line.indexOf(' ', 7));
+            String known = rectangles.put(words[1], rectangle);
+            assertTrue(known == null || known.equals(rectangle));
+        }
+        assertEquals(searches, 900, 80);
+
+        generator.write(file);
+        assertEquals(Files.readAllLines(file.toPath()), lines);
+        generator.parse("-seed=2");
+        generator.write(file);
+        assertFalse(Files.readAllLines(file.toPath()).equals(lines));
+    }
+
+    /** Test that the expected output is checksummed and verified. */
+    public void testChecksum() throws Exception {
+        systemOut().clearHistory();
+        WorkloadGenerator.main(new String[] {file.getPath(), "-ops=300",
+            "-keys=20", "-clusters=2", "-checksum=on"});
+        assertTrue(systemOut().getHistory().contains("Wrote 300 commands"));
+        File crc = new File(file.getPath() + ".crc32");
+        String expected = Files.readAllLines(crc.toPath()).get(0);
+        assertEquals(WorkloadGenerator.runChecksum(file.getPath()),
+                expected);
+
+        systemOut().clearHistory();
+        WorkloadGenerator.main(new String[] {"-verify=" + file.getPath()});
+        assertTrue(systemOut().getHistory().contains("matches"));
+        Files.write(file.toPath(), "dump\n".getBytes());
+        WorkloadGenerator.main(new String[] {"-verify=" + file.getPath()});
+        assertTrue(systemOut().getHistory().contains("differs"));
+    }
+}
@@ -0,0 +1,52 @@
+import student.TestCase;
+
+import java.util.Random;
+
+/**
+ * Test the ZipfGenerator class.
+ *
+ * @author  Bimal Gaudel
+ *
+ * @version Oct 18, 2026
+ */
+public class ZipfGeneratorTest extends TestCase {
+    /** Test that skewed draws favor the low ranks as Zipf's law says. */
+    public void testSkew() {
+        ZipfGenerator zipf = new ZipfGenerator(1000, 0.99, new Random(7));
+        assertEquals(zipf.getRanks(), 1000);
+        int[] counts = new int[1000];
+        int draws = 200000;
+        for (int i = 0; i < draws; ++i) {
+            long rank = zipf.next();
+            assertTrue(rank >= 0 && rank < 1000);
+            ++counts[(int) rank];
+        }
+        // rank 0 is drawn about 1 / zeta(1000) = 13% of the time, twice
+        // as often as rank 1
+        assertEquals(counts[0] / (double) draws, 0.134, 0.01);
+        assertEquals(counts[0] / (double) counts[1], 2.0, 0.15);
+        assertTrue(counts[9] > counts[99]);
+    }
+
+    /** Test that a theta of 0 draws every rank alike. */
+    public void testUniform() {
+        ZipfGenerator zipf = new ZipfGenerator(10, 0, new Random(7));
+        int[] counts = new int[10];
+        for (int i = 0; i < 100000; ++i) {
+            ++counts[(int) zipf.next()];
+        }
+        for (int count : counts) {
+            assertEquals(count, 10000, 500);
+        }
+        assertEquals(new ZipfGenerator(1, 0.99, new Random(7)).next(), 0);
+    }
+
+    /** Test that the same seed gives the same ranks. */
+    public void testSeed() {
+        ZipfGenerator first = new ZipfGenerator(50, 0.8, new Random(3));
+        ZipfGenerator second = new ZipfGenerator(50, 0.8, new Random(3));
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(first.next(), second.next());
+        }
+    }
+}